@@ -0,0 +1,17 @@
+-- 1M tasks with long descriptions for list benchmarks; every third task is still running
+select tasks_schema.create_task_partition(month::date)
+from generate_series(timestamp '2024-01-01', timestamp '2024-01-01' + interval '1000000 minutes', interval '1 month') as month;
+
+insert into tasks_schema.tasks (id, title, description, task_status, start_time, end_time, created_at, updated_at, version)
+select nextval('tasks_schema.tasks_id_seq'),
+       'Task ' || g,
+       repeat('Benchmark description ', 400),
+       case when g % 3 = 0 then 'ACTIVE' else 'INACTIVE' end,
+       timestamp '2024-01-01' + g * interval '1 minute',
+       case when g % 3 = 0 then null else timestamp '2024-01-01' + g * interval '1 minute' + interval '45 minutes' end,
+       timestamp '2024-01-01' + g * interval '1 minute',
+       null,
+       0
+from generate_series(1, 1000000) g;
+
+analyze tasks_schema.tasks;
@@ -0,0 +1,44 @@
+#!/bin/bash
+
+# Порівняння пропускної здатності та p99 затримки: платформні потоки vs віртуальні потоки.
+# Потрібні: docker-compose, wrk (https://github.com/wg/wrk), JDK 21 для збірки.
+#
+# Використання: ./docker/benchmark.sh [тривалість] [з'єднання]
+
+DURATION=${1:-60s}
+CONNECTIONS=${2:-400}
+THREADS=${THREADS:-8}
+URL=${URL:-http://localhost:8080/api/v1/tasks?size=50}
+RESULTS_DIR=${RESULTS_DIR:-./build/benchmark}
+
+cd "$(dirname "$0")/.." || exit 1
+mkdir -p "$RESULTS_DIR"
+
+# Одна збірка на Java 21 для обох режимів, щоб порівнювався лише тип потоків
+./gradlew clean bootJar -PjavaVersion=21 || exit 1
+
+run() {
+  local mode=$1 profile=$2
+  echo "=== $mode ==="
+  (cd docker && JAVA_VERSION=21 SPRING_PROFILES_ACTIVE=$profile \
+    DB_USERNAME=bench DB_PASSWORD=bench docker-compose up -d --build --force-recreate app db) || exit 1
+
+  until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+
+  # прогрів JIT і пулу з'єднань
+  wrk -t"$THREADS" -c"$CONNECTIONS" -d15s "$URL" > /dev/null
+  wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency "$URL" | tee "$RESULTS_DIR/$mode.txt"
+}
+
+run platform ""
+run virtual virtual-threads
+
+(cd docker && DB_USERNAME=bench DB_PASSWORD=bench docker-compose down)
+
+echo
+printf "%-10s %15s %12s\n" mode requests/sec p99
+for mode in platform virtual; do
+  rps=$(awk '/Requests\/sec/ {print $2}' "$RESULTS_DIR/$mode.txt")
+  p99=$(awk '$1 == "99%" {print $2}' "$RESULTS_DIR/$mode.txt")
+  printf "%-10s %15s %12s\n" "$mode" "$rps" "$p99"
+done
@@ -0,0 +1,44 @@
+#!/bin/bash
+
+# Бенчмарк списку завдань на 1M рядків: затримка (wrk) та алокації на запит (Micrometer).
+# Потрібні: запущений застосунок і БД з docker-compose, wrk, curl, jq, psql.
+#
+# Для порівняння з попередньою реалізацією запустіть скрипт проти збірки попереднього коміту
+# з тією самою БД (SEED=false, щоб не заповнювати таблицю повторно).
+#
+# Використання: ./docker/list-benchmark.sh [тривалість] [з'єднання]
+
+DURATION=${1:-30s}
+CONNECTIONS=${2:-32}
+APP_URL=${APP_URL:-http://localhost:8080}
+PAGE_SIZE=${PAGE_SIZE:-500}
+SEED=${SEED:-true}
+PGURL=${PGURL:-postgresql://${DB_USERNAME:-myuser}:${DB_PASSWORD:-mypassword}@localhost:54321/time_tracker_db}
+
+cd "$(dirname "$0")" || exit 1
+
+if [ "$SEED" = "true" ]; then
+  psql "$PGURL" -v ON_ERROR_STOP=1 -f bench/seed-tasks.sql || exit 1
+fi
+
+allocated() {
+  curl -sf "$APP_URL/actuator/metrics/jvm.gc.memory.allocated" | jq '.measurements[0].value'
+}
+
+run() {
+  local name=$1 url=$2
+  wrk -t4 -c"$CONNECTIONS" -d10s "$url" > /dev/null
+  local before after requests
+  before=$(allocated)
+  wrk -t4 -c"$CONNECTIONS" -d"$DURATION" --latency "$url" > "/tmp/list-benchmark-$name.txt"
+  after=$(allocated)
+  requests=$(awk '/requests in/ {print $1}' "/tmp/list-benchmark-$name.txt")
+  printf "%-22s %12s req/s  p50 %8s  p99 %8s  %10s KB allocated/request\n" "$name" \
+    "$(awk '/Requests\/sec/ {print $2}' "/tmp/list-benchmark-$name.txt")" \
+    "$(awk '$1 == "50%" {print $2}' "/tmp/list-benchmark-$name.txt")" \
+    "$(awk '$1 == "99%" {print $2}' "/tmp/list-benchmark-$name.txt")" \
+    "$(echo "($after - $before) / $requests / 1024" | bc)"
+}
+
+run with-description "$APP_URL/api/v1/tasks?size=$PAGE_SIZE&includeDescription=true"
+run without-description "$APP_URL/api/v1/tasks?size=$PAGE_SIZE&includeDescription=false"
@@ -0,0 +1,49 @@
+package com.privat.timetracker.benchmark;
+
+import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.entity.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic task data shared by the benchmarks.
+ * <p>
+ * Every third task is still running (no end time), so the duration of those tasks is computed against the
+ * current time the same way it is for {@link TaskStatus#ACTIVE} tasks in real responses.
+ * </p>
+ */
+final class TaskFixtures {
+
+    static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 9, 1, 8, 0);
+
+    private TaskFixtures() {
+    }
+
+    static Task task(long id) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Task " + id);
+        task.setDescription("Description of the task number " + id);
+        task.setCreatedAt(BASE_TIME.plusMinutes(id));
+        task.setUpdatedAt(BASE_TIME.plusMinutes(id + 1));
+        task.setStartTime(BASE_TIME.plusMinutes(id + 2));
+        task.setVersion(id % 5);
+        if (id % 3 == 0) {
+            task.setStatus(TaskStatus.ACTIVE);
+        } else {
+            task.setStatus(TaskStatus.INACTIVE);
+            task.setEndTime(BASE_TIME.plusMinutes(id + 2).plusSeconds(id * 37 % 86_400));
+        }
+        return task;
+    }
+
+    static List<Task> tasks(int size) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            tasks.add(task(id));
+        }
+        return tasks;
+    }
+}
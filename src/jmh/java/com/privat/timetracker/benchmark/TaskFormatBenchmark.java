@@ -0,0 +1,87 @@
+package com.privat.timetracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.privat.timetracker.controller.dto.TaskRequest;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.mapping.TaskMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the wire formats offered by the task API: encoding and decoding time of a task list and of a request
+ * body in JSON, CBOR and Smile.
+ * <p>
+ * The mappers are built with {@link Jackson2ObjectMapperBuilder} like the message converters, so tasks are
+ * represented the same way as in production. The payload size of every format, raw and gzipped, is printed once
+ * per trial, as JMH only reports times.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class TaskFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"1", "10000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ObjectReader listReader;
+    private ObjectReader requestReader;
+    private List<TaskResponse> tasks;
+    private TaskRequest taskRequest;
+    private byte[] encodedTasks;
+    private byte[] encodedRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        writer = objectMapper.writer();
+        listReader = objectMapper.readerForListOf(TaskResponse.class);
+        requestReader = objectMapper.readerFor(TaskRequest.class);
+        TaskMapper taskMapper = Mappers.getMapper(TaskMapper.class);
+        tasks = TaskFixtures.tasks(size).stream().map(taskMapper::toDto).toList();
+        taskRequest = new TaskRequest("Updated title", "Updated description", 3600);
+        encodedTasks = writer.writeValueAsBytes(tasks);
+        encodedRequest = writer.writeValueAsBytes(taskRequest);
+        System.out.printf("%n%s, %d tasks: %d bytes, %d bytes gzipped; request: %d bytes%n",
+                format, size, encodedTasks.length, gzippedSize(encodedTasks), encodedRequest.length);
+    }
+
+    @Benchmark
+    public byte[] encodeTaskList() throws IOException {
+        return writer.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<TaskResponse> decodeTaskList() throws IOException {
+        return listReader.readValue(encodedTasks);
+    }
+
+    @Benchmark
+    public TaskRequest decodeRequest() throws IOException {
+        return requestReader.readValue(encodedRequest);
+    }
+
+    private static int gzippedSize(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+}
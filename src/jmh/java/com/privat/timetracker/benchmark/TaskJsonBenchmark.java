@@ -0,0 +1,67 @@
+package com.privat.timetracker.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.exception.dto.ErrorResponse;
+import com.privat.timetracker.mapping.TaskMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures Jackson serialization of the response payloads.
+ * <p>
+ * The {@link ObjectMapper} is built with {@link Jackson2ObjectMapperBuilder}, the same way Spring MVC builds the
+ * mapper used by the message converters, so date handling and registered modules match production.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class TaskJsonBenchmark {
+
+    @Param({"1", "10000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private TaskResponse task;
+    private List<TaskResponse> tasks;
+    private ErrorResponse error;
+    private List<ErrorResponse> errors;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        TaskMapper taskMapper = Mappers.getMapper(TaskMapper.class);
+        tasks = TaskFixtures.tasks(size).stream().map(taskMapper::toDto).toList();
+        task = tasks.get(0);
+        error = new ErrorResponse(List.of("Task with id 1 not found", "Title cannot be empty"), 404,
+                LocalDateTime.of(2024, 9, 6, 10, 0).toString());
+        errors = Collections.nCopies(size, error);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws JsonProcessingException {
+        return writer.writeValueAsBytes(task);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeError() throws JsonProcessingException {
+        return writer.writeValueAsBytes(error);
+    }
+
+    @Benchmark
+    public byte[] serializeErrorList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(errors);
+    }
+}
@@ -0,0 +1,83 @@
+package com.privat.timetracker.benchmark;
+
+import com.privat.timetracker.controller.dto.TaskRequest;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.mapping.TaskMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Measures the per-request CPU cost of {@link TaskMapper}: entity to DTO mapping, duration formatting and applying
+ * an update request.
+ * <p>
+ * {@code size} controls the number of tasks mapped per invocation, so both a single-task response and a large
+ * list page are covered.
+ * </p>
+ */
+@State(Scope.Benchmark)
+public class TaskMapperBenchmark {
+
+    @Param({"1", "10000"})
+    private int size;
+
+    private TaskMapper taskMapper;
+    private List<Task> tasks;
+    private TaskRequest taskRequest;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    @Setup
+    public void setUp() {
+        taskMapper = Mappers.getMapper(TaskMapper.class);
+        tasks = TaskFixtures.tasks(size);
+        taskRequest = new TaskRequest("Updated title", "Updated description");
+        startTime = TaskFixtures.BASE_TIME;
+        endTime = TaskFixtures.BASE_TIME.plusHours(26).plusMinutes(3).plusSeconds(7);
+    }
+
+    @Benchmark
+    public void toDto(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(taskMapper.toDto(task));
+        }
+    }
+
+    @Benchmark
+    public void toDtoWithNowSnapshot(Blackhole blackhole) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Task task : tasks) {
+            blackhole.consume(taskMapper.toDto(task, now));
+        }
+    }
+
+    @Benchmark
+    public void formatDuration(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(taskMapper.formatDuration(startTime, endTime));
+        }
+    }
+
+    @Benchmark
+    public void formatRunningDuration(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(taskMapper.formatDuration(startTime, null));
+        }
+    }
+
+    @Benchmark
+    public void updateTaskFromRequest(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(taskMapper.updateTaskFromRequest(taskRequest, task));
+        }
+    }
+
+    @Benchmark
+    public TaskResponse refreshDuration() {
+        return taskMapper.refreshDuration(taskMapper.toDto(tasks.get(0)));
+    }
+}
@@ -0,0 +1,61 @@
+package com.privat.timetracker.aop.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aspect for timing calls to the repository layer.
+ * This aspect records every call of a method in the repository package in the {@value #METRIC_NAME} timer,
+ * tagged with the repository, the method and the outcome, so slow queries show up per method.
+ * <p>
+ * For methods returning a {@link java.util.stream.Stream} only opening the stream is measured.
+ * </p>
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+    static final String METRIC_NAME = "task.repository.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Pointcut for all methods in the repository package.
+     */
+    @Pointcut("execution(* com.privat.timetracker.repository..*(..))")
+    public void repositoryMethods() {
+    }
+
+    /**
+     * Advice that measures the execution time of repository methods.
+     *
+     * @param joinPoint The join point representing the method execution.
+     * @return The result returned by the method.
+     * @throws Throwable The exception thrown by the method, rethrown unchanged.
+     */
+    @Around("repositoryMethods()")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Execution time of repository calls")
+                    .tag("repository", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.privat.timetracker.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Lets clients exchange tasks as CBOR ({@code application/cbor}) or Smile ({@code application/x-jackson-smile})
+ * instead of JSON, selected by the {@code Accept} and {@code Content-Type} headers. JSON stays the default.
+ * <p>
+ * The binary mappers are built from the same {@link Jackson2ObjectMapperBuilder} as the JSON mapper, so they carry
+ * the {@code spring.jackson.*} settings and represent a task exactly like JSON does; only the encoding is more
+ * compact and cheaper to parse. The converters replace the ones Spring MVC would otherwise create with a plain
+ * mapper. The mappers are deliberately not beans: an {@code ObjectMapper} bean would replace the JSON one.
+ * </p>
+ * <p>
+ * Responses of the task API carry {@code Vary: Accept}, so HTTP caches keep one copy per format.
+ * </p>
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/v1/tasks", "/api/v1/tasks/**");
+    }
+}
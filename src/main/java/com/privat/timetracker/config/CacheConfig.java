@@ -0,0 +1,35 @@
+package com.privat.timetracker.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.privat.timetracker.service.TaskCache;
+import com.privat.timetracker.service.TaskCacheQuota;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+/**
+ * Enables Spring's cache infrastructure so that a {@code CacheManager} is configured from the
+ * {@code spring.cache.*} properties.
+ * <p>
+ * With Caffeine, the {@value TaskCache#CACHE_NAME} cache is built here from the same specification, with the
+ * {@link TaskCacheQuota} installed to count the entries of every tenant.
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> taskCacheCustomizer(CacheProperties cacheProperties,
+                                                                           TaskCacheQuota taskCacheQuota) {
+        return cacheManager -> {
+            String spec = cacheProperties.getCaffeine().getSpec();
+            Caffeine<Object, Object> builder = StringUtils.hasText(spec) ? Caffeine.from(spec) : Caffeine.newBuilder();
+            cacheManager.registerCustomCache(TaskCache.CACHE_NAME, taskCacheQuota.install(builder).build());
+        };
+    }
+}
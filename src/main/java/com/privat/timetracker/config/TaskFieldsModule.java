@@ -0,0 +1,41 @@
+package com.privat.timetracker.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.privat.timetracker.controller.dto.TaskFields;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Puts {@link TaskResponse} behind the {@value TaskFields#FILTER_ID} property filter, so a response can leave out
+ * the fields a client did not ask for.
+ * <p>
+ * Spring Boot registers the module with every mapper built by its {@code Jackson2ObjectMapperBuilder}, i.e. the
+ * JSON mapper and the binary ones. Those mappers get a default filter that writes every field; a response that was
+ * asked for fewer fields sets its own filter for that single write.
+ * </p>
+ */
+@Component
+public class TaskFieldsModule extends SimpleModule {
+
+    public TaskFieldsModule() {
+        super(TaskFieldsModule.class.getSimpleName());
+        setMixInAnnotation(TaskResponse.class, TaskFieldsFilter.class);
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        if (context.getOwner() instanceof ObjectMapper mapper && mapper.getSerializationConfig().getFilterProvider() == null) {
+            mapper.setFilterProvider(new SimpleFilterProvider().addFilter(TaskFields.FILTER_ID,
+                    SimpleBeanPropertyFilter.serializeAll()));
+        }
+    }
+
+    @JsonFilter(TaskFields.FILTER_ID)
+    private interface TaskFieldsFilter {
+    }
+}
@@ -0,0 +1,9 @@
+package com.privat.timetracker.config.datasource;
+
+/**
+ * The physical databases a connection can be routed to.
+ */
+public enum DataSourceTarget {
+    PRIMARY,
+    REPLICA
+}
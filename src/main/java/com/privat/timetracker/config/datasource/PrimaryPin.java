@@ -0,0 +1,40 @@
+package com.privat.timetracker.config.datasource;
+
+/**
+ * Holds whether the current thread must read from the primary database.
+ * <p>
+ * A client that has just written is pinned to the primary for a short time, so it reads its own writes even when
+ * the replica has not replayed them yet. The pin is set for the duration of a request by
+ * {@link PrimaryPinInterceptor}.
+ * </p>
+ */
+public final class PrimaryPin {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private PrimaryPin() {
+    }
+
+    /**
+     * Routes all connections of the current thread to the primary.
+     */
+    public static void pin() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Removes the pin of the current thread.
+     */
+    public static void clear() {
+        PINNED.remove();
+    }
+
+    /**
+     * Returns whether the current thread is pinned to the primary.
+     *
+     * @return true if reads must go to the primary
+     */
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.privat.timetracker.config.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Clock;
+import java.util.Set;
+
+/**
+ * Pins a client to the primary database for a short time after it sends a write request.
+ * <p>
+ * A write request sets a cookie holding the time until which the client is pinned. While that time has not passed,
+ * requests carrying the cookie read from the primary, so the client sees its own writes even if the replica is
+ * behind. The expiry stored in the cookie value is what counts, not how long the client keeps the cookie.
+ * </p>
+ * <p>
+ * The pin is bound to the request thread only. Work handed to another thread, such as a streaming response body,
+ * is routed by its transaction alone.
+ * </p>
+ */
+public class PrimaryPinInterceptor implements AsyncHandlerInterceptor {
+    static final String COOKIE_NAME = "tt-primary-pin";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final long pinMillis;
+    private final Clock clock;
+
+    public PrimaryPinInterceptor(long pinMillis, Clock clock) {
+        this.pinMillis = pinMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = clock.millis();
+        if (WRITE_METHODS.contains(request.getMethod())) {
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + pinMillis));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, pinMillis / 1000));
+            response.addCookie(cookie);
+            PrimaryPin.pin();
+        } else if (pinnedUntil(request) > now) {
+            PrimaryPin.pin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        PrimaryPin.clear();
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        PrimaryPin.clear();
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return 0;
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,26 @@
+package com.privat.timetracker.config.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Clock;
+
+/**
+ * Registers the {@link PrimaryPinInterceptor} when replica routing is enabled and
+ * {@code time-tracker.datasource.replica.pin-after-write-ms} is greater than zero.
+ */
+@Configuration
+@ConditionalOnExpression("${time-tracker.datasource.replica.enabled:false} and ${time-tracker.datasource.replica.pin-after-write-ms:0} > 0")
+public class PrimaryPinWebConfig implements WebMvcConfigurer {
+
+    @Value("${time-tracker.datasource.replica.pin-after-write-ms}")
+    private long pinAfterWriteMillis;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PrimaryPinInterceptor(pinAfterWriteMillis, Clock.systemUTC()));
+    }
+}
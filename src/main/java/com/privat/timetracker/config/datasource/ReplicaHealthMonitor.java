@@ -0,0 +1,81 @@
+package com.privat.timetracker.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically checks whether the replica can serve reads.
+ * <p>
+ * The replica is available when the check query succeeds and its replay lag is not above the configured maximum.
+ * The lag is the age of the last replayed transaction; a replica that has replayed everything it received counts
+ * as not lagging, so an idle primary does not make the replica look stale. Until the first successful check the
+ * replica is considered unavailable and all reads go to the primary.
+ * </p>
+ * <p>
+ * The lag and the availability are published as the {@code datasource.replica.lag} and
+ * {@code datasource.replica.available} gauges.
+ * </p>
+ */
+public class ReplicaHealthMonitor {
+    static final String LAG_QUERY = """
+            select case
+                when not pg_is_in_recovery() then 0
+                when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+            end""";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMillis;
+    private final AtomicLong lagMillis = new AtomicLong(-1);
+    private volatile boolean available;
+
+    public ReplicaHealthMonitor(JdbcTemplate replicaJdbcTemplate, long maxLagMillis, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLagMillis = maxLagMillis;
+        Gauge.builder("datasource.replica.lag", lagMillis, AtomicLong::get)
+                .description("Replay lag of the replica, -1 if it could not be checked")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", this, monitor -> monitor.available ? 1 : 0)
+                .description("Whether read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns whether read-only transactions may use the replica.
+     *
+     * @return true if the last check succeeded within the allowed lag
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Checks the replica and updates its availability.
+     */
+    @Scheduled(fixedDelayString = "${time-tracker.datasource.replica.health-check-interval-ms:2000}")
+    public void check() {
+        boolean wasAvailable = available;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            long currentLag = lag == null ? 0 : lag.longValue();
+            lagMillis.set(currentLag);
+            available = currentLag <= maxLagMillis;
+        } catch (Exception ex) {
+            lagMillis.set(-1);
+            available = false;
+            if (wasAvailable) logger.warn("Replica check failed: {}", ex.getMessage());
+        }
+        if (wasAvailable != available) {
+            logger.info("Replica is now {} (lag {} ms)", available ? "used for reads" : "bypassed", lagMillis.get());
+        }
+    }
+}
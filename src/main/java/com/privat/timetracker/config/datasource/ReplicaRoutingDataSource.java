@@ -0,0 +1,71 @@
+package com.privat.timetracker.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Routes connections of read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The decision is made when a connection is requested, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the proxy delays fetching the
+ * connection until the first statement, when the read-only flag of the transaction is already known.
+ * </p>
+ * <p>
+ * A read-only transaction still goes to the primary when the replica is unavailable or lagging, or when the current
+ * request is pinned to the primary after a write. Every decision is counted in the {@value #METRIC_NAME} counter,
+ * tagged with the target and the reason.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String METRIC_NAME = "datasource.routing";
+
+    private final ReplicaHealthMonitor replicaHealthMonitor;
+    private final Map<Reason, Counter> decisions = new EnumMap<>(Reason.class);
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealthMonitor replicaHealthMonitor,
+                                    MeterRegistry meterRegistry) {
+        this.replicaHealthMonitor = replicaHealthMonitor;
+        setTargetDataSources(Map.of(DataSourceTarget.PRIMARY, primary, DataSourceTarget.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        for (Reason reason : Reason.values()) {
+            decisions.put(reason, Counter.builder(METRIC_NAME)
+                    .description("Connections handed out per target database")
+                    .tag("target", reason.target.name().toLowerCase())
+                    .tag("reason", reason.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Reason reason = route();
+        decisions.get(reason).increment();
+        return reason.target;
+    }
+
+    private Reason route() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return Reason.WRITE;
+        if (PrimaryPin.isPinned()) return Reason.PINNED;
+        if (!replicaHealthMonitor.isAvailable()) return Reason.REPLICA_UNAVAILABLE;
+        return Reason.READ_ONLY;
+    }
+
+    private enum Reason {
+        WRITE(DataSourceTarget.PRIMARY),
+        PINNED(DataSourceTarget.PRIMARY),
+        REPLICA_UNAVAILABLE(DataSourceTarget.PRIMARY),
+        READ_ONLY(DataSourceTarget.REPLICA);
+
+        private final DataSourceTarget target;
+
+        Reason(DataSourceTarget target) {
+            this.target = target;
+        }
+    }
+}
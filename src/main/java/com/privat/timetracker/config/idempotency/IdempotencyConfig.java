@@ -0,0 +1,32 @@
+package com.privat.timetracker.config.idempotency;
+
+import com.privat.timetracker.config.ratelimit.RateLimitInterceptor;
+import com.privat.timetracker.config.tenant.TenantFilter;
+import com.privat.timetracker.service.idempotency.IdempotencyStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Registers the {@link IdempotencyFilter} right after the {@link TenantFilter}, since keys belong to a tenant,
+ * unless {@code time-tracker.idempotency.enabled} is false. The filter checks the rate limit, when it is enabled,
+ * before it claims a key in the database.
+ */
+@Configuration
+@ConditionalOnExpression("${time-tracker.idempotency.enabled:true}")
+public class IdempotencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore idempotencyStore, ObjectProvider<RateLimitInterceptor> rateLimitInterceptor,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(new IdempotencyFilter(
+                idempotencyStore, rateLimitInterceptor.getIfAvailable(), handlerExceptionResolver));
+        registration.setOrder(TenantFilter.ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,227 @@
+package com.privat.timetracker.config.idempotency;
+
+import com.privat.timetracker.config.ratelimit.RateLimitInterceptor;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.InvalidIdempotencyKeyException;
+import com.privat.timetracker.service.idempotency.IdempotencyStore;
+import com.privat.timetracker.service.idempotency.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replays the recorded response of a request that is sent again with the same {@value #HEADER} header.
+ * <p>
+ * Applies to creating a task and to starting and stopping one, the requests that clients retry on timeouts. The
+ * first request with a key claims the key and runs; its response is recorded when it is a success or a client error
+ * that the same request would get again. Server errors, conflicts and rate limit rejections are not recorded and
+ * the key is released, so a retry runs again. Later requests with the key get the recorded response, marked with the
+ * {@value #REPLAYED_HEADER} header, without reaching the controller and its services. Requests without the header
+ * are not affected.
+ * </p>
+ * <p>
+ * A key only matches the same request: method, path and body are hashed and a key sent with a different request is
+ * rejected with 422. A retry arriving while the first request is still running gets 409.
+ * </p>
+ * <p>
+ * When rate limiting is enabled, the limit of the client is checked before the key is claimed, so a rejected
+ * request does not reach the database.
+ * </p>
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    // the same request may get a different answer later
+    private static final Set<Integer> TRANSIENT_CLIENT_ERRORS = Set.of(408, 409, 425, 429);
+
+    private static final List<String> PATHS = List.of("/api/v1/tasks", "/api/v1/tasks/{id}/start",
+            "/api/v1/tasks/{id}/stop");
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private final IdempotencyStore idempotencyStore;
+    private final RateLimitInterceptor rateLimitInterceptor;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, RateLimitInterceptor rateLimitInterceptor,
+                             HandlerExceptionResolver handlerExceptionResolver) {
+        this.idempotencyStore = idempotencyStore;
+        this.rateLimitInterceptor = rateLimitInterceptor;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (request.getHeader(HEADER) == null || !HttpMethod.POST.matches(request.getMethod())) return true;
+        String path = urlPathHelper.getPathWithinApplication(request);
+        return PATHS.stream().noneMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER);
+        BufferedBodyRequest bufferedRequest = new BufferedBodyRequest(request);
+        byte[] requestHash = hash(request, bufferedRequest.body);
+        StoredResponse stored;
+        try {
+            checkKey(key);
+            if (rateLimitInterceptor != null) rateLimitInterceptor.check(request);
+            stored = idempotencyStore.begin(key, requestHash).orElse(null);
+        } catch (RuntimeException ex) {
+            handlerExceptionResolver.resolveException(request, response, null, ex);
+            return;
+        }
+        if (stored != null) {
+            replay(stored, response);
+            return;
+        }
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(bufferedRequest, cachingResponse);
+            if (isReplayable(cachingResponse.getStatus())) {
+                completed = record(key, requestHash, cachingResponse);
+            }
+        } finally {
+            if (!completed) release(key, requestHash);
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private static boolean isReplayable(int status) {
+        return (status >= 200 && status < 300)
+                || (status >= 400 && status < 500 && !TRANSIENT_CLIENT_ERRORS.contains(status));
+    }
+
+    // the response already went through; a failure to record it only costs the client a second run of its retry
+    private boolean record(String key, byte[] requestHash, ContentCachingResponseWrapper response) {
+        try {
+            idempotencyStore.complete(key, requestHash, response.getStatus(), response.getContentType(),
+                    response.getContentAsByteArray());
+            return true;
+        } catch (RuntimeException ex) {
+            logger.error("Could not record the response for an idempotency key: " + ex.getMessage());
+            return false;
+        }
+    }
+
+    private void release(String key, byte[] requestHash) {
+        try {
+            idempotencyStore.release(key, requestHash);
+        } catch (RuntimeException ex) {
+            logger.error("Could not release an idempotency key, it is freed after the claim timeout: "
+                    + ex.getMessage());
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.contentType() != null) response.setContentType(stored.contentType());
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void checkKey(String key) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH || !key.chars().allMatch(c -> c > ' ' && c < 127)) {
+            throw new InvalidIdempotencyKeyException(
+                    ErrorMessages.INVALID_IDEMPOTENCY_KEY.formatted(HEADER, MAX_KEY_LENGTH));
+        }
+    }
+
+    private static byte[] hash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '\n').getBytes(StandardCharsets.UTF_8));
+            return digest.digest(body);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * A request whose body was read up front, so it can be hashed and still be read by the controller.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private BufferedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
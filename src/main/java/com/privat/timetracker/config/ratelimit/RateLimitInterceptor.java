@@ -0,0 +1,74 @@
+package com.privat.timetracker.config.ratelimit;
+
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.RateLimitExceededException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests of clients that exceed their rate limit with 429 Too Many Requests.
+ * <p>
+ * Clients are identified by the API key header, or by their IP address when they send none. The key is not verified
+ * here; that is left to the gateway in front of the service. Safe methods count against the read budget of the
+ * client and all others against its write budget, so a client polling the task list does not use up its writes.
+ * </p>
+ * <p>
+ * The check runs before the handler is called, so a rejected request never opens a transaction or takes a
+ * connection from the pool. Only handlers of the given controllers are limited. Filters that reach the database
+ * before the handler, like the idempotency filter, call {@link #check(HttpServletRequest)} themselves; the request
+ * is counted once either way.
+ * </p>
+ */
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String CHECKED_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".CHECKED";
+
+    private final RateLimiter rateLimiter;
+    private final String apiKeyHeader;
+    private final Set<Class<?>> controllers;
+
+    public RateLimitInterceptor(RateLimiter rateLimiter, String apiKeyHeader, Set<Class<?>> controllers) {
+        this.rateLimiter = rateLimiter;
+        this.apiKeyHeader = apiKeyHeader;
+        this.controllers = controllers;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !controllers.contains(handlerMethod.getBeanType())) {
+            return true;
+        }
+        check(request);
+        return true;
+    }
+
+    /**
+     * Counts a request against the budget of its client, unless it was counted already.
+     *
+     * @param request the request
+     * @throws RateLimitExceededException if the client exceeded its rate limit
+     */
+    public void check(HttpServletRequest request) {
+        if (request.getAttribute(CHECKED_ATTRIBUTE) != null) return;
+        request.setAttribute(CHECKED_ATTRIBUTE, Boolean.TRUE);
+        RateLimiter.Budget budget = READ_METHODS.contains(request.getMethod())
+                ? RateLimiter.Budget.READ
+                : RateLimiter.Budget.WRITE;
+        long waitNanos = rateLimiter.tryAcquire(clientOf(request), budget);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new RateLimitExceededException(ErrorMessages.RATE_LIMIT_EXCEEDED.formatted(retryAfterSeconds),
+                    retryAfterSeconds);
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        return apiKey != null && !apiKey.isBlank() ? "key:" + apiKey.trim() : "ip:" + request.getRemoteAddr();
+    }
+}
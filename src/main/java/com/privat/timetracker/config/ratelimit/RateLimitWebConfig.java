@@ -0,0 +1,54 @@
+package com.privat.timetracker.config.ratelimit;
+
+import com.privat.timetracker.controller.TaskController;
+import com.privat.timetracker.controller.TaskTrackingController;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Registers the {@link RateLimitInterceptor} for the task and time tracking endpoints unless
+ * {@code time-tracker.rate-limit.enabled} is false. The interceptor is also a bean, so filters running before the
+ * handler can check the limit first.
+ */
+@Configuration
+@ConditionalOnExpression("${time-tracker.rate-limit.enabled:true}")
+public class RateLimitWebConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public RateLimitWebConfig(ObjectProvider<MeterRegistry> meterRegistry,
+                              @Value("${time-tracker.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader,
+                              @Value("${time-tracker.rate-limit.read.capacity:100}") int readCapacity,
+                              @Value("${time-tracker.rate-limit.read.per-second:50}") double readPerSecond,
+                              @Value("${time-tracker.rate-limit.write.capacity:20}") int writeCapacity,
+                              @Value("${time-tracker.rate-limit.write.per-second:10}") double writePerSecond,
+                              @Value("${time-tracker.rate-limit.max-clients:100000}") long maxClients,
+                              @Value("${time-tracker.rate-limit.idle-expiry-ms:600000}") long idleExpiryMillis) {
+        RateLimiter rateLimiter = new RateLimiter(new RateLimiter.Limit(readCapacity, readPerSecond),
+                new RateLimiter.Limit(writeCapacity, writePerSecond), maxClients, Duration.ofMillis(idleExpiryMillis),
+                // web test slices come without a registry
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), System::nanoTime);
+        this.rateLimitInterceptor = new RateLimitInterceptor(rateLimiter, apiKeyHeader,
+                Set.of(TaskController.class, TaskTrackingController.class));
+    }
+
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor() {
+        return rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor);
+    }
+}
@@ -0,0 +1,95 @@
+package com.privat.timetracker.config.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets of the API clients, one per client and budget.
+ * <p>
+ * The buckets are kept in a Caffeine cache bounded by the number of clients; buckets of clients that have been idle
+ * for a while are evicted. As long as that idle time is longer than a bucket needs to refill, an evicted bucket was
+ * full anyway and evicting it loses nothing. When there are more clients than the bound, rarely used buckets go
+ * first; such a client starts with a full bucket again.
+ * </p>
+ */
+public class RateLimiter {
+
+    /**
+     * The separate budgets of a client.
+     */
+    public enum Budget {
+        READ, WRITE
+    }
+
+    private final Limit read;
+    private final Limit write;
+    private final LongSupplier nanoClock;
+    private final Cache<String, TokenBucket> readBuckets;
+    private final Cache<String, TokenBucket> writeBuckets;
+    private final Counter readRejected;
+    private final Counter writeRejected;
+
+    public RateLimiter(Limit read, Limit write, long maxClients, Duration idleExpiry, MeterRegistry meterRegistry,
+                       LongSupplier nanoClock) {
+        this.read = read;
+        this.write = write;
+        this.nanoClock = nanoClock;
+        this.readBuckets = newBuckets(maxClients, idleExpiry);
+        this.writeBuckets = newBuckets(maxClients, idleExpiry);
+        this.readRejected = rejectedCounter(meterRegistry, Budget.READ);
+        this.writeRejected = rejectedCounter(meterRegistry, Budget.WRITE);
+    }
+
+    /**
+     * Takes a token from a bucket of a client.
+     *
+     * @param client the key of the client
+     * @param budget the budget the request counts against
+     * @return 0 if the request may go on, otherwise the nanoseconds until the client may try again
+     */
+    public long tryAcquire(String client, Budget budget) {
+        Limit limit = budget == Budget.READ ? read : write;
+        Cache<String, TokenBucket> buckets = budget == Budget.READ ? readBuckets : writeBuckets;
+        long now = nanoClock.getAsLong();
+        long wait = buckets.get(client, key -> new TokenBucket(limit.capacity(), limit.perSecond(), now)).tryTake(now);
+        if (wait > 0) (budget == Budget.READ ? readRejected : writeRejected).increment();
+        return wait;
+    }
+
+    long clientCount() {
+        readBuckets.cleanUp();
+        writeBuckets.cleanUp();
+        return Math.max(readBuckets.estimatedSize(), writeBuckets.estimatedSize());
+    }
+
+    private static Cache<String, TokenBucket> newBuckets(long maxClients, Duration idleExpiry) {
+        return Caffeine.newBuilder().maximumSize(maxClients).expireAfterAccess(idleExpiry).build();
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, Budget budget) {
+        return Counter.builder("task.rate_limit.rejected")
+                .description("Number of requests rejected for exceeding the rate limit of their client")
+                .tag("budget", budget.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    /**
+     * A budget: the burst a client may send at once and the rate it may keep up.
+     *
+     * @param capacity  the size of the bucket
+     * @param perSecond the refill rate of the bucket
+     */
+    public record Limit(int capacity, double perSecond) {
+        public Limit {
+            if (capacity < 1 || !(perSecond > 0)) {
+                throw new IllegalArgumentException("A rate limit needs a capacity and a rate above zero");
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.privat.timetracker.config.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A token bucket that is safe to use from many threads without locking.
+ * <p>
+ * Instead of a token count and a refill timestamp, the bucket keeps a single value: the time at which it will be
+ * full again. Taking a token moves that time one refill interval into the future; the bucket is empty when the
+ * time lies more than its capacity worth of intervals ahead. Tokens are refilled by the passing of time alone, so
+ * no timer is needed, and the state fits into one {@link AtomicLong} updated with compare-and-set.
+ * </p>
+ */
+class TokenBucket {
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    /**
+     * @param capacity        the number of tokens the bucket holds, i.e. the allowed burst
+     * @param tokensPerSecond the number of tokens refilled per second, i.e. the sustained rate
+     * @param nowNanos        the current time of the clock passed to {@link #tryTake(long)}
+     */
+    TokenBucket(int capacity, double tokensPerSecond, long nowNanos) {
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = intervalNanos * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param nowNanos the current time in nanoseconds, e.g. {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    long tryTake(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            // a bucket that filled up in the past holds no more than its capacity
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - capacityNanos;
+            if (wait > 0) return wait;
+            if (fullAt.compareAndSet(current, next)) return 0;
+        }
+    }
+}
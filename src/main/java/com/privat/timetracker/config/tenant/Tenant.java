@@ -0,0 +1,10 @@
+package com.privat.timetracker.config.tenant;
+
+/**
+ * The tenant and the user a request is served for.
+ *
+ * @param tenantId the ID of the tenant owning the tasks
+ * @param userId   the ID of the user within the tenant, or null if the client did not send one
+ */
+public record Tenant(String tenantId, String userId) {
+}
@@ -0,0 +1,70 @@
+package com.privat.timetracker.config.tenant;
+
+import com.privat.timetracker.exception.constants.ErrorMessages;
+
+/**
+ * Holds the {@link Tenant} the current thread works for.
+ * <p>
+ * The tenant is set for the duration of a request by {@link TenantFilter}. Hibernate reads it through
+ * {@link TenantIdentifierResolver} when a session is opened, and the services pass it to the queries that are not
+ * written in JPQL. Threads without a tenant, such as the scheduled jobs, work across all tenants.
+ * </p>
+ * <p>
+ * The tenant is bound to the request thread only. Work handed to another thread, such as a streaming response
+ * body, has to take the tenant along with {@link #set(Tenant)} and {@link #clear()}.
+ * </p>
+ */
+public final class TenantContext {
+
+    private static final ThreadLocal<Tenant> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Binds a tenant to the current thread.
+     *
+     * @param tenant the tenant
+     */
+    public static void set(Tenant tenant) {
+        CURRENT.set(tenant);
+    }
+
+    /**
+     * Removes the tenant of the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the tenant of the current thread.
+     *
+     * @return the tenant, or null if the thread works across all tenants
+     */
+    public static Tenant current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Returns the ID of the tenant of the current thread.
+     *
+     * @return the tenant ID
+     * @throws IllegalStateException if no tenant is bound to the current thread
+     */
+    public static String requireTenantId() {
+        Tenant tenant = CURRENT.get();
+        if (tenant == null) throw new IllegalStateException(ErrorMessages.NO_TENANT);
+        return tenant.tenantId();
+    }
+
+    /**
+     * Returns the ID of the user of the current thread.
+     *
+     * @return the user ID, or null if there is no tenant or the client did not send a user
+     */
+    public static String userId() {
+        Tenant tenant = CURRENT.get();
+        return tenant == null ? null : tenant.userId();
+    }
+}
@@ -0,0 +1,96 @@
+package com.privat.timetracker.config.tenant;
+
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.InvalidTenantException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+/**
+ * Binds the tenant and the user of a request to the request thread.
+ * <p>
+ * The tenant is read from the {@value #TENANT_HEADER} header and the user from the {@value #USER_HEADER} header.
+ * Requests without a tenant use {@code time-tracker.tenancy.default-tenant}; when that is empty the header is
+ * required. A malformed value is answered with 400 Bad Request.
+ * </p>
+ * <p>
+ * Both headers are trusted as sent: this filter does not authenticate the caller, so any client can act as any
+ * tenant by setting the header. The tenancy only isolates tenants when the application is reachable solely through
+ * a gateway that authenticates the caller and sets {@value #TENANT_HEADER} itself, replacing any value sent by the
+ * client. Per-tenant state in this process, such as cached tasks and event channels, is bounded independently of the
+ * number of tenant IDs sent.
+ * </p>
+ * <p>
+ * This is a servlet filter rather than a handler interceptor, so the tenant is bound before the entity manager of
+ * the request is opened. Filters that depend on the tenant are ordered after {@link #ORDER}.
+ * </p>
+ */
+@Component
+@Order(TenantFilter.ORDER)
+public class TenantFilter extends OncePerRequestFilter {
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+    public static final String TENANT_HEADER = "X-Tenant-ID";
+    public static final String USER_HEADER = "X-User-ID";
+
+    static final int MAX_ID_LENGTH = 64;
+
+    private static final Pattern ID_PATTERN = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0," + (MAX_ID_LENGTH - 1) + "}");
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+    private final String defaultTenant;
+
+    public TenantFilter(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver,
+                        @Value("${time-tracker.tenancy.default-tenant:default}") String defaultTenant) {
+        this.handlerExceptionResolver = handlerExceptionResolver;
+        this.defaultTenant = defaultTenant;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Tenant tenant;
+        try {
+            tenant = resolve(request);
+        } catch (InvalidTenantException ex) {
+            handlerExceptionResolver.resolveException(request, response, null, ex);
+            return;
+        }
+        TenantContext.set(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    private Tenant resolve(HttpServletRequest request) {
+        String tenantId = request.getHeader(TENANT_HEADER);
+        if (tenantId == null || tenantId.isBlank()) {
+            if (defaultTenant == null || defaultTenant.isBlank()) {
+                throw new InvalidTenantException(ErrorMessages.TENANT_REQUIRED.formatted(TENANT_HEADER));
+            }
+            tenantId = defaultTenant;
+        }
+        String userId = request.getHeader(USER_HEADER);
+        if (userId != null && userId.isBlank()) userId = null;
+        return new Tenant(checked(TENANT_HEADER, tenantId.trim()), userId == null ? null : checked(USER_HEADER, userId.trim()));
+    }
+
+    private static String checked(String header, String value) {
+        if (!ID_PATTERN.matcher(value).matches()) {
+            throw new InvalidTenantException(ErrorMessages.INVALID_TENANT_HEADER.formatted(header, MAX_ID_LENGTH));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,42 @@
+package com.privat.timetracker.config.tenant;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Tells Hibernate which tenant a new session works for.
+ * <p>
+ * Entities with a {@code @TenantId} attribute get the tenant of the session when they are persisted, and every
+ * JPQL query over them is restricted to it. Sessions opened without a tenant, i.e. by the scheduled jobs, use the
+ * {@value #ALL_TENANTS} root tenant, which Hibernate does not restrict.
+ * </p>
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
+    static final String ALL_TENANTS = "*";
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        Tenant tenant = TenantContext.current();
+        return tenant == null ? ALL_TENANTS : tenant.tenantId();
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return ALL_TENANTS.equals(tenantId);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
@@ -0,0 +1,15 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+
+@Tag(name = "API архіву задач", description = "API для відновлення задач з архіву")
+public interface ITaskArchiveController {
+
+    @Operation(summary = "Відновити задачу з архіву", description = "Повертає заархівовану задачу до активних задач, після чого її знову можна змінювати")
+    @PostMapping("/{id}/restore")
+    TaskResponse restoreTask(@PathVariable Long id);
+}
@@ -1,9 +1,11 @@
 package com.privat.timetracker.controller;
 
+import com.privat.timetracker.controller.dto.TaskPage;
 import com.privat.timetracker.controller.dto.TaskRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,8 +14,9 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
-
-import java.util.List;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public interface ITaskController {
 
@@ -40,21 +43,45 @@ public interface ITaskController {
     TaskResponse editTask(@Parameter(description = "Ідентифікатор завдання") @PathVariable Long id,
                           @RequestBody @Valid TaskRequest taskRequest);
 
-    @Operation(summary = "Отримати всі завдання", description = "Цей метод повертає список всіх завдань")
+    @Operation(summary = "Отримати сторінку завдань", description = "Цей метод повертає сторінку завдань, впорядкованих за часом створення, та курсор наступної сторінки")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успішне отримання сторінки завдань",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskPage.class))}),
+            @ApiResponse(responseCode = "304", description = "Сторінка не змінилася",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Невалідний курсор або невідоме поле",
+                    content = @Content)
+    })
+    TaskPage getAllTasks(@Parameter(description = "Курсор наступної сторінки") @RequestParam(required = false) String cursor,
+                         @Parameter(description = "Розмір сторінки") @RequestParam(defaultValue = "50") int size,
+                         @Parameter(description = "Чи повертати описи завдань") @RequestParam(defaultValue = "true") boolean includeDescription,
+                         @Parameter(description = "Поля завдань через кому, наприклад id,title,status,duration; за замовчуванням усі") @RequestParam(required = false) String fields,
+                         @Parameter(hidden = true) WebRequest webRequest);
+
+    @Operation(summary = "Отримати всі завдання потоком", description = "Цей метод передає всі завдання потоком без завантаження їх у пам'ять (unpaged=true)")
     @ApiResponse(responseCode = "200", description = "Успішне отримання списку завдань",
             content = {@Content(mediaType = "application/json",
-                    schema = @Schema(implementation = TaskResponse.class))})
-    List<TaskResponse> getAllTasks();
+                    array = @ArraySchema(schema = @Schema(implementation = TaskResponse.class)))})
+    ResponseEntity<StreamingResponseBody> streamAllTasks(
+            @Parameter(description = "Чи повертати описи завдань") @RequestParam(defaultValue = "true") boolean includeDescription,
+            @Parameter(description = "Поля завдань через кому, наприклад id,title,status,duration; за замовчуванням усі") @RequestParam(required = false) String fields);
 
     @Operation(summary = "Отримати завдання за ідентифікатором", description = "Цей метод повертає завдання за його ідентифікатором")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Успішне отримання завдання",
                     content = {@Content(mediaType = "application/json",
                             schema = @Schema(implementation = TaskResponse.class))}),
+            @ApiResponse(responseCode = "304", description = "Завдання не змінилося",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Невідоме поле",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Завдання не знайдено",
                     content = @Content)
     })
-    TaskResponse getTask(@Parameter(description = "Ідентифікатор завдання") @PathVariable Long id);
+    TaskResponse getTask(@Parameter(description = "Ідентифікатор завдання") @PathVariable Long id,
+                         @Parameter(description = "Поля завдань через кому, наприклад id,title,status,duration; за замовчуванням усі") @RequestParam(required = false) String fields,
+                         @Parameter(hidden = true) WebRequest webRequest);
 
     @Operation(summary = "Видалити завдання", description = "Цей метод видаляє завдання за його ідентифікатором")
     @ApiResponses(value = {
@@ -0,0 +1,20 @@
+package com.privat.timetracker.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Tag(name = "API подій задач", description = "API для отримання змін задач у реальному часі")
+public interface ITaskEventController {
+
+    @Operation(summary = "Підписатися на зміни задач", description = "Цей метод відкриває потік Server-Sent Events зі створенням, зміною, запуском, зупинкою, видаленням та автоматичним закриттям задач замість періодичного опитування списку")
+    @ApiResponse(responseCode = "200", description = "Потік подій відкрито",
+            content = @Content(mediaType = "text/event-stream"))
+    SseEmitter streamTaskEvents(
+            @Parameter(description = "Ідентифікатор останньої отриманої події для продовження потоку")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId);
+}
@@ -0,0 +1,38 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskImportProgress;
+import com.privat.timetracker.controller.dto.TaskImportReport;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Tag(name = "API імпорту задач", description = "API для масового імпорту задач")
+public interface ITaskImportController {
+
+    @Operation(summary = "Імпортувати завдання", description = "Імпортує завдання з NDJSON, де кожен рядок містить заголовок і опис завдання")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Імпорт завершено, звіт містить відхилені рядки",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskImportReport.class))}),
+            @ApiResponse(responseCode = "400", description = "Не вдалося прочитати файл",
+                    content = @Content)
+    })
+    TaskImportReport importTasks(InputStream body);
+
+    @Operation(summary = "Імпортувати завдання з прогресом", description = "Імпортує завдання з NDJSON і повертає NDJSON: рядок прогресу після кожної партії та підсумковий звіт останнім рядком")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Прогрес імпорту, останній рядок містить звіт",
+                    content = {@Content(mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = TaskImportProgress.class))}),
+            @ApiResponse(responseCode = "400", description = "Не вдалося прочитати файл",
+                    content = @Content)
+    })
+    void importTasksWithProgress(InputStream body, HttpServletResponse response) throws IOException;
+}
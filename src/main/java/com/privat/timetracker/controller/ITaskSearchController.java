@@ -0,0 +1,29 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskSearchPage;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@Tag(name = "API пошуку задач", description = "API для повнотекстового пошуку задач")
+public interface ITaskSearchController {
+
+    @Operation(summary = "Знайти завдання", description = "Цей метод шукає завдання за словами в заголовку та описі і повертає сторінку результатів, впорядкованих за релевантністю")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Успішний пошук",
+                    content = {@Content(mediaType = "application/json",
+                            schema = @Schema(implementation = TaskSearchPage.class))}),
+            @ApiResponse(responseCode = "400", description = "Порожній або задовгий запит, невалідний курсор",
+                    content = @Content)
+    })
+    TaskSearchPage searchTasks(@Parameter(description = "Пошуковий запит") @RequestParam(required = false) String q,
+                               @Parameter(description = "Курсор наступної сторінки") @RequestParam(required = false) String cursor,
+                               @Parameter(description = "Розмір сторінки") @RequestParam(defaultValue = "20") int size,
+                               @Parameter(description = "Чи повертати описи завдань") @RequestParam(defaultValue = "true") boolean includeDescription,
+                               @Parameter(description = "Чи виділяти знайдені слова") @RequestParam(defaultValue = "false") boolean highlight);
+}
@@ -1,10 +1,16 @@
 package com.privat.timetracker.controller;
 
+import com.privat.timetracker.controller.dto.TaskIdsRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskTransitionResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @Tag(name = "API відстеження задач", description = "API для відстеження часу задач")
 public interface ITaskTrackingController {
@@ -16,4 +22,12 @@ public interface ITaskTrackingController {
     @Operation(summary = "Зупинити відстеження часу для задачі", description = "Зупиняє відстеження часу для вказаного ID задачі")
     @PostMapping("/{id}/stop")
     TaskResponse stopTask(@PathVariable Long id);
+
+    @Operation(summary = "Почати відстеження часу для кількох задач", description = "Починає відстеження часу для вказаних ID задач і повертає результат для кожної задачі")
+    @PostMapping("/batch/start")
+    List<TaskTransitionResult> startTasks(@RequestBody @Valid TaskIdsRequest request);
+
+    @Operation(summary = "Зупинити відстеження часу для кількох задач", description = "Зупиняє відстеження часу для вказаних ID задач і повертає результат для кожної задачі")
+    @PostMapping("/batch/stop")
+    List<TaskTransitionResult> stopTasks(@RequestBody @Valid TaskIdsRequest request);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.service.TaskArchive;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for tasks in cold storage.
+ * This controller provides the endpoint to move an archived task back among the regular tasks.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/tasks")
+@RequiredArgsConstructor
+public class TaskArchiveController implements ITaskArchiveController {
+
+    private final TaskArchive taskArchive;
+
+    /**
+     * Restores an archived task.
+     *
+     * @param id the ID of the archived task
+     * @return {@link TaskResponse} containing the restored task
+     */
+    @Override
+    @PostMapping("/{id}/restore")
+    public TaskResponse restoreTask(@PathVariable Long id) {
+        return taskArchive.restoreTask(id);
+    }
+}
@@ -1,15 +1,29 @@
 package com.privat.timetracker.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskFields;
+import com.privat.timetracker.controller.dto.TaskPage;
 import com.privat.timetracker.controller.dto.TaskRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskStamp;
 import com.privat.timetracker.service.TaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * REST controller for managing tasks in the time tracking system.
@@ -21,6 +35,7 @@ import java.util.List;
 public class TaskController implements ITaskController {
 
     private final TaskService taskService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Creates a new task.
@@ -48,25 +63,95 @@ public class TaskController implements ITaskController {
     }
 
     /**
-     * Retrieves all tasks.
+     * Retrieves one page of tasks.
+     * <p>
+     * The response carries an ETag and a Last-Modified header computed by an aggregate query over the tasks of the
+     * page.
+     * If the client already has the current page ({@code If-None-Match} / {@code If-Modified-Since}),
+     * 304 Not Modified is returned without loading any task.
+     * </p>
      *
-     * @return a list of {@link TaskResponse} objects containing details of all tasks
+     * @param cursor             the continuation token returned with the previous page, or null for the first page
+     * @param size               the maximum number of tasks on the page
+     * @param includeDescription whether the tasks contain their descriptions
+     * @param fields             comma-separated names of the fields to return, or null for all fields
+     * @param webRequest         the current request, used to evaluate conditional headers
+     * @return {@link TaskPage} containing the tasks and the cursor of the next page, or null if not modified
      */
     @GetMapping
     @Override
-    public List<TaskResponse> getAllTasks() {
-        return taskService.getAllTasks();
+    public TaskPage getAllTasks(@RequestParam(required = false) String cursor,
+                                @RequestParam(defaultValue = "50") int size,
+                                @RequestParam(defaultValue = "true") boolean includeDescription,
+                                @RequestParam(required = false) String fields,
+                                WebRequest webRequest) {
+        TaskFields taskFields = TaskFields.parse(fields);
+        TaskFields selected = selectFields(includeDescription ? taskFields : taskFields.withoutDescription(), webRequest);
+        TaskListStamp stamp = taskService.getTasksStamp(cursor, size);
+        if (webRequest.checkNotModified(stamp.etag(cursor, size, selected), stamp.lastModified())) {
+            return null;
+        }
+        return taskService.getAllTasks(cursor, size, selected);
+    }
+
+    /**
+     * Streams all tasks as a single JSON array.
+     * <p>
+     * Tasks are written to the response one by one while they are read from the database,
+     * so memory use stays flat regardless of the number of tasks.
+     * </p>
+     *
+     * @param includeDescription whether the tasks contain their descriptions
+     * @param fields             comma-separated names of the fields to return, or null for all fields
+     * @return {@link ResponseEntity} with a body that writes every task as it is read
+     */
+    @GetMapping(params = "unpaged=true")
+    @Override
+    public ResponseEntity<StreamingResponseBody> streamAllTasks(
+            @RequestParam(defaultValue = "true") boolean includeDescription,
+            @RequestParam(required = false) String fields) {
+        TaskFields taskFields = TaskFields.parse(fields);
+        TaskFields selected = includeDescription ? taskFields : taskFields.withoutDescription();
+        ObjectWriter writer = objectMapper.writer(selected.filterProvider());
+        // the body is written on an async thread, which does not have the tenant of the request
+        Tenant tenant = TenantContext.current();
+        StreamingResponseBody body = outputStream -> {
+            TenantContext.set(tenant);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                taskService.streamAllTasks(selected, task -> writeTask(writer, generator, task));
+                generator.writeEndArray();
+            } finally {
+                TenantContext.clear();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     /**
      * Retrieves a task by its ID.
+     * <p>
+     * The response carries an ETag derived from the task version and a Last-Modified header. If the client already
+     * has the current state ({@code If-None-Match} / {@code If-Modified-Since}), 304 Not Modified is returned;
+     * the validator of a cached task comes from the task cache, so no query is run for it. The duration of a running task keeps growing while its validators stay the same,
+     * so clients holding a cached copy of a running task compute the elapsed time from {@code startTime}.
+     * </p>
+     * <p>
+     * A single task is served from the task cache as a whole, so {@code fields} only narrows the response.
+     * </p>
      *
-     * @param id the ID of the task to retrieve
-     * @return {@link TaskResponse} containing the details of the requested task
+     * @param id         the ID of the task to retrieve
+     * @param fields     comma-separated names of the fields to return, or null for all fields
+     * @param webRequest the current request, used to evaluate conditional headers
+     * @return {@link TaskResponse} containing the details of the requested task, or null if not modified
      */
     @GetMapping("/{id}")
     @Override
-    public TaskResponse getTask(@PathVariable Long id) {
+    public TaskResponse getTask(@PathVariable Long id, @RequestParam(required = false) String fields,
+                                WebRequest webRequest) {
+        TaskFields taskFields = selectFields(TaskFields.parse(fields), webRequest);
+        TaskStamp stamp = taskService.getTaskStamp(id);
+        if (webRequest.checkNotModified(stamp.etag(taskFields), stamp.lastModified())) return null;
         return taskService.getTask(id);
     }
 
@@ -83,4 +168,32 @@ public class TaskController implements ITaskController {
         taskService.deleteTask(id);
         return ResponseEntity.status(HttpStatus.OK).build();
     }
+
+    /**
+     * Keeps the fields of the response for {@link TaskFieldsResponseAdvice}, which leaves the other fields out of
+     * the response.
+     *
+     * @param fields     the fields the response is written with
+     * @param webRequest the current request
+     * @return the given fields
+     */
+    private static TaskFields selectFields(TaskFields fields, WebRequest webRequest) {
+        webRequest.setAttribute(TaskFieldsResponseAdvice.FIELDS_ATTRIBUTE, fields, RequestAttributes.SCOPE_REQUEST);
+        return fields;
+    }
+
+    /**
+     * Writes a single task to the JSON array being streamed.
+     *
+     * @param writer    the writer leaving out the fields that were not requested
+     * @param generator the generator writing the response
+     * @param task      the task to write
+     */
+    private static void writeTask(ObjectWriter writer, JsonGenerator generator, TaskResponse task) {
+        try {
+            writer.writeValue(generator, task);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.service.event.TaskEventStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller pushing task changes to clients.
+ * This controller provides the Server-Sent Events stream that replaces polling the task list.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/tasks")
+@RequiredArgsConstructor
+public class TaskEventController implements ITaskEventController {
+
+    private final TaskEventStream taskEventStream;
+
+    /**
+     * Opens a stream of task changes.
+     * <p>
+     * A reconnecting client sends the ID of the last event it received in {@code Last-Event-ID} and gets the
+     * events it missed, or a {@code reset} event when it has to reload the tasks.
+     * </p>
+     *
+     * @param lastEventId the ID of the last received event, or null for a new subscription
+     * @return the emitter writing the events of this subscription
+     */
+    @Override
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventStream.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,34 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Leaves the fields a client did not ask for out of the responses of {@link TaskController}.
+ * <p>
+ * The controller stores the parsed {@code fields} parameter as the {@link #FIELDS_ATTRIBUTE} request attribute;
+ * responses without it are written with all fields.
+ * </p>
+ */
+@ControllerAdvice(assignableTypes = TaskController.class)
+public class TaskFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    static final String FIELDS_ATTRIBUTE = TaskFields.class.getName();
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getAttribute(FIELDS_ATTRIBUTE) instanceof TaskFields fields
+                && !fields.equals(TaskFields.ALL)) {
+            bodyContainer.setFilters(fields.filterProvider());
+        }
+    }
+}
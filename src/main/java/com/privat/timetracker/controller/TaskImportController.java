@@ -0,0 +1,75 @@
+package com.privat.timetracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privat.timetracker.controller.dto.TaskImportProgress;
+import com.privat.timetracker.controller.dto.TaskImportReport;
+import com.privat.timetracker.service.TaskImport;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * REST controller for bulk imports of tasks.
+ * This controller streams the uploaded NDJSON body to the import service without buffering it, and on request
+ * streams the progress of the import back.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/tasks")
+@RequiredArgsConstructor
+public class TaskImportController implements ITaskImportController {
+
+    private final TaskImport taskImport;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Imports tasks from an NDJSON body, one {@code TaskRequest} per line.
+     *
+     * @param body the raw request body
+     * @return {@link TaskImportReport} with the number of imported tasks and the rejected lines
+     */
+    @Override
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public TaskImportReport importTasks(InputStream body) {
+        return taskImport.importTasks(body);
+    }
+
+    /**
+     * Imports tasks from an NDJSON body and streams the progress as NDJSON.
+     * <p>
+     * A {@link TaskImportProgress} line is written and flushed after every batch, and the {@link TaskImportReport}
+     * as the last line. The import runs on the request thread, so it is not cut short by the async request timeout.
+     * </p>
+     *
+     * @param body     the raw request body
+     * @param response the response the progress is written to
+     * @throws IOException if the response cannot be written
+     */
+    @Override
+    @PostMapping(value = "/import", params = "progress=true", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importTasksWithProgress(InputStream body, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream output = response.getOutputStream();
+        TaskImportReport report = taskImport.importTasks(body, progress -> {
+            try {
+                writeLine(output, progress);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writeLine(output, report);
+    }
+
+    private void writeLine(OutputStream output, Object value) throws IOException {
+        output.write(objectMapper.writeValueAsBytes(value));
+        output.write('\n');
+        output.flush();
+    }
+}
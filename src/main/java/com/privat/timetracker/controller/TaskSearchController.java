@@ -0,0 +1,40 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskSearchPage;
+import com.privat.timetracker.service.TaskSearch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for full-text search over tasks.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/tasks")
+@RequiredArgsConstructor
+public class TaskSearchController implements ITaskSearchController {
+
+    private final TaskSearch taskSearch;
+
+    /**
+     * Searches tasks by the words in their title and description.
+     *
+     * @param q                  the search text; supports quoted phrases, {@code or} and {@code -word}
+     * @param cursor             the continuation token returned with the previous page, or null for the first page
+     * @param size               the maximum number of results on the page
+     * @param includeDescription whether the tasks contain their descriptions
+     * @param highlight          whether the matching words are marked in the title and description
+     * @return {@link TaskSearchPage} containing the results and the cursor of the next page
+     */
+    @Override
+    @GetMapping("/search")
+    public TaskSearchPage searchTasks(@RequestParam(required = false) String q,
+                                      @RequestParam(required = false) String cursor,
+                                      @RequestParam(defaultValue = "20") int size,
+                                      @RequestParam(defaultValue = "true") boolean includeDescription,
+                                      @RequestParam(defaultValue = "false") boolean highlight) {
+        return taskSearch.search(q, cursor, size, includeDescription, highlight);
+    }
+}
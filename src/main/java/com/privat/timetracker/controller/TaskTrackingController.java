@@ -1,12 +1,14 @@
 package com.privat.timetracker.controller;
 
+import com.privat.timetracker.controller.dto.TaskIdsRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskTransitionResult;
 import com.privat.timetracker.service.TimeTracking;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
 
 /**
  * REST controller for managing task tracking operations.
@@ -42,4 +44,28 @@ public class TaskTrackingController implements ITaskTrackingController {
     public TaskResponse stopTask(@PathVariable Long id) {
         return timeTracking.stopTask(id);
     }
+
+    /**
+     * Starts several tasks at once.
+     *
+     * @param request the request body containing the IDs of the tasks to start
+     * @return a list of {@link TaskTransitionResult} with the outcome for every task
+     */
+    @Override
+    @PostMapping("/batch/start")
+    public List<TaskTransitionResult> startTasks(@RequestBody @Valid TaskIdsRequest request) {
+        return timeTracking.startTasks(request.ids());
+    }
+
+    /**
+     * Stops several tasks at once.
+     *
+     * @param request the request body containing the IDs of the tasks to stop
+     * @return a list of {@link TaskTransitionResult} with the outcome for every task
+     */
+    @Override
+    @PostMapping("/batch/stop")
+    public List<TaskTransitionResult> stopTasks(@RequestBody @Valid TaskIdsRequest request) {
+        return timeTracking.stopTasks(request.ids());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.privat.timetracker.controller.dto;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of {@link TaskResponse} a client asked for with the {@code fields} request parameter, e.g.
+ * {@code fields=id,title,status,duration}.
+ * <p>
+ * Every field knows the columns it is computed from, so list queries only select those columns; the ID and the
+ * creation time are always selected because the page cursor is built from them. Fields that were not asked for
+ * are left out of the response by the {@value #FILTER_ID} Jackson filter.
+ * </p>
+ */
+public final class TaskFields {
+    public static final String FILTER_ID = "taskFields";
+
+    /**
+     * Every field of {@link TaskResponse}, returned when no fields are requested.
+     */
+    public static final TaskFields ALL = new TaskFields(EnumSet.allOf(Field.class));
+
+    private static final Set<String> KEY_COLUMNS = Set.of("id", "created_at");
+
+    /**
+     * The fields of {@link TaskResponse} with their JSON names and the columns they are read from.
+     */
+    public enum Field {
+        ID("id", "id"),
+        TITLE("title", "title"),
+        DESCRIPTION("description", "description"),
+        STATUS("status", "task_status"),
+        START_TIME("startTime", "start_time"),
+        END_TIME("endTime", "end_time"),
+        CREATED_AT("createdAt", "created_at"),
+        EDITED_AT("editedAt", "updated_at"),
+        DURATION_SECONDS("durationSeconds", "start_time", "end_time"),
+        DURATION("duration", "start_time", "end_time");
+
+        private final String jsonName;
+        private final Set<String> columns;
+
+        Field(String jsonName, String... columns) {
+            this.jsonName = jsonName;
+            this.columns = Set.of(columns);
+        }
+
+        public String jsonName() {
+            return jsonName;
+        }
+    }
+
+    private final Set<Field> fields;
+
+    private TaskFields(Set<Field> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses the value of the {@code fields} request parameter.
+     *
+     * @param fields comma-separated JSON names of {@link TaskResponse} fields, or null or blank for all fields
+     * @return the requested fields
+     * @throws InvalidFieldsException if a name is not a field of {@link TaskResponse} or no field is named
+     */
+    public static TaskFields parse(String fields) {
+        if (fields == null || fields.isBlank()) return ALL;
+        Set<Field> parsed = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) continue;
+            parsed.add(Arrays.stream(Field.values())
+                    .filter(field -> field.jsonName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidFieldsException(ErrorMessages.INVALID_TASK_FIELD.formatted(trimmed,
+                            Arrays.stream(Field.values()).map(Field::jsonName).collect(Collectors.joining(","))))));
+        }
+        if (parsed.isEmpty()) throw new InvalidFieldsException(ErrorMessages.NO_TASK_FIELDS);
+        return parsed.size() == Field.values().length ? ALL : new TaskFields(parsed);
+    }
+
+    /**
+     * Returns these fields without the description.
+     *
+     * @return the fields without {@link Field#DESCRIPTION}
+     */
+    public TaskFields withoutDescription() {
+        if (!fields.contains(Field.DESCRIPTION)) return this;
+        Set<Field> withoutDescription = EnumSet.copyOf(fields);
+        withoutDescription.remove(Field.DESCRIPTION);
+        return new TaskFields(withoutDescription);
+    }
+
+    public boolean includes(Field field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Returns the columns needed to build the fields, including the ID and the creation time.
+     *
+     * @return the column names
+     */
+    public Set<String> columns() {
+        Set<String> columns = new LinkedHashSet<>(KEY_COLUMNS);
+        fields.forEach(field -> columns.addAll(field.columns));
+        return columns;
+    }
+
+    /**
+     * Returns the Jackson filters leaving out the fields that were not requested.
+     *
+     * @return the filter provider for {@value #FILTER_ID}
+     */
+    public FilterProvider filterProvider() {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, equals(ALL)
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields.stream().map(Field::jsonName).collect(Collectors.toSet())));
+    }
+
+    /**
+     * Returns the part of an entity tag identifying the fields, empty for all fields, so representations with
+     * different fields never share a tag.
+     *
+     * @return the tag part
+     */
+    public String etagPart() {
+        if (equals(ALL)) return "";
+        int mask = 0;
+        for (Field field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        return "-f" + Integer.toHexString(mask);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TaskFields other && fields.equals(other.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return fields.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return fields.stream().map(Field::jsonName).collect(Collectors.joining(","));
+    }
+}
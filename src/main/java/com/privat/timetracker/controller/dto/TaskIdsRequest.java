@@ -0,0 +1,29 @@
+package com.privat.timetracker.controller.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for operations applied to several tasks at once.
+ *
+ * @param ids The IDs of the tasks. Must not be empty and may contain at most 500 IDs.
+ */
+public record TaskIdsRequest(
+        /**
+         * The IDs of the tasks.
+         *
+         * <p>Constraints:</p>
+         * <ul>
+         *   <li>Cannot be null or empty</li>
+         *   <li>Cannot contain more than 500 IDs</li>
+         *   <li>Cannot contain null IDs</li>
+         * </ul>
+         */
+        @NotEmpty(message = "Ids cannot be empty")
+        @Size(message = "Ids cannot contain more than 500 elements", max = 500)
+        List<@NotNull(message = "Id cannot be null") Long> ids
+) {
+}
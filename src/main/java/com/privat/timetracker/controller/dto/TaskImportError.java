@@ -0,0 +1,23 @@
+package com.privat.timetracker.controller.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) describing a line of an import that was rejected.
+ *
+ * @param line     The number of the line in the uploaded file, starting from 1.
+ * @param messages The reasons why the line was rejected.
+ */
+public record TaskImportError(
+        /**
+         * The number of the line in the uploaded file, starting from 1.
+         */
+        long line,
+
+        /**
+         * The reasons why the line was rejected.
+         */
+        List<String> messages
+) {
+
+}
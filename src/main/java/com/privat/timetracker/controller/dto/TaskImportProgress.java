@@ -0,0 +1,33 @@
+package com.privat.timetracker.controller.dto;
+
+/**
+ * Data Transfer Object (DTO) reporting the progress of a running import after every stored or failed batch.
+ *
+ * @param line           The number of the last line of the batch.
+ * @param processedLines The number of non-blank lines read so far.
+ * @param importedTasks  The number of tasks stored so far.
+ * @param failedLines    The number of lines rejected or not stored so far.
+ */
+public record TaskImportProgress(
+        /**
+         * The number of the last line of the batch.
+         */
+        long line,
+
+        /**
+         * The number of non-blank lines read so far.
+         */
+        long processedLines,
+
+        /**
+         * The number of tasks stored so far.
+         */
+        long importedTasks,
+
+        /**
+         * The number of lines rejected or not stored so far.
+         */
+        long failedLines
+) {
+
+}
@@ -0,0 +1,36 @@
+package com.privat.timetracker.controller.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing a bulk import of tasks.
+ *
+ * @param processedLines The number of non-blank lines read from the upload.
+ * @param importedTasks  The number of tasks stored.
+ * @param failedLines    The number of lines that were rejected or could not be stored.
+ * @param errors         The first rejected lines with their reasons; the list is capped, see {@code failedLines}.
+ */
+public record TaskImportReport(
+        /**
+         * The number of non-blank lines read from the upload.
+         */
+        long processedLines,
+
+        /**
+         * The number of tasks stored.
+         */
+        long importedTasks,
+
+        /**
+         * The number of lines that were rejected or could not be stored.
+         */
+        long failedLines,
+
+        /**
+         * The first rejected lines with their reasons.
+         * The list is capped so the report stays small for any upload size.
+         */
+        List<TaskImportError> errors
+) {
+
+}
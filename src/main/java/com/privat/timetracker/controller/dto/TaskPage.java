@@ -0,0 +1,25 @@
+package com.privat.timetracker.controller.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a single page of tasks.
+ * Pages are ordered by creation time and ID; the cursor of the next page is opaque to clients.
+ *
+ * @param items      The tasks on this page.
+ * @param nextCursor The continuation token for the next page, or null if this is the last page.
+ */
+public record TaskPage(
+        /**
+         * The tasks on this page, ordered by creation time and ID.
+         */
+        List<TaskResponse> items,
+
+        /**
+         * The continuation token to pass as {@code cursor} to fetch the next page.
+         * Null if there are no more tasks.
+         */
+        String nextCursor
+) {
+
+}
@@ -2,6 +2,7 @@ package com.privat.timetracker.controller.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import org.hibernate.validator.constraints.Length;
 
 /**
@@ -10,6 +11,8 @@ import org.hibernate.validator.constraints.Length;
  *
  * @param title       The title of the task. Must not be null, blank, or exceed the length constraints.
  * @param description The description of the task. Must not be blank and should adhere to the length constraints.
+ * @param maxSessionSeconds The maximum length of one tracking session in seconds, after which the task is stopped.
+ *                          Optional; without it the global limit applies.
  */
 public record TaskRequest(
         /**
@@ -38,6 +41,27 @@ public record TaskRequest(
          */
         @Length(message = "Description length must be between 5 and 10000 characters", min = 5, max = 10000)
         @NotBlank(message = "Description cannot be blank")
-        String description
+        String description,
+
+        /**
+         * The maximum length of one tracking session in seconds.
+         *
+         * <p>Constraints:</p>
+         * <ul>
+         *   <li>Must be positive if present</li>
+         * </ul>
+         */
+        @Positive(message = "Maximum session length must be positive")
+        Integer maxSessionSeconds
 ) {
+
+    /**
+     * Creates a request without a session limit of its own.
+     *
+     * @param title       the title of the task
+     * @param description the description of the task
+     */
+    public TaskRequest(String title, String description) {
+        this(title, description, null);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,10 @@
 package com.privat.timetracker.controller.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.mapping.HmsDurationSerializer;
+import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDateTime;
 
@@ -16,7 +20,8 @@ import java.time.LocalDateTime;
  * @param endTime     The timestamp when the task was ended (may be null if not yet completed).
  * @param createdAt   The timestamp when the task was created.
  * @param editedAt    The timestamp when the task was last edited (may be null if not edited).
- * @param duration    The duration of the task in a human-readable format (e.g., "1h 23m 45s").
+ * @param durationSeconds The duration of the task in seconds; for a running task it is computed up to the time
+ *                        the response was built. Also serialized as {@code duration} in "HH:mm:ss" format.
  */
 public record TaskResponse(
         /**
@@ -64,10 +69,20 @@ public record TaskResponse(
         LocalDateTime editedAt,
 
         /**
-         * The duration of the task in a human-readable format.
-         * Example formats: "1h 23m 45s", "2h 10m".
+         * The duration of the task in seconds.
          */
-        String duration
+        Long durationSeconds
 ) {
 
+    /**
+     * The duration of the task in "HH:mm:ss" format, rendered from {@link #durationSeconds()} while serializing.
+     *
+     * @return the duration of the task in seconds
+     */
+    @JsonProperty(value = "duration", access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(using = HmsDurationSerializer.class)
+    @Schema(type = "string", example = "01:23:45")
+    public Long duration() {
+        return durationSeconds;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.privat.timetracker.controller.dto;
+
+/**
+ * Data Transfer Object (DTO) for a task found by a full-text search.
+ *
+ * @param task                 The matching task.
+ * @param rank                 The relevance of the task for the query; higher is better.
+ * @param titleHighlight       The title with matching words wrapped in {@code <mark>} tags, or null if not requested.
+ * @param descriptionHighlight Fragments of the description with matching words wrapped in {@code <mark>} tags,
+ *                             or null if not requested.
+ */
+public record TaskSearchHit(
+        /**
+         * The matching task.
+         */
+        TaskResponse task,
+
+        /**
+         * The relevance of the task for the query.
+         */
+        float rank,
+
+        /**
+         * The title with matching words marked.
+         * Null if highlighting was not requested.
+         */
+        String titleHighlight,
+
+        /**
+         * Fragments of the description with matching words marked.
+         * Null if highlighting was not requested.
+         */
+        String descriptionHighlight
+) {
+
+}
@@ -0,0 +1,25 @@
+package com.privat.timetracker.controller.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for a single page of search results.
+ * Results are ordered by relevance, best first; the cursor of the next page is opaque to clients.
+ *
+ * @param items      The matching tasks on this page.
+ * @param nextCursor The continuation token for the next page, or null if this is the last page.
+ */
+public record TaskSearchPage(
+        /**
+         * The matching tasks on this page, best match first.
+         */
+        List<TaskSearchHit> items,
+
+        /**
+         * The continuation token to pass as {@code cursor} together with the same query to fetch the next page.
+         * Null if there are no more matches.
+         */
+        String nextCursor
+) {
+
+}
@@ -0,0 +1,55 @@
+package com.privat.timetracker.controller.dto;
+
+/**
+ * Data Transfer Object (DTO) with the outcome of starting or stopping one task in a batch.
+ *
+ * @param taskId  The ID of the task.
+ * @param success Whether the task was started or stopped.
+ * @param task    The updated task, or null if the operation failed.
+ * @param error   The reason of the failure, or null if the operation succeeded.
+ */
+public record TaskTransitionResult(
+        /**
+         * The ID of the task.
+         */
+        Long taskId,
+
+        /**
+         * Whether the task was started or stopped.
+         */
+        boolean success,
+
+        /**
+         * The updated task.
+         * Null if the operation failed.
+         */
+        TaskResponse task,
+
+        /**
+         * The reason of the failure.
+         * Null if the operation succeeded.
+         */
+        String error
+) {
+
+    /**
+     * Creates a successful result.
+     *
+     * @param task the updated task
+     * @return the result for the task
+     */
+    public static TaskTransitionResult succeeded(TaskResponse task) {
+        return new TaskTransitionResult(task.id(), true, task, null);
+    }
+
+    /**
+     * Creates a failed result.
+     *
+     * @param taskId the ID of the task
+     * @param error  the reason of the failure
+     * @return the result for the task
+     */
+    public static TaskTransitionResult failed(Long taskId, String error) {
+        return new TaskTransitionResult(taskId, false, null, error);
+    }
+}
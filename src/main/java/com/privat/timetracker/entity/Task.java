@@ -1,6 +1,9 @@
 package com.privat.timetracker.entity;
 
+import com.privat.timetracker.config.tenant.TenantContext;
 import jakarta.persistence.*;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.TenantId;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -9,7 +12,8 @@ import java.util.Objects;
 @Table(name = "tasks", schema = "tasks_schema")
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", schema = "tasks_schema", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
     @Column(nullable = false)
     private String title;
@@ -20,15 +24,29 @@ public class Task {
     @Enumerated(value = EnumType.STRING)
     @Column(name = "task_status")
     private TaskStatus status;
+    @PartitionKey
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    @Version
+    private Long version;
+    private Integer maxSessionSeconds;
+    @TenantId
+    @Column(nullable = false, updatable = false)
+    private String tenantId;
+    @Column(updatable = false)
+    private String userId;
+
+    @PrePersist
+    void assignUser() {
+        if (userId == null) userId = TenantContext.userId();
+    }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Task task = (Task) o;
-        return Objects.equals(id, task.id) && Objects.equals(title, task.title) && Objects.equals(description, task.description) && Objects.equals(startTime, task.startTime) && Objects.equals(endTime, task.endTime) && status == task.status && Objects.equals(createdAt, task.createdAt) && Objects.equals(updatedAt, task.updatedAt);
+        return Objects.equals(id, task.id) && Objects.equals(title, task.title) && Objects.equals(description, task.description) && Objects.equals(startTime, task.startTime) && Objects.equals(endTime, task.endTime) && status == task.status && Objects.equals(createdAt, task.createdAt) && Objects.equals(updatedAt, task.updatedAt) && Objects.equals(version, task.version) && Objects.equals(maxSessionSeconds, task.maxSessionSeconds) && Objects.equals(tenantId, task.tenantId) && Objects.equals(userId, task.userId);
     }
 
     @Override
@@ -42,12 +60,16 @@ public class Task {
                 ", endTime=" + endTime +
                 ", status=" + status +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
+                ", maxSessionSeconds=" + maxSessionSeconds +
+                ", tenantId='" + tenantId + '\'' +
+                ", userId='" + userId + '\'' +
                 '}';
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, description, startTime, endTime, status, createdAt, updatedAt);
+        return Objects.hash(id, title, description, startTime, endTime, status, createdAt, updatedAt, version, maxSessionSeconds, tenantId, userId);
     }
 
     public LocalDateTime getCreatedAt() {
@@ -113,4 +135,36 @@ public class Task {
     public void setTitle(String title) {
         this.title = title;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Integer getMaxSessionSeconds() {
+        return maxSessionSeconds;
+    }
+
+    public void setMaxSessionSeconds(Integer maxSessionSeconds) {
+        this.maxSessionSeconds = maxSessionSeconds;
+    }
+
+    public String getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(String tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
 }
@@ -11,6 +11,19 @@ public class ErrorMessages {
      */
     public static final String TASK_NOT_FOUND = "Task not found with id %d";
 
+    /**
+     * Error message template for when no archived task is found.
+     * The placeholder will be replaced with the task ID.
+     */
+    public static final String ARCHIVED_TASK_NOT_FOUND = "Archived task not found with id %d";
+
+    /**
+     * Error message template for when an archived task was created in a month that is no longer kept.
+     * The placeholder will be replaced with the task ID.
+     */
+    public static final String TASK_NOT_RESTORABLE =
+            "Archived task with id %d cannot be restored, the month it was created in is no longer kept";
+
     /**
      * Error message template for unexpected errors.
      * The placeholder will be replaced with the details of the unexpected error.
@@ -24,9 +37,107 @@ public class ErrorMessages {
      */
     public static final String TASK_TIME_EXCEPTION = "Error while %s task with id %d exception : %s";
 
+    /**
+     * Error message template for exceptions occurring while handling a batch of tasks.
+     * The placeholders will be replaced with the action (e.g., start/stop) being performed
+     * and the exception message.
+     */
+    public static final String TASK_BATCH_EXCEPTION = "Error while %s tasks batch exception : %s";
+
     /**
      * Error message template for exceptions occurring during the automatic closure of tasks.
      * The placeholder will be replaced with the exception message.
      */
     public static final String TASK_AUTO_CLOSE_EXCEPTION = "Error while autoclose task  exception : %s";
-}
\ No newline at end of file
+
+    /**
+     * Error message template for a pagination cursor that cannot be decoded.
+     * The placeholder will be replaced with the cursor sent by the client.
+     */
+    public static final String INVALID_CURSOR = "Invalid cursor %s";
+
+    /**
+     * Error message template for a task that was changed by a concurrent request.
+     * The placeholder will be replaced with the task ID.
+     */
+    public static final String TASK_CONFLICT = "Task with id %d was modified concurrently, reload it and try again";
+
+    /**
+     * Error message for an optimistic locking failure detected when a transaction commits.
+     */
+    public static final String CONCURRENT_MODIFICATION = "Task was modified concurrently, reload it and try again";
+
+    /**
+     * Error message template for an import upload that cannot be read.
+     * The placeholders will be replaced with the number of lines processed so far and the exception message.
+     */
+    public static final String TASK_IMPORT_EXCEPTION = "Error while importing tasks after %d lines exception : %s";
+
+    /**
+     * Error message template for an import line that is not valid JSON.
+     * The placeholder will be replaced with the parser message.
+     */
+    public static final String TASK_IMPORT_INVALID_JSON = "Invalid JSON: %s";
+
+    /**
+     * Error message template for an import batch that could not be stored.
+     * The placeholders will be replaced with the first and last line of the batch and the exception message.
+     */
+    public static final String TASK_IMPORT_BATCH_EXCEPTION = "Error while storing lines %d-%d exception : %s";
+
+    /**
+     * Error message template for a search query that is empty or too long.
+     * The placeholder will be replaced with the maximum length of a query.
+     */
+    public static final String INVALID_SEARCH_QUERY = "Search query must not be blank and must be at most %d characters long";
+
+    /**
+     * Error message template for an unknown name in the fields parameter.
+     * The placeholders will be replaced with the unknown name and the list of valid names.
+     */
+    public static final String INVALID_TASK_FIELD = "Unknown task field '%s', expected some of: %s";
+
+    /**
+     * Error message for a fields parameter that names no field.
+     */
+    public static final String NO_TASK_FIELDS = "At least one task field must be requested";
+
+    /**
+     * Error message template for a request without a tenant while no default tenant is configured.
+     * The placeholder will be replaced with the name of the header.
+     */
+    public static final String TENANT_REQUIRED = "Header %s is required";
+
+    /**
+     * Error message template for a malformed tenant or user header.
+     * The placeholders will be replaced with the name of the header and the maximum length of the value.
+     */
+    public static final String INVALID_TENANT_HEADER = "Header %s must consist of letters, digits, '.', '_' or '-' and be at most %d characters long";
+
+    /**
+     * Error message for tenant-scoped work started on a thread that is not bound to a tenant.
+     */
+    public static final String NO_TENANT = "No tenant is bound to the current thread";
+
+    /**
+     * Error message template for a request rejected by the rate limiter.
+     * The placeholder will be replaced with the number of seconds the client should wait.
+     */
+    public static final String RATE_LIMIT_EXCEEDED = "Too many requests, retry after %d seconds";
+
+    /**
+     * Error message template for a malformed idempotency key.
+     * The placeholders will be replaced with the name of the header and the maximum length of the key.
+     */
+    public static final String INVALID_IDEMPOTENCY_KEY = "Header %s must consist of visible ASCII characters and be at most %d characters long";
+
+    /**
+     * Error message for an idempotency key whose first request is still being processed.
+     */
+    public static final String IDEMPOTENCY_KEY_IN_USE = "A request with this idempotency key is still being processed, retry later";
+
+    /**
+     * Error message for an idempotency key sent again with a different request.
+     */
+    public static final String IDEMPOTENCY_KEY_REUSED = "The idempotency key was already used for a different request";
+}
@@ -0,0 +1,7 @@
+package com.privat.timetracker.exception.exceptions;
+
+public class IdempotencyKeyInUseException extends RuntimeException {
+    public IdempotencyKeyInUseException(String message) {
+        super(message);
+    }
+}
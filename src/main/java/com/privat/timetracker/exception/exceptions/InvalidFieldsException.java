@@ -0,0 +1,7 @@
+package com.privat.timetracker.exception.exceptions;
+
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.privat.timetracker.exception.exceptions;
+
+public class InvalidSearchQueryException extends RuntimeException {
+    public InvalidSearchQueryException(String message) {
+        super(message);
+    }
+}
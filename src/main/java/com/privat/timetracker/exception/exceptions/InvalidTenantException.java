@@ -0,0 +1,7 @@
+package com.privat.timetracker.exception.exceptions;
+
+public class InvalidTenantException extends RuntimeException {
+    public InvalidTenantException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.privat.timetracker.exception.exceptions;
+
+public class TaskConflictException extends RuntimeException {
+    public TaskConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.privat.timetracker.exception.exceptions;
+
+public class TaskImportException extends RuntimeException {
+    public TaskImportException(String message) {
+        super(message);
+    }
+}
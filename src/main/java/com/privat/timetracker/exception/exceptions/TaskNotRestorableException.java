@@ -0,0 +1,7 @@
+package com.privat.timetracker.exception.exceptions;
+
+public class TaskNotRestorableException extends RuntimeException {
+    public TaskNotRestorableException(String string) {
+        super(string);
+    }
+}
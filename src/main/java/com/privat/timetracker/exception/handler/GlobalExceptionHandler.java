@@ -3,6 +3,8 @@ package com.privat.timetracker.exception.handler;
 import com.privat.timetracker.exception.constants.ErrorMessages;
 import com.privat.timetracker.exception.dto.ErrorResponse;
 import com.privat.timetracker.exception.exceptions.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -62,18 +64,91 @@ public class GlobalExceptionHandler {
 
     /**
      * Handles various runtime exceptions related to task operations (e.g., {@link TaskAlreadyStarted},
-     * {@link TaskAlreadyStopped}, {@link TaskNotStartedException}) and returns a 400 Bad Request status with a detailed error message.
+     * {@link TaskAlreadyStopped}, {@link TaskNotStartedException}, {@link InvalidCursorException}, {@link TaskImportException}, {@link InvalidSearchQueryException}, {@link InvalidFieldsException}, {@link InvalidTenantException}, {@link InvalidIdempotencyKeyException}) and returns a 400 Bad Request status with a detailed error message.
      *
      * @param ex the exception that was thrown
      * @return a {@link ResponseEntity} containing the error response and the HTTP status
      */
-    @ExceptionHandler(value = {TaskAlreadyStarted.class, TaskAlreadyStopped.class, TaskNotStartedException.class})
+    @ExceptionHandler(value = {TaskAlreadyStarted.class, TaskAlreadyStopped.class, TaskNotStartedException.class, InvalidCursorException.class,
+            TaskImportException.class, InvalidSearchQueryException.class, InvalidFieldsException.class,
+            InvalidTenantException.class, InvalidIdempotencyKeyException.class})
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ErrorResponse> handleTaskBadRequest(RuntimeException ex) {
         ErrorResponse errorResponse = new ErrorResponse(List.of(ex.getMessage()), HttpStatus.BAD_REQUEST.value(), getTimestamp());
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles {@link TaskConflictException} and {@link IdempotencyKeyInUseException} and returns a 409 Conflict
+     * status with a detailed error message.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} containing the error response and the HTTP status
+     */
+    @ExceptionHandler(value = {TaskConflictException.class, IdempotencyKeyInUseException.class})
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ErrorResponse> handleTaskConflictException(RuntimeException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(List.of(ex.getMessage()), HttpStatus.CONFLICT.value(), getTimestamp());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles {@link TaskNotRestorableException} and returns a 410 Gone status with a detailed error message.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} containing the error response and the HTTP status
+     */
+    @ExceptionHandler(TaskNotRestorableException.class)
+    @ResponseStatus(HttpStatus.GONE)
+    public ResponseEntity<ErrorResponse> handleTaskNotRestorable(TaskNotRestorableException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(List.of(ex.getMessage()), HttpStatus.GONE.value(), getTimestamp());
+        return new ResponseEntity<>(errorResponse, HttpStatus.GONE);
+    }
+
+    /**
+     * Handles {@link IdempotencyKeyReusedException} and returns a 422 Unprocessable Entity status with a detailed
+     * error message.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} containing the error response and the HTTP status
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(List.of(ex.getMessage()), HttpStatus.UNPROCESSABLE_ENTITY.value(), getTimestamp());
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handles {@link OptimisticLockingFailureException} raised when a versioned task was changed by another
+     * transaction, and returns a 409 Conflict status.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} containing the error response and the HTTP status
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(List.of(ErrorMessages.CONCURRENT_MODIFICATION), HttpStatus.CONFLICT.value(), getTimestamp());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles {@link RateLimitExceededException} and returns a 429 Too Many Requests status with a
+     * {@code Retry-After} header telling the client how many seconds to wait.
+     *
+     * @param ex the exception that was thrown
+     * @return a {@link ResponseEntity} containing the error response and the HTTP status
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(List.of(ex.getMessage()), HttpStatus.TOO_MANY_REQUESTS.value(), getTimestamp());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     /**
      * Handles {@link TaskTimeException} and returns a 500 Internal Server Error status with a detailed error message.
      *
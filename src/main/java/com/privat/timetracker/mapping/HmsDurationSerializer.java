@@ -0,0 +1,29 @@
+package com.privat.timetracker.mapping;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializes a duration in seconds as an "HH:mm:ss" JSON string.
+ * <p>
+ * The digits are written into a small character buffer and passed to the generator directly, so no
+ * {@link String} is created per value.
+ * </p>
+ *
+ * @see TaskDurations
+ */
+public class HmsDurationSerializer extends StdSerializer<Long> {
+
+    public HmsDurationSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long seconds, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        char[] buffer = new char[TaskDurations.MAX_LENGTH];
+        generator.writeString(buffer, 0, TaskDurations.format(seconds, buffer));
+    }
+}
@@ -0,0 +1,92 @@
+package com.privat.timetracker.mapping;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Computes and formats task durations without intermediate objects.
+ * <p>
+ * Durations are whole seconds computed from epoch seconds of the timestamps, which avoids creating a
+ * {@link java.time.Duration} per task. Formatting writes "HH:mm:ss" digits straight into a character buffer instead
+ * of going through {@link String#format}, so the serializer can hand the characters to the JSON generator without
+ * creating a {@link String}.
+ * </p>
+ */
+public final class TaskDurations {
+
+    /**
+     * The longest formatted duration: 16 digits of hours followed by ":mm:ss".
+     */
+    public static final int MAX_LENGTH = 22;
+
+    private static final String ZERO = "00:00:00";
+
+    private TaskDurations() {
+    }
+
+    /**
+     * Computes the duration of a task in seconds.
+     * <p>
+     * The duration of a running task (no end time) is computed against {@code now}. A task that was never started
+     * has a duration of zero; negative durations caused by clock skew are reported as zero as well.
+     * </p>
+     *
+     * @param startTime the start time of the task, or null
+     * @param endTime   the end time of the task, or null if it is still running
+     * @param now       the time used for running tasks
+     * @return the duration in whole seconds
+     */
+    public static long seconds(LocalDateTime startTime, LocalDateTime endTime, LocalDateTime now) {
+        if (startTime == null) return 0;
+        LocalDateTime end = endTime != null ? endTime : now;
+        long seconds = end.toEpochSecond(ZoneOffset.UTC) - startTime.toEpochSecond(ZoneOffset.UTC);
+        return Math.max(seconds, 0);
+    }
+
+    /**
+     * Formats a duration as "HH:mm:ss". Hours are not limited to two digits.
+     *
+     * @param seconds the duration in seconds
+     * @return the formatted duration
+     */
+    public static String format(long seconds) {
+        if (seconds <= 0) return ZERO;
+        char[] buffer = new char[MAX_LENGTH];
+        return new String(buffer, 0, format(seconds, buffer));
+    }
+
+    /**
+     * Writes a duration as "HH:mm:ss" into {@code buffer}, starting at index 0.
+     *
+     * @param seconds the duration in seconds, negative values are written as zero
+     * @param buffer  the target buffer, at least {@value #MAX_LENGTH} characters long
+     * @return the number of characters written
+     */
+    public static int format(long seconds, char[] buffer) {
+        if (seconds < 0) seconds = 0;
+        long hours = seconds / 3600;
+        int minutes = (int) (seconds / 60 % 60);
+        int secs = (int) (seconds % 60);
+        int position = 0;
+        if (hours < 10) buffer[position++] = '0';
+        position = writeDigits(hours, buffer, position);
+        buffer[position++] = ':';
+        buffer[position++] = (char) ('0' + minutes / 10);
+        buffer[position++] = (char) ('0' + minutes % 10);
+        buffer[position++] = ':';
+        buffer[position++] = (char) ('0' + secs / 10);
+        buffer[position++] = (char) ('0' + secs % 10);
+        return position;
+    }
+
+    private static int writeDigits(long value, char[] buffer, int position) {
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) digits++;
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+}
@@ -3,13 +3,14 @@ package com.privat.timetracker.mapping;
 import com.privat.timetracker.controller.dto.TaskRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
 import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.repository.projection.TaskRow;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants.ComponentModel;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.Mappings;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 
 /**
@@ -20,7 +21,7 @@ import java.time.LocalDateTime;
  * to allow Spring to handle dependency injection for this mapper.
  * </p>
  */
-@Mapper(componentModel = ComponentModel.SPRING)
+@Mapper(componentModel = ComponentModel.SPRING, imports = TaskDurations.class)
 public interface TaskMapper {
 
     /**
@@ -31,16 +32,34 @@ public interface TaskMapper {
      */
     @Mappings(value = {
             @Mapping(source = "title", target = "title"),
-            @Mapping(source = "description", target = "description")
+            @Mapping(source = "description", target = "description"),
+            @Mapping(source = "maxSessionSeconds", target = "maxSessionSeconds")
     })
     Task toEntity(TaskRequest taskRequest);
 
     /**
      * Converts a {@link Task} entity to a {@link TaskResponse} DTO.
+     * The duration of a running task is computed for the current time.
      *
      * @param task the {@link Task} entity to convert
      * @return the corresponding {@link TaskResponse} DTO
      */
+    default TaskResponse toDto(Task task) {
+        return toDto(task, LocalDateTime.now());
+    }
+
+    /**
+     * Converts a {@link Task} entity to a {@link TaskResponse} DTO, computing the duration of a running task
+     * for the given time.
+     * <p>
+     * Callers mapping many tasks take one {@code now} snapshot and pass it to every call, so all running tasks
+     * of a response are measured against the same instant and the clock is read once.
+     * </p>
+     *
+     * @param task the {@link Task} entity to convert
+     * @param now  the time used for the duration of a running task
+     * @return the corresponding {@link TaskResponse} DTO
+     */
     @Mappings(value = {
             @Mapping(source = "title", target = "title"),
             @Mapping(source = "description", target = "description"),
@@ -49,9 +68,25 @@ public interface TaskMapper {
             @Mapping(source = "endTime", target = "endTime"),
             @Mapping(source = "createdAt", target = "createdAt"),
             @Mapping(source = "updatedAt", target = "editedAt"),
-            @Mapping(target = "duration", expression = "java(formatDuration(task.getStartTime(), task.getEndTime()))")
+            @Mapping(target = "durationSeconds",
+                    expression = "java(TaskDurations.seconds(task.getStartTime(), task.getEndTime(), now))")
+    })
+    TaskResponse toDto(Task task, @Context LocalDateTime now);
+
+    /**
+     * Converts a {@link TaskRow} read for a list view to a {@link TaskResponse} DTO, computing the duration of a
+     * running task for the given time.
+     *
+     * @param row the {@link TaskRow} to convert
+     * @param now the time used for the duration of a running task
+     * @return the corresponding {@link TaskResponse} DTO
+     */
+    @Mappings(value = {
+            @Mapping(source = "updatedAt", target = "editedAt"),
+            @Mapping(target = "durationSeconds",
+                    expression = "java(TaskDurations.seconds(row.startTime(), row.endTime(), now))")
     })
-    TaskResponse toDto(Task task);
+    TaskResponse toDto(TaskRow row, @Context LocalDateTime now);
 
     /**
      * Updates a {@link Task} entity with data from a {@link TaskRequest}.
@@ -61,10 +96,38 @@ public interface TaskMapper {
      */
     @Mappings(value = {
             @Mapping(target = "title", source = "taskRequest.title"),
-            @Mapping(target = "description", source = "taskRequest.description")
+            @Mapping(target = "description", source = "taskRequest.description"),
+            @Mapping(target = "maxSessionSeconds", source = "taskRequest.maxSessionSeconds")
     })
     Task updateTaskFromRequest(TaskRequest taskRequest, @MappingTarget Task task);
 
+    /**
+     * Recomputes the duration of a task that is still running.
+     * <p>
+     * Used for tasks served from a cache: the duration of a task without an end time grows with the current time,
+     * so it is computed again on every read. Other tasks are returned unchanged.
+     * </p>
+     *
+     * @param task the task DTO
+     * @return the task DTO with an up-to-date duration
+     */
+    default TaskResponse refreshDuration(TaskResponse task) {
+        return refreshDuration(task, LocalDateTime.now());
+    }
+
+    /**
+     * Recomputes the duration of a task that is still running for the given time.
+     *
+     * @param task the task DTO
+     * @param now  the time used for the duration of a running task
+     * @return the task DTO with an up-to-date duration
+     */
+    default TaskResponse refreshDuration(TaskResponse task, LocalDateTime now) {
+        if (task.startTime() == null || task.endTime() != null) return task;
+        return new TaskResponse(task.id(), task.title(), task.description(), task.status(), task.startTime(),
+                task.endTime(), task.createdAt(), task.editedAt(), TaskDurations.seconds(task.startTime(), null, now));
+    }
+
     /**
      * Formats the duration between {@link LocalDateTime} start and end times as a string in the format "HH:mm:ss".
      * If the end time is null, the current time is used.
@@ -74,14 +137,7 @@ public interface TaskMapper {
      * @return a string representing the duration in "HH:mm:ss" format
      */
     default String formatDuration(LocalDateTime startTime, LocalDateTime endTime) {
-        if (endTime == null) endTime = LocalDateTime.now();
-        if (startTime != null) {
-            Duration duration = Duration.between(startTime, endTime);
-            long hours = duration.toHours();
-            long minutes = duration.toMinutes() % 60;
-            long seconds = duration.getSeconds() % 60;
-            return String.format("%02d:%02d:%02d", hours, minutes, seconds);
-        }
-        return "00:00:00";
+        LocalDateTime now = endTime == null ? LocalDateTime.now() : null;
+        return TaskDurations.format(TaskDurations.seconds(startTime, endTime, now));
     }
 }
\ No newline at end of file
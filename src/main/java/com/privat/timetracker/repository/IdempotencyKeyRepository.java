@@ -0,0 +1,138 @@
+package com.privat.timetracker.repository;
+
+import com.privat.timetracker.repository.projection.IdempotencyRecord;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Access to {@code tasks_schema.idempotency_keys}, the responses recorded for idempotency keys.
+ * <p>
+ * A key is claimed by inserting a row without a response before the request runs; the primary key makes sure only
+ * one request of the whole cluster runs for a key. The response is stored into the row afterwards. A claim whose
+ * request never finished, e.g. because the node died, may be taken over once it is older than the claim timeout,
+ * and an expired key may be claimed again before the cleanup job removed it.
+ * </p>
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final String CLAIM = """
+            insert into tasks_schema.idempotency_keys as k (tenant_id, idempotency_key, request_hash, created_at, expires_at)
+            values (:tenantId, :key, :requestHash, :now, :expiresAt)
+            on conflict (tenant_id, idempotency_key) do update
+                set request_hash = excluded.request_hash, created_at = excluded.created_at,
+                    expires_at = excluded.expires_at, response_status = null, response_type = null, response_body = null
+                where k.expires_at <= :now or (k.response_status is null and k.created_at < :staleBefore)""";
+
+    private static final String FIND = """
+            select request_hash, response_status, response_type, response_body, expires_at
+            from tasks_schema.idempotency_keys
+            where tenant_id = :tenantId and idempotency_key = :key and expires_at > :now""";
+
+    private static final String COMPLETE = """
+            update tasks_schema.idempotency_keys
+            set response_status = :status, response_type = :type, response_body = :body
+            where tenant_id = :tenantId and idempotency_key = :key and request_hash = :requestHash
+              and response_status is null""";
+
+    private static final String RELEASE = """
+            delete from tasks_schema.idempotency_keys
+            where tenant_id = :tenantId and idempotency_key = :key and request_hash = :requestHash
+              and response_status is null""";
+
+    private static final String DELETE_EXPIRED = """
+            delete from tasks_schema.idempotency_keys
+            where ctid in (select ctid from tasks_schema.idempotency_keys where expires_at <= :now limit :limit)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public IdempotencyKeyRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Claims a key for a request.
+     *
+     * @param tenantId    the tenant of the request
+     * @param key         the idempotency key
+     * @param requestHash the hash of the request
+     * @param now         the current time
+     * @param expiresAt   the time until which the key and its response are kept
+     * @param staleBefore claims created before this time are considered abandoned
+     * @return true if the request claimed the key and has to run, false if the key is taken
+     */
+    public boolean claim(String tenantId, String key, byte[] requestHash, LocalDateTime now, LocalDateTime expiresAt,
+                         LocalDateTime staleBefore) {
+        return jdbcTemplate.update(CLAIM, keyParams(tenantId, key)
+                .addValue("requestHash", requestHash)
+                .addValue("now", now)
+                .addValue("expiresAt", expiresAt)
+                .addValue("staleBefore", staleBefore)) == 1;
+    }
+
+    /**
+     * Finds a key that has not expired yet.
+     *
+     * @param tenantId the tenant
+     * @param key      the idempotency key
+     * @param now      the current time
+     * @return the row of the key, or empty if there is none
+     */
+    public Optional<IdempotencyRecord> find(String tenantId, String key, LocalDateTime now) {
+        return jdbcTemplate.query(FIND, keyParams(tenantId, key).addValue("now", now), (rs, rowNum) ->
+                new IdempotencyRecord(rs.getBytes("request_hash"), rs.getObject("response_status", Integer.class),
+                        rs.getString("response_type"), rs.getBytes("response_body"),
+                        rs.getObject("expires_at", LocalDateTime.class))
+        ).stream().findFirst();
+    }
+
+    /**
+     * Stores the response of a request into its claim.
+     *
+     * @param tenantId    the tenant
+     * @param key         the idempotency key
+     * @param requestHash the hash of the request that claimed the key
+     * @param status      the HTTP status of the response
+     * @param type        the content type of the response, or null
+     * @param body        the body of the response
+     * @return false if the claim was taken over by another request in the meantime
+     */
+    public boolean complete(String tenantId, String key, byte[] requestHash, int status, String type, byte[] body) {
+        return jdbcTemplate.update(COMPLETE, keyParams(tenantId, key)
+                .addValue("requestHash", requestHash)
+                .addValue("status", status)
+                .addValue("type", type)
+                .addValue("body", body)) == 1;
+    }
+
+    /**
+     * Removes the claim of a request that did not produce a response worth keeping, so a retry runs again.
+     *
+     * @param tenantId    the tenant
+     * @param key         the idempotency key
+     * @param requestHash the hash of the request that claimed the key
+     */
+    public void release(String tenantId, String key, byte[] requestHash) {
+        jdbcTemplate.update(RELEASE, keyParams(tenantId, key).addValue("requestHash", requestHash));
+    }
+
+    /**
+     * Deletes a batch of expired keys.
+     *
+     * @param now   the current time
+     * @param limit the maximum number of rows to delete
+     * @return the number of deleted rows
+     */
+    public int deleteExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.update(DELETE_EXPIRED, new MapSqlParameterSource("now", now).addValue("limit", limit));
+    }
+
+    private static MapSqlParameterSource keyParams(String tenantId, String key) {
+        return new MapSqlParameterSource("tenantId", tenantId).addValue("key", key);
+    }
+}
@@ -0,0 +1,86 @@
+package com.privat.timetracker.repository;
+
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Optional;
+
+/**
+ * PostgreSQL advisory locks shared by all nodes of the application.
+ * <p>
+ * A lock is identified by a name and an integer key, so one job can have a lock per shard. The locks are session
+ * locks: each one holds its own pooled connection until it is released, and the database releases it by itself
+ * when the node or its connection dies, so a crashed node never blocks the others. Locking never waits; a lock
+ * held by another node is reported as not acquired.
+ * </p>
+ */
+@Repository
+public class JobLockRepository {
+    private static final String TRY_LOCK = "select pg_try_advisory_lock(hashtext(?), ?)";
+    private static final String UNLOCK = "select pg_advisory_unlock(hashtext(?), ?)";
+
+    private final DataSource dataSource;
+
+    public JobLockRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Acquires a lock unless another session holds it.
+     *
+     * @param name the name of the lock
+     * @param key  the key within the name, e.g. a shard number
+     * @return the lock, to be closed by the caller, or empty if it is held elsewhere
+     */
+    public Optional<JobLock> tryLock(String name, int key) {
+        SingleConnectionDataSource connection;
+        try {
+            // autocommit stays on, a session lock outlives every statement on the connection
+            connection = new SingleConnectionDataSource(dataSource.getConnection(), true);
+        } catch (SQLException ex) {
+            throw new CannotGetJdbcConnectionException("Could not get a connection for lock " + name, ex);
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(connection);
+        try {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class, name, key))) {
+                return Optional.of(new JobLock(jdbcTemplate, connection, name, key));
+            }
+        } catch (RuntimeException ex) {
+            connection.destroy();
+            throw ex;
+        }
+        connection.destroy();
+        return Optional.empty();
+    }
+
+    /**
+     * An acquired advisory lock. Closing it releases the lock and returns the connection to the pool.
+     */
+    public static final class JobLock implements AutoCloseable {
+        private final JdbcTemplate jdbcTemplate;
+        private final SingleConnectionDataSource connection;
+        private final String name;
+        private final int key;
+
+        private JobLock(JdbcTemplate jdbcTemplate, SingleConnectionDataSource connection, String name, int key) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.connection = connection;
+            this.name = name;
+            this.key = key;
+        }
+
+        @Override
+        public void close() {
+            try {
+                jdbcTemplate.queryForObject(UNLOCK, Boolean.class, name, key);
+            } finally {
+                // closing the session releases the lock as well should the unlock have failed
+                connection.destroy();
+            }
+        }
+    }
+}
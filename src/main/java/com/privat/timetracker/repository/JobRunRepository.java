@@ -0,0 +1,103 @@
+package com.privat.timetracker.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Access to {@code tasks_schema.job_runs}, the record of the completed shards of cluster-wide scheduled jobs.
+ * <p>
+ * An occurrence of a job is identified by the job name and the time it was scheduled for, which is the same on
+ * every node; it is complete once every shard has a row.
+ * </p>
+ */
+@Repository
+public class JobRunRepository {
+
+    private static final String FIND_COMPLETED_SHARDS = """
+            select shard from tasks_schema.job_runs
+            where job_name = :jobName and scheduled_at = :scheduledAt""";
+
+    private static final String FIND_LAST_SCHEDULED_AT = """
+            select max(scheduled_at) from tasks_schema.job_runs
+            where job_name = :jobName""";
+
+    private static final String MARK_COMPLETED = """
+            insert into tasks_schema.job_runs (job_name, scheduled_at, shard, shards, node, started_at, finished_at)
+            values (:jobName, :scheduledAt, :shard, :shards, :node, :startedAt, :finishedAt)
+            on conflict (job_name, scheduled_at, shard) do nothing""";
+
+    private static final String DELETE_BEFORE = """
+            delete from tasks_schema.job_runs
+            where job_name = :jobName and scheduled_at < :scheduledBefore""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JobRunRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Returns the shards of an occurrence that are already completed.
+     *
+     * @param jobName     the name of the job
+     * @param scheduledAt the time the occurrence was scheduled for
+     * @return the completed shard numbers
+     */
+    public Set<Integer> findCompletedShards(String jobName, LocalDateTime scheduledAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource("jobName", jobName)
+                .addValue("scheduledAt", scheduledAt);
+        return new HashSet<>(jdbcTemplate.queryForList(FIND_COMPLETED_SHARDS, params, Integer.class));
+    }
+
+    /**
+     * Returns the latest occurrence of a job for which at least one shard completed.
+     *
+     * @param jobName the name of the job
+     * @return the time the occurrence was scheduled for, or empty if the job never completed a shard
+     */
+    public Optional<LocalDateTime> findLastScheduledAt(String jobName) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(FIND_LAST_SCHEDULED_AT,
+                new MapSqlParameterSource("jobName", jobName), LocalDateTime.class));
+    }
+
+    /**
+     * Records a completed shard. Recording a shard that is already recorded has no effect.
+     *
+     * @param jobName     the name of the job
+     * @param scheduledAt the time the occurrence was scheduled for
+     * @param shard       the completed shard
+     * @param shards      the number of shards of the occurrence
+     * @param node        the node that ran the shard
+     * @param startedAt   the time the shard started
+     * @param finishedAt  the time the shard finished
+     */
+    public void markCompleted(String jobName, LocalDateTime scheduledAt, int shard, int shards, String node,
+                              LocalDateTime startedAt, LocalDateTime finishedAt) {
+        jdbcTemplate.update(MARK_COMPLETED, new MapSqlParameterSource("jobName", jobName)
+                .addValue("scheduledAt", scheduledAt)
+                .addValue("shard", shard)
+                .addValue("shards", shards)
+                .addValue("node", node)
+                .addValue("startedAt", startedAt)
+                .addValue("finishedAt", finishedAt));
+    }
+
+    /**
+     * Deletes the records of the occurrences of a job scheduled before the given time.
+     *
+     * @param jobName         the name of the job
+     * @param scheduledBefore the exclusive upper bound of the occurrences to delete
+     * @return the number of deleted rows
+     */
+    public int deleteBefore(String jobName, LocalDateTime scheduledBefore) {
+        return jdbcTemplate.update(DELETE_BEFORE, new MapSqlParameterSource("jobName", jobName)
+                .addValue("scheduledBefore", scheduledBefore));
+    }
+}
@@ -0,0 +1,179 @@
+package com.privat.timetracker.repository;
+
+import com.privat.timetracker.repository.projection.TaskArchiveBatch;
+import com.privat.timetracker.repository.projection.TaskRow;
+import com.privat.timetracker.repository.projection.TaskStamp;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Access to {@code tasks_schema.tasks_archive}, the cold storage of finished tasks.
+ * <p>
+ * Moving tasks in either direction is a single statement: a data-modifying CTE deletes the rows from one table and
+ * inserts them into the other, so a task is never lost or visible twice, also when the job is interrupted. The
+ * batch to archive is selected with {@code FOR UPDATE SKIP LOCKED}, so tasks that are being edited at the same
+ * time are left for a later run instead of blocking it.
+ * </p>
+ * <p>
+ * Archived tasks carry neither the search vector nor any secondary index; they are only read by ID, within the
+ * tenant of the caller. The archive job works across tenants and keeps the tenant and user of every task.
+ * </p>
+ */
+@Repository
+public class TaskArchiveRepository {
+
+    // created_at <= end_time for every finished task, the extra bound lets the planner skip newer partitions;
+    // the oldest finished tasks come from the partial end_time index of the inactive tasks. A restored task is
+    // stamped with its restore time in updated_at, which keeps it out of the archive for another full period
+    private static final String ARCHIVE_BATCH = """
+            with batch as (
+                select id, created_at
+                from tasks_schema.tasks
+                where task_status = 'INACTIVE' and end_time < :finishedBefore and created_at < :finishedBefore
+                  and coalesce(updated_at, end_time) < :finishedBefore
+                order by end_time, id
+                limit :limit
+                for update skip locked),
+                 moved as (
+                     delete from tasks_schema.tasks
+                         using batch
+                         where tasks.id = batch.id and tasks.created_at = batch.created_at
+                         returning tasks.id, tasks.title, tasks.description, tasks.start_time, tasks.end_time,
+                             tasks.task_status, tasks.created_at, tasks.updated_at, tasks.version,
+                             tasks.max_session_seconds, tasks.tenant_id, tasks.user_id,
+                             pg_column_size(tasks.*) as row_bytes),
+                 archived as (
+                     insert into tasks_schema.tasks_archive (id, title, description, start_time, end_time,
+                                                             task_status, created_at, updated_at, version,
+                                                             max_session_seconds, tenant_id, user_id, archived_at)
+                         select id, title, description, start_time, end_time, task_status, created_at, updated_at,
+                                version, max_session_seconds, tenant_id, user_id, :archivedAt
+                         from moved
+                         returning id)
+            select (select count(*) from archived) as rows, coalesce((select sum(row_bytes) from moved), 0) as bytes""";
+
+    private static final String RESTORE = """
+            with restored as (
+                delete from tasks_schema.tasks_archive
+                    where id = :id and tenant_id = :tenantId
+                    returning id, title, description, start_time, end_time, task_status, created_at, updated_at, version,
+                        max_session_seconds, tenant_id, user_id)
+            insert into tasks_schema.tasks (id, title, description, start_time, end_time, task_status, created_at,
+                                            updated_at, version, max_session_seconds, tenant_id, user_id)
+            select id, title, description, start_time, end_time, task_status, created_at, :restoredAt, version,
+                   max_session_seconds, tenant_id, user_id
+            from restored
+            returning id, title, description, task_status, start_time, end_time, created_at, updated_at""";
+
+    private static final String FIND_BY_ID = """
+            select id, title, description, task_status, start_time, end_time, created_at, updated_at
+            from tasks_schema.tasks_archive
+            where id = :id and tenant_id = :tenantId""";
+
+    private static final String FIND_STAMP_BY_ID = """
+            select id, version, created_at, updated_at, start_time, end_time
+            from tasks_schema.tasks_archive
+            where id = :id and tenant_id = :tenantId""";
+
+    // raised by PostgreSQL when no partition of the tasks table covers the created_at of an inserted row
+    private static final String CHECK_VIOLATION = "23514";
+    private static final String NO_PARTITION = "no partition of relation";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskArchiveRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Moves up to {@code limit} inactive tasks that finished before the given time into the archive.
+     *
+     * @param finishedBefore only tasks with an end time before this are moved
+     * @param archivedAt     the archival time stored with the moved tasks
+     * @param limit          the maximum number of tasks to move
+     * @return the number and size of the moved tasks
+     */
+    public TaskArchiveBatch archiveBatch(LocalDateTime finishedBefore, LocalDateTime archivedAt, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("finishedBefore", finishedBefore)
+                .addValue("archivedAt", archivedAt)
+                .addValue("limit", limit);
+        return jdbcTemplate.queryForObject(ARCHIVE_BATCH, parameters,
+                (resultSet, rowNum) -> new TaskArchiveBatch(resultSet.getInt("rows"), resultSet.getLong("bytes")));
+    }
+
+    /**
+     * Moves an archived task back into the tasks table and stamps it with the restore time as its update time.
+     *
+     * @param tenantId   the tenant owning the task
+     * @param id         the ID of the task
+     * @param restoredAt the time of the restore
+     * @return the restored task, or empty if the tenant has no archived task with this ID
+     * @throws DataIntegrityViolationException if the tasks table has no partition for the month the task was
+     *                                         created in, see {@link #isMissingPartition(DataAccessException)}
+     */
+    public Optional<TaskRow> restore(String tenantId, Long id, LocalDateTime restoredAt) {
+        return first(jdbcTemplate.query(RESTORE, byId(tenantId, id).addValue("restoredAt", restoredAt),
+                TaskListRepository::mapRow));
+    }
+
+    /**
+     * Tells whether a statement failed because the tasks table has no partition for the month of a row, which
+     * happens when the partition was detached after the row was archived.
+     *
+     * @param ex the exception thrown by the statement
+     * @return true if no partition covers the row
+     */
+    public static boolean isMissingPartition(DataAccessException ex) {
+        return ex.getMostSpecificCause() instanceof SQLException sqlException
+                && CHECK_VIOLATION.equals(sqlException.getSQLState())
+                && sqlException.getMessage() != null
+                && sqlException.getMessage().contains(NO_PARTITION);
+    }
+
+    /**
+     * Reads an archived task.
+     *
+     * @param tenantId the tenant owning the task
+     * @param id       the ID of the task
+     * @return the archived task, or empty if the tenant has no archived task with this ID
+     */
+    public Optional<TaskRow> findById(String tenantId, Long id) {
+        return first(jdbcTemplate.query(FIND_BY_ID, byId(tenantId, id), TaskListRepository::mapRow));
+    }
+
+    /**
+     * Reads the validator of an archived task.
+     *
+     * @param tenantId the tenant owning the task
+     * @param id       the ID of the task
+     * @return the validator, or empty if the tenant has no archived task with this ID
+     */
+    public Optional<TaskStamp> findStampById(String tenantId, Long id) {
+        return first(jdbcTemplate.query(FIND_STAMP_BY_ID, byId(tenantId, id),
+                (resultSet, rowNum) -> new TaskStamp(
+                        resultSet.getLong("id"),
+                        resultSet.getLong("version"),
+                        resultSet.getObject("created_at", LocalDateTime.class),
+                        resultSet.getObject("updated_at", LocalDateTime.class),
+                        resultSet.getObject("start_time", LocalDateTime.class),
+                        resultSet.getObject("end_time", LocalDateTime.class))));
+    }
+
+    private static MapSqlParameterSource byId(String tenantId, Long id) {
+        return new MapSqlParameterSource("id", id).addValue("tenantId", tenantId);
+    }
+
+    private static <T> Optional<T> first(List<T> rows) {
+        return rows.stream().findFirst();
+    }
+}
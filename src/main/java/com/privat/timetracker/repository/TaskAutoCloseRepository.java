@@ -0,0 +1,59 @@
+package com.privat.timetracker.repository;
+
+import com.privat.timetracker.repository.projection.TaskRef;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Closes the active tasks found by {@link TaskRepository#findActiveTasks} at the end of the day.
+ * <p>
+ * The statement reports the rows it actually closed, so a task that was stopped, deleted or restarted after the
+ * close time between reading the chunk and closing it gets neither an evicted cache entry nor an auto-closed event.
+ * The job works across tenants, and every closed row carries its tenant.
+ * </p>
+ */
+@Repository
+public class TaskAutoCloseRepository {
+
+    // IDs grow with the creation time, so the created_at range of a chunk spans few partitions and the others are
+    // skipped instead of probed for every ID. A task stopped and started again after the chunk was read started
+    // after the end time and is left running
+    private static final String CLOSE_ACTIVE_TASKS = """
+            update tasks_schema.tasks
+            set task_status = 'INACTIVE', end_time = :endTime, version = version + 1
+            where id in (:ids) and created_at between :createdFrom and :createdTo and task_status = 'ACTIVE'
+              and start_time <= :endTime
+            returning id, tenant_id, created_at""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskAutoCloseRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Closes those of the given tasks that are still active and were started no later than the end time.
+     *
+     * @param ids         the IDs of the tasks
+     * @param createdFrom the earliest creation time of the tasks
+     * @param createdTo   the latest creation time of the tasks
+     * @param endTime     the end time to set
+     * @return the tasks that were closed
+     */
+    public List<TaskRef> closeActiveTasks(Collection<Long> ids, LocalDateTime createdFrom, LocalDateTime createdTo,
+                                          LocalDateTime endTime) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids)
+                .addValue("createdFrom", createdFrom)
+                .addValue("createdTo", createdTo)
+                .addValue("endTime", endTime);
+        return jdbcTemplate.query(CLOSE_ACTIVE_TASKS, parameters, (resultSet, rowNum) -> new TaskRef(
+                resultSet.getLong("id"), resultSet.getString("tenant_id"),
+                resultSet.getObject("created_at", LocalDateTime.class)));
+    }
+}
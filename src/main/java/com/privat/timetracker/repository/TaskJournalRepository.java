@@ -0,0 +1,88 @@
+package com.privat.timetracker.repository;
+
+import com.privat.timetracker.repository.projection.TaskTransition;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes the starts and stops recorded in the journal of a node to {@code tasks_schema.tasks}, together with the
+ * position in {@code tasks_schema.journal_checkpoints} up to which the journal has been written.
+ * <p>
+ * Transitions use the same conditions as the single start and stop statements of {@link TaskRepository}, so a
+ * transition that no longer fits the state of the task, because another node changed it in the meantime, updates
+ * no row instead of overwriting that change. Every transition carries the creation time of its task, so it is
+ * only looked up in the partition of that task.
+ * </p>
+ */
+@Repository
+public class TaskJournalRepository {
+
+    private static final String APPLY = """
+            update tasks_schema.tasks
+            set task_status = case when :start then 'ACTIVE' else 'INACTIVE' end,
+                start_time = case when :start then :time else start_time end,
+                end_time = case when :start then end_time else :time end,
+                version = version + 1
+            where id = :id and created_at = :createdAt and tenant_id = :tenantId and (task_status = 'ACTIVE') <> :start""";
+
+    private static final String FIND_CHECKPOINT = """
+            select last_sequence from tasks_schema.journal_checkpoints where journal_id = :journalId""";
+
+    private static final String SAVE_CHECKPOINT = """
+            insert into tasks_schema.journal_checkpoints (journal_id, last_sequence, updated_at)
+            values (:journalId, :sequence, :now)
+            on conflict (journal_id) do update
+                set last_sequence = excluded.last_sequence, updated_at = excluded.updated_at""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskJournalRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Writes transitions in one JDBC batch, in the given order.
+     *
+     * @param transitions the transitions
+     * @return the number of rows updated by each transition, 0 for a transition that did not fit the task
+     */
+    public int[] apply(List<TaskTransition> transitions) {
+        return jdbcTemplate.batchUpdate(APPLY, transitions.stream()
+                .map(transition -> new MapSqlParameterSource("id", transition.taskId())
+                        .addValue("createdAt", transition.createdAt())
+                        .addValue("tenantId", transition.tenantId())
+                        .addValue("start", transition.start())
+                        .addValue("time", transition.time()))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Reads the sequence of the last entry of a journal written to the database.
+     *
+     * @param journalId the ID of the journal
+     * @return the sequence, or 0 if nothing of the journal has been written yet
+     */
+    public long findCheckpoint(String journalId) {
+        return jdbcTemplate.query(FIND_CHECKPOINT, new MapSqlParameterSource("journalId", journalId),
+                (rs, rowNum) -> rs.getLong("last_sequence")).stream().findFirst().orElse(0L);
+    }
+
+    /**
+     * Stores the sequence of the last entry of a journal written to the database.
+     *
+     * @param journalId the ID of the journal
+     * @param sequence  the sequence of the last written entry
+     * @param now       the current time
+     */
+    public void saveCheckpoint(String journalId, long sequence, LocalDateTime now) {
+        jdbcTemplate.update(SAVE_CHECKPOINT, new MapSqlParameterSource("journalId", journalId)
+                .addValue("sequence", sequence)
+                .addValue("now", now));
+    }
+}
@@ -0,0 +1,151 @@
+package com.privat.timetracker.repository;
+
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskRow;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Read-only access to task lists through plain JDBC.
+ * <p>
+ * List views only need a few short columns, so rows are mapped straight into {@link TaskRow} records: no entity
+ * is created, nothing enters the persistence context and no dirty-checking snapshot is kept. Only the columns the
+ * caller asks for are selected; the others, like the description of up to 10,000 characters, are read as
+ * {@code null} and never leave the database.
+ * </p>
+ * <p>
+ * Every query reads the tasks of one tenant. Rows are ordered by {@code created_at, id} and paged by keyset, which
+ * the {@code (tenant_id, created_at, id)} index serves without sorting. The table is partitioned by month of {@code created_at}, so a page after a cursor only
+ * scans the partitions from the cursor on. The JDBC driver only streams rows with a bounded fetch size inside a
+ * transaction, so callers run these methods in a (read-only) transaction.
+ * </p>
+ */
+@Repository
+public class TaskListRepository {
+    static final int FETCH_SIZE = 500;
+
+    static final List<String> COLUMNS = List.of(
+            "id", "title", "description", "task_status", "start_time", "end_time", "created_at", "updated_at");
+
+    private static final String TENANT = "where tenant_id = :tenantId\n";
+
+    // the plain created_at bound lets the planner prune the monthly partitions before the page
+    private static final String AFTER = "and created_at >= :createdAt and (created_at, id) > (:createdAt, :id)\n";
+
+    private static final String ORDER = "order by created_at, id\n";
+
+    private static final RowMapper<TaskRow> TASK_ROW_MAPPER = TaskListRepository::mapRow;
+
+    // IDs are allocated in blocks per node, so a lower ID can move onto a page when a task leaves it; the digest
+    // therefore covers every ID rather than their count and maximum
+    private static final String PAGE_STAMP = """
+            select md5(string_agg(id || ':' || version, ',' order by created_at, id)) as digest,
+                   sum(version) as version_sum, max(created_at) as last_created_at,
+                   max(updated_at) as last_updated_at, max(start_time) as last_start_time, max(end_time) as last_end_time
+            from (select id, version, created_at, updated_at, start_time, end_time
+                  from tasks_schema.tasks
+                  %s) page""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskListRepository(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Reads one page of tasks.
+     *
+     * @param tenantId       the tenant owning the tasks
+     * @param afterCreatedAt the creation time of the last task of the previous page, or null for the first page
+     * @param afterId        the ID of the last task of the previous page, or null for the first page
+     * @param limit          the maximum number of rows
+     * @param columns        the columns to select, the others are null in the rows
+     * @return the rows of the page
+     */
+    public List<TaskRow> findPage(String tenantId, LocalDateTime afterCreatedAt, Long afterId, int limit,
+                                  Set<String> columns) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("tenantId", tenantId).addValue("limit", limit);
+        StringBuilder sql = new StringBuilder(select(columns)).append(TENANT);
+        if (afterCreatedAt != null && afterId != null) {
+            sql.append(AFTER);
+            parameters.addValue("createdAt", afterCreatedAt).addValue("id", afterId);
+        }
+        sql.append(ORDER).append("limit :limit");
+        return jdbcTemplate.query(sql.toString(), parameters, TASK_ROW_MAPPER);
+    }
+
+    /**
+     * Computes the validator of one page of tasks over the same rows {@link #findPage} reads.
+     *
+     * @param tenantId       the tenant owning the tasks
+     * @param afterCreatedAt the creation time of the last task of the previous page, or null for the first page
+     * @param afterId        the ID of the last task of the previous page, or null for the first page
+     * @param limit          the maximum number of rows
+     * @return the validator of the rows of the page
+     */
+    public TaskListStamp findPageStamp(String tenantId, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("tenantId", tenantId).addValue("limit", limit);
+        StringBuilder page = new StringBuilder(TENANT);
+        if (afterCreatedAt != null && afterId != null) {
+            page.append(AFTER);
+            parameters.addValue("createdAt", afterCreatedAt).addValue("id", afterId);
+        }
+        page.append(ORDER).append("limit :limit");
+        return jdbcTemplate.queryForObject(PAGE_STAMP.formatted(page), parameters, (resultSet, rowNum) ->
+                new TaskListStamp(
+                        resultSet.getString("digest"),
+                        resultSet.getObject("version_sum", Long.class),
+                        resultSet.getObject("last_created_at", LocalDateTime.class),
+                        resultSet.getObject("last_updated_at", LocalDateTime.class),
+                        resultSet.getObject("last_start_time", LocalDateTime.class),
+                        resultSet.getObject("last_end_time", LocalDateTime.class)));
+    }
+
+    /**
+     * Reads all tasks of a tenant and hands every row to {@code consumer} as soon as it is read.
+     *
+     * @param tenantId the tenant owning the tasks
+     * @param columns  the columns to select, the others are null in the rows
+     * @param consumer receives the rows in list order
+     */
+    public void streamAll(String tenantId, Set<String> columns, Consumer<TaskRow> consumer) {
+        jdbcTemplate.query(select(columns) + TENANT + ORDER, new MapSqlParameterSource("tenantId", tenantId),
+                (RowCallbackHandler) resultSet -> consumer.accept(mapRow(resultSet, resultSet.getRow())));
+    }
+
+    // column names come from COLUMNS only, never from the caller, so they are safe to put into the statement
+    static String select(Set<String> columns) {
+        return COLUMNS.stream()
+                .map(column -> columns.contains(column) ? column : "null as " + column)
+                .collect(Collectors.joining(", ", "select ", "\nfrom tasks_schema.tasks\n"));
+    }
+
+    static TaskRow mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        String status = resultSet.getString("task_status");
+        return new TaskRow(
+                resultSet.getLong("id"),
+                resultSet.getString("title"),
+                resultSet.getString("description"),
+                status == null ? null : TaskStatus.valueOf(status),
+                resultSet.getObject("start_time", LocalDateTime.class),
+                resultSet.getObject("end_time", LocalDateTime.class),
+                resultSet.getObject("created_at", LocalDateTime.class),
+                resultSet.getObject("updated_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,116 @@
+package com.privat.timetracker.repository;
+
+import com.privat.timetracker.repository.projection.TaskPartition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for the monthly partitions of {@code tasks_schema.tasks}.
+ * <p>
+ * Partitions are named {@code tasks_YYYY_MM} and cover one calendar month of {@code created_at}; they are created
+ * by the {@code tasks_schema.create_task_partition} function of the migration. The statements run outside a
+ * transaction: {@code DETACH PARTITION ... CONCURRENTLY} is not allowed inside one and only needs a short lock on
+ * the parent table, so reads and writes of the other months go on while a partition is detached.
+ * </p>
+ * <p>
+ * A concurrent detach that is interrupted, by a cancelled statement or a lost connection, leaves the partition
+ * attached but marked as pending detach. Such a partition cannot be detached again; it has to be finalized.
+ * </p>
+ */
+@Repository
+public class TaskPartitionRepository {
+    static final Pattern PARTITION_NAME = Pattern.compile("tasks_(\\d{4})_(\\d{2})");
+
+    private static final String FIND_PARTITIONS = """
+            select child.relname, pg_inherits.inhdetachpending
+            from pg_inherits
+                     join pg_class parent on parent.oid = pg_inherits.inhparent
+                     join pg_namespace on pg_namespace.oid = parent.relnamespace
+                     join pg_class child on child.oid = pg_inherits.inhrelid
+            where pg_namespace.nspname = 'tasks_schema' and parent.relname = 'tasks'
+            order by child.relname""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskPartitionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Creates the partition for a month unless it already exists.
+     *
+     * @param month the month to create the partition for
+     * @return the name of the partition
+     */
+    public String createPartition(YearMonth month) {
+        return jdbcTemplate.queryForObject("select tasks_schema.create_task_partition(?)", String.class,
+                month.atDay(1));
+    }
+
+    /**
+     * Returns all partitions currently attached to the tasks table, including those pending detach.
+     *
+     * @return the partitions in ascending order of their names
+     */
+    public List<TaskPartition> findPartitions() {
+        return jdbcTemplate.query(FIND_PARTITIONS, (resultSet, rowNum) ->
+                new TaskPartition(resultSet.getString("relname"), resultSet.getBoolean("inhdetachpending")));
+    }
+
+    /**
+     * Detaches a partition, which keeps its rows as a standalone table outside of the tasks table.
+     *
+     * @param partitionName the name of the partition, as returned by {@link #findPartitions()}
+     */
+    public void detachPartition(String partitionName) {
+        jdbcTemplate.execute("alter table tasks_schema.tasks detach partition tasks_schema.%s concurrently"
+                .formatted(checkedName(partitionName)));
+    }
+
+    /**
+     * Completes the interrupted concurrent detach of a partition.
+     *
+     * @param partitionName the name of a partition pending detach, as returned by {@link #findPartitions()}
+     */
+    public void finalizeDetach(String partitionName) {
+        jdbcTemplate.execute("alter table tasks_schema.tasks detach partition tasks_schema.%s finalize"
+                .formatted(checkedName(partitionName)));
+    }
+
+    /**
+     * Drops a detached partition together with its rows.
+     *
+     * @param partitionName the name of the partition
+     */
+    public void dropPartition(String partitionName) {
+        jdbcTemplate.execute("drop table if exists tasks_schema.%s".formatted(checkedName(partitionName)));
+    }
+
+    /**
+     * Returns the month covered by a partition.
+     *
+     * @param partitionName the name of the partition
+     * @return the month, or null if the name does not follow the {@code tasks_YYYY_MM} pattern
+     */
+    public static YearMonth monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        if (!matcher.matches()) return null;
+        int month = Integer.parseInt(matcher.group(2));
+        if (month < 1 || month > 12) return null;
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), month);
+    }
+
+    // partition names are put into DDL, so only names of our own partitions are accepted
+    private static String checkedName(String partitionName) {
+        if (monthOf(partitionName) == null) {
+            throw new IllegalArgumentException("Not a task partition: " + partitionName);
+        }
+        return partitionName;
+    }
+}
@@ -1,10 +1,102 @@
 package com.privat.timetracker.repository;
 
 import com.privat.timetracker.entity.Task;
-import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.repository.projection.ActiveTaskSession;
+import com.privat.timetracker.repository.projection.TaskRef;
+import com.privat.timetracker.repository.projection.TaskStatusCount;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Access to {@code tasks_schema.tasks}.
+ * <p>
+ * JPQL queries are restricted to the tenant of the session by Hibernate, see
+ * {@link com.privat.timetracker.config.tenant.TenantIdentifierResolver}. Loading by ID is a JPQL query as well,
+ * because a plain {@code find} is not restricted. Native statements take the tenant as a parameter, except the ones
+ * used by the jobs, which work across tenants.
+ * </p>
+ */
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
-    Iterable<Task> findAllByStatus(TaskStatus taskStatus);
+    @Override
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findById(@Param("id") Long id);
+
+    List<Task> findAllByIdIn(Collection<Long> ids);
+
+    @Query(value = """
+            update tasks_schema.tasks
+            set task_status = 'ACTIVE', start_time = :startTime, version = version + 1
+            where id = :id and tenant_id = :tenantId and task_status <> 'ACTIVE'
+            returning *""", nativeQuery = true)
+    Optional<Task> startTask(@Param("tenantId") String tenantId, @Param("id") Long id,
+                             @Param("startTime") LocalDateTime startTime);
+
+    @Query(value = """
+            update tasks_schema.tasks
+            set task_status = 'INACTIVE', end_time = :endTime, version = version + 1
+            where id = :id and tenant_id = :tenantId and task_status = 'ACTIVE'
+            returning *""", nativeQuery = true)
+    Optional<Task> stopTask(@Param("tenantId") String tenantId, @Param("id") Long id,
+                            @Param("endTime") LocalDateTime endTime);
+
+    @Query(value = """
+            update tasks_schema.tasks
+            set task_status = 'ACTIVE', start_time = :startTime, version = version + 1
+            where id in (:ids) and tenant_id = :tenantId and task_status <> 'ACTIVE'
+            returning *""", nativeQuery = true)
+    List<Task> startTasks(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids,
+                          @Param("startTime") LocalDateTime startTime);
+
+    @Query(value = """
+            update tasks_schema.tasks
+            set task_status = 'INACTIVE', end_time = :endTime, version = version + 1
+            where id in (:ids) and tenant_id = :tenantId and task_status = 'ACTIVE'
+            returning *""", nativeQuery = true)
+    List<Task> stopTasks(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids,
+                         @Param("endTime") LocalDateTime endTime);
+
+    @Query(value = """
+            update tasks_schema.tasks
+            set task_status = 'INACTIVE', version = version + 1,
+                end_time = start_time + make_interval(secs => coalesce(max_session_seconds, :defaultSeconds))
+            where id = :id and task_status = 'ACTIVE'
+              and coalesce(max_session_seconds, :defaultSeconds) > 0
+              and start_time + make_interval(secs => coalesce(max_session_seconds, :defaultSeconds)) <= :now
+            returning *""", nativeQuery = true)
+    Optional<Task> stopExpiredTask(@Param("id") Long id, @Param("defaultSeconds") int defaultSeconds,
+                                   @Param("now") LocalDateTime now);
+
+    @Query("""
+            select new com.privat.timetracker.repository.projection.ActiveTaskSession(t.id, t.startTime, t.maxSessionSeconds)
+            from Task t where t.status = com.privat.timetracker.entity.TaskStatus.ACTIVE""")
+    List<ActiveTaskSession> findActiveSessions();
+
+    @Query("""
+            select new com.privat.timetracker.repository.projection.TaskRef(t.id, t.tenantId, t.createdAt)
+            from Task t
+            where t.status = com.privat.timetracker.entity.TaskStatus.ACTIVE
+              and t.id > :afterId and t.startTime <= :startedBefore and mod(t.id, :shards) = :shard
+            order by t.id""")
+    List<TaskRef> findActiveTasks(@Param("afterId") Long afterId, @Param("startedBefore") LocalDateTime startedBefore,
+                                  @Param("shard") int shard, @Param("shards") int shards, Pageable pageable);
+
+    @Query("""
+            select new com.privat.timetracker.repository.projection.TaskStatusCount(t.tenantId, t.status, count(t))
+            from Task t group by t.tenantId, t.status""")
+    List<TaskStatusCount> countByTenantAndStatus();
+
+    // served by the partial tasks_active_id_idx, so only the few active rows are read
+    @Query("""
+            select new com.privat.timetracker.repository.projection.TaskStatusCount(t.tenantId, t.status, count(t))
+            from Task t where t.status = com.privat.timetracker.entity.TaskStatus.ACTIVE
+            group by t.tenantId, t.status""")
+    List<TaskStatusCount> countActiveByTenant();
 }
@@ -0,0 +1,102 @@
+package com.privat.timetracker.repository;
+
+import com.privat.timetracker.repository.projection.TaskSearchRow;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Full-text search over task titles and descriptions.
+ * <p>
+ * Matching uses the generated {@code search_vector} column and the GIN index on {@code (tenant_id, search_vector)},
+ * so only matching rows of the tenant are read.
+ * Matches are ranked with {@code ts_rank_cd}, where title words weigh more than description words, and paged by
+ * keyset on {@code (rank desc, id)}. The page is cut before the task columns are joined, and highlights are produced
+ * with {@code ts_headline}, which re-parses the text, only for the rows of that page.
+ * </p>
+ * <p>
+ * The query text is parsed with {@code websearch_to_tsquery}, which accepts what users type into a search box
+ * (quoted phrases, {@code or}, {@code -word}) and never fails on syntax.
+ * </p>
+ */
+@Repository
+public class TaskSearchRepository {
+
+    private static final String MATCHES = """
+            with query as (select websearch_to_tsquery('simple', :query) as q),
+            matches as (
+                select t.id, ts_rank_cd(t.search_vector, query.q) as rank
+                from tasks_schema.tasks t, query
+                where t.tenant_id = :tenantId and t.search_vector @@ query.q
+            ),
+            page as (
+                select id, rank from matches
+            """;
+
+    private static final String AFTER =
+            "where rank < cast(:afterRank as real) or (rank = cast(:afterRank as real) and id > :afterId)\n";
+
+    private static final String PAGE_END = """
+                order by rank desc, id
+                limit :limit
+            )
+            """;
+
+    private static final String HIGHLIGHTS = """
+            , ts_headline('simple', t.title, query.q, 'StartSel=<mark>, StopSel=</mark>, HighlightAll=true') as title_highlight,
+              ts_headline('simple', coalesce(t.description, ''), query.q,
+                          'StartSel=<mark>, StopSel=</mark>, MaxFragments=2, MaxWords=20, MinWords=5') as description_highlight
+            """;
+
+    private static final String NO_HIGHLIGHTS = """
+            , null as title_highlight, null as description_highlight
+            """;
+
+    private static final RowMapper<TaskSearchRow> TASK_SEARCH_ROW_MAPPER = (resultSet, rowNum) -> new TaskSearchRow(
+            TaskListRepository.mapRow(resultSet, rowNum),
+            resultSet.getFloat("rank"),
+            resultSet.getString("title_highlight"),
+            resultSet.getString("description_highlight"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskSearchRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Finds one page of tasks of a tenant matching a query, best matches first.
+     *
+     * @param tenantId           the tenant owning the tasks
+     * @param query              the search text as typed by the user
+     * @param afterRank          the rank of the last task of the previous page, or null for the first page
+     * @param afterId            the ID of the last task of the previous page, or null for the first page
+     * @param limit              the maximum number of rows
+     * @param includeDescription whether to select the description
+     * @param highlight          whether to compute highlights
+     * @return the matching rows of the page
+     */
+    public List<TaskSearchRow> search(String tenantId, String query, Float afterRank, Long afterId, int limit,
+                                      boolean includeDescription, boolean highlight) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("query", query)
+                .addValue("tenantId", tenantId)
+                .addValue("limit", limit);
+        StringBuilder sql = new StringBuilder(MATCHES);
+        if (afterRank != null && afterId != null) {
+            sql.append(AFTER);
+            parameters.addValue("afterRank", afterRank).addValue("afterId", afterId);
+        }
+        sql.append(PAGE_END)
+                .append("select t.id, t.title, ")
+                .append(includeDescription ? "t.description" : "null as description")
+                .append(", t.task_status, t.start_time, t.end_time, t.created_at, t.updated_at, page.rank\n")
+                .append(highlight ? HIGHLIGHTS : NO_HIGHLIGHTS)
+                .append("from page join tasks_schema.tasks t on t.id = page.id, query\n")
+                .append("order by page.rank desc, page.id");
+        return jdbcTemplate.query(sql.toString(), parameters, TASK_SEARCH_ROW_MAPPER);
+    }
+}
@@ -0,0 +1,13 @@
+package com.privat.timetracker.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running session of an active task, read to arm its deadline.
+ *
+ * @param id                the ID of the task
+ * @param startTime         the start time of the session
+ * @param maxSessionSeconds the session limit of the task, or null if the global limit applies
+ */
+public record ActiveTaskSession(Long id, LocalDateTime startTime, Integer maxSessionSeconds) {
+}
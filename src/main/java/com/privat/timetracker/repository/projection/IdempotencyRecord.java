@@ -0,0 +1,16 @@
+package com.privat.timetracker.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A row of {@code tasks_schema.idempotency_keys}.
+ *
+ * @param requestHash    the hash of the request that claimed the key
+ * @param responseStatus the HTTP status of the response, or null while the request is still running
+ * @param responseType   the content type of the response, or null
+ * @param responseBody   the body of the response, or null
+ * @param expiresAt      the time after which the key may be used again
+ */
+public record IdempotencyRecord(byte[] requestHash, Integer responseStatus, String responseType, byte[] responseBody,
+                                LocalDateTime expiresAt) {
+}
@@ -0,0 +1,10 @@
+package com.privat.timetracker.repository.projection;
+
+/**
+ * Outcome of moving one batch of tasks into the archive.
+ *
+ * @param rows  the number of tasks moved
+ * @param bytes the total size of the moved rows in the tasks table
+ */
+public record TaskArchiveBatch(int rows, long bytes) {
+}
@@ -0,0 +1,58 @@
+package com.privat.timetracker.repository.projection;
+
+import com.privat.timetracker.controller.dto.TaskFields;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+
+/**
+ * Validator of one page of the task list, computed by a single aggregate query over the rows of the page without
+ * loading any task.
+ * <p>
+ * The rows include the one after the page, which tells whether a next page exists. The digest covers the ID and
+ * the version of every row in list order, so it changes whenever a row enters or leaves the page, even when a
+ * deleted task is replaced by another one with a lower ID and the number of rows stays the same, and whenever a
+ * task is written, since every write increments its version.
+ * </p>
+ *
+ * @param digest        the MD5 digest of the IDs and versions of the tasks, or null if there are no tasks
+ * @param versionSum    the sum of the task versions, including the transitions of the journal that are not yet
+ *                      written, or null if there are no tasks
+ * @param lastCreatedAt the latest creation time
+ * @param lastUpdatedAt the latest edit time
+ * @param lastStartTime the latest start time
+ * @param lastEndTime   the latest end time
+ */
+public record TaskListStamp(String digest, Long versionSum, LocalDateTime lastCreatedAt,
+                            LocalDateTime lastUpdatedAt, LocalDateTime lastStartTime, LocalDateTime lastEndTime) {
+
+    /**
+     * Returns the entity tag of one page of the list.
+     *
+     * @param cursor the cursor of the page, or null for the first page
+     * @param size   the requested page size
+     * @param fields the fields of the tasks on the page
+     * @return the quoted entity tag
+     */
+    public String etag(String cursor, int size, TaskFields fields) {
+        String variant = fields.includes(TaskFields.Field.DESCRIPTION)
+                ? "-d" + fields.etagPart() + "-"
+                : fields.equals(TaskFields.ALL.withoutDescription()) ? "-" : fields.etagPart() + "-";
+        return "\"tasks-" + digest + "-" + versionSum + "-" + size + variant
+                + (cursor == null ? "" : cursor) + "\"";
+    }
+
+    /**
+     * Returns the time of the last change of any task.
+     *
+     * @return epoch milliseconds, or -1 if there are no tasks
+     */
+    public long lastModified() {
+        return Stream.of(lastCreatedAt, lastUpdatedAt, lastStartTime, lastEndTime)
+                .filter(time -> time != null)
+                .max(LocalDateTime::compareTo)
+                .map(time -> time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(-1L);
+    }
+}
@@ -0,0 +1,10 @@
+package com.privat.timetracker.repository.projection;
+
+/**
+ * Partition of the tasks table.
+ *
+ * @param name          the name of the partition
+ * @param detachPending whether a concurrent detach of the partition was interrupted and still has to be finalized
+ */
+public record TaskPartition(String name, boolean detachPending) {
+}
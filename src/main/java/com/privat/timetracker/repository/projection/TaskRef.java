@@ -0,0 +1,13 @@
+package com.privat.timetracker.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * ID of a task together with its tenant, read by jobs that work across tenants.
+ *
+ * @param id        the ID of the task
+ * @param tenantId  the tenant of the task
+ * @param createdAt the creation time of the task, which selects its partition
+ */
+public record TaskRef(Long id, String tenantId, LocalDateTime createdAt) {
+}
@@ -0,0 +1,21 @@
+package com.privat.timetracker.repository.projection;
+
+import com.privat.timetracker.entity.TaskStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a task needed by list views, read without creating a managed entity.
+ *
+ * @param id          the ID of the task
+ * @param title       the title of the task
+ * @param description the description of the task, or null if it was not selected
+ * @param status      the status of the task
+ * @param startTime   the start time of the task
+ * @param endTime     the end time of the task
+ * @param createdAt   the creation time of the task
+ * @param updatedAt   the last edit time of the task
+ */
+public record TaskRow(Long id, String title, String description, TaskStatus status, LocalDateTime startTime,
+                      LocalDateTime endTime, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
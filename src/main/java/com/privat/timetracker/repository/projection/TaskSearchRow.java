@@ -0,0 +1,13 @@
+package com.privat.timetracker.repository.projection;
+
+/**
+ * A task matching a full-text search query.
+ *
+ * @param task                 the columns of the task
+ * @param rank                 the relevance of the task for the query, higher is better
+ * @param titleHighlight       the title with matching words marked, or null if highlighting was not requested
+ * @param descriptionHighlight fragments of the description with matching words marked, or null if highlighting
+ *                             was not requested
+ */
+public record TaskSearchRow(TaskRow task, float rank, String titleHighlight, String descriptionHighlight) {
+}
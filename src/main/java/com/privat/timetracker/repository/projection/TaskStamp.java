@@ -0,0 +1,48 @@
+package com.privat.timetracker.repository.projection;
+
+import com.privat.timetracker.controller.dto.TaskFields;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.stream.Stream;
+
+/**
+ * Validator of a single task, taken from the task cache or read without loading the task itself.
+ * <p>
+ * Every write to a task increments its version, so the version identifies the state of the row and is used as a
+ * strong entity tag. The last modification time is the latest of the task's timestamps.
+ * </p>
+ *
+ * @param id        the ID of the task
+ * @param version   the version of the task
+ * @param createdAt the creation time of the task
+ * @param updatedAt the last edit time of the task
+ * @param startTime the start time of the task
+ * @param endTime   the end time of the task
+ */
+public record TaskStamp(Long id, Long version, LocalDateTime createdAt, LocalDateTime updatedAt,
+                        LocalDateTime startTime, LocalDateTime endTime) {
+
+    /**
+     * Returns the entity tag of the task.
+     *
+     * @param fields the fields of the task in the response
+     * @return the quoted entity tag
+     */
+    public String etag(TaskFields fields) {
+        return "\"task-" + id + "-" + version + fields.etagPart() + "\"";
+    }
+
+    /**
+     * Returns the time of the last change of the task.
+     *
+     * @return epoch milliseconds, or -1 if the task has no timestamps
+     */
+    public long lastModified() {
+        return Stream.of(createdAt, updatedAt, startTime, endTime)
+                .filter(time -> time != null)
+                .max(LocalDateTime::compareTo)
+                .map(time -> time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(-1L);
+    }
+}
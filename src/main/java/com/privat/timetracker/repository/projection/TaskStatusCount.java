@@ -0,0 +1,13 @@
+package com.privat.timetracker.repository.projection;
+
+import com.privat.timetracker.entity.TaskStatus;
+
+/**
+ * Number of tasks of one tenant in one {@link TaskStatus}.
+ *
+ * @param tenantId the tenant
+ * @param status   the status
+ * @param count    the number of tasks in the status
+ */
+public record TaskStatusCount(String tenantId, TaskStatus status, Long count) {
+}
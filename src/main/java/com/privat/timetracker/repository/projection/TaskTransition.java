@@ -0,0 +1,15 @@
+package com.privat.timetracker.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A start or stop of a task to be written to {@code tasks_schema.tasks}.
+ *
+ * @param tenantId  the tenant of the task
+ * @param taskId    the ID of the task
+ * @param createdAt the creation time of the task, which selects its partition
+ * @param start     true for a start, false for a stop
+ * @param time      the start or end time of the task
+ */
+public record TaskTransition(String tenantId, Long taskId, LocalDateTime createdAt, boolean start, LocalDateTime time) {
+}
@@ -3,52 +3,183 @@ package com.privat.timetracker.service;
 import com.privat.timetracker.entity.TaskStatus;
 import com.privat.timetracker.exception.constants.ErrorMessages;
 import com.privat.timetracker.exception.exceptions.TaskTimeException;
+import com.privat.timetracker.repository.TaskAutoCloseRepository;
 import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.TaskRef;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import com.privat.timetracker.service.job.ClusterJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Service class responsible for automatically closing tasks at the end of each day.
  * <p>
  * This service implements the {@link AutoClosableTask} interface and is scheduled to run daily at 23:59:59.
- * It marks all active tasks as inactive and sets their end time to the current time.
+ * It marks all active tasks as inactive and sets their end time to the time the run was scheduled for.
+ * </p>
+ * <p>
+ * The job works across tenants: it runs without a tenant, so the queries are not restricted, and the cache
+ * entries and events of every closed task go to the tenant of that task.
+ * </p>
+ * <p>
+ * With several nodes the run is shared between them through {@link ClusterJobs}: the tasks are split into shards
+ * by ID and every shard is closed by one node. A run missed while no node was up is caught up on startup.
+ * </p>
+ * <p>
+ * Tasks are closed in chunks of bounded size, walking the active tasks in ID order. Every chunk is closed
+ * by a single conditional UPDATE in its own short transaction, so locks are held only on the rows of the
+ * current chunk. The UPDATE only touches rows that are still active, which makes the job safe to run again
+ * after a partial failure: a new run simply picks up the tasks that remained active.
+ * </p>
+ * <p>
+ * Every shard is recorded in the {@code task.auto_close.duration} timer tagged with its outcome, every chunk in the
+ * {@code task.auto_close.chunk.duration} timer, and the closed tasks are counted in {@code task.auto_close.closed}.
+ * </p>
+ * <p>
+ * An auto-closed {@link TaskChangedEvent} is published for every task the UPDATE of a chunk actually closed and
+ * delivered to event stream subscribers once the chunk has committed.
  * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class AutoCloseTaskDailyService implements AutoClosableTask {
+    static final String JOB_NAME = "auto-close";
+    static final String CRON = "59 59 23 * * *";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     private final TaskRepository taskRepository;
+    private final TaskAutoCloseRepository taskAutoCloseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskCache taskCache;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClusterJobs clusterJobs;
+
+    @Value("${time-tracker.auto-close.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${time-tracker.auto-close.shards:8}")
+    private int shards;
 
     /**
      * Automatically closes all tasks that are currently active at the end of the day.
      * <p>
-     * This method is scheduled to run daily at 23:59:59. It updates the status of all active tasks to
-     * {@link TaskStatus#INACTIVE} and sets their end time to the current time.
+     * This method is scheduled to run daily at 23:59:59 on every node. The active tasks are split into shards by
+     * ID, and {@link ClusterJobs} makes sure every shard is closed by exactly one node, so the nodes share the work
+     * instead of closing the same tasks concurrently.
      * </p>
      * <p>
      * If an exception occurs during the task update, a {@link TaskTimeException} is thrown with a relevant
-     * error message.
+     * error message once the other shards have run. Chunks committed before the failure stay closed.
      * </p>
      */
     @Override
-    @Scheduled(cron = "59 59 23 * * *")
-    @Transactional
+    @Scheduled(cron = CRON)
     public void autoCloseTasks() {
+        clusterJobs.runScheduled(JOB_NAME, CRON, shards, this::closeShard);
+    }
+
+    /**
+     * Closes the tasks of an occurrence of the job that was missed while no node was running, or that did not
+     * complete. The tasks are closed at the time the missed run was scheduled for, and tasks started after it stay
+     * active.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpMissedRun() {
+        clusterJobs.catchUp(JOB_NAME, CRON, shards, this::closeShard);
+    }
+
+    /**
+     * Closes the tasks of one shard that were active at the given time. Their status is set to
+     * {@link TaskStatus#INACTIVE} and their end time to that time. The number of closed tasks and the duration of
+     * every chunk are logged.
+     *
+     * @param closeAt the time the run was scheduled for
+     * @param shard   the shard to close
+     * @param shards  the number of shards
+     * @throws TaskTimeException if closing a chunk fails
+     */
+    void closeShard(LocalDateTime closeAt, int shard, int shards) {
+        long startedAt = System.nanoTime();
+        Timer chunkTimer = Timer.builder("task.auto_close.chunk.duration")
+                .description("Duration of one auto-close chunk")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Counter closedCounter = Counter.builder("task.auto_close.closed")
+                .description("Number of tasks closed by the auto-close job")
+                .register(meterRegistry);
+        int closedTasks = 0;
+        int chunks = 0;
+        Long lastId = 0L;
         try {
-            LocalDateTime now = LocalDateTime.now().withNano(0);
-            taskRepository.findAllByStatus(TaskStatus.ACTIVE)
-                    .forEach(task -> {
-                        task.setEndTime(now);
-                        task.setStatus(TaskStatus.INACTIVE);
-                        taskRepository.save(task);
-                    });
+            while (true) {
+                long chunkStartedAt = System.nanoTime();
+                List<TaskRef> tasks = taskRepository.findActiveTasks(lastId, closeAt, shard, shards,
+                        PageRequest.ofSize(chunkSize));
+                if (tasks.isEmpty()) break;
+                List<Long> taskIds = tasks.stream().map(TaskRef::id).toList();
+                LocalDateTime createdFrom = tasks.stream().map(TaskRef::createdAt).min(LocalDateTime::compareTo).orElseThrow();
+                LocalDateTime createdTo = tasks.stream().map(TaskRef::createdAt).max(LocalDateTime::compareTo).orElseThrow();
+                List<TaskRef> closedRefs = transactionTemplate.execute(status -> {
+                    // tasks stopped since the chunk was read are not returned and keep their cache entry
+                    List<TaskRef> refs = taskAutoCloseRepository.closeActiveTasks(taskIds, createdFrom, createdTo, closeAt);
+                    refs.stream()
+                            .collect(Collectors.groupingBy(TaskRef::tenantId, Collectors.mapping(TaskRef::id, Collectors.toList())))
+                            .forEach(taskCache::evict);
+                    refs.forEach(task -> eventPublisher.publishEvent(
+                            TaskChangedEvent.of(task.tenantId(), TaskChangeType.AUTO_CLOSED, task.id())));
+                    return refs;
+                });
+                int closed = closedRefs == null ? 0 : closedRefs.size();
+                closedTasks += closed;
+                closedCounter.increment(closed);
+                chunkTimer.record(System.nanoTime() - chunkStartedAt, TimeUnit.NANOSECONDS);
+                chunks++;
+                lastId = taskIds.get(taskIds.size() - 1);
+                logger.info("Auto-close chunk {} of shard {} closed {} of {} tasks up to id {} in {} ms",
+                        chunks, shard, closed, taskIds.size(), lastId, elapsedMillis(chunkStartedAt));
+                if (taskIds.size() < chunkSize) break;
+            }
         } catch (Exception ex) {
+            logger.error("Auto-close of shard {} stopped after {} tasks in {} chunks, last closed id {}",
+                    shard, closedTasks, chunks, lastId);
+            recordRun(startedAt, "failure");
             throw new TaskTimeException(ErrorMessages.TASK_AUTO_CLOSE_EXCEPTION.formatted(ex.getMessage()));
         }
+        logger.info("Auto-close closed {} tasks of shard {} in {} chunks in {} ms",
+                closedTasks, shard, chunks, elapsedMillis(startedAt));
+        recordRun(startedAt, "success");
+    }
+
+    private void recordRun(long startedAt, String outcome) {
+        Timer.builder("task.auto_close.duration")
+                .description("Duration of a whole auto-close run")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
     }
-}
\ No newline at end of file
+}
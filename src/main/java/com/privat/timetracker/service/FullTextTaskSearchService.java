@@ -0,0 +1,87 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskSearchHit;
+import com.privat.timetracker.controller.dto.TaskSearchPage;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.InvalidCursorException;
+import com.privat.timetracker.exception.exceptions.InvalidSearchQueryException;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskSearchRepository;
+import com.privat.timetracker.repository.projection.TaskSearchRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Service class for searching tasks by the words in their title and description.
+ * <p>
+ * This service implements the {@link TaskSearch} interface on top of the Postgres full-text index of
+ * {@link TaskSearchRepository}. Results are ranked by relevance and paged by keyset, so deep pages cost the same
+ * as the first one.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class FullTextTaskSearchService implements TaskSearch {
+
+    /**
+     * Upper bound for the number of results returned on a single page.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Upper bound for the length of a search query.
+     */
+    public static final int MAX_QUERY_LENGTH = 200;
+
+    private final TaskSearchRepository taskSearchRepository;
+    private final TaskMapper taskMapper;
+
+    /**
+     * Finds one page of tasks matching a query.
+     * <p>
+     * One extra row is fetched to find out whether a next page exists. The cursor of the next page points right
+     * after the last result and is only meaningful together with the same query.
+     * </p>
+     *
+     * @param query              the search text
+     * @param cursor             the opaque continuation token from the previous page, or null for the first page
+     * @param size               the maximum number of results on the page, clamped to {@value #MAX_PAGE_SIZE}
+     * @param includeDescription whether the tasks contain their descriptions
+     * @param highlight          whether the matching words are marked in the title and description
+     * @return the page of results with the continuation token for the next page
+     * @throws InvalidSearchQueryException if the query is blank or longer than {@value #MAX_QUERY_LENGTH} characters
+     * @throws InvalidCursorException      if the cursor cannot be decoded
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSearchPage search(String query, String cursor, int size, boolean includeDescription, boolean highlight) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new InvalidSearchQueryException(ErrorMessages.INVALID_SEARCH_QUERY.formatted(MAX_QUERY_LENGTH));
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        TaskSearchCursor after = cursor == null || cursor.isBlank() ? null : TaskSearchCursor.decode(cursor);
+        String tenantId = TenantContext.requireTenantId();
+        List<TaskSearchRow> rows = after == null
+                ? taskSearchRepository.search(tenantId, query, null, null, pageSize + 1, includeDescription, highlight)
+                : taskSearchRepository.search(tenantId, query, after.rank(), after.id(), pageSize + 1, includeDescription,
+                highlight);
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskSearchRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TaskSearchRow last = page.get(pageSize - 1);
+            nextCursor = new TaskSearchCursor(last.rank(), last.task().id()).encode();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<TaskSearchHit> hits = page.stream()
+                .map(row -> new TaskSearchHit(taskMapper.toDto(row.task(), now), row.rank(), row.titleHighlight(),
+                        row.descriptionHighlight()))
+                .toList();
+        return new TaskSearchPage(hits, nextCursor);
+    }
+}
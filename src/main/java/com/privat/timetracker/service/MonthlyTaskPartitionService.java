@@ -0,0 +1,120 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.repository.TaskPartitionRepository;
+import com.privat.timetracker.repository.projection.TaskPartition;
+import com.privat.timetracker.service.job.ClusterJobs;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Service keeping the monthly partitions of the tasks table in shape.
+ * <p>
+ * The tasks table is partitioned by month of {@code created_at} and has no default partition, so a task can only
+ * be inserted once the partition for its month exists. This service creates the partitions for the current month
+ * and the configured number of months ahead, on startup and every night, so a missed run is caught up long before
+ * a partition is needed.
+ * </p>
+ * <p>
+ * Retention is done per partition instead of row by row: partitions that lie completely before the retention
+ * window are detached, which is cheap and leaves no dead rows to vacuum, and are dropped afterwards when so
+ * configured. A detached partition that is kept stays available as a standalone table for archiving. A retention
+ * of zero months keeps all history. A partition whose concurrent detach was interrupted, for example by a restart
+ * during a run, is finalized by the next run instead of being detached again.
+ * </p>
+ * <p>
+ * Every partition detached or dropped is counted in {@value #METRIC_NAME}, tagged with the action.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class MonthlyTaskPartitionService implements TaskPartitionMaintenance {
+    static final String METRIC_NAME = "task.partitions.maintenance";
+    static final String JOB_NAME = "partitions";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TaskPartitionRepository taskPartitionRepository;
+    private final MeterRegistry meterRegistry;
+    private final ClusterJobs clusterJobs;
+
+    @Value("${time-tracker.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${time-tracker.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${time-tracker.partitions.drop-detached:false}")
+    private boolean dropDetached;
+
+    /**
+     * Creates the missing partitions up to the configured number of months ahead and removes the partitions that
+     * fell out of the retention window.
+     * <p>
+     * Runs on startup and daily at 03:00; a node skips the run while another node is running it. Failures are
+     * logged per partition, so one failing partition does not stop the others; the next run retries.
+     * </p>
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${time-tracker.partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        clusterJobs.runExclusive(JOB_NAME, () -> maintainPartitions(YearMonth.now()));
+    }
+
+    void maintainPartitions(YearMonth currentMonth) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            try {
+                taskPartitionRepository.createPartition(month);
+            } catch (Exception ex) {
+                logger.error("Could not create the task partition for {}: {}", month, ex.getMessage());
+            }
+        }
+        if (retentionMonths > 0) removeExpiredPartitions(currentMonth.minusMonths(retentionMonths));
+    }
+
+    private void removeExpiredPartitions(YearMonth oldestKeptMonth) {
+        List<TaskPartition> partitions;
+        try {
+            partitions = taskPartitionRepository.findPartitions();
+        } catch (Exception ex) {
+            logger.error("Could not list the task partitions: {}", ex.getMessage());
+            return;
+        }
+        for (TaskPartition partition : partitions) {
+            String partitionName = partition.name();
+            YearMonth month = TaskPartitionRepository.monthOf(partitionName);
+            if (month == null || !month.isBefore(oldestKeptMonth)) continue;
+            try {
+                if (partition.detachPending()) {
+                    taskPartitionRepository.finalizeDetach(partitionName);
+                } else {
+                    taskPartitionRepository.detachPartition(partitionName);
+                }
+                count("detached");
+                logger.info("Detached task partition {}", partitionName);
+                if (dropDetached) {
+                    taskPartitionRepository.dropPartition(partitionName);
+                    count("dropped");
+                    logger.info("Dropped task partition {}", partitionName);
+                }
+            } catch (Exception ex) {
+                logger.error("Could not remove the task partition {}: {}", partitionName, ex.getMessage());
+            }
+        }
+    }
+
+    private void count(String action) {
+        meterRegistry.counter(METRIC_NAME, "action", action).increment();
+    }
+}
@@ -0,0 +1,197 @@
+package com.privat.timetracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.privat.timetracker.controller.dto.TaskImportError;
+import com.privat.timetracker.controller.dto.TaskImportProgress;
+import com.privat.timetracker.controller.dto.TaskImportReport;
+import com.privat.timetracker.controller.dto.TaskRequest;
+import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.TaskImportException;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Service class for importing tasks from newline-delimited JSON (NDJSON).
+ * <p>
+ * Every non-blank line must be a {@link TaskRequest} object and is validated with the same constraints as
+ * {@code POST /api/v1/tasks}. Valid tasks are collected into batches of configurable size, and every batch is
+ * stored in its own transaction so Hibernate can send the inserts as JDBC batches. The upload is read line by
+ * line and only one batch plus a capped list of errors is kept in memory, so memory use does not depend on the
+ * size of the upload. The persistence context is cleared after every batch: with open-in-view it lives as long as
+ * the request and would otherwise keep every stored task and its snapshot until the import ends.
+ * </p>
+ * <p>
+ * The progress is reported to the caller after every batch.
+ * </p>
+ */
+@Service
+public class NdjsonTaskImportService implements TaskImport {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectReader taskRequestReader;
+
+    @Value("${time-tracker.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${time-tracker.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    public NdjsonTaskImportService(TaskRepository taskRepository, TaskMapper taskMapper,
+                                   TransactionTemplate transactionTemplate, EntityManager entityManager,
+                                   Validator validator, ObjectMapper objectMapper) {
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.taskRequestReader = objectMapper.readerFor(TaskRequest.class);
+    }
+
+    /**
+     * Imports tasks from an NDJSON stream.
+     * <p>
+     * Imported tasks get the status {@link TaskStatus#CREATED} and the current time as creation time. Lines that
+     * are not valid JSON or violate the {@link TaskRequest} constraints are skipped and reported. If a batch cannot
+     * be stored, all of its lines are reported as failed and the import continues with the next batch.
+     * </p>
+     *
+     * @param input      the NDJSON content
+     * @param onProgress receives the progress after every batch
+     * @return the report with the number of imported tasks and the rejected lines
+     * @throws TaskImportException if the upload cannot be read
+     */
+    @Override
+    public TaskImportReport importTasks(InputStream input, Consumer<TaskImportProgress> onProgress) {
+        ImportProgress progress = new ImportProgress();
+        List<Task> batch = new ArrayList<>(batchSize);
+        long batchFirstLine = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                progress.processedLines++;
+                Task task = parse(line, lineNumber, progress);
+                if (task == null) continue;
+                if (batch.isEmpty()) batchFirstLine = lineNumber;
+                batch.add(task);
+                if (batch.size() >= batchSize) {
+                    saveBatch(batch, batchFirstLine, lineNumber, progress);
+                    onProgress.accept(progress.toProgress(lineNumber));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                saveBatch(batch, batchFirstLine, lineNumber, progress);
+                onProgress.accept(progress.toProgress(lineNumber));
+            }
+        } catch (IOException ex) {
+            throw new TaskImportException(ErrorMessages.TASK_IMPORT_EXCEPTION.formatted(progress.processedLines, ex.getMessage()));
+        }
+        logger.info("Import finished: {} lines processed, {} tasks imported, {} lines failed",
+                progress.processedLines, progress.importedTasks, progress.failedLines);
+        return new TaskImportReport(progress.processedLines, progress.importedTasks, progress.failedLines, progress.errors);
+    }
+
+    /**
+     * Parses and validates a single line.
+     *
+     * @param line       the line content
+     * @param lineNumber the number of the line
+     * @param progress   the progress of the import, updated if the line is rejected
+     * @return the task to store, or null if the line was rejected
+     */
+    private Task parse(String line, long lineNumber, ImportProgress progress) {
+        TaskRequest taskRequest;
+        try {
+            taskRequest = taskRequestReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            progress.fail(lineNumber, List.of(ErrorMessages.TASK_IMPORT_INVALID_JSON.formatted(ex.getOriginalMessage())), maxReportedErrors);
+            return null;
+        }
+        Set<ConstraintViolation<TaskRequest>> violations = validator.validate(taskRequest);
+        if (!violations.isEmpty()) {
+            progress.fail(lineNumber, violations.stream().map(ConstraintViolation::getMessage).sorted().toList(), maxReportedErrors);
+            return null;
+        }
+        Task task = taskMapper.toEntity(taskRequest);
+        task.setStatus(TaskStatus.CREATED);
+        task.setCreatedAt(LocalDateTime.now());
+        return task;
+    }
+
+    /**
+     * Stores a batch of tasks in its own transaction and detaches them afterwards.
+     *
+     * @param batch     the tasks to store
+     * @param firstLine the line of the first task in the batch
+     * @param lastLine  the line of the last task in the batch
+     * @param progress  the progress of the import
+     */
+    private void saveBatch(List<Task> batch, long firstLine, long lastLine, ImportProgress progress) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                taskRepository.saveAll(batch);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            progress.importedTasks += batch.size();
+            logger.info("Imported {} tasks so far, up to line {}", progress.importedTasks, lastLine);
+        } catch (Exception ex) {
+            progress.failedLines += batch.size();
+            if (progress.errors.size() < maxReportedErrors) {
+                progress.errors.add(new TaskImportError(firstLine,
+                        List.of(ErrorMessages.TASK_IMPORT_BATCH_EXCEPTION.formatted(firstLine, lastLine, ex.getMessage()))));
+            }
+            logger.warn("Failed to import lines {}-{}: {}", firstLine, lastLine, ex.getMessage());
+        }
+    }
+
+    /**
+     * Mutable counters of a running import.
+     */
+    private static final class ImportProgress {
+        private final List<TaskImportError> errors = new ArrayList<>();
+        private long processedLines;
+        private long importedTasks;
+        private long failedLines;
+
+        private void fail(long lineNumber, List<String> messages, int maxReportedErrors) {
+            failedLines++;
+            if (errors.size() < maxReportedErrors) errors.add(new TaskImportError(lineNumber, messages));
+        }
+
+        private TaskImportProgress toProgress(long line) {
+            return new TaskImportProgress(line, processedLines, importedTasks, failedLines);
+        }
+    }
+}
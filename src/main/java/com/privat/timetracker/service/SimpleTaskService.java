@@ -1,20 +1,35 @@
 package com.privat.timetracker.service;
 
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskFields;
+import com.privat.timetracker.controller.dto.TaskPage;
 import com.privat.timetracker.controller.dto.TaskRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
 import com.privat.timetracker.entity.Task;
 import com.privat.timetracker.entity.TaskStatus;
 import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.InvalidCursorException;
 import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
 import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskArchiveRepository;
+import com.privat.timetracker.repository.TaskListRepository;
 import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskRow;
+import com.privat.timetracker.repository.projection.TaskStamp;
+import com.privat.timetracker.service.deadline.TaskDeadlines;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import com.privat.timetracker.service.journal.PendingTransitions;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service class for managing tasks.
@@ -23,13 +38,28 @@ import java.util.stream.Collectors;
  * the {@link TaskMapper} to convert between DTOs and entities and interacts with the {@link TaskRepository}
  * to perform CRUD operations.
  * </p>
+ * <p>
+ * Every change publishes a {@link TaskChangedEvent}, which is pushed to event stream subscribers once the
+ * transaction has committed.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 public class SimpleTaskService implements TaskService {
 
+    /**
+     * Upper bound for the number of tasks returned on a single page.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final TaskMapper taskMapper;
     private final TaskRepository taskRepository;
+    private final TaskListRepository taskListRepository;
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final TaskCache taskCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskDeadlines taskDeadlines;
+    private final PendingTransitions pendingTransitions;
 
     /**
      * Creates a new task.
@@ -48,7 +78,9 @@ public class SimpleTaskService implements TaskService {
         task.setStatus(TaskStatus.CREATED);
         task.setCreatedAt(LocalDateTime.now());
         Task savedTask = taskRepository.save(task);
-        return taskMapper.toDto(savedTask);
+        TaskResponse taskResponse = taskMapper.toDto(savedTask);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangeType.CREATED, taskResponse));
+        return taskResponse;
     }
 
     /**
@@ -71,13 +103,25 @@ public class SimpleTaskService implements TaskService {
         Task updatedTaskFromDto = taskMapper.updateTaskFromRequest(taskRequest, task);
         updatedTaskFromDto.setUpdatedAt(LocalDateTime.now());
         Task updatedTask = taskRepository.save(updatedTaskFromDto);
-        return taskMapper.toDto(updatedTask);
+        taskCache.evict(taskId);
+        // the session limit may have changed
+        if (updatedTask.getStatus() == TaskStatus.ACTIVE) taskDeadlines.arm(updatedTask);
+        TaskResponse taskResponse = pendingTransitions.apply(taskMapper.toDto(updatedTask), LocalDateTime.now());
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangeType.UPDATED, taskResponse));
+        return taskResponse;
     }
 
     /**
      * Retrieves a task by its ID.
      * <p>
-     * This method finds a task by its ID and returns it as a {@link TaskResponse} DTO.
+     * This method returns the task from the {@link TaskCache} if present; otherwise it finds the task by its ID,
+     * caches it and returns it as a {@link TaskResponse} DTO. The duration of a running task is always computed
+     * for the current time, also for cached tasks.
+     * </p>
+     * <p>
+     * Tasks moved into cold storage are looked up in the {@link TaskArchiveRepository} when they are not found in
+     * the tasks table, so archiving does not change the result. Starts and stops not yet written to the database are
+     * applied through {@link PendingTransitions}.
      * </p>
      *
      * @param taskId the ID of the task to retrieve
@@ -87,25 +131,139 @@ public class SimpleTaskService implements TaskService {
     @Override
     @Transactional(readOnly = true)
     public TaskResponse getTask(Long taskId) {
-        Task task = taskRepository.findById(taskId)
+        TaskResponse cachedTask = taskCache.get(taskId);
+        if (cachedTask != null) return pendingTransitions.apply(taskMapper.refreshDuration(cachedTask), LocalDateTime.now());
+        return pendingTransitions.apply(loadTask(taskId).task(), LocalDateTime.now());
+    }
+
+    /**
+     * Retrieves the validator of a task.
+     * <p>
+     * The validator of a cached task is taken from the {@link TaskCache}, so HTTP conditional requests for it are
+     * answered without a query. Otherwise the task is read and cached together with its version, so the request
+     * that follows a changed validator is served from the cache. Archived tasks are looked up in the archive.
+     * Pending starts and stops change the validator as their write will.
+     * </p>
+     *
+     * @param taskId the ID of the task
+     * @return the {@link TaskStamp} of the task
+     * @throws TaskNotFoundException if no task is found with the given ID
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStamp getTaskStamp(Long taskId) {
+        TaskStamp cachedStamp = taskCache.getStamp(taskId);
+        return pendingTransitions.apply(cachedStamp != null ? cachedStamp : loadTask(taskId).stamp());
+    }
+
+    /**
+     * Reads a task with its version from the tasks table, or from the archive, and caches it.
+     *
+     * @param taskId the ID of the task
+     * @return the task with its version
+     * @throws TaskNotFoundException if no task is found with the given ID
+     */
+    private TaskCache.Entry loadTask(Long taskId) {
+        TaskCache.Entry entry = taskRepository.findById(taskId)
+                .map(task -> new TaskCache.Entry(taskMapper.toDto(task), task.getVersion()))
+                .or(() -> loadArchivedTask(TenantContext.requireTenantId(), taskId))
                 .orElseThrow(() -> new TaskNotFoundException(ErrorMessages.TASK_NOT_FOUND.formatted(taskId)));
-        return taskMapper.toDto(task);
+        taskCache.put(entry);
+        return entry;
+    }
+
+    private Optional<TaskCache.Entry> loadArchivedTask(String tenantId, Long taskId) {
+        return taskArchiveRepository.findById(tenantId, taskId).flatMap(row ->
+                taskArchiveRepository.findStampById(tenantId, taskId).map(stamp ->
+                        new TaskCache.Entry(taskMapper.toDto(row, LocalDateTime.now()), stamp.version())));
+    }
+
+    /**
+     * Retrieves the validator of one page of the task list.
+     * <p>
+     * This method runs a single aggregate query over the rows {@link #getAllTasks(String, int, TaskFields)} reads
+     * for the same cursor and size, including the extra row telling whether a next page exists, and does not load
+     * any task. Its cost is bounded by the page size, not by the number of tasks of the tenant. Pending starts and
+     * stops change the validator as their writes will.
+     * </p>
+     *
+     * @param cursor the continuation token of the page, or null for the first page
+     * @param size   the requested page size, clamped as for the page itself
+     * @return the {@link TaskListStamp} of the page
+     * @throws InvalidCursorException if the cursor cannot be decoded
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskListStamp getTasksStamp(String cursor, int size) {
+        TaskCursor after = decode(cursor);
+        String tenantId = TenantContext.requireTenantId();
+        int limit = pageSize(size) + 1;
+        return pendingTransitions.apply(after == null
+                ? taskListRepository.findPageStamp(tenantId, null, null, limit)
+                : taskListRepository.findPageStamp(tenantId, after.createdAt(), after.id(), limit));
+    }
+
+    /**
+     * Retrieves one page of tasks using keyset pagination.
+     * <p>
+     * Tasks are ordered by creation time and ID. Instead of an offset, the page starts right after the
+     * position encoded in {@code cursor}, so the cost of a page does not grow with the size of the table.
+     * One extra row is fetched to find out whether a next page exists. Durations of running tasks on the page are
+     * computed for a single point in time.
+     * </p>
+     * <p>
+     * Only the columns of the list view are read, through {@link TaskListRepository}, without creating managed
+     * entities. Only the columns needed for the requested {@code fields} are selected.
+     * </p>
+     *
+     * @param cursor the opaque continuation token from the previous page, or null for the first page
+     * @param size   the maximum number of tasks on the page, clamped to {@value #MAX_PAGE_SIZE}
+     * @param fields the fields of the tasks on the page
+     * @return the page of tasks with the continuation token for the next page
+     * @throws InvalidCursorException if the cursor cannot be decoded
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getAllTasks(String cursor, int size, TaskFields fields) {
+        int pageSize = pageSize(size);
+        TaskCursor after = decode(cursor);
+        String tenantId = TenantContext.requireTenantId();
+        List<TaskRow> rows = after == null
+                ? taskListRepository.findPage(tenantId, null, null, pageSize + 1, fields.columns())
+                : taskListRepository.findPage(tenantId, after.createdAt(), after.id(), pageSize + 1, fields.columns());
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasNext ? TaskCursor.after(page.get(pageSize - 1)).encode() : null;
+        LocalDateTime now = LocalDateTime.now();
+        return new TaskPage(page.stream().map(row -> pendingTransitions.apply(taskMapper.toDto(row, now), now)).toList(),
+                nextCursor);
+    }
+
+    private static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    private static TaskCursor decode(String cursor) {
+        return cursor == null || cursor.isBlank() ? null : TaskCursor.decode(cursor);
     }
 
     /**
-     * Retrieves all tasks.
+     * Streams all tasks to the given consumer.
      * <p>
-     * This method fetches all tasks from the repository and returns them as a list of {@link TaskResponse} DTOs.
+     * Rows are read from a database cursor with a bounded fetch size and mapped straight into DTOs without
+     * creating entities, so memory use does not depend on the number of tasks. Durations of running tasks are
+     * computed for the time the export started.
      * </p>
      *
-     * @return a list of all tasks as {@link TaskResponse} DTOs
+     * @param fields   the fields of the tasks
+     * @param consumer the consumer receiving each task as a {@link TaskResponse} DTO
      */
     @Override
     @Transactional(readOnly = true)
-    public List<TaskResponse> getAllTasks() {
-        return taskRepository.findAll().stream()
-                .map(taskMapper::toDto)
-                .collect(Collectors.toList());
+    public void streamAllTasks(TaskFields fields, Consumer<TaskResponse> consumer) {
+        LocalDateTime now = LocalDateTime.now();
+        taskListRepository.streamAll(TenantContext.requireTenantId(), fields.columns(),
+                row -> consumer.accept(pendingTransitions.apply(taskMapper.toDto(row, now), now)));
     }
 
     /**
@@ -125,5 +283,8 @@ public class SimpleTaskService implements TaskService {
             throw new TaskNotFoundException(ErrorMessages.TASK_NOT_FOUND.formatted(taskId));
         }
         taskRepository.deleteById(taskId);
+        taskCache.evict(taskId);
+        taskDeadlines.disarm(taskId);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangeType.DELETED, taskId));
     }
 }
\ No newline at end of file
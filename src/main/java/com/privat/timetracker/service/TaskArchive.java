@@ -0,0 +1,9 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+
+public interface TaskArchive {
+    void archiveFinishedTasks();
+
+    TaskResponse restoreTask(Long taskId);
+}
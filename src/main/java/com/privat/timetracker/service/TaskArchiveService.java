@@ -0,0 +1,164 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
+import com.privat.timetracker.exception.exceptions.TaskNotRestorableException;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskArchiveRepository;
+import com.privat.timetracker.repository.projection.TaskArchiveBatch;
+import com.privat.timetracker.service.job.ClusterJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service moving finished tasks into cold storage and back.
+ * <p>
+ * Inactive tasks never change again, yet every one of them stays in the indexes used by the hot paths. This
+ * service moves inactive tasks that finished more than the configured number of days ago into
+ * {@code tasks_schema.tasks_archive}, every night, in batches of bounded size. Every batch is one statement in its
+ * own short transaction; a run stops at the first batch smaller than the batch size. Archiving is turned off by
+ * setting the age to zero.
+ * </p>
+ * <p>
+ * Archived tasks are still returned by {@link TaskService#getTask(Long)}, which falls back to the archive, but no
+ * longer appear in lists or search results and cannot be changed until they are restored. A restored task is
+ * stamped with the time of the restore and only archived again once that lies the configured number of days back.
+ * A task created in a month whose partition was detached by the retention cannot be restored.
+ * </p>
+ * <p>
+ * The moved tasks are counted in {@code task.archive.moved}, the size they took in the tasks table in
+ * {@code task.archive.bytes}, restored tasks in {@code task.archive.restored}, and every run is recorded in the
+ * {@code task.archive.duration} timer tagged with its outcome.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskArchiveService implements TaskArchive {
+    static final String JOB_NAME = "archive";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TaskArchiveRepository taskArchiveRepository;
+    private final TaskMapper taskMapper;
+    private final MeterRegistry meterRegistry;
+    private final ClusterJobs clusterJobs;
+
+    @Value("${time-tracker.archive.after-days:90}")
+    private int afterDays;
+
+    @Value("${time-tracker.archive.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${time-tracker.archive.cron:0 30 3 * * *}")
+    private String cron;
+
+    /**
+     * Moves the inactive tasks that finished more than the configured number of days ago into the archive.
+     * <p>
+     * This method is scheduled to run daily at 03:30 on every node; {@link ClusterJobs} lets one node run it. A
+     * failing batch ends the run; the batches moved before it stay archived and the next run, or the catch-up on
+     * the next startup, continues with the remaining tasks.
+     * </p>
+     */
+    @Override
+    @Scheduled(cron = "${time-tracker.archive.cron:0 30 3 * * *}")
+    public void archiveFinishedTasks() {
+        if (afterDays <= 0) return;
+        try {
+            clusterJobs.runScheduled(JOB_NAME, cron, 1, (scheduledAt, shard, shards) -> archive());
+        } catch (RuntimeException ex) {
+            // logged and recorded by archive
+        }
+    }
+
+    /**
+     * Archives the tasks if the run of the archive job was missed while no node was running, or failed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpMissedRun() {
+        if (afterDays <= 0) return;
+        clusterJobs.catchUp(JOB_NAME, cron, 1, (scheduledAt, shard, shards) -> archive());
+    }
+
+    private void archive() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        LocalDateTime finishedBefore = now.minusDays(afterDays);
+        long startedAt = System.nanoTime();
+        Counter movedCounter = Counter.builder("task.archive.moved")
+                .description("Number of tasks moved into the archive")
+                .register(meterRegistry);
+        Counter bytesCounter = Counter.builder("task.archive.bytes")
+                .description("Size of the archived tasks in the tasks table")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        long moved = 0;
+        long bytes = 0;
+        try {
+            while (true) {
+                TaskArchiveBatch batch = taskArchiveRepository.archiveBatch(finishedBefore, now, batchSize);
+                moved += batch.rows();
+                bytes += batch.bytes();
+                movedCounter.increment(batch.rows());
+                bytesCounter.increment(batch.bytes());
+                if (batch.rows() < batchSize) break;
+            }
+        } catch (RuntimeException ex) {
+            logger.error("Archiving stopped after {} tasks: {}", moved, ex.getMessage());
+            recordRun(startedAt, "failure");
+            throw ex;
+        }
+        logger.info("Archived {} tasks finished before {} ({} bytes) in {} ms", moved, finishedBefore, bytes,
+                Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+        recordRun(startedAt, "success");
+    }
+
+    /**
+     * Moves an archived task back into the tasks table.
+     *
+     * @param taskId the ID of the archived task
+     * @return the restored task as a {@link TaskResponse} DTO
+     * @throws TaskNotFoundException    if no archived task has the given ID
+     * @throws TaskNotRestorableException if the month the task was created in is no longer kept in the tasks table
+     */
+    @Override
+    @Transactional
+    public TaskResponse restoreTask(Long taskId) {
+        LocalDateTime now = LocalDateTime.now();
+        TaskResponse restored;
+        try {
+            restored = taskArchiveRepository.restore(TenantContext.requireTenantId(), taskId, now)
+                    .map(row -> taskMapper.toDto(row, now))
+                    .orElseThrow(() -> new TaskNotFoundException(ErrorMessages.ARCHIVED_TASK_NOT_FOUND.formatted(taskId)));
+        } catch (DataIntegrityViolationException ex) {
+            if (!TaskArchiveRepository.isMissingPartition(ex)) throw ex;
+            throw new TaskNotRestorableException(ErrorMessages.TASK_NOT_RESTORABLE.formatted(taskId));
+        }
+        meterRegistry.counter("task.archive.restored").increment();
+        return restored;
+    }
+
+    private void recordRun(long startedAt, String outcome) {
+        Timer.builder("task.archive.duration")
+                .description("Duration of a whole archival run")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,155 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.repository.projection.TaskStamp;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * In-process cache of single tasks read through {@code GET /api/v1/tasks/{id}}.
+ * <p>
+ * The cache is backed by the {@value #CACHE_NAME} cache of the configured {@link CacheManager}, shared by all
+ * tenants and keyed by tenant and task ID, so a task can never be served to another tenant and the size of the
+ * cache does not depend on the number of tenants. Size, time to live and statistics are controlled by the
+ * {@code spring.cache.*} properties, and setting {@code spring.cache.type=none} turns caching off. The
+ * {@link TaskCacheQuota} keeps a single tenant from taking the whole cache.
+ * </p>
+ * <p>
+ * Every task is cached together with its version, so the validator of a cached task is known without a query.
+ * </p>
+ * <p>
+ * Every service that changes a task evicts it here. When called inside a transaction, the entry is evicted again
+ * once the transaction completes, so a read that raced with the write cannot keep the old state in the cache.
+ * </p>
+ */
+@Component
+public class TaskCache {
+
+    /**
+     * Name of the cache holding tasks by tenant and ID.
+     */
+    public static final String CACHE_NAME = "tasks";
+
+    private final Cache cache;
+    private final TaskCacheQuota quota;
+
+    public TaskCache(CacheManager cacheManager, TaskCacheQuota quota) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Cache " + CACHE_NAME + " is not configured");
+        this.quota = quota;
+    }
+
+    /**
+     * Returns a task of the current tenant from the cache.
+     *
+     * @param taskId the ID of the task
+     * @return the cached task, or null if it is not cached
+     */
+    public TaskResponse get(Long taskId) {
+        Entry entry = entry(taskId);
+        return entry == null ? null : entry.task();
+    }
+
+    /**
+     * Returns the validator of a task of the current tenant from the cache.
+     *
+     * @param taskId the ID of the task
+     * @return the validator of the cached task, or null if it is not cached
+     */
+    public TaskStamp getStamp(Long taskId) {
+        Entry entry = entry(taskId);
+        return entry == null ? null : entry.stamp();
+    }
+
+    /**
+     * Caches a task of the current tenant, unless the tenant already holds its share of the cache.
+     *
+     * @param entry the task to cache with its version
+     */
+    public void put(Entry entry) {
+        String tenantId = TenantContext.requireTenantId();
+        Key key = new Key(tenantId, entry.task().id());
+        if (cache.get(key) != null) {
+            cache.put(key, entry);
+            return;
+        }
+        if (!quota.tryAcquire(tenantId)) return;
+        if (cache.putIfAbsent(key, entry) != null) quota.release(tenantId);
+    }
+
+    /**
+     * Evicts a task of the current tenant.
+     *
+     * @param taskId the ID of the task
+     */
+    public void evict(Long taskId) {
+        evict(List.of(taskId));
+    }
+
+    /**
+     * Evicts several tasks of the current tenant.
+     *
+     * @param taskIds the IDs of the tasks
+     */
+    public void evict(Collection<Long> taskIds) {
+        evict(TenantContext.requireTenantId(), taskIds);
+    }
+
+    /**
+     * Evicts several tasks of a tenant, immediately and again after the current transaction completes.
+     * Used by jobs, which work across tenants.
+     *
+     * @param tenantId the tenant owning the tasks
+     * @param taskIds  the IDs of the tasks
+     */
+    public void evict(String tenantId, Collection<Long> taskIds) {
+        List<Key> keys = taskIds.stream().map(taskId -> new Key(tenantId, taskId)).toList();
+        keys.forEach(cache::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    keys.forEach(cache::evict);
+                }
+            });
+        }
+    }
+
+    private Entry entry(Long taskId) {
+        return cache.get(new Key(TenantContext.requireTenantId(), taskId), Entry.class);
+    }
+
+    /**
+     * A cached task.
+     *
+     * @param task    the task
+     * @param version the version of the task in the database
+     */
+    public record Entry(TaskResponse task, Long version) {
+
+        /**
+         * Returns the validator of the task.
+         *
+         * @return the validator
+         */
+        public TaskStamp stamp() {
+            return new TaskStamp(task.id(), version, task.createdAt(), task.editedAt(), task.startTime(), task.endTime());
+        }
+    }
+
+    /**
+     * Key of a cached task.
+     *
+     * @param tenantId the tenant owning the task
+     * @param taskId   the ID of the task
+     */
+    public record Key(String tenantId, Long taskId) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.privat.timetracker.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tenant share of the {@link TaskCache}.
+ * <p>
+ * All tenants share one cache bounded by its maximum size. This quota counts the entries every tenant holds and
+ * turns down new entries of a tenant that reached {@code time-tracker.cache.tenant-max-size}, so a busy tenant cannot
+ * push the tasks of all others out. A tenant is only counted while it holds entries, so the number of tenants that
+ * send requests does not grow the heap.
+ * </p>
+ * <p>
+ * Counting relies on the removal notifications of the Caffeine cache, so the quota is only enforced once it was
+ * {@link #install(Caffeine) installed} on the cache; with another cache provider every entry is accepted.
+ * </p>
+ */
+@Component
+public class TaskCacheQuota implements RemovalListener<Object, Object> {
+    private final Map<String, Integer> entries = new ConcurrentHashMap<>();
+    private final int tenantMaxSize;
+    private volatile boolean installed;
+
+    public TaskCacheQuota(@Value("${time-tracker.cache.tenant-max-size:2500}") int tenantMaxSize) {
+        this.tenantMaxSize = tenantMaxSize;
+    }
+
+    /**
+     * Registers this quota as the removal listener of the cache being built.
+     *
+     * @param builder the builder of the task cache
+     * @return the builder
+     */
+    public <K, V> Caffeine<K, V> install(Caffeine<K, V> builder) {
+        installed = true;
+        // runs on the removing thread, so the count is released before the next put of the tenant
+        return builder.executor(Runnable::run).removalListener(this);
+    }
+
+    /**
+     * Takes a slot for a new entry of a tenant.
+     *
+     * @param tenantId the tenant owning the entry
+     * @return true if the entry may be cached
+     */
+    boolean tryAcquire(String tenantId) {
+        if (!installed) return true;
+        boolean[] acquired = new boolean[1];
+        entries.compute(tenantId, (tenant, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= tenantMaxSize) return count;
+            acquired[0] = true;
+            return current + 1;
+        });
+        return acquired[0];
+    }
+
+    /**
+     * Gives back the slot of an entry that left the cache, or was not put into it after all.
+     *
+     * @param tenantId the tenant owning the entry
+     */
+    void release(String tenantId) {
+        if (!installed) return;
+        entries.computeIfPresent(tenantId, (tenant, count) -> count > 1 ? count - 1 : null);
+    }
+
+    int entries(String tenantId) {
+        return entries.getOrDefault(tenantId, 0);
+    }
+
+    @Override
+    public void onRemoval(Object key, Object value, RemovalCause cause) {
+        if (cause != RemovalCause.REPLACED && key instanceof TaskCache.Key taskKey) release(taskKey.tenantId());
+    }
+}
@@ -0,0 +1,62 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.InvalidCursorException;
+import com.privat.timetracker.repository.projection.TaskRow;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position of a task in the list ordered by {@code created_at, id}.
+ * <p>
+ * The cursor is handed to clients as an opaque Base64 (URL-safe) token, so the ordering
+ * columns can change without breaking the API contract.
+ * </p>
+ *
+ * @param createdAt the creation time of the last task on the previous page
+ * @param id        the ID of the last task on the previous page
+ */
+public record TaskCursor(LocalDateTime createdAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Creates a cursor pointing right after the given task.
+     *
+     * @param task the last task of a page
+     * @return the cursor for the next page
+     */
+    public static TaskCursor after(TaskRow task) {
+        return new TaskCursor(task.createdAt(), task.id());
+    }
+
+    /**
+     * Decodes an opaque token previously produced by {@link #encode()}.
+     *
+     * @param token the token sent by the client
+     * @return the decoded cursor
+     * @throws InvalidCursorException if the token is malformed
+     */
+    public static TaskCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return new TaskCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException(ErrorMessages.INVALID_CURSOR.formatted(token));
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque token.
+     *
+     * @return the URL-safe token
+     */
+    public String encode() {
+        String value = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,16 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.controller.dto.TaskImportProgress;
+import com.privat.timetracker.controller.dto.TaskImportReport;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface TaskImport {
+    default TaskImportReport importTasks(InputStream input) {
+        return importTasks(input, progress -> {
+        });
+    }
+
+    TaskImportReport importTasks(InputStream input, Consumer<TaskImportProgress> onProgress);
+}
@@ -0,0 +1,5 @@
+package com.privat.timetracker.service;
+
+public interface TaskPartitionMaintenance {
+    void maintainPartitions();
+}
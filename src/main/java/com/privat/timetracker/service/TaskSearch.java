@@ -0,0 +1,7 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.controller.dto.TaskSearchPage;
+
+public interface TaskSearch {
+    TaskSearchPage search(String query, String cursor, int size, boolean includeDescription, boolean highlight);
+}
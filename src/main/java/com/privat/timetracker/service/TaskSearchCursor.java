@@ -0,0 +1,52 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of a task in search results ordered by rank (descending) and ID.
+ * <p>
+ * Ranks are single precision values computed by Postgres; {@link Float#toString(float)} and
+ * {@link Float#parseFloat(String)} round-trip them exactly, so the next page starts precisely after the last
+ * task of the previous one. The token is opaque to clients, like {@link TaskCursor}.
+ * </p>
+ *
+ * @param rank the rank of the last task on the previous page
+ * @param id   the ID of the last task on the previous page
+ */
+public record TaskSearchCursor(float rank, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Decodes an opaque token previously produced by {@link #encode()}.
+     *
+     * @param token the token sent by the client
+     * @return the decoded cursor
+     * @throws InvalidCursorException if the token is malformed
+     */
+    public static TaskSearchCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            float rank = Float.parseFloat(value.substring(0, separator));
+            if (!Float.isFinite(rank)) throw new NumberFormatException(value);
+            return new TaskSearchCursor(rank, Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException(ErrorMessages.INVALID_CURSOR.formatted(token));
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque token.
+     *
+     * @return the URL-safe token
+     */
+    public String encode() {
+        String value = Float.toString(rank) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,18 +1,28 @@
 package com.privat.timetracker.service;
 
+import com.privat.timetracker.controller.dto.TaskFields;
+import com.privat.timetracker.controller.dto.TaskPage;
 import com.privat.timetracker.controller.dto.TaskRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskStamp;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface TaskService {
     TaskResponse createTask(TaskRequest task);
 
     TaskResponse getTask(Long taskId);
 
+    TaskStamp getTaskStamp(Long taskId);
+
+    TaskListStamp getTasksStamp(String cursor, int size);
+
     void deleteTask(Long taskId);
 
     TaskResponse updateTask(Long taskId, TaskRequest taskRequest);
 
-    List<TaskResponse> getAllTasks();
+    TaskPage getAllTasks(String cursor, int size, TaskFields fields);
+
+    void streamAllTasks(TaskFields fields, Consumer<TaskResponse> consumer);
 }
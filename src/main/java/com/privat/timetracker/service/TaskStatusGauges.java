@@ -0,0 +1,121 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.TaskStatusCount;
+import com.privat.timetracker.service.job.ClusterJobs;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the number of tasks of every tenant in every {@link TaskStatus} as the {@value #METRIC_NAME} gauge,
+ * tagged with {@code tenant} and {@code status}.
+ * <p>
+ * The counts are refreshed on a fixed delay instead of on every scrape, so the cost for the database does not
+ * depend on how often metrics are collected. Active tasks are few and counted through the partial index on them,
+ * which is cheap enough to run often on every node. Counting the other statuses reads the whole table, so it runs
+ * far less often and never on two nodes at the same time; between two runs the gauges keep the last counts.
+ * </p>
+ * <p>
+ * A status without tasks is reported as zero, and so is every status of a tenant whose tasks are all gone.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskStatusGauges implements MeterBinder {
+    static final String METRIC_NAME = "tasks.status";
+    static final String JOB_NAME = "task-status-gauges";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TaskRepository taskRepository;
+    private final ClusterJobs clusterJobs;
+
+    private final Map<String, Map<TaskStatus, AtomicLong>> counts = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        counts.forEach(this::register);
+    }
+
+    /**
+     * Reloads the number of active tasks per tenant.
+     * Failures are logged and the previous values are kept until the next refresh.
+     */
+    @Scheduled(fixedDelayString = "${time-tracker.metrics.active-refresh-ms:30000}")
+    public void refreshActive() {
+        try {
+            update(taskRepository.countActiveByTenant(), true);
+        } catch (Exception ex) {
+            logger.warn("Could not refresh active task gauges: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Reloads the number of tasks per tenant in every status other than {@link TaskStatus#ACTIVE}.
+     * <p>
+     * A node skips the run while another node is running it. Failures are logged and the previous values are kept
+     * until the next refresh.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${time-tracker.metrics.status-refresh-ms:900000}")
+    public void refresh() {
+        try {
+            clusterJobs.runExclusive(JOB_NAME, () -> update(taskRepository.countByTenantAndStatus(), false));
+        } catch (Exception ex) {
+            logger.warn("Could not refresh task status gauges: {}", ex.getMessage());
+        }
+    }
+
+    // sets the gauges of either the active status or all other statuses, so the two refreshes never overwrite
+    // each other's counts
+    private void update(List<TaskStatusCount> statusCounts, boolean active) {
+        Map<String, Map<TaskStatus, Long>> current = new HashMap<>();
+        for (TaskStatusCount statusCount : statusCounts) {
+            if (statusCount.status() == null) continue;
+            current.computeIfAbsent(statusCount.tenantId(), tenant -> new EnumMap<>(TaskStatus.class))
+                    .put(statusCount.status(), statusCount.count());
+        }
+        current.keySet().forEach(this::tenantCounts);
+        counts.forEach((tenant, tenantCounts) -> {
+            Map<TaskStatus, Long> tenantCurrent = current.getOrDefault(tenant, Map.of());
+            tenantCounts.forEach((status, count) -> {
+                if ((status == TaskStatus.ACTIVE) == active) count.set(tenantCurrent.getOrDefault(status, 0L));
+            });
+        });
+    }
+
+    private Map<TaskStatus, AtomicLong> tenantCounts(String tenant) {
+        return counts.computeIfAbsent(tenant, key -> {
+            Map<TaskStatus, AtomicLong> tenantCounts = new EnumMap<>(TaskStatus.class);
+            for (TaskStatus status : TaskStatus.values()) {
+                tenantCounts.put(status, new AtomicLong());
+            }
+            if (registry != null) register(key, tenantCounts);
+            return tenantCounts;
+        });
+    }
+
+    private void register(String tenant, Map<TaskStatus, AtomicLong> tenantCounts) {
+        tenantCounts.forEach((status, count) -> Gauge.builder(METRIC_NAME, count, AtomicLong::get)
+                .description("Number of tasks per tenant and status")
+                .tag("tenant", tenant)
+                .tag("status", status.name())
+                .register(registry));
+    }
+}
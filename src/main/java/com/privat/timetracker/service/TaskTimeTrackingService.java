@@ -1,17 +1,27 @@
 package com.privat.timetracker.service;
 
+import com.privat.timetracker.config.tenant.TenantContext;
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskTransitionResult;
 import com.privat.timetracker.entity.Task;
 import com.privat.timetracker.entity.TaskStatus;
 import com.privat.timetracker.exception.constants.ErrorMessages;
 import com.privat.timetracker.exception.exceptions.*;
 import com.privat.timetracker.mapping.TaskMapper;
 import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.service.deadline.TaskDeadlines;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for managing task time tracking operations.
@@ -19,6 +29,10 @@ import java.time.LocalDateTime;
  * This service provides operations for starting and stopping tasks. It ensures that tasks are properly updated
  * with their start and end times and handles errors that may occur during these operations.
  * </p>
+ * <p>
+ * Every started or stopped task publishes a {@link TaskChangedEvent}, which is pushed to event stream subscribers
+ * once the transaction has committed.
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
@@ -26,13 +40,18 @@ import java.time.LocalDateTime;
 public class TaskTimeTrackingService implements TimeTracking {
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
+    private final TaskCache taskCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskDeadlines taskDeadlines;
 
     /**
      * Starts a task with the given ID.
      * <p>
      * This method sets the status of the task to {@link TaskStatus#ACTIVE} and sets the start time to the current
-     * time. If the task is already active, a {@link TaskAlreadyStarted} exception is thrown. If an error occurs,
-     * a {@link TaskTimeException} is thrown.
+     * time with a single conditional UPDATE that only matches tasks which are not active yet and returns the updated
+     * row, so two concurrent starts cannot both succeed. The task is read again only when the UPDATE matched
+     * nothing, to tell a missing task from an active one. If the task is already active, a {@link TaskAlreadyStarted}
+     * exception is thrown. If an error occurs, a {@link TaskTimeException} is thrown.
      * </p>
      *
      * @param taskId the ID of the task to start
@@ -44,26 +63,28 @@ public class TaskTimeTrackingService implements TimeTracking {
     @Override
     @Transactional
     public TaskResponse startTask(Long taskId) {
-        Task task = getTask(taskId);
-        if (task.getStatus().equals(TaskStatus.ACTIVE))
-            throw new TaskAlreadyStarted(ErrorMessages.TASK_TIME_EXCEPTION.formatted("start", taskId, "Task already started"));
+        Optional<Task> startedTask;
         try {
-            task.setStatus(TaskStatus.ACTIVE);
-            task.setStartTime(LocalDateTime.now());
-            Task savedTask = taskRepository.save(task);
-            return taskMapper.toDto(savedTask);
+            startedTask = taskRepository.startTask(TenantContext.requireTenantId(), taskId, LocalDateTime.now());
         } catch (Exception ex) {
             throw new TaskTimeException(ErrorMessages.TASK_TIME_EXCEPTION.formatted("start", taskId, ex.getMessage()));
         }
+        if (startedTask.isEmpty())
+            throw startFailure(taskId, getTask(taskId));
+        taskCache.evict(taskId);
+        taskDeadlines.arm(startedTask.get());
+        return published(TaskChangeType.STARTED, taskMapper.toDto(startedTask.get()));
     }
 
     /**
      * Stops a task with the given ID.
      * <p>
      * This method sets the status of the task to {@link TaskStatus#INACTIVE} and sets the end time to the current
-     * time. If the task is not started or is already stopped, a {@link TaskNotStartedException} or
-     * {@link TaskAlreadyStopped} exception is thrown, respectively. If an error occurs, a {@link TaskTimeException}
-     * is thrown.
+     * time with a single conditional UPDATE that only matches active tasks and returns the updated row. When the
+     * UPDATE matched nothing, the task is read to report why: if the task is not started or is already stopped, a
+     * {@link TaskNotStartedException} or {@link TaskAlreadyStopped} exception is thrown, respectively. If it was
+     * started again in the meantime, a {@link TaskConflictException} is thrown. If an error occurs,
+     * a {@link TaskTimeException} is thrown.
      * </p>
      *
      * @param taskId the ID of the task to stop
@@ -71,24 +92,144 @@ public class TaskTimeTrackingService implements TimeTracking {
      * @throws TaskNotFoundException   if no task is found with the given ID
      * @throws TaskNotStartedException if the task is not started
      * @throws TaskAlreadyStopped      if the task is already stopped
+     * @throws TaskConflictException   if the task was started concurrently
      * @throws TaskTimeException       if an error occurs while stopping the task
      */
     @Override
     @Transactional
     public TaskResponse stopTask(Long taskId) {
-        Task task = getTask(taskId);
-        if (task.getStatus().equals(TaskStatus.CREATED))
-            throw new TaskNotStartedException(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", taskId, "Task not started"));
-        if (task.getStatus().equals(TaskStatus.INACTIVE))
-            throw new TaskAlreadyStopped(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", taskId, "Task already stopped"));
+        Optional<Task> stoppedTask;
         try {
-            task.setStatus(TaskStatus.INACTIVE);
-            task.setEndTime(LocalDateTime.now());
-            Task save = taskRepository.save(task);
-            return taskMapper.toDto(save);
+            stoppedTask = taskRepository.stopTask(TenantContext.requireTenantId(), taskId, LocalDateTime.now());
         } catch (Exception ex) {
             throw new TaskTimeException(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", taskId, ex.getMessage()));
         }
+        if (stoppedTask.isEmpty())
+            throw stopFailure(taskId, getTask(taskId));
+        taskCache.evict(taskId);
+        taskDeadlines.disarm(taskId);
+        return published(TaskChangeType.STOPPED, taskMapper.toDto(stoppedTask.get()));
+    }
+
+    /**
+     * Starts several tasks at once.
+     * <p>
+     * All tasks that are not active yet are started by a single conditional UPDATE in one transaction, with the
+     * same start time. Tasks that could not be started are read in one query to report the reason, so a missing
+     * or already active task fails only its own item instead of the whole batch. Duplicate IDs are processed once.
+     * </p>
+     *
+     * @param taskIds the IDs of the tasks to start
+     * @return the result for every distinct ID, in the order of the request
+     * @throws TaskTimeException if an error occurs while starting the tasks
+     */
+    @Override
+    @Transactional
+    public List<TaskTransitionResult> startTasks(List<Long> taskIds) {
+        Set<Long> ids = new LinkedHashSet<>(taskIds);
+        List<Task> startedTasks;
+        try {
+            startedTasks = taskRepository.startTasks(TenantContext.requireTenantId(), ids, LocalDateTime.now());
+        } catch (Exception ex) {
+            throw new TaskTimeException(ErrorMessages.TASK_BATCH_EXCEPTION.formatted("start", ex.getMessage()));
+        }
+        startedTasks.forEach(taskDeadlines::arm);
+        return toResults(ids, startedTasks, TaskChangeType.STARTED, this::startFailure);
+    }
+
+    /**
+     * Stops several tasks at once.
+     * <p>
+     * All active tasks are stopped by a single conditional UPDATE in one transaction, with the same end time.
+     * Tasks that could not be stopped are read in one query to report the reason, so a missing, not started or
+     * already stopped task fails only its own item instead of the whole batch. Duplicate IDs are processed once.
+     * </p>
+     *
+     * @param taskIds the IDs of the tasks to stop
+     * @return the result for every distinct ID, in the order of the request
+     * @throws TaskTimeException if an error occurs while stopping the tasks
+     */
+    @Override
+    @Transactional
+    public List<TaskTransitionResult> stopTasks(List<Long> taskIds) {
+        Set<Long> ids = new LinkedHashSet<>(taskIds);
+        List<Task> stoppedTasks;
+        try {
+            stoppedTasks = taskRepository.stopTasks(TenantContext.requireTenantId(), ids, LocalDateTime.now());
+        } catch (Exception ex) {
+            throw new TaskTimeException(ErrorMessages.TASK_BATCH_EXCEPTION.formatted("stop", ex.getMessage()));
+        }
+        taskDeadlines.disarm(stoppedTasks.stream().map(Task::getId).toList());
+        return toResults(ids, stoppedTasks, TaskChangeType.STOPPED, this::stopFailure);
+    }
+
+    /**
+     * Builds the per-task results of a batch operation.
+     *
+     * @param ids          the distinct IDs of the request, in order
+     * @param updatedTasks the tasks changed by the batch UPDATE
+     * @param changeType   the change published for every changed task
+     * @param failure      explains why a task that was not changed failed
+     * @return the result for every ID
+     */
+    private List<TaskTransitionResult> toResults(Set<Long> ids, List<Task> updatedTasks, TaskChangeType changeType,
+                                                 BiFunction<Long, Task, RuntimeException> failure) {
+        Map<Long, Task> updated = updatedTasks.stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        taskCache.evict(updated.keySet());
+        Map<Long, Task> unchanged = new HashMap<>();
+        if (updated.size() < ids.size()) {
+            List<Long> unchangedIds = ids.stream().filter(id -> !updated.containsKey(id)).toList();
+            taskRepository.findAllByIdIn(unchangedIds).forEach(task -> unchanged.put(task.getId(), task));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return ids.stream()
+                .map(id -> updated.containsKey(id)
+                        ? TaskTransitionResult.succeeded(published(changeType, taskMapper.toDto(updated.get(id), now)))
+                        : TaskTransitionResult.failed(id, failure.apply(id, unchanged.get(id)).getMessage()))
+                .toList();
+    }
+
+    /**
+     * Publishes the change of a task.
+     *
+     * @param changeType the kind of change
+     * @param task       the task after the change
+     * @return the task
+     */
+    private TaskResponse published(TaskChangeType changeType, TaskResponse task) {
+        eventPublisher.publishEvent(TaskChangedEvent.of(changeType, task));
+        return task;
+    }
+
+    /**
+     * Explains why a task could not be started.
+     *
+     * @param taskId the ID of the task
+     * @param task   the current state of the task, or null if it does not exist
+     * @return the exception describing the failure
+     */
+    private RuntimeException startFailure(Long taskId, Task task) {
+        if (task == null)
+            return new TaskNotFoundException(ErrorMessages.TASK_NOT_FOUND.formatted(taskId));
+        return new TaskAlreadyStarted(ErrorMessages.TASK_TIME_EXCEPTION.formatted("start", taskId, "Task already started"));
+    }
+
+    /**
+     * Explains why a task could not be stopped.
+     *
+     * @param taskId the ID of the task
+     * @param task   the current state of the task, or null if it does not exist
+     * @return the exception describing the failure
+     */
+    private RuntimeException stopFailure(Long taskId, Task task) {
+        if (task == null)
+            return new TaskNotFoundException(ErrorMessages.TASK_NOT_FOUND.formatted(taskId));
+        if (task.getStatus().equals(TaskStatus.CREATED))
+            return new TaskNotStartedException(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", taskId, "Task not started"));
+        if (task.getStatus().equals(TaskStatus.INACTIVE))
+            return new TaskAlreadyStopped(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", taskId, "Task already stopped"));
+        return new TaskConflictException(ErrorMessages.TASK_CONFLICT.formatted(taskId));
     }
 
     /**
@@ -98,11 +239,9 @@ public class TaskTimeTrackingService implements TimeTracking {
      * </p>
      *
      * @param taskId the ID of the task to retrieve
-     * @return the task as a {@link Task}
-     * @throws TaskNotFoundException if no task is found with the given ID
+     * @return the task as a {@link Task}, or null if no task is found with the given ID
      */
     private Task getTask(Long taskId) {
-        return taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException(ErrorMessages.TASK_NOT_FOUND.formatted(taskId)));
+        return taskRepository.findById(taskId).orElse(null);
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,16 @@
 package com.privat.timetracker.service;
 
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskTransitionResult;
+
+import java.util.List;
 
 public interface TimeTracking {
     TaskResponse startTask(Long taskId);
 
     TaskResponse stopTask(Long taskId);
+
+    List<TaskTransitionResult> startTasks(List<Long> taskIds);
+
+    List<TaskTransitionResult> stopTasks(List<Long> taskIds);
 }
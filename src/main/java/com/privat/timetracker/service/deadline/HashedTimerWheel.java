@@ -0,0 +1,119 @@
+package com.privat.timetracker.service.deadline;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timer wheel keeping one deadline per key.
+ * <p>
+ * Time is divided into ticks of fixed length and every deadline is put into the bucket of its tick modulo the
+ * number of buckets, so scheduling and cancelling a timer cost O(1) regardless of how many timers are armed.
+ * Advancing the wheel only looks at the buckets of the ticks that passed; a bucket may also hold timers of later
+ * rounds, which stay until their own tick comes. Deadlines are rounded up to the next tick, so a timer never
+ * fires early and fires at most one tick late.
+ * </p>
+ * <p>
+ * The wheel does not run a thread itself: the owner calls {@link #advance(long)} on every tick and handles the
+ * expired keys. All methods are synchronized; each of them holds the lock only for O(1) work, apart from
+ * {@code advance}, which is linear in the number of timers in the passed buckets.
+ * </p>
+ *
+ * @param <K> the type of the keys
+ */
+public class HashedTimerWheel<K> {
+    private final long startMillis;
+    private final long tickMillis;
+    private final int mask;
+    private final Set<K>[] buckets;
+    private final Map<K, Long> deadlineTicks = new HashMap<>();
+    private long nextTick;
+
+    /**
+     * Creates a wheel.
+     *
+     * @param tickMillis  the length of one tick in milliseconds
+     * @param wheelSize   the number of buckets, rounded up to a power of two
+     * @param startMillis the time of tick zero
+     */
+    @SuppressWarnings("unchecked")
+    public HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("Tick must be positive: " + tickMillis);
+        if (wheelSize <= 0 || wheelSize > 1 << 30) throw new IllegalArgumentException("Invalid wheel size: " + wheelSize);
+        int size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        this.startMillis = startMillis;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new Set[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new HashSet<>();
+        }
+    }
+
+    /**
+     * Arms the timer of a key, replacing its previous deadline.
+     * A deadline that has already passed fires on the next {@link #advance(long)}.
+     *
+     * @param key            the key
+     * @param deadlineMillis the deadline in epoch milliseconds
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(-Math.floorDiv(startMillis - deadlineMillis, tickMillis), nextTick);
+        deadlineTicks.put(key, deadlineTick);
+        buckets[(int) (deadlineTick & mask)].add(key);
+    }
+
+    /**
+     * Disarms the timer of a key.
+     *
+     * @param key the key
+     * @return true if a timer was armed for the key
+     */
+    public synchronized boolean cancel(K key) {
+        Long deadlineTick = deadlineTicks.remove(key);
+        if (deadlineTick == null) return false;
+        buckets[(int) (deadlineTick & mask)].remove(key);
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and disarms all timers that expired.
+     *
+     * @param nowMillis the current time in epoch milliseconds
+     * @return the keys whose deadlines passed, in no particular order
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long currentTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        if (currentTick < nextTick) return List.of();
+        List<K> expired = new ArrayList<>();
+        // after a long pause every bucket is visited once instead of once per missed tick
+        long lastTick = Math.min(currentTick, nextTick + mask);
+        for (long tick = nextTick; tick <= lastTick; tick++) {
+            Iterator<K> keys = buckets[(int) (tick & mask)].iterator();
+            while (keys.hasNext()) {
+                K key = keys.next();
+                if (deadlineTicks.get(key) <= currentTick) {
+                    keys.remove();
+                    deadlineTicks.remove(key);
+                    expired.add(key);
+                }
+            }
+        }
+        nextTick = currentTick + 1;
+        return expired;
+    }
+
+    /**
+     * Returns the number of armed timers.
+     *
+     * @return the number of keys with a deadline
+     */
+    public synchronized int size() {
+        return deadlineTicks.size();
+    }
+}
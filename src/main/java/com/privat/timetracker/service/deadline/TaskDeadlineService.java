@@ -0,0 +1,196 @@
+package com.privat.timetracker.service.deadline;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.ActiveTaskSession;
+import com.privat.timetracker.service.TaskCache;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stops running tasks when their session reaches its maximum length.
+ * <p>
+ * A session is limited by the {@code maxSessionSeconds} of its task or, when the task has none, by the global
+ * {@code time-tracker.deadlines.max-session-seconds}; zero means no global limit. The deadline of every active
+ * task is kept in a {@link HashedTimerWheel}: starting a task arms its timer, stopping or deleting it disarms it,
+ * both once the transaction has committed. On startup the timers are rebuilt from the active tasks.
+ * </p>
+ * <p>
+ * When a timer fires, the task is stopped with its end time set to the exact deadline by a conditional UPDATE
+ * that checks in the database that the task is still active and its deadline passed, so a task that was stopped,
+ * restarted or given a longer limit in the meantime is left alone. A failed stop is retried later. Stopped tasks
+ * publish an auto-closed {@link TaskChangedEvent}. The daily auto-close job stays in place as the last resort.
+ * </p>
+ * <p>
+ * The number of armed timers is published as {@code task.deadlines.armed} and the stopped tasks are counted in
+ * {@code task.deadlines.expired}.
+ * </p>
+ */
+@Service
+public class TaskDeadlineService implements TaskDeadlines {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskCache taskCache;
+    private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultMaxSessionSeconds;
+    private final long retryMillis;
+    private final HashedTimerWheel<Long> wheel;
+    private final Counter expiredCounter;
+
+    public TaskDeadlineService(TaskRepository taskRepository, TransactionTemplate transactionTemplate,
+                               TaskCache taskCache, TaskMapper taskMapper, ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry,
+                               @Value("${time-tracker.deadlines.max-session-seconds:0}") int defaultMaxSessionSeconds,
+                               @Value("${time-tracker.deadlines.tick-ms:1000}") long tickMillis,
+                               @Value("${time-tracker.deadlines.wheel-size:4096}") int wheelSize,
+                               @Value("${time-tracker.deadlines.retry-ms:30000}") long retryMillis) {
+        this.taskRepository = taskRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.taskCache = taskCache;
+        this.taskMapper = taskMapper;
+        this.eventPublisher = eventPublisher;
+        this.defaultMaxSessionSeconds = defaultMaxSessionSeconds;
+        this.retryMillis = retryMillis;
+        this.wheel = new HashedTimerWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        Gauge.builder("task.deadlines.armed", wheel, HashedTimerWheel::size)
+                .description("Number of running tasks with an armed session deadline")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("task.deadlines.expired")
+                .description("Number of tasks stopped at their session deadline")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Arms the deadline of a started task, replacing a previous one. A task without a session limit is disarmed.
+     *
+     * @param task the started task
+     */
+    @Override
+    public void arm(Task task) {
+        Long taskId = task.getId();
+        int maxSessionSeconds = task.getMaxSessionSeconds() != null ? task.getMaxSessionSeconds() : defaultMaxSessionSeconds;
+        if (task.getStartTime() == null || maxSessionSeconds <= 0) {
+            disarm(taskId);
+            return;
+        }
+        long deadlineMillis = toMillis(task.getStartTime().plusSeconds(maxSessionSeconds));
+        afterCommit(() -> wheel.schedule(taskId, deadlineMillis));
+    }
+
+    /**
+     * Disarms the deadline of a task.
+     *
+     * @param taskId the ID of the task
+     */
+    @Override
+    public void disarm(Long taskId) {
+        disarm(List.of(taskId));
+    }
+
+    /**
+     * Disarms the deadlines of several tasks.
+     *
+     * @param taskIds the IDs of the tasks
+     */
+    @Override
+    public void disarm(Collection<Long> taskIds) {
+        afterCommit(() -> taskIds.forEach(wheel::cancel));
+    }
+
+    /**
+     * Stops the tasks whose deadlines passed since the previous tick.
+     */
+    @Scheduled(fixedRateString = "${time-tracker.deadlines.tick-ms:1000}")
+    public void tick() {
+        for (Long taskId : wheel.advance(System.currentTimeMillis())) {
+            stopExpired(taskId);
+        }
+    }
+
+    /**
+     * Arms the deadlines of all active tasks.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<ActiveTaskSession> sessions = taskRepository.findActiveSessions();
+            for (ActiveTaskSession session : sessions) {
+                int maxSessionSeconds = session.maxSessionSeconds() != null
+                        ? session.maxSessionSeconds() : defaultMaxSessionSeconds;
+                if (session.startTime() != null && maxSessionSeconds > 0) {
+                    wheel.schedule(session.id(), toMillis(session.startTime().plusSeconds(maxSessionSeconds)));
+                }
+            }
+            logger.info("Armed {} task deadlines for {} active tasks", wheel.size(), sessions.size());
+        } catch (Exception ex) {
+            logger.error("Could not arm the deadlines of active tasks: {}", ex.getMessage());
+        }
+    }
+
+    int armedCount() {
+        return wheel.size();
+    }
+
+    private void stopExpired(Long taskId) {
+        try {
+            TaskResponse stopped = transactionTemplate.execute(status -> taskRepository
+                    .stopExpiredTask(taskId, defaultMaxSessionSeconds, LocalDateTime.now())
+                    .map(task -> {
+                        taskCache.evict(task.getTenantId(), List.of(taskId));
+                        TaskResponse taskResponse = taskMapper.toDto(task);
+                        eventPublisher.publishEvent(TaskChangedEvent.of(task.getTenantId(), TaskChangeType.AUTO_CLOSED,
+                                taskResponse));
+                        return taskResponse;
+                    })
+                    .orElse(null));
+            if (stopped != null) {
+                expiredCounter.increment();
+                logger.info("Stopped task {} at its session deadline {}", taskId, stopped.endTime());
+            }
+        } catch (Exception ex) {
+            logger.warn("Could not stop task {} at its session deadline, retrying: {}", taskId, ex.getMessage());
+            wheel.schedule(taskId, System.currentTimeMillis() + retryMillis);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
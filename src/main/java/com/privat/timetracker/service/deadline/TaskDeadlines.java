@@ -0,0 +1,13 @@
+package com.privat.timetracker.service.deadline;
+
+import com.privat.timetracker.entity.Task;
+
+import java.util.Collection;
+
+public interface TaskDeadlines {
+    void arm(Task task);
+
+    void disarm(Long taskId);
+
+    void disarm(Collection<Long> taskIds);
+}
@@ -0,0 +1,13 @@
+package com.privat.timetracker.service.event;
+
+/**
+ * Kinds of changes of a task pushed to event stream subscribers.
+ */
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    STARTED,
+    STOPPED,
+    DELETED,
+    AUTO_CLOSED
+}
@@ -0,0 +1,64 @@
+package com.privat.timetracker.service.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+
+/**
+ * Change of a task, published by the services and delivered to the event stream subscribers of the task's tenant
+ * after the change has been committed.
+ *
+ * @param tenantId the tenant owning the task; not part of the serialized event
+ * @param type     the kind of change
+ * @param taskId   the ID of the changed task
+ * @param task     the state of the task after the change, or null for deleted and auto-closed tasks
+ */
+public record TaskChangedEvent(@JsonIgnore String tenantId, TaskChangeType type, Long taskId, TaskResponse task) {
+
+    /**
+     * Creates an event of the current tenant carrying the new state of a task.
+     *
+     * @param type the kind of change
+     * @param task the state of the task after the change
+     * @return the event
+     */
+    public static TaskChangedEvent of(TaskChangeType type, TaskResponse task) {
+        return of(TenantContext.requireTenantId(), type, task);
+    }
+
+    /**
+     * Creates an event of the current tenant carrying only the ID of a task.
+     *
+     * @param type   the kind of change
+     * @param taskId the ID of the task
+     * @return the event
+     */
+    public static TaskChangedEvent of(TaskChangeType type, Long taskId) {
+        return of(TenantContext.requireTenantId(), type, taskId);
+    }
+
+    /**
+     * Creates an event of the given tenant carrying the new state of a task. Used by jobs, which work across
+     * tenants.
+     *
+     * @param tenantId the tenant owning the task
+     * @param type     the kind of change
+     * @param task     the state of the task after the change
+     * @return the event
+     */
+    public static TaskChangedEvent of(String tenantId, TaskChangeType type, TaskResponse task) {
+        return new TaskChangedEvent(tenantId, type, task.id(), task);
+    }
+
+    /**
+     * Creates an event of the given tenant carrying only the ID of a task. Used by jobs, which work across tenants.
+     *
+     * @param tenantId the tenant owning the task
+     * @param type     the kind of change
+     * @param taskId   the ID of the task
+     * @return the event
+     */
+    public static TaskChangedEvent of(String tenantId, TaskChangeType type, Long taskId) {
+        return new TaskChangedEvent(tenantId, type, taskId, null);
+    }
+}
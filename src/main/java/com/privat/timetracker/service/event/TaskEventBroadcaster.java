@@ -0,0 +1,269 @@
+package com.privat.timetracker.service.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privat.timetracker.config.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes task changes to Server-Sent Events subscribers.
+ * <p>
+ * Services publish a {@link TaskChangedEvent} inside their transaction; it is broadcast only after the transaction
+ * committed, so subscribers never see a change that was rolled back. Every event is serialized once into an SSE
+ * frame that is shared by all subscribers.
+ * </p>
+ * <p>
+ * Subscribers only get the events of their own tenant. Every tenant has its own channel with its own subscribers,
+ * sequence and replay buffer, so a busy tenant neither pushes the events of the others out of the replay buffer
+ * nor makes their clients skip anything; events of a tenant without subscribers are not even serialized. A channel
+ * that had no subscribers for a whole heartbeat interval is dropped together with its replay buffer, so only tenants
+ * with connected clients take memory; a client reconnecting after that gets a {@value #RESET_EVENT} event.
+ * </p>
+ * <p>
+ * Connections are held by the servlet container in async mode and frames are written by a writer pool, so the
+ * number of threads does not depend on the number of subscribers. Writes block, and a client that stops reading
+ * holds its writer until the container's write timeout ({@code server.tomcat.connection-timeout}) fails the send;
+ * the pool is sized so that a few such clients at a time do not hold up the others. Every subscriber has a bounded
+ * buffer; a subscriber that falls behind by more than its buffer is disconnected instead of slowing down the others
+ * or growing the heap. A comment frame is sent to all subscribers periodically to keep idle connections open through
+ * proxies and to detect clients that went away.
+ * </p>
+ * <p>
+ * Event IDs consist of an epoch identifying this process and a sequence number of the tenant's channel. The latest
+ * frames of a channel are kept in a ring buffer, so a client reconnecting with {@code Last-Event-ID} gets the events it missed. When they are no
+ * longer available, or the ID comes from another process, the client gets a {@value #RESET_EVENT} event and has to
+ * reload the tasks. Events are only delivered to subscribers connected to the same instance.
+ * </p>
+ */
+@Service
+public class TaskEventBroadcaster implements TaskEventStream {
+    static final String RESET_EVENT = "reset";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ObjectMapper objectMapper;
+    private final Executor writer;
+    private final ExecutorService ownWriter;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long retryMillis;
+
+    private final int replaySize;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, TenantChannel> channels = new ConcurrentHashMap<>();
+
+    private final Counter publishedCounter;
+    private final Counter evictedCounter;
+
+    @Autowired
+    public TaskEventBroadcaster(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                @Value("${time-tracker.events.writer-threads:32}") int writerThreads,
+                                @Value("${time-tracker.events.buffer-size:256}") int bufferSize,
+                                @Value("${time-tracker.events.replay-size:4096}") int replaySize,
+                                @Value("${time-tracker.events.timeout-ms:1800000}") long timeoutMillis,
+                                @Value("${time-tracker.events.retry-ms:3000}") long retryMillis) {
+        this(objectMapper, meterRegistry, newWriter(writerThreads), bufferSize, replaySize, timeoutMillis, retryMillis);
+    }
+
+    TaskEventBroadcaster(ObjectMapper objectMapper, MeterRegistry meterRegistry, Executor writer, int bufferSize,
+                         int replaySize, long timeoutMillis, long retryMillis) {
+        this.objectMapper = objectMapper;
+        this.writer = writer;
+        this.ownWriter = writer instanceof ExecutorService executorService ? executorService : null;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.retryMillis = retryMillis;
+        this.replaySize = replaySize;
+        Gauge.builder("task.events.subscribers", this, TaskEventBroadcaster::subscriberCount)
+                .description("Number of connected task event stream subscribers")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("task.events.published")
+                .description("Number of task events broadcast")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("task.events.evicted")
+                .description("Number of subscribers disconnected for falling behind or failing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Connects a new subscriber of the current tenant.
+     *
+     * @param lastEventId the {@code Last-Event-ID} sent by a reconnecting client, or null
+     * @return the emitter of the new connection
+     */
+    @Override
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(TenantContext.requireTenantId(), emitter, lastEventId);
+        return emitter;
+    }
+
+    TaskEventSubscriber register(String tenantId, SseEmitter emitter, String lastEventId) {
+        while (true) {
+            TenantChannel channel = channels.computeIfAbsent(tenantId, tenant -> new TenantChannel(replaySize));
+            synchronized (channel) {
+                // dropped for being idle after it was looked up, the next lookup creates a new one
+                if (channel.dropped) continue;
+                TaskEventSubscriber subscriber = new TaskEventSubscriber(emitter, bufferSize, writer,
+                        failed -> evict(channel, failed));
+                emitter.onCompletion(() -> channel.subscribers.remove(subscriber));
+                emitter.onTimeout(() -> channel.subscribers.remove(subscriber));
+                emitter.onError(ex -> channel.subscribers.remove(subscriber));
+                subscriber.offer(SseEmitter.event().reconnectTime(retryMillis).comment("connected").build());
+                if (lastEventId != null && !lastEventId.isBlank()) replayAfter(channel, subscriber, lastEventId);
+                channel.subscribers.add(subscriber);
+                channel.idle = false;
+                return subscriber;
+            }
+        }
+    }
+
+    /**
+     * Broadcasts a task change once the transaction that published it has committed, or immediately when it was
+     * published outside of a transaction.
+     *
+     * @param event the change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        TenantChannel channel = channels.get(event.tenantId());
+        // nobody of this tenant ever subscribed to this instance, so nobody can resume either
+        if (channel == null) return;
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            logger.error("Could not serialize task event {} for task {}: {}", event.type(), event.taskId(), ex.getMessage());
+            return;
+        }
+        String name = event.type().name().toLowerCase(Locale.ROOT).replace('_', '-');
+        synchronized (channel) {
+            long sequence = ++channel.lastSequence;
+            Set<DataWithMediaType> frame = SseEmitter.event().id(epoch + "-" + sequence).name(name).data(data).build();
+            channel.replay[(int) (sequence % channel.replay.length)] = frame;
+            deliver(channel, frame);
+        }
+        publishedCounter.increment();
+    }
+
+    /**
+     * Sends a comment frame to all subscribers and drops the channels that had no subscribers since the previous
+     * heartbeat.
+     */
+    @Scheduled(fixedDelayString = "${time-tracker.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        channels.values().forEach(channel -> deliver(channel, frame));
+        channels.forEach((tenantId, channel) -> {
+            synchronized (channel) {
+                if (!channel.subscribers.isEmpty()) {
+                    channel.idle = false;
+                } else if (!channel.idle) {
+                    // kept for one more interval, so a client reconnecting right away still gets its missed events
+                    channel.idle = true;
+                } else {
+                    channel.dropped = true;
+                    channels.remove(tenantId, channel);
+                }
+            }
+        });
+    }
+
+    int subscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    int channelCount() {
+        return channels.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        channels.values().forEach(channel -> {
+            channel.subscribers.forEach(TaskEventSubscriber::close);
+            channel.subscribers.clear();
+        });
+        if (ownWriter != null) ownWriter.shutdownNow();
+    }
+
+    private void replayAfter(TenantChannel channel, TaskEventSubscriber subscriber, String lastEventId) {
+        long sequence = sequenceOf(lastEventId);
+        long missed = channel.lastSequence - sequence;
+        // the connected frame already takes one slot of the buffer
+        if (sequence < 0 || missed < 0 || missed > Math.min(channel.replay.length, bufferSize - 1)) {
+            subscriber.offer(SseEmitter.event().name(RESET_EVENT).data(RESET_EVENT).build());
+            return;
+        }
+        for (long next = sequence + 1; next <= channel.lastSequence; next++) {
+            subscriber.offer(channel.replay[(int) (next % channel.replay.length)]);
+        }
+    }
+
+    private long sequenceOf(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) return -1;
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private void deliver(TenantChannel channel, Set<DataWithMediaType> frame) {
+        for (TaskEventSubscriber subscriber : channel.subscribers) {
+            if (!subscriber.offer(frame)) evict(channel, subscriber);
+        }
+    }
+
+    private void evict(TenantChannel channel, TaskEventSubscriber subscriber) {
+        if (channel.subscribers.remove(subscriber)) {
+            evictedCounter.increment();
+            logger.debug("Disconnected a task event subscriber that fell behind or failed");
+        }
+        subscriber.close();
+    }
+
+    private static ExecutorService newWriter(int threads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("task-events-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Subscribers and latest frames of one tenant.
+     */
+    private static final class TenantChannel {
+        private final Set<TaskEventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+        private final Set<DataWithMediaType>[] replay;
+        private long lastSequence;
+        private boolean idle;
+        private boolean dropped;
+
+        @SuppressWarnings("unchecked")
+        private TenantChannel(int replaySize) {
+            this.replay = new Set[replaySize];
+        }
+    }
+}
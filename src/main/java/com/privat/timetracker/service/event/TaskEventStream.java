@@ -0,0 +1,7 @@
+package com.privat.timetracker.service.event;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface TaskEventStream {
+    SseEmitter subscribe(String lastEventId);
+}
@@ -0,0 +1,105 @@
+package com.privat.timetracker.service.event;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One connected event stream client.
+ * <p>
+ * Frames are put into a bounded queue and written by a shared writer pool; at most one writer drains the queue of
+ * a subscriber at a time, so frames are delivered in order and no thread is bound to an idle connection. A
+ * subscriber whose queue is full is too slow to keep up and is closed by the caller. A send to a client that stopped
+ * reading blocks its writer until the container's write timeout fails it.
+ * </p>
+ */
+class TaskEventSubscriber implements Runnable {
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<DataWithMediaType>> queue;
+    private final Executor writer;
+    private final Consumer<TaskEventSubscriber> onFailure;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    TaskEventSubscriber(SseEmitter emitter, int bufferSize, Executor writer, Consumer<TaskEventSubscriber> onFailure) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.writer = writer;
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * Queues a frame for delivery.
+     *
+     * @param frame the frame
+     * @return false if the subscriber is closed or its buffer is full
+     */
+    boolean offer(Set<DataWithMediaType> frame) {
+        if (closed.get() || !queue.offer(frame)) return false;
+        scheduleDrain();
+        return true;
+    }
+
+    /**
+     * Closes the connection. Frames still queued are dropped.
+     * <p>
+     * A writer blocked on the socket of this subscriber holds the emitter's lock, and neither the caller nor the
+     * writer pool must wait for it: the emitter is completed right away when no writer is draining, otherwise by
+     * that writer once its send returned or hit the write timeout of the container.
+     * </p>
+     */
+    void close() {
+        if (closed.compareAndSet(false, true)) completeIfIdle();
+    }
+
+    /**
+     * Completes the emitter of a closed subscriber unless a writer is draining it. The draining flag is never
+     * released afterwards, so the emitter is completed once and no writer is scheduled for it any more.
+     */
+    private void completeIfIdle() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // the connection is already gone
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!closed.get() && (frame = queue.poll()) != null) {
+                emitter.send(frame);
+            }
+        } catch (Exception ex) {
+            onFailure.accept(this);
+        } finally {
+            draining.set(false);
+        }
+        // closed while this writer was sending, or a frame queued between the last poll and releasing the flag
+        if (closed.get()) {
+            completeIfIdle();
+        } else if (!queue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                writer.execute(this);
+            } catch (RuntimeException ex) {
+                draining.set(false);
+                onFailure.accept(this);
+            }
+        }
+    }
+}
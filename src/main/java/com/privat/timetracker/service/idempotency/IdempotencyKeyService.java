@@ -0,0 +1,222 @@
+package com.privat.timetracker.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.IdempotencyKeyInUseException;
+import com.privat.timetracker.exception.exceptions.IdempotencyKeyReusedException;
+import com.privat.timetracker.repository.IdempotencyKeyRepository;
+import com.privat.timetracker.repository.projection.IdempotencyRecord;
+import com.privat.timetracker.service.job.ClusterJobs;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Records the responses of requests sent with an idempotency key, so a retry gets the original response.
+ * <p>
+ * Postgres is the store of record: a request claims its key in {@code tasks_schema.idempotency_keys} before it
+ * runs and stores its response there afterwards, so retries are recognized on every node and after a restart.
+ * Completed responses are also kept in a Caffeine cache bounded by the total size of the bodies, so the retries
+ * that arrive at the same node, which is the common case behind a sticky load balancer, are answered without a
+ * database round trip.
+ * </p>
+ * <p>
+ * A key belongs to its tenant and is kept for the configured time to live. A key sent again with a different
+ * request is rejected, and so is a retry that arrives while the first request is still running. A claim that was
+ * never completed, because its node died, can be taken over after the claim timeout. Expired keys are deleted in
+ * batches by a job that one node of the cluster runs at a time.
+ * </p>
+ * <p>
+ * Replayed responses are counted in {@code task.idempotency.replayed}, tagged with whether they came from memory.
+ * </p>
+ */
+@Service
+public class IdempotencyKeyService implements IdempotencyStore {
+    static final String JOB_NAME = "idempotency-keys";
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ClusterJobs clusterJobs;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final int purgeBatchSize;
+    private final Cache<CacheKey, StoredResponse> responses;
+    private final Counter replayedFromMemory;
+    private final Counter replayedFromDatabase;
+
+    @Autowired
+    public IdempotencyKeyService(IdempotencyKeyRepository idempotencyKeyRepository, ClusterJobs clusterJobs,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${time-tracker.idempotency.ttl-hours:24}") long ttlHours,
+                                 @Value("${time-tracker.idempotency.claim-timeout-ms:60000}") long claimTimeoutMillis,
+                                 @Value("${time-tracker.idempotency.memory-max-bytes:16777216}") long memoryMaxBytes,
+                                 @Value("${time-tracker.idempotency.purge-batch-size:1000}") int purgeBatchSize) {
+        this(idempotencyKeyRepository, clusterJobs, meterRegistry, Clock.systemDefaultZone(), Duration.ofHours(ttlHours),
+                Duration.ofMillis(claimTimeoutMillis), memoryMaxBytes, purgeBatchSize);
+    }
+
+    IdempotencyKeyService(IdempotencyKeyRepository idempotencyKeyRepository, ClusterJobs clusterJobs,
+                          MeterRegistry meterRegistry, Clock clock, Duration ttl, Duration claimTimeout,
+                          long memoryMaxBytes, int purgeBatchSize) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.clusterJobs = clusterJobs;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.purgeBatchSize = purgeBatchSize;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(memoryMaxBytes)
+                .weigher((CacheKey key, StoredResponse response) -> response.body().length + key.key().length())
+                .expireAfter(new ResponseExpiry())
+                .build();
+        this.replayedFromMemory = replayedCounter(meterRegistry, "memory");
+        this.replayedFromDatabase = replayedCounter(meterRegistry, "database");
+    }
+
+    /**
+     * Starts a request with an idempotency key of the current tenant.
+     *
+     * @param key         the idempotency key
+     * @param requestHash the hash of the method, path and body of the request
+     * @return the response to replay, or empty if the request claimed the key and has to run
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @throws IdempotencyKeyInUseException  if the first request with the key is still running
+     */
+    @Override
+    public Optional<StoredResponse> begin(String key, byte[] requestHash) {
+        String tenantId = TenantContext.requireTenantId();
+        CacheKey cacheKey = new CacheKey(tenantId, key);
+        StoredResponse cached = responses.getIfPresent(cacheKey);
+        if (cached != null) {
+            checkSameRequest(cached.requestHash(), requestHash);
+            replayedFromMemory.increment();
+            return Optional.of(cached);
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (idempotencyKeyRepository.claim(tenantId, key, requestHash, now, now.plus(ttl), now.minus(claimTimeout))) {
+            return Optional.empty();
+        }
+        // the key may also have been released or purged since the claim failed; the client retries either way
+        IdempotencyRecord record = idempotencyKeyRepository.find(tenantId, key, now)
+                .orElseThrow(() -> new IdempotencyKeyInUseException(ErrorMessages.IDEMPOTENCY_KEY_IN_USE));
+        checkSameRequest(record.requestHash(), requestHash);
+        if (record.responseStatus() == null) {
+            throw new IdempotencyKeyInUseException(ErrorMessages.IDEMPOTENCY_KEY_IN_USE);
+        }
+        StoredResponse response = new StoredResponse(record.requestHash(), record.responseStatus(),
+                record.responseType(), record.responseBody() == null ? new byte[0] : record.responseBody(),
+                record.expiresAt());
+        responses.put(cacheKey, response);
+        replayedFromDatabase.increment();
+        return Optional.of(response);
+    }
+
+    /**
+     * Stores the response of a request that claimed its key.
+     *
+     * @param key         the idempotency key
+     * @param requestHash the hash of the request
+     * @param status      the HTTP status of the response
+     * @param contentType the content type of the response, or null
+     * @param body        the body of the response
+     */
+    @Override
+    public void complete(String key, byte[] requestHash, int status, String contentType, byte[] body) {
+        String tenantId = TenantContext.requireTenantId();
+        if (idempotencyKeyRepository.complete(tenantId, key, requestHash, status, contentType, body)) {
+            responses.put(new CacheKey(tenantId, key),
+                    new StoredResponse(requestHash, status, contentType, body, LocalDateTime.now(clock).plus(ttl)));
+        } else {
+            logger.warn("The claim of an idempotency key was taken over before its request completed");
+        }
+    }
+
+    /**
+     * Gives up the claim of a request, so a retry runs again.
+     *
+     * @param key         the idempotency key
+     * @param requestHash the hash of the request
+     */
+    @Override
+    public void release(String key, byte[] requestHash) {
+        idempotencyKeyRepository.release(TenantContext.requireTenantId(), key, requestHash);
+    }
+
+    /**
+     * Deletes the expired keys of all tenants in batches.
+     * <p>
+     * Runs every {@code time-tracker.idempotency.purge-ms} on one node of the cluster at a time; a failure is logged
+     * and the next run continues.
+     * </p>
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${time-tracker.idempotency.purge-ms:600000}")
+    public void purgeExpired() {
+        clusterJobs.runExclusive(JOB_NAME, () -> {
+            LocalDateTime now = LocalDateTime.now(clock);
+            int purged = 0;
+            try {
+                int deleted;
+                do {
+                    deleted = idempotencyKeyRepository.deleteExpired(now, purgeBatchSize);
+                    purged += deleted;
+                } while (deleted == purgeBatchSize);
+            } catch (Exception ex) {
+                logger.error("Could not delete expired idempotency keys: {}", ex.getMessage());
+            }
+            if (purged > 0) logger.info("Deleted {} expired idempotency keys", purged);
+        });
+    }
+
+    private static void checkSameRequest(byte[] recorded, byte[] requestHash) {
+        if (!Arrays.equals(recorded, requestHash)) {
+            throw new IdempotencyKeyReusedException(ErrorMessages.IDEMPOTENCY_KEY_REUSED);
+        }
+    }
+
+    private static Counter replayedCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("task.idempotency.replayed")
+                .description("Number of responses replayed for a repeated idempotency key")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private record CacheKey(String tenantId, String key) {
+    }
+
+    /**
+     * Expires a response in memory when it expires in the database, so it is not replayed any longer there.
+     */
+    private final class ResponseExpiry implements Expiry<CacheKey, StoredResponse> {
+        @Override
+        public long expireAfterCreate(CacheKey key, StoredResponse response, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(clock), response.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(CacheKey key, StoredResponse response, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, response, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(CacheKey key, StoredResponse response, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
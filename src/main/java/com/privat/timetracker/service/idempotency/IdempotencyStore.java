@@ -0,0 +1,13 @@
+package com.privat.timetracker.service.idempotency;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+    Optional<StoredResponse> begin(String key, byte[] requestHash);
+
+    void complete(String key, byte[] requestHash, int status, String contentType, byte[] body);
+
+    void release(String key, byte[] requestHash);
+
+    void purgeExpired();
+}
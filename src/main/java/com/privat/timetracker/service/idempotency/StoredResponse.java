@@ -0,0 +1,16 @@
+package com.privat.timetracker.service.idempotency;
+
+import java.time.LocalDateTime;
+
+/**
+ * The response recorded for an idempotency key.
+ *
+ * @param requestHash the hash of the request that produced the response
+ * @param status      the HTTP status
+ * @param contentType the content type, or null if the response has no body
+ * @param body        the body, empty if there is none
+ * @param expiresAt   the time until which the response is replayed
+ */
+public record StoredResponse(byte[] requestHash, int status, String contentType, byte[] body,
+                             LocalDateTime expiresAt) {
+}
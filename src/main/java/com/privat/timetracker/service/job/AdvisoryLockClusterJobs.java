@@ -0,0 +1,198 @@
+package com.privat.timetracker.service.job;
+
+import com.privat.timetracker.repository.JobLockRepository;
+import com.privat.timetracker.repository.JobLockRepository.JobLock;
+import com.privat.timetracker.repository.JobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Runs scheduled jobs once per cluster instead of once per node.
+ * <p>
+ * Every node fires the same {@code @Scheduled} methods; this service decides which node does the work. A job is
+ * split into shards, and a shard is only run by the node holding the PostgreSQL advisory lock of the job and
+ * shard. Locks are only tried, never waited for, and the nodes take the shards in random order, so the live nodes
+ * share the work of a large job between them and a node that is down simply takes no shard. A job with one shard
+ * runs on exactly one node.
+ * </p>
+ * <p>
+ * Completed shards are recorded in {@code tasks_schema.job_runs} for the occurrence of the job, i.e. the cron time
+ * it was scheduled for, which is the same on every node. A node skips the shards completed by others, so a shard
+ * runs once even when a node only gets to it after another node released its lock. On startup
+ * {@link #catchUp(String, String, int, ShardWork)} runs the incomplete shards of the latest occurrence, which
+ * covers runs missed while every node was down and shards that failed or whose node died. A job that never
+ * completed a shard has nothing to catch up on.
+ * </p>
+ * <p>
+ * Every shard is counted in {@code task.jobs.shards}, tagged with the job and the outcome: completed, failed,
+ * locked by another node or skipped as already completed.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+public class AdvisoryLockClusterJobs implements ClusterJobs {
+    // the lock of a job without shards must not collide with the lock of shard 0
+    static final int EXCLUSIVE_KEY = -1;
+    private static final Duration MAX_LOOKBACK = Duration.ofDays(400);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final JobLockRepository jobLockRepository;
+    private final JobRunRepository jobRunRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${time-tracker.jobs.node:${HOSTNAME:local}}")
+    private String node;
+
+    @Value("${time-tracker.jobs.history-days:30}")
+    private int historyDays;
+
+    /**
+     * Runs a job unless another node is running it at the moment. Nothing is recorded.
+     *
+     * @param jobName the name of the job
+     * @param job     the job
+     * @return true if the job ran on this node
+     */
+    @Override
+    public boolean runExclusive(String jobName, Runnable job) {
+        Optional<JobLock> lock = jobLockRepository.tryLock(jobName, EXCLUSIVE_KEY);
+        if (lock.isEmpty()) {
+            count(jobName, "locked");
+            logger.debug("Job {} is running on another node", jobName);
+            return false;
+        }
+        try (JobLock ignored = lock.get()) {
+            job.run();
+        }
+        return true;
+    }
+
+    /**
+     * Runs the shards of the latest occurrence of a cron job that no other node runs or completed.
+     *
+     * @param jobName the name of the job
+     * @param cron    the cron expression the job is scheduled with
+     * @param shards  the number of shards
+     * @param work    the work of one shard
+     * @return the number of shards run on this node
+     */
+    @Override
+    public int runScheduled(String jobName, String cron, int shards, ShardWork work) {
+        LocalDateTime scheduledAt = lastFireTime(CronExpression.parse(cron), LocalDateTime.now());
+        if (scheduledAt == null) return 0;
+        return runOccurrence(jobName, scheduledAt, shards, work);
+    }
+
+    /**
+     * Runs the incomplete shards of the latest occurrence of a cron job, if the job ever completed a shard.
+     * Failures are logged and not thrown, so a failing catch-up does not stop the startup.
+     *
+     * @param jobName the name of the job
+     * @param cron    the cron expression the job is scheduled with
+     * @param shards  the number of shards
+     * @param work    the work of one shard
+     * @return the number of shards run on this node
+     */
+    @Override
+    public int catchUp(String jobName, String cron, int shards, ShardWork work) {
+        try {
+            Optional<LocalDateTime> lastScheduledAt = jobRunRepository.findLastScheduledAt(jobName);
+            if (lastScheduledAt.isEmpty()) return 0;
+            LocalDateTime scheduledAt = lastFireTime(CronExpression.parse(cron), LocalDateTime.now());
+            if (scheduledAt == null || scheduledAt.isBefore(lastScheduledAt.get())) return 0;
+            if (jobRunRepository.findCompletedShards(jobName, scheduledAt).size() >= shards) return 0;
+            logger.info("Catching up job {} scheduled at {}", jobName, scheduledAt);
+            return runOccurrence(jobName, scheduledAt, shards, work);
+        } catch (RuntimeException ex) {
+            logger.error("Could not catch up job {}: {}", jobName, ex.getMessage());
+            return 0;
+        }
+    }
+
+    private int runOccurrence(String jobName, LocalDateTime scheduledAt, int shards, ShardWork work) {
+        Set<Integer> completed = jobRunRepository.findCompletedShards(jobName, scheduledAt);
+        List<Integer> pending = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            if (!completed.contains(shard)) pending.add(shard);
+        }
+        // nodes firing at the same moment start with different shards instead of competing for the same lock
+        Collections.shuffle(pending);
+        int ran = 0;
+        RuntimeException failure = null;
+        for (int shard : pending) {
+            Optional<JobLock> lock = jobLockRepository.tryLock(jobName, shard);
+            if (lock.isEmpty()) {
+                count(jobName, "locked");
+                continue;
+            }
+            try (JobLock ignored = lock.get()) {
+                // another node may have completed the shard before this node got the lock
+                if (jobRunRepository.findCompletedShards(jobName, scheduledAt).contains(shard)) {
+                    count(jobName, "skipped");
+                    continue;
+                }
+                LocalDateTime startedAt = LocalDateTime.now();
+                work.run(scheduledAt, shard, shards);
+                jobRunRepository.markCompleted(jobName, scheduledAt, shard, shards, node, startedAt, LocalDateTime.now());
+                count(jobName, "completed");
+                ran++;
+            } catch (RuntimeException ex) {
+                count(jobName, "failed");
+                logger.error("Shard {} of {} of job {} scheduled at {} failed: {}", shard, shards, jobName,
+                        scheduledAt, ex.getMessage());
+                if (failure == null) failure = ex;
+                else failure.addSuppressed(ex);
+            }
+        }
+        logger.info("Ran {} of {} shards of job {} scheduled at {} on node {}", ran, shards, jobName, scheduledAt, node);
+        if (ran > 0) deleteHistory(jobName, scheduledAt);
+        if (failure != null) throw failure;
+        return ran;
+    }
+
+    private void deleteHistory(String jobName, LocalDateTime scheduledAt) {
+        try {
+            jobRunRepository.deleteBefore(jobName, scheduledAt.minusDays(historyDays));
+        } catch (RuntimeException ex) {
+            logger.warn("Could not delete the run history of job {}: {}", jobName, ex.getMessage());
+        }
+    }
+
+    private void count(String jobName, String outcome) {
+        meterRegistry.counter("task.jobs.shards", "job", jobName, "outcome", outcome).increment();
+    }
+
+    /**
+     * Returns the latest time a cron expression fired at or before the given time.
+     *
+     * @param cron the cron expression
+     * @param now  the current time
+     * @return the latest fire time, or null if it did not fire within about a year
+     */
+    static LocalDateTime lastFireTime(CronExpression cron, LocalDateTime now) {
+        for (Duration window = Duration.ofMinutes(1); window.compareTo(MAX_LOOKBACK) <= 0; window = window.multipliedBy(2)) {
+            LocalDateTime fireTime = cron.next(now.minus(window));
+            if (fireTime == null || fireTime.isAfter(now)) continue;
+            LocalDateTime next;
+            while ((next = cron.next(fireTime)) != null && !next.isAfter(now)) {
+                fireTime = next;
+            }
+            return fireTime;
+        }
+        return null;
+    }
+}
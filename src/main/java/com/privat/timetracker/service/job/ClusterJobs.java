@@ -0,0 +1,9 @@
+package com.privat.timetracker.service.job;
+
+public interface ClusterJobs {
+    boolean runExclusive(String jobName, Runnable job);
+
+    int runScheduled(String jobName, String cron, int shards, ShardWork work);
+
+    int catchUp(String jobName, String cron, int shards, ShardWork work);
+}
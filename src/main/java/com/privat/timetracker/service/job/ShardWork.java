@@ -0,0 +1,19 @@
+package com.privat.timetracker.service.job;
+
+import java.time.LocalDateTime;
+
+/**
+ * The work of one shard of a cluster-wide job.
+ */
+@FunctionalInterface
+public interface ShardWork {
+    /**
+     * Processes the part of the job's key range that belongs to a shard, e.g. the IDs with
+     * {@code id % shards == shard}. Throwing leaves the shard incomplete, so it is run again by a later catch-up.
+     *
+     * @param scheduledAt the time the occurrence was scheduled for, the same on every node
+     * @param shard       the shard to process, from zero to {@code shards - 1}
+     * @param shards      the number of shards
+     */
+    void run(LocalDateTime scheduledAt, int shard, int shards);
+}
@@ -0,0 +1,105 @@
+package com.privat.timetracker.service.journal;
+
+import com.privat.timetracker.service.event.TaskChangeType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * A start or stop of a task recorded in the {@link MappedJournal}.
+ * <p>
+ * An entry is written as its sequence, the transition, the task ID, the creation time of the task, the time of
+ * the transition and the tenant, in a fixed binary layout read back by {@link #decode(ByteBuffer)}. The creation
+ * time is the partition key of the task, so writing the entry only touches the partition of the task.
+ * </p>
+ *
+ * @param sequence  the position of the entry in the journal, increasing by one per entry
+ * @param type      the transition
+ * @param tenantId  the tenant owning the task
+ * @param taskId    the ID of the task
+ * @param createdAt the creation time of the task
+ * @param time      the start or end time set by the transition
+ */
+public record JournalEntry(long sequence, Type type, String tenantId, long taskId, LocalDateTime createdAt,
+                           LocalDateTime time) {
+
+    /**
+     * Transitions recorded in the journal.
+     */
+    public enum Type {
+        START((byte) 1, TaskChangeType.STARTED),
+        STOP((byte) 2, TaskChangeType.STOPPED);
+
+        private final byte code;
+        private final TaskChangeType changeType;
+
+        Type(byte code, TaskChangeType changeType) {
+            this.code = code;
+            this.changeType = changeType;
+        }
+
+        /**
+         * Returns the change published for this transition.
+         *
+         * @return the change type
+         */
+        public TaskChangeType changeType() {
+            return changeType;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) return type;
+            }
+            throw new IllegalArgumentException("Unknown journal entry type " + code);
+        }
+    }
+
+    /**
+     * Returns the number of bytes {@link #encode(ByteBuffer)} writes.
+     *
+     * @return the encoded size
+     */
+    int encodedSize() {
+        return Long.BYTES + 1 + Long.BYTES + 2 * (Long.BYTES + Integer.BYTES) + Short.BYTES
+                + tenantId.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Writes the entry at the position of the buffer.
+     *
+     * @param buffer the target buffer
+     */
+    void encode(ByteBuffer buffer) {
+        byte[] tenant = tenantId.getBytes(StandardCharsets.UTF_8);
+        buffer.putLong(sequence)
+                .put(type.code)
+                .putLong(taskId)
+                .putLong(createdAt.toEpochSecond(ZoneOffset.UTC))
+                .putInt(createdAt.getNano())
+                .putLong(time.toEpochSecond(ZoneOffset.UTC))
+                .putInt(time.getNano())
+                .putShort((short) tenant.length)
+                .put(tenant);
+    }
+
+    /**
+     * Reads an entry written by {@link #encode(ByteBuffer)} from the position of the buffer.
+     *
+     * @param buffer the source buffer
+     * @return the entry
+     * @throws IllegalArgumentException if the bytes are not a valid entry
+     */
+    static JournalEntry decode(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        Type type = Type.of(buffer.get());
+        long taskId = buffer.getLong();
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        LocalDateTime time = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        byte[] tenant = new byte[buffer.getShort()];
+        buffer.get(tenant);
+        return new JournalEntry(sequence, type, new String(tenant, StandardCharsets.UTF_8), taskId, createdAt, time);
+    }
+}
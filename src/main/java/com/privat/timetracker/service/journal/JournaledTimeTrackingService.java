@@ -0,0 +1,128 @@
+package com.privat.timetracker.service.journal;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskTransitionResult;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.*;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.service.TaskCache;
+import com.privat.timetracker.service.TaskTimeTrackingService;
+import com.privat.timetracker.service.TimeTracking;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Starts and stops tasks through the {@link TaskJournal}, enabled by {@code time-tracker.journal.enabled}.
+ * <p>
+ * A single start or stop is validated against the state of the task, taken from its pending transitions or, when
+ * none are pending, a read by primary key on the primary database, and is acknowledged once it is durable in the
+ * journal. The {@link TaskCache} is not used for this, since another node may have changed the task since it was
+ * cached. The change is published right away; if the database rejects it later, {@link TaskJournal} publishes the
+ * actual state of the task. Batch starts and stops first write the journal to the database and then run
+ * synchronously in {@link TaskTimeTrackingService}.
+ * </p>
+ */
+@Service
+@Primary
+@ConditionalOnExpression("${time-tracker.journal.enabled:false}")
+@RequiredArgsConstructor
+public class JournaledTimeTrackingService implements TimeTracking {
+    private final TaskJournal taskJournal;
+    private final TaskTimeTrackingService taskTimeTrackingService;
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final TaskCache taskCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Starts a task with the given ID.
+     *
+     * @param taskId the ID of the task to start
+     * @return the started task as a {@link TaskResponse} DTO
+     * @throws TaskNotFoundException if no task is found with the given ID
+     * @throws TaskAlreadyStarted    if the task is already started
+     * @throws TaskTimeException     if the start cannot be written to the journal
+     */
+    @Override
+    public TaskResponse startTask(Long taskId) {
+        return transition(taskId, JournalEntry.Type.START, status -> {
+            if (status == TaskStatus.ACTIVE)
+                throw new TaskAlreadyStarted(ErrorMessages.TASK_TIME_EXCEPTION.formatted("start", taskId, "Task already started"));
+        });
+    }
+
+    /**
+     * Stops a task with the given ID.
+     *
+     * @param taskId the ID of the task to stop
+     * @return the stopped task as a {@link TaskResponse} DTO
+     * @throws TaskNotFoundException   if no task is found with the given ID
+     * @throws TaskNotStartedException if the task is not started
+     * @throws TaskAlreadyStopped      if the task is already stopped
+     * @throws TaskTimeException       if the stop cannot be written to the journal
+     */
+    @Override
+    public TaskResponse stopTask(Long taskId) {
+        return transition(taskId, JournalEntry.Type.STOP, status -> {
+            if (status == TaskStatus.CREATED)
+                throw new TaskNotStartedException(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", taskId, "Task not started"));
+            if (status == TaskStatus.INACTIVE)
+                throw new TaskAlreadyStopped(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", taskId, "Task already stopped"));
+        });
+    }
+
+    @Override
+    public List<TaskTransitionResult> startTasks(List<Long> taskIds) {
+        taskJournal.flush();
+        return taskTimeTrackingService.startTasks(taskIds);
+    }
+
+    @Override
+    public List<TaskTransitionResult> stopTasks(List<Long> taskIds) {
+        taskJournal.flush();
+        return taskTimeTrackingService.stopTasks(taskIds);
+    }
+
+    private TaskResponse transition(Long taskId, JournalEntry.Type type, Consumer<TaskStatus> check) {
+        TaskResponse task;
+        try {
+            task = taskJournal.append(committedTask(taskId), type, check);
+        } catch (UncheckedIOException ex) {
+            throw new TaskTimeException(ErrorMessages.TASK_TIME_EXCEPTION.formatted(
+                    type.name().toLowerCase(), taskId, ex.getMessage()));
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.of(type.changeType(), task));
+        return task;
+    }
+
+    /**
+     * Returns the state of a task in the database and refreshes its cache entry.
+     * <p>
+     * The task is read in a read-write transaction, so it comes from the primary even when reads are routed to a
+     * replica.
+     * </p>
+     *
+     * @param taskId the ID of the task
+     * @return the task as a {@link TaskResponse} DTO
+     * @throws TaskNotFoundException if no task is found with the given ID
+     */
+    private TaskResponse committedTask(Long taskId) {
+        TaskCache.Entry entry = transactionTemplate.execute(status -> taskRepository.findById(taskId)
+                        .map(task -> new TaskCache.Entry(taskMapper.toDto(task), task.getVersion())))
+                .orElseThrow(() -> new TaskNotFoundException(ErrorMessages.TASK_NOT_FOUND.formatted(taskId)));
+        taskCache.put(entry);
+        return entry.task();
+    }
+}
@@ -0,0 +1,365 @@
+package com.privat.timetracker.service.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of {@link JournalEntry entries} in memory-mapped segment files.
+ * <p>
+ * The journal is a directory of segments of a fixed size, each named after the first sequence it may hold. Every
+ * entry is framed by its length and a CRC32C checksum of its bytes; a zero length marks the end of the written part
+ * of a segment, which is zero-filled when it is created. Appending copies the entry into the mapped segment and
+ * does not touch the disk; {@link #awaitDurable(long)} forces the segment to the disk. Threads waiting for
+ * durability at the same time share one force, so the cost of the force is spread over all entries appended while
+ * the previous one ran.
+ * </p>
+ * <p>
+ * A failed force fences the journal: whether the entries since the last successful force reached the disk is
+ * unknown, so they are zeroed in the mapped segment, every caller waiting for them gets an error, and no further
+ * entry is accepted. Entries that were durable before stay readable and are written to the database as usual.
+ * </p>
+ * <p>
+ * When the journal is opened, all segments are read and the entries found are returned by {@link #entries()}. A
+ * torn entry written when the process died, recognized by its length or checksum, ends the journal; it is cleared
+ * and overwritten by the next append. Segments holding only entries up to a sequence are deleted by
+ * {@link #deleteThrough(long)}.
+ * </p>
+ * <p>
+ * The directory also holds the ID of the journal, created with it, so a journal whose directory was lost is not
+ * mistaken for the previous one.
+ * </p>
+ */
+final class MappedJournal implements Closeable {
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String ID_FILE = "journal.id";
+
+    private static final int FRAME_HEADER = Integer.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final String id;
+    private final List<JournalEntry> entries;
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final Object appendLock = new Object();
+    private final Object forceLock = new Object();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long nextSequence;
+    private volatile long durableSequence;
+    // position in the current segment up to which it was forced
+    private int durablePosition;
+    private volatile boolean fenced;
+
+    /**
+     * Opens the journal in a directory, creating it if needed, and reads its entries.
+     *
+     * @param directory   the directory of the segments
+     * @param segmentSize the size of a segment in bytes
+     * @throws IOException if the directory cannot be read or written
+     */
+    MappedJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.id = readOrCreateId();
+        this.entries = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .forEach(file -> segments.put(firstSequence(file), file));
+        }
+        long lastSequence = 0;
+        for (Map.Entry<Long, Path> file : segments.entrySet()) {
+            boolean last = file.getKey().equals(segments.lastKey());
+            FileChannel fileChannel = FileChannel.open(file.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(fileChannel.size(), segmentSize));
+            lastSequence = read(buffer, lastSequence);
+            if (last) {
+                clearTail(buffer);
+                channel = fileChannel;
+                segment = buffer;
+            } else {
+                fileChannel.close();
+            }
+        }
+        nextSequence = lastSequence + 1;
+        durableSequence = lastSequence;
+        if (segment == null) {
+            roll();
+        } else {
+            durablePosition = segment.position();
+        }
+    }
+
+    /**
+     * Returns the ID of the journal.
+     *
+     * @return the ID, unique per journal directory
+     */
+    String id() {
+        return id;
+    }
+
+    /**
+     * Returns the entries found when the journal was opened.
+     *
+     * @return the entries in the order of their sequence
+     */
+    List<JournalEntry> entries() {
+        return entries;
+    }
+
+    /**
+     * Appends an entry, assigning it the next sequence. The entry is durable once {@link #awaitDurable(long)}
+     * returned for its sequence.
+     *
+     * @param type      the transition
+     * @param tenantId  the tenant owning the task
+     * @param taskId    the ID of the task
+     * @param createdAt the creation time of the task
+     * @param time      the time of the transition
+     * @return the appended entry
+     * @throws UncheckedIOException if a new segment cannot be created or the journal is fenced
+     */
+    JournalEntry append(JournalEntry.Type type, String tenantId, long taskId, LocalDateTime createdAt,
+                        LocalDateTime time) {
+        synchronized (appendLock) {
+            if (fenced) throw fencedException();
+            JournalEntry entry = new JournalEntry(nextSequence, type, tenantId, taskId, createdAt, time);
+            int size = entry.encodedSize();
+            if (FRAME_HEADER + size + Integer.BYTES > segmentSize) {
+                throw new IllegalArgumentException("Journal entry of " + size + " bytes does not fit into a segment");
+            }
+            if (segment.remaining() < FRAME_HEADER + size + Integer.BYTES) roll();
+            ByteBuffer payload = ByteBuffer.allocate(size);
+            entry.encode(payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.array());
+            segment.putInt(size).putInt((int) crc.getValue()).put(payload.array());
+            nextSequence++;
+            return entry;
+        }
+    }
+
+    /**
+     * Waits until the entry with the given sequence, and every entry before it, is written to the disk.
+     *
+     * @param sequence the sequence of the entry
+     * @throws UncheckedIOException if the segment cannot be forced to the disk, which fences the journal, or the
+     *                              journal was fenced before the entry became durable
+     */
+    void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) return;
+        synchronized (forceLock) {
+            if (durableSequence >= sequence) return;
+            if (fenced) throw fencedException();
+            long appended;
+            int position;
+            MappedByteBuffer current;
+            synchronized (appendLock) {
+                appended = nextSequence - 1;
+                position = segment.position();
+                current = segment;
+            }
+            try {
+                // segments before the current one were forced when the journal rolled over
+                current.force();
+            } catch (UncheckedIOException ex) {
+                synchronized (appendLock) {
+                    // forced by a roll over in the meantime
+                    if (durableSequence >= sequence) return;
+                    fence();
+                }
+                throw ex;
+            }
+            synchronized (appendLock) {
+                if (appended > durableSequence) durableSequence = appended;
+                if (current == segment && position > durablePosition) durablePosition = position;
+            }
+        }
+    }
+
+    /**
+     * Tells whether a failed force stopped the journal from accepting entries.
+     *
+     * @return true if the journal is fenced
+     */
+    boolean fenced() {
+        return fenced;
+    }
+
+    /**
+     * Returns the sequence up to which all entries are durable.
+     *
+     * @return the sequence of the last durable entry
+     */
+    long durableSequence() {
+        return durableSequence;
+    }
+
+    /**
+     * Deletes the segments holding no entry after the given sequence. The current segment is kept.
+     *
+     * @param sequence the sequence of the last entry that is no longer needed
+     * @throws UncheckedIOException if a segment cannot be deleted
+     */
+    void deleteThrough(long sequence) {
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (appendLock) {
+            while (segments.size() > 1 && segments.higherKey(segments.firstKey()) - 1 <= sequence) {
+                obsolete.add(segments.pollFirstEntry().getValue());
+            }
+        }
+        try {
+            for (Path file : obsolete) Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Forces the current segment to the disk and closes it.
+     *
+     * @throws IOException if the segment cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            segment.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Starts a new segment for the next sequence, after forcing the current one to the disk.
+     */
+    private void roll() {
+        try {
+            if (segment != null) {
+                segment.force();
+                channel.close();
+                durableSequence = nextSequence - 1;
+            }
+            Path file = directory.resolve("%020d%s".formatted(nextSequence, SEGMENT_SUFFIX));
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segments.put(nextSequence, file);
+            durablePosition = 0;
+            forceDirectory();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Stops accepting entries and zeroes the entries of the current segment that were not forced, so they neither
+     * reach the disk later nor are read again when the journal is opened.
+     */
+    void fence() {
+        synchronized (appendLock) {
+            fenced = true;
+            for (int i = durablePosition; i < segment.position(); i++) {
+                segment.put(i, (byte) 0);
+            }
+            segment.position(durablePosition);
+        }
+    }
+
+    private UncheckedIOException fencedException() {
+        return new UncheckedIOException(new IOException("Journal " + id + " is fenced after a failed write to the disk"));
+    }
+
+    /**
+     * Reads the entries of a segment up to the first missing or torn one and leaves the buffer positioned there.
+     *
+     * @param buffer       the mapped segment
+     * @param lastSequence the sequence of the last entry of the previous segments
+     * @return the sequence of the last entry read
+     */
+    private long read(MappedByteBuffer buffer, long lastSequence) {
+        while (buffer.remaining() >= FRAME_HEADER) {
+            int start = buffer.position();
+            int size = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (size <= 0 || size > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            byte[] payload = new byte[size];
+            buffer.get(payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            JournalEntry entry = (int) crc.getValue() == checksum ? decodeOrNull(payload) : null;
+            if (entry == null || entry.sequence() <= lastSequence) {
+                buffer.position(start);
+                break;
+            }
+            entries.add(entry);
+            lastSequence = entry.sequence();
+        }
+        return lastSequence;
+    }
+
+    private static JournalEntry decodeOrNull(byte[] payload) {
+        try {
+            return JournalEntry.decode(ByteBuffer.wrap(payload));
+        } catch (RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Zero-fills a segment from its position, so a torn entry is not read again after newer entries.
+     */
+    private static void clearTail(MappedByteBuffer buffer) {
+        int position = buffer.position();
+        while (buffer.remaining() >= Long.BYTES) buffer.putLong(0L);
+        while (buffer.hasRemaining()) buffer.put((byte) 0);
+        buffer.force();
+        buffer.position(position);
+    }
+
+    private String readOrCreateId() throws IOException {
+        Path file = directory.resolve(ID_FILE);
+        if (Files.exists(file)) return Files.readString(file, StandardCharsets.UTF_8).trim();
+        String newId = UUID.randomUUID().toString();
+        Files.writeString(file, newId, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE, StandardOpenOption.SYNC);
+        forceDirectory();
+        return newId;
+    }
+
+    /**
+     * Forces the directory entries of new files to the disk, where the file system supports it.
+     */
+    private void forceDirectory() {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ex) {
+            // not supported on every platform; the segment contents are forced either way
+        }
+    }
+
+    private static long firstSequence(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.privat.timetracker.service.journal;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskStamp;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Used while the journal is disabled: every start and stop is written to the database before it is acknowledged,
+ * so reads have nothing to add.
+ */
+@Service
+@ConditionalOnExpression("!${time-tracker.journal.enabled:false}")
+public class NoPendingTransitions implements PendingTransitions {
+
+    @Override
+    public TaskResponse apply(TaskResponse task, LocalDateTime now) {
+        return task;
+    }
+
+    @Override
+    public TaskStamp apply(TaskStamp stamp) {
+        return stamp;
+    }
+
+    @Override
+    public TaskListStamp apply(TaskListStamp stamp) {
+        return stamp;
+    }
+}
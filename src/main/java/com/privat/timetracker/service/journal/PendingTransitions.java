@@ -0,0 +1,15 @@
+package com.privat.timetracker.service.journal;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskStamp;
+
+import java.time.LocalDateTime;
+
+public interface PendingTransitions {
+    TaskResponse apply(TaskResponse task, LocalDateTime now);
+
+    TaskStamp apply(TaskStamp stamp);
+
+    TaskListStamp apply(TaskListStamp stamp);
+}
@@ -0,0 +1,418 @@
+package com.privat.timetracker.service.journal;
+
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.mapping.TaskDurations;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskJournalRepository;
+import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskStamp;
+import com.privat.timetracker.repository.projection.TaskTransition;
+import com.privat.timetracker.service.TaskCache;
+import com.privat.timetracker.service.deadline.TaskDeadlines;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind journal of task starts and stops, enabled by {@code time-tracker.journal.enabled}.
+ * <p>
+ * A start or stop is appended to a {@link MappedJournal} in {@code time-tracker.journal.directory} and acknowledged
+ * as soon as it is durable on the local disk, without a database transaction. Concurrent requests share one force
+ * of the journal to the disk. A background writer runs every {@code time-tracker.journal.drain-ms} and writes the
+ * durable entries to the database in batches of {@code time-tracker.journal.batch-size}, in the order they were
+ * appended. Every batch stores the sequence of its last entry in {@code tasks_schema.journal_checkpoints} in the
+ * same transaction, so after a crash the entries of the journal that are newer than the checkpoint are written
+ * again, and only those. Segments of the journal are deleted once all their entries are written.
+ * </p>
+ * <p>
+ * Until an entry is written, the transition is kept in memory as pending, and every read of the task, its
+ * validator and the validator of the list applies it, so clients read their own starts and stops. Starts and stops
+ * of the same task are validated against the pending state, one at a time.
+ * </p>
+ * <p>
+ * A start or stop whose force to the disk failed is discarded and reported to the caller; the journal then accepts
+ * no further transitions, see {@link MappedJournal}.
+ * </p>
+ * <p>
+ * Transitions are written with the same conditions as synchronous starts and stops. A transition the database no
+ * longer accepts, because another node, the auto-close job, the archive or a deadline changed the task in between, is dropped
+ * and counted in {@code task.journal.conflicts}; the actual state of its task is published as an update, so event
+ * stream clients that got the transition see it undone. Session deadlines are armed and disarmed once a transition has
+ * been written.
+ * </p>
+ */
+@Service
+@ConditionalOnExpression("${time-tracker.journal.enabled:false}")
+public class TaskJournal implements PendingTransitions {
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TaskJournalRepository taskJournalRepository;
+    private final TaskRepository taskRepository;
+    private final TaskCache taskCache;
+    private final TaskDeadlines taskDeadlines;
+    private final TaskMapper taskMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final MappedJournal journal;
+    private final int batchSize;
+    private final Counter drained;
+    private final Counter conflicts;
+
+    private final Map<TaskKey, PendingTask> pending = new ConcurrentHashMap<>();
+    private final Queue<JournalEntry> undrained = new ConcurrentLinkedQueue<>();
+    private final Object appendLock = new Object();
+    private volatile boolean recovered;
+
+    @Autowired
+    public TaskJournal(TaskJournalRepository taskJournalRepository, TaskRepository taskRepository, TaskCache taskCache,
+                       TaskDeadlines taskDeadlines, TaskMapper taskMapper, ApplicationEventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                       @Value("${time-tracker.journal.directory:journal}") String directory,
+                       @Value("${time-tracker.journal.segment-bytes:67108864}") int segmentBytes,
+                       @Value("${time-tracker.journal.batch-size:500}") int batchSize) throws IOException {
+        this(taskJournalRepository, taskRepository, taskCache, taskDeadlines, taskMapper, eventPublisher,
+                transactionTemplate, meterRegistry, new MappedJournal(Path.of(directory), segmentBytes), batchSize);
+    }
+
+    TaskJournal(TaskJournalRepository taskJournalRepository, TaskRepository taskRepository, TaskCache taskCache,
+                TaskDeadlines taskDeadlines, TaskMapper taskMapper, ApplicationEventPublisher eventPublisher,
+                TransactionTemplate transactionTemplate, MeterRegistry meterRegistry, MappedJournal journal,
+                int batchSize) {
+        this.taskJournalRepository = taskJournalRepository;
+        this.taskRepository = taskRepository;
+        this.taskCache = taskCache;
+        this.taskDeadlines = taskDeadlines;
+        this.taskMapper = taskMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.journal = journal;
+        this.batchSize = batchSize;
+        this.drained = Counter.builder("task.journal.drained")
+                .description("Number of journaled starts and stops written to the database")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("task.journal.conflicts")
+                .description("Number of journaled starts and stops the database did not accept")
+                .register(meterRegistry);
+        Gauge.builder("task.journal.pending", undrained, Queue::size)
+                .description("Number of journaled starts and stops not yet written to the database")
+                .register(meterRegistry);
+        // entries found in the journal are pending until the checkpoint tells which of them were written
+        journal.entries().forEach(this::enqueue);
+    }
+
+    /**
+     * Appends a start or stop of a task of the current tenant and waits until it is durable.
+     * <p>
+     * The transition is checked against the pending state of the task, or against {@code task} when nothing is
+     * pending, while no other transition of the task is appended.
+     * </p>
+     *
+     * @param task  the state of the task in the database
+     * @param type  the transition
+     * @param check throws the exception describing why the transition does not fit the given status
+     * @return the task after the transition
+     * @throws java.io.UncheckedIOException if the journal cannot be written; the transition is then discarded
+     */
+    public TaskResponse append(TaskResponse task, JournalEntry.Type type, Consumer<TaskStatus> check) {
+        String tenantId = TenantContext.requireTenantId();
+        LocalDateTime now = LocalDateTime.now();
+        TaskKey taskKey = new TaskKey(tenantId, task.id());
+        JournalEntry[] appended = new JournalEntry[1];
+        PendingTask after = pending.compute(taskKey, (key, current) -> {
+            check.accept(current == null ? task.status() : current.status());
+            synchronized (appendLock) {
+                appended[0] = journal.append(type, tenantId, task.id(), task.createdAt(), now);
+                undrained.add(appended[0]);
+            }
+            return (current == null ? PendingTask.NONE : current).with(appended[0]);
+        });
+        try {
+            journal.awaitDurable(appended[0].sequence());
+        } catch (RuntimeException ex) {
+            discard(taskKey, appended[0]);
+            logger.error("Journal could not be forced to the disk and no longer accepts starts and stops: {}",
+                    ex.getMessage());
+            throw ex;
+        }
+        return after.applyTo(task, now);
+    }
+
+    /**
+     * Writes all durable entries to the database before the caller goes on.
+     * Used before batch starts and stops, which are written synchronously.
+     */
+    public void flush() {
+        drain();
+    }
+
+    @Override
+    public TaskResponse apply(TaskResponse task, LocalDateTime now) {
+        if (pending.isEmpty()) return task;
+        PendingTask transitions = pending.get(new TaskKey(TenantContext.requireTenantId(), task.id()));
+        return transitions == null ? task : transitions.applyTo(task, now);
+    }
+
+    @Override
+    public TaskStamp apply(TaskStamp stamp) {
+        if (pending.isEmpty()) return stamp;
+        PendingTask transitions = pending.get(new TaskKey(TenantContext.requireTenantId(), stamp.id()));
+        if (transitions == null) return stamp;
+        // every written transition increments the version, so the validator stays the same once it is written
+        return new TaskStamp(stamp.id(), stamp.version() + transitions.count(), stamp.createdAt(), stamp.updatedAt(),
+                transitions.startTime(stamp.startTime()), transitions.endTime(stamp.endTime()));
+    }
+
+    @Override
+    public TaskListStamp apply(TaskListStamp stamp) {
+        if (pending.isEmpty()) return stamp;
+        String tenantId = TenantContext.requireTenantId();
+        long count = 0;
+        LocalDateTime lastStartTime = stamp.lastStartTime();
+        LocalDateTime lastEndTime = stamp.lastEndTime();
+        for (Map.Entry<TaskKey, PendingTask> entry : pending.entrySet()) {
+            if (!entry.getKey().tenantId().equals(tenantId)) continue;
+            PendingTask transitions = entry.getValue();
+            count += transitions.count();
+            lastStartTime = latest(lastStartTime, transitions.startTime(null));
+            lastEndTime = latest(lastEndTime, transitions.endTime(null));
+        }
+        if (count == 0) return stamp;
+        long versionSum = stamp.versionSum() == null ? 0 : stamp.versionSum();
+        return new TaskListStamp(stamp.digest(), versionSum + count, stamp.lastCreatedAt(),
+                stamp.lastUpdatedAt(), lastStartTime, lastEndTime);
+    }
+
+    /**
+     * Drops the entries that were written before the application stopped and starts writing the others.
+     * <p>
+     * Runs once the application is ready, after the database migrations, and reads the checkpoint of this
+     * journal.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recover() {
+        long checkpoint = taskJournalRepository.findCheckpoint(journal.id());
+        List<JournalEntry> written = new ArrayList<>();
+        while (!undrained.isEmpty() && undrained.peek().sequence() <= checkpoint) {
+            written.add(undrained.poll());
+        }
+        settle(written, Set.of());
+        int replayed = journal.entries().size() - written.size();
+        if (replayed > 0) logger.info("Replaying {} journaled starts and stops not yet written to the database", replayed);
+        recovered = true;
+        drain();
+    }
+
+    /**
+     * Writes the durable entries to the database in batches.
+     * <p>
+     * Runs every {@code time-tracker.journal.drain-ms}; a failed batch is logged and written again by the next run.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${time-tracker.journal.drain-ms:50}")
+    public synchronized void drain() {
+        if (!recovered) return;
+        try {
+            while (drainBatch() == batchSize) {
+                // the next batch is full as well
+            }
+        } catch (Exception ex) {
+            logger.error("Could not write journaled starts and stops to the database: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Writes the remaining entries and closes the journal.
+     */
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        drain();
+        journal.close();
+    }
+
+    private int drainBatch() {
+        long durable = journal.durableSequence();
+        List<JournalEntry> batch = new ArrayList<>();
+        for (JournalEntry entry : undrained) {
+            if (batch.size() == batchSize || entry.sequence() > durable) break;
+            batch.add(entry);
+        }
+        if (batch.isEmpty()) return 0;
+        long lastSequence = batch.get(batch.size() - 1).sequence();
+        int[] counts = transactionTemplate.execute(status -> {
+            int[] updated = taskJournalRepository.apply(batch.stream()
+                    .map(entry -> new TaskTransition(entry.tenantId(), entry.taskId(), entry.createdAt(),
+                            entry.type() == JournalEntry.Type.START, entry.time()))
+                    .toList());
+            taskJournalRepository.saveCheckpoint(journal.id(), lastSequence, LocalDateTime.now());
+            return updated;
+        });
+        Set<Long> rejected = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            undrained.poll();
+            // only 0 means rejected; a driver may report SUCCESS_NO_INFO instead of the row count
+            if (counts[i] == 0) {
+                JournalEntry entry = batch.get(i);
+                rejected.add(entry.sequence());
+                logger.warn("Journaled {} of task {} of tenant {} was not accepted by the database",
+                        entry.type().name().toLowerCase(), entry.taskId(), entry.tenantId());
+            }
+        }
+        conflicts.increment(rejected.size());
+        drained.increment(batch.size() - rejected.size());
+        settle(batch, rejected);
+        publishActualState(batch, rejected);
+        journal.deleteThrough(lastSequence);
+        return batch.size();
+    }
+
+    /**
+     * Removes the pending state of written entries and updates the cache and the session deadlines of their tasks.
+     *
+     * @param written  the entries written to the database, in order
+     * @param rejected the sequences of the entries the database did not accept
+     */
+    private void settle(List<JournalEntry> written, Set<Long> rejected) {
+        if (written.isEmpty()) return;
+        Map<String, Set<Long>> byTenant = written.stream().collect(Collectors.groupingBy(JournalEntry::tenantId,
+                Collectors.mapping(JournalEntry::taskId, Collectors.toSet())));
+        byTenant.forEach(taskCache::evict);
+        Map<Long, JournalEntry> lastByTask = new LinkedHashMap<>();
+        for (JournalEntry entry : written) {
+            pending.computeIfPresent(new TaskKey(entry.tenantId(), entry.taskId()),
+                    (key, transitions) -> transitions.lastSequence() <= entry.sequence() ? null : transitions);
+            if (!rejected.contains(entry.sequence())) lastByTask.put(entry.taskId(), entry);
+        }
+        // a read that raced with the removal may have cached the state before the write
+        byTenant.forEach(taskCache::evict);
+        armDeadlines(lastByTask.values());
+    }
+
+    /**
+     * Publishes the state of the tasks whose transitions the database rejected, since the rejected transitions were
+     * already published when they were appended. A task with a transition still pending is left to that one.
+     */
+    private void publishActualState(List<JournalEntry> written, Set<Long> rejected) {
+        if (rejected.isEmpty()) return;
+        Map<Long, String> tenants = new HashMap<>();
+        for (JournalEntry entry : written) {
+            if (rejected.contains(entry.sequence()) && !pending.containsKey(new TaskKey(entry.tenantId(), entry.taskId()))) {
+                tenants.put(entry.taskId(), entry.tenantId());
+            }
+        }
+        if (tenants.isEmpty()) return;
+        taskRepository.findAllByIdIn(tenants.keySet()).stream()
+                .filter(task -> task.getTenantId().equals(tenants.get(task.getId())))
+                .forEach(task -> eventPublisher.publishEvent(
+                        TaskChangedEvent.of(task.getTenantId(), TaskChangeType.UPDATED, taskMapper.toDto(task))));
+    }
+
+    private void armDeadlines(Collection<JournalEntry> entries) {
+        List<Long> stopped = new ArrayList<>();
+        List<Long> started = new ArrayList<>();
+        for (JournalEntry entry : entries) {
+            // a transition still pending decides the deadline once it is written
+            if (pending.containsKey(new TaskKey(entry.tenantId(), entry.taskId()))) continue;
+            (entry.type() == JournalEntry.Type.START ? started : stopped).add(entry.taskId());
+        }
+        if (!stopped.isEmpty()) taskDeadlines.disarm(stopped);
+        if (!started.isEmpty()) {
+            taskRepository.findAllByIdIn(started).stream()
+                    .filter(task -> task.getStatus() == TaskStatus.ACTIVE)
+                    .forEach(taskDeadlines::arm);
+        }
+    }
+
+    /**
+     * Removes an entry that did not become durable, so it is neither written to the database nor applied to reads.
+     * The pending state of its task is folded again from the entries that remain.
+     */
+    private void discard(TaskKey taskKey, JournalEntry entry) {
+        undrained.remove(entry);
+        pending.computeIfPresent(taskKey, (key, current) -> {
+            PendingTask remaining = PendingTask.NONE;
+            for (JournalEntry other : undrained) {
+                if (other.taskId() == key.taskId() && other.tenantId().equals(key.tenantId())) {
+                    remaining = remaining.with(other);
+                }
+            }
+            return remaining.count() == 0 ? null : remaining;
+        });
+    }
+
+    private void enqueue(JournalEntry entry) {
+        undrained.add(entry);
+        pending.merge(new TaskKey(entry.tenantId(), entry.taskId()), PendingTask.NONE.with(entry),
+                (current, next) -> current.with(entry));
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record TaskKey(String tenantId, Long taskId) {
+    }
+
+    /**
+     * The transitions of a task that are not written yet, folded into the state they leave the task in.
+     *
+     * @param status       the status after the transitions
+     * @param startTime    the start time set by the last start, or null if no start is pending
+     * @param endTime      the end time set by the last stop, or null if no stop is pending
+     * @param count        the number of transitions
+     * @param lastSequence the sequence of the last transition
+     */
+    private record PendingTask(TaskStatus status, LocalDateTime startTime, LocalDateTime endTime, int count,
+                               long lastSequence) {
+        static final PendingTask NONE = new PendingTask(null, null, null, 0, 0);
+
+        PendingTask with(JournalEntry entry) {
+            return entry.type() == JournalEntry.Type.START
+                    ? new PendingTask(TaskStatus.ACTIVE, entry.time(), endTime, count + 1, entry.sequence())
+                    : new PendingTask(TaskStatus.INACTIVE, startTime, entry.time(), count + 1, entry.sequence());
+        }
+
+        LocalDateTime startTime(LocalDateTime written) {
+            return startTime == null ? written : startTime;
+        }
+
+        LocalDateTime endTime(LocalDateTime written) {
+            return endTime == null ? written : endTime;
+        }
+
+        TaskResponse applyTo(TaskResponse task, LocalDateTime now) {
+            LocalDateTime start = startTime(task.startTime());
+            LocalDateTime end = endTime(task.endTime());
+            return new TaskResponse(task.id(), task.title(), task.description(), status, start, end,
+                    task.createdAt(), task.editedAt(), TaskDurations.seconds(start, end, now));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+-- Completed shards of cluster-wide scheduled jobs, one row per occurrence of a job and shard.
+-- Nodes skip the shards that another node already completed, and a node starting up runs the latest occurrence
+-- that is not complete, so a run missed while all nodes were down is caught up.
+create table if not exists tasks_schema.job_runs
+(
+    job_name     varchar(100) not null,
+    scheduled_at timestamp    not null,
+    shard        integer      not null,
+    shards       integer      not null,
+    node         varchar(255) not null,
+    started_at   timestamp    not null,
+    finished_at  timestamp    not null,
+    primary key (job_name, scheduled_at, shard)
+);
@@ -0,0 +1,26 @@
+-- every task belongs to a tenant and optionally to a user of that tenant; existing tasks go to the 'default'
+-- tenant, which is also used for requests without a tenant header. A constant default only changes the catalog,
+-- so no row is rewritten, and it is dropped again because the application always sets the tenant.
+alter table tasks_schema.tasks add column if not exists tenant_id varchar(64) not null default 'default';
+alter table tasks_schema.tasks alter column tenant_id drop default;
+alter table tasks_schema.tasks add column if not exists user_id varchar(64);
+
+alter table tasks_schema.tasks_archive add column if not exists tenant_id varchar(64) not null default 'default';
+alter table tasks_schema.tasks_archive alter column tenant_id drop default;
+alter table tasks_schema.tasks_archive add column if not exists user_id varchar(64);
+
+-- requests only ever read the tasks of one tenant, so the indexes they use lead with the tenant: the pages of a
+-- small tenant stay a short range scan however many tasks the large tenants have
+drop index if exists tasks_schema.tasks_created_at_id_idx;
+create index if not exists tasks_tenant_created_at_id_idx on tasks_schema.tasks (tenant_id, created_at, id);
+
+-- btree_gin lets the search index lead with the tenant as well; it is a trusted extension
+create extension if not exists btree_gin;
+drop index if exists tasks_schema.tasks_search_vector_idx;
+create index if not exists tasks_tenant_search_vector_idx on tasks_schema.tasks using gin (tenant_id, search_vector);
+
+-- the archive job works across tenants and took its batches from the dropped created_at index
+create index if not exists tasks_inactive_end_time_idx on tasks_schema.tasks (end_time, id) where task_status = 'INACTIVE';
+
+-- tasks_active_id_idx stays as it is: the auto-close job and the deadline timer walk the active tasks of all
+-- tenants by ID
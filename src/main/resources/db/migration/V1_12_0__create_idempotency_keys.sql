@@ -0,0 +1,18 @@
+-- Responses of requests sent with an Idempotency-Key header, kept until expires_at so a retried request gets the
+-- original response replayed. A row without a response_status is the claim of a request that is still running.
+create table if not exists tasks_schema.idempotency_keys
+(
+    tenant_id       varchar(64)  not null,
+    idempotency_key varchar(255) not null,
+    -- SHA-256 of method, path and body, so a key reused for another request is detected
+    request_hash    bytea        not null,
+    response_status integer,
+    response_type   varchar(255),
+    response_body   bytea,
+    created_at      timestamp    not null,
+    expires_at      timestamp    not null,
+    primary key (tenant_id, idempotency_key)
+);
+
+-- the cleanup job deletes expired keys in batches
+create index if not exists idempotency_keys_expires_at_idx on tasks_schema.idempotency_keys (expires_at);
@@ -0,0 +1,9 @@
+-- Position up to which the start/stop journal of a node has been written to tasks_schema.tasks. It is updated in the
+-- same transaction as the tasks, so the entries a node replays after a crash are written exactly once.
+create table if not exists tasks_schema.journal_checkpoints
+(
+    -- created with the journal directory of the node
+    journal_id    varchar(64) primary key,
+    last_sequence bigint    not null,
+    updated_at    timestamp not null
+);
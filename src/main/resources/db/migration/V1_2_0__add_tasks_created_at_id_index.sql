@@ -0,0 +1 @@
+create index if not exists tasks_created_at_id_idx on tasks_schema.tasks (created_at, id);
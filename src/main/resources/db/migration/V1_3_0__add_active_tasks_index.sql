@@ -0,0 +1,4 @@
+-- task_status is the column mapped by the Task entity; make sure it exists before indexing it
+alter table tasks_schema.tasks add column if not exists task_status varchar(255);
+
+create index if not exists tasks_active_id_idx on tasks_schema.tasks (id) where task_status = 'ACTIVE';
@@ -0,0 +1 @@
+alter table tasks_schema.tasks add column if not exists version bigint not null default 0;
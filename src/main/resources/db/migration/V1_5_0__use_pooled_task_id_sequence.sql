@@ -0,0 +1,3 @@
+-- The Task entity allocates IDs from this sequence in blocks of 50 (pooled optimizer),
+-- which lets Hibernate batch inserts. The increment must match the allocation size.
+alter sequence tasks_schema.tasks_id_seq increment by 50;
@@ -0,0 +1,10 @@
+-- full-text search over title (weight A) and description (weight B);
+-- the 'simple' configuration does not stem, so it works for texts in any language
+alter table tasks_schema.tasks
+    add column if not exists search_vector tsvector
+        generated always as (
+            setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+            setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+        ) stored;
+
+create index if not exists tasks_search_vector_idx on tasks_schema.tasks using gin (search_vector);
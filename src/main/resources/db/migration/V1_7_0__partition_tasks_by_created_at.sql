@@ -0,0 +1,71 @@
+-- Partition tasks by month of created_at, so vacuum, index maintenance and range scans only touch the months
+-- they need and old history can be removed by detaching a partition instead of deleting rows.
+-- Partitions are named tasks_YYYY_MM; the application creates them ahead of time with create_task_partition.
+-- There is no default partition: it would be scanned every time a new partition is attached
+-- and it rules out DETACH ... CONCURRENTLY.
+
+create or replace function tasks_schema.create_task_partition(month date) returns text
+    language plpgsql as
+$$
+declare
+    from_date      date := date_trunc('month', month)::date;
+    partition_name text := 'tasks_' || to_char(from_date, 'YYYY_MM');
+begin
+    execute format('create table if not exists tasks_schema.%I partition of tasks_schema.tasks '
+                       || 'for values from (%L) to (%L)',
+                   partition_name, from_date, (from_date + interval '1 month')::date);
+    return partition_name;
+end
+$$;
+
+alter table tasks_schema.tasks rename to tasks_unpartitioned;
+alter table tasks_schema.tasks_unpartitioned drop constraint tasks_pkey;
+drop index tasks_schema.tasks_created_at_id_idx;
+drop index tasks_schema.tasks_active_id_idx;
+drop index tasks_schema.tasks_search_vector_idx;
+-- the sequence is owned by the old id column and would be dropped with the old table
+alter sequence tasks_schema.tasks_id_seq owned by none;
+
+create table tasks_schema.tasks
+(
+    id            integer      not null default nextval('tasks_schema.tasks_id_seq'),
+    title         varchar(500) not null,
+    description   varchar(10000),
+    start_time    timestamp check (start_time > '0001-01-01' and start_time < '9999-12-31'),
+    end_time      timestamp check (end_time > '0001-01-01' and end_time < '9999-12-31'),
+    status        varchar(50),
+    created_at    timestamp    not null,
+    updated_at    timestamp,
+    task_status   varchar(255),
+    version       bigint       not null default 0,
+    search_vector tsvector generated always as (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) stored,
+    -- a unique constraint on a partitioned table has to contain the partition key
+    primary key (id, created_at)
+) partition by range (created_at);
+
+alter sequence tasks_schema.tasks_id_seq owned by tasks_schema.tasks.id;
+
+-- every month with existing tasks up to three months ahead of the latest one
+select tasks_schema.create_task_partition(month::date)
+from generate_series(
+             (select date_trunc('month', coalesce(min(created_at), localtimestamp)) from tasks_schema.tasks_unpartitioned),
+             (select date_trunc('month', greatest(max(created_at), localtimestamp)) from tasks_schema.tasks_unpartitioned)
+                 + interval '3 months',
+             interval '1 month') as month;
+
+insert into tasks_schema.tasks (id, title, description, start_time, end_time, status, created_at, updated_at,
+                                task_status, version)
+select id, title, description, start_time, end_time, status, created_at, updated_at, task_status, version
+from tasks_schema.tasks_unpartitioned;
+
+drop table tasks_schema.tasks_unpartitioned;
+
+-- indexes on the partitioned table are created on every partition, including the ones created later
+create index tasks_created_at_id_idx on tasks_schema.tasks (created_at, id);
+create index tasks_active_id_idx on tasks_schema.tasks (id) where task_status = 'ACTIVE';
+create index tasks_search_vector_idx on tasks_schema.tasks using gin (search_vector);
+
+analyze tasks_schema.tasks;
@@ -0,0 +1,15 @@
+-- finished tasks moved out of the hot tasks table by the archival job; the rows never change while archived,
+-- so the table only has the primary key and carries neither the search vector nor its indexes
+create table if not exists tasks_schema.tasks_archive
+(
+    id          integer      not null primary key,
+    title       varchar(500) not null,
+    description varchar(10000),
+    start_time  timestamp,
+    end_time    timestamp,
+    task_status varchar(255),
+    created_at  timestamp    not null,
+    updated_at  timestamp,
+    version     bigint       not null,
+    archived_at timestamp    not null
+);
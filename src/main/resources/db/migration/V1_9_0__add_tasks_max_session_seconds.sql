@@ -0,0 +1,3 @@
+-- optional limit of a single tracking session of a task; null falls back to the global limit
+alter table tasks_schema.tasks add column if not exists max_session_seconds integer check (max_session_seconds > 0);
+alter table tasks_schema.tasks_archive add column if not exists max_session_seconds integer;
@@ -0,0 +1,57 @@
+package com.privat.timetracker.aop.metrics;
+
+import com.privat.timetracker.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class RepositoryMetricsAspectTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaskRepository taskRepository;
+
+    private TaskRepository proxy;
+
+    @BeforeEach
+    public void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(taskRepository);
+        factory.addInterface(TaskRepository.class);
+        factory.addAspect(new RepositoryMetricsAspect(meterRegistry));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    public void testRecordsSuccessfulCall() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+
+        proxy.findById(1L);
+
+        assertEquals(1L, meterRegistry.get(RepositoryMetricsAspect.METRIC_NAME)
+                .tag("method", "findById")
+                .tag("outcome", "success")
+                .timer().count());
+    }
+
+    @Test
+    public void testRecordsFailedCall() {
+        when(taskRepository.countByTenantAndStatus()).thenThrow(new DataAccessResourceFailureException("Database down"));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> proxy.countByTenantAndStatus());
+
+        assertEquals(1L, meterRegistry.get(RepositoryMetricsAspect.METRIC_NAME)
+                .tag("repository", "TaskRepository")
+                .tag("method", "countByTenantAndStatus")
+                .tag("outcome", "DataAccessResourceFailureException")
+                .timer().count());
+    }
+}
@@ -0,0 +1,55 @@
+package com.privat.timetracker.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataSourceRoutingConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(DataSourceRoutingConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues(
+                    "spring.datasource.url=jdbc:postgresql://primary:5432/time_tracker_db",
+                    "spring.datasource.username=user",
+                    "spring.datasource.hikari.maximum-pool-size=30",
+                    "time-tracker.datasource.replica.url=jdbc:postgresql://replica:5432/time_tracker_db",
+                    "time-tracker.datasource.replica.username=reader",
+                    "time-tracker.datasource.replica.password=secret",
+                    "time-tracker.datasource.replica.hikari.maximum-pool-size=10");
+
+    @Test
+    public void testRoutingIsDisabledByDefault() {
+        contextRunner.run(context -> {
+            assertFalse(context.containsBean("replicaDataSource"));
+            assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+        });
+    }
+
+    @Test
+    public void testRoutingDataSourceIsPrimary() {
+        contextRunner.withPropertyValues("time-tracker.datasource.replica.enabled=true").run(context -> {
+            assertInstanceOf(LazyConnectionDataSourceProxy.class, context.getBean(DataSource.class));
+
+            HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+            assertEquals("jdbc:postgresql://primary:5432/time_tracker_db", primary.getJdbcUrl());
+            assertEquals(30, primary.getMaximumPoolSize());
+
+            HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+            assertEquals("jdbc:postgresql://replica:5432/time_tracker_db", replica.getJdbcUrl());
+            assertEquals("reader", replica.getUsername());
+            assertEquals(10, replica.getMaximumPoolSize());
+            assertTrue(replica.isReadOnly());
+        });
+    }
+}
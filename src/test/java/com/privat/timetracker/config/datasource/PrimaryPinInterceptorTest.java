@@ -0,0 +1,79 @@
+package com.privat.timetracker.config.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimaryPinInterceptorTest {
+
+    private static final long NOW = 1_725_616_800_000L;
+
+    private final PrimaryPinInterceptor interceptor =
+            new PrimaryPinInterceptor(5000, Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+    @AfterEach
+    public void tearDown() {
+        PrimaryPin.clear();
+    }
+
+    @Test
+    public void testWritePinsAndSetsCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("POST", "/api/v1/tasks"), response, null);
+
+        assertTrue(PrimaryPin.isPinned());
+        Cookie cookie = response.getCookie(PrimaryPinInterceptor.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals(Long.toString(NOW + 5000), cookie.getValue());
+    }
+
+    @Test
+    public void testReadWithinPinIsPinned() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/1");
+        request.setCookies(new Cookie(PrimaryPinInterceptor.COOKIE_NAME, Long.toString(NOW + 1)));
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertTrue(PrimaryPin.isPinned());
+    }
+
+    @Test
+    public void testReadAfterPinExpiredIsNotPinned() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/1");
+        request.setCookies(new Cookie(PrimaryPinInterceptor.COOKIE_NAME, Long.toString(NOW - 1)));
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertFalse(PrimaryPin.isPinned());
+    }
+
+    @Test
+    public void testReadWithInvalidCookieIsNotPinned() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/1");
+        request.setCookies(new Cookie(PrimaryPinInterceptor.COOKIE_NAME, "forever"));
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertFalse(PrimaryPin.isPinned());
+    }
+
+    @Test
+    public void testPinIsClearedAfterCompletion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/v1/tasks/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+
+        interceptor.afterCompletion(request, response, null, null);
+
+        assertFalse(PrimaryPin.isPinned());
+    }
+}
@@ -0,0 +1,58 @@
+package com.privat.timetracker.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaHealthMonitorTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReplicaHealthMonitor monitor = new ReplicaHealthMonitor(jdbcTemplate, 5000, meterRegistry);
+
+    @Test
+    public void testUnavailableBeforeFirstCheck() {
+        assertFalse(monitor.isAvailable());
+    }
+
+    @Test
+    public void testAvailableWithinAllowedLag() {
+        when(jdbcTemplate.queryForObject(ReplicaHealthMonitor.LAG_QUERY, Double.class)).thenReturn(1200.0);
+
+        monitor.check();
+
+        assertTrue(monitor.isAvailable());
+        assertEquals(1200.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.available").gauge().value());
+    }
+
+    @Test
+    public void testUnavailableWhenLagging() {
+        when(jdbcTemplate.queryForObject(ReplicaHealthMonitor.LAG_QUERY, Double.class)).thenReturn(1200.0, 9000.0);
+
+        monitor.check();
+        monitor.check();
+
+        assertFalse(monitor.isAvailable());
+        assertEquals(9000.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+    }
+
+    @Test
+    public void testUnavailableWhenCheckFails() {
+        when(jdbcTemplate.queryForObject(ReplicaHealthMonitor.LAG_QUERY, Double.class))
+                .thenReturn(0.0)
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        monitor.check();
+        monitor.check();
+
+        assertFalse(monitor.isAvailable());
+        assertEquals(-1.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+        assertEquals(0.0, meterRegistry.get("datasource.replica.available").gauge().value());
+    }
+}
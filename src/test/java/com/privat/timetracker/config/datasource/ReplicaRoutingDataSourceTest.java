@@ -0,0 +1,81 @@
+package com.privat.timetracker.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaHealthMonitor replicaHealthMonitor = mock(ReplicaHealthMonitor.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DataSource primary = mock(DataSource.class);
+        DataSource replica = mock(DataSource.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaHealthMonitor.isAvailable()).thenReturn(true);
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica, replicaHealthMonitor, meterRegistry);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        PrimaryPin.clear();
+    }
+
+    @Test
+    public void testWriteGoesToPrimary() throws Exception {
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1.0, decisions("primary", "write"));
+    }
+
+    @Test
+    public void testReadOnlyGoesToReplica() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertSame(replicaConnection, routingDataSource.getConnection());
+        assertEquals(1.0, decisions("replica", "read_only"));
+    }
+
+    @Test
+    public void testReadOnlyFallsBackToPrimaryWhenReplicaUnavailable() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replicaHealthMonitor.isAvailable()).thenReturn(false);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1.0, decisions("primary", "replica_unavailable"));
+    }
+
+    @Test
+    public void testReadOnlyGoesToPrimaryWhenPinned() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        PrimaryPin.pin();
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1.0, decisions("primary", "pinned"));
+        verify(replicaHealthMonitor, never()).isAvailable();
+    }
+
+    private double decisions(String target, String reason) {
+        return meterRegistry.get(ReplicaRoutingDataSource.METRIC_NAME)
+                .tag("target", target)
+                .tag("reason", reason)
+                .counter().count();
+    }
+}
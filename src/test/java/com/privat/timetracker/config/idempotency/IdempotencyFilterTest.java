@@ -0,0 +1,174 @@
+package com.privat.timetracker.config.idempotency;
+
+import com.privat.timetracker.config.ratelimit.RateLimitInterceptor;
+import com.privat.timetracker.exception.exceptions.InvalidIdempotencyKeyException;
+import com.privat.timetracker.exception.exceptions.RateLimitExceededException;
+import com.privat.timetracker.service.idempotency.IdempotencyStore;
+import com.privat.timetracker.service.idempotency.StoredResponse;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyFilterTest {
+    private static final String BODY = "{\"title\":\"Task\"}";
+
+    private final IdempotencyStore idempotencyStore = mock(IdempotencyStore.class);
+    private final RateLimitInterceptor rateLimitInterceptor = mock(RateLimitInterceptor.class);
+    private final HandlerExceptionResolver handlerExceptionResolver = mock(HandlerExceptionResolver.class);
+    private final IdempotencyFilter filter =
+            new IdempotencyFilter(idempotencyStore, rateLimitInterceptor, handlerExceptionResolver);
+
+    @Test
+    public void testFirstRequestRunsAndIsRecorded() throws Exception {
+        when(idempotencyStore.begin(eq("key-1"), any())).thenReturn(Optional.empty());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/v1/tasks", "key-1"), response, respondingChain(200, "{\"id\":1}"));
+
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        verify(idempotencyStore).complete(eq("key-1"), any(), eq(200), eq("application/json"),
+                eq("{\"id\":1}".getBytes(StandardCharsets.UTF_8)));
+        verify(idempotencyStore, never()).release(any(), any());
+    }
+
+    @Test
+    public void testRepeatedRequestIsReplayedWithoutRunning() throws Exception {
+        byte[] body = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+        when(idempotencyStore.begin(eq("key-1"), any())).thenReturn(Optional.of(
+                new StoredResponse(new byte[0], 200, "application/json", body, LocalDateTime.now().plusHours(1))));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("/api/v1/tasks/1/start", "key-1"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("{\"id\":1}", response.getContentAsString());
+    }
+
+    @Test
+    public void testServerErrorReleasesKey() throws Exception {
+        when(idempotencyStore.begin(eq("key-1"), any())).thenReturn(Optional.empty());
+
+        filter.doFilter(request("/api/v1/tasks/1/stop", "key-1"), new MockHttpServletResponse(),
+                respondingChain(500, "{}"));
+
+        verify(idempotencyStore).release(eq("key-1"), any());
+        verify(idempotencyStore, never()).complete(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testConflictsAndRateLimitRejectionsReleaseKey() throws Exception {
+        when(idempotencyStore.begin(eq("key-1"), any())).thenReturn(Optional.empty());
+
+        filter.doFilter(request("/api/v1/tasks/1/start", "key-1"), new MockHttpServletResponse(),
+                respondingChain(409, "{}"));
+        filter.doFilter(request("/api/v1/tasks/1/start", "key-1"), new MockHttpServletResponse(),
+                respondingChain(429, "{}"));
+
+        verify(idempotencyStore, times(2)).release(eq("key-1"), any());
+        verify(idempotencyStore, never()).complete(any(), any(), anyInt(), any(), any());
+    }
+
+    @Test
+    public void testDeterministicClientErrorIsRecorded() throws Exception {
+        when(idempotencyStore.begin(eq("key-1"), any())).thenReturn(Optional.empty());
+
+        filter.doFilter(request("/api/v1/tasks/1/stop", "key-1"), new MockHttpServletResponse(),
+                respondingChain(404, "{}"));
+
+        verify(idempotencyStore).complete(eq("key-1"), any(), eq(404), any(), any());
+    }
+
+    @Test
+    public void testRateLimitIsCheckedBeforeKeyIsClaimed() throws Exception {
+        MockHttpServletRequest request = request("/api/v1/tasks", "key-1");
+        RateLimitExceededException rejected = new RateLimitExceededException("Too many requests", 1);
+        doThrow(rejected).when(rateLimitInterceptor).check(request);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest());
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(), eq(rejected));
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Test
+    public void testHashCoversPathAndBody() throws Exception {
+        when(idempotencyStore.begin(any(), any())).thenReturn(Optional.empty());
+
+        filter.doFilter(request("/api/v1/tasks", "key-1"), new MockHttpServletResponse(), respondingChain(200, "{}"));
+        filter.doFilter(request("/api/v1/tasks", "key-1"), new MockHttpServletResponse(), respondingChain(200, "{}"));
+        filter.doFilter(request("/api/v1/tasks/1/start", "key-1"), new MockHttpServletResponse(), respondingChain(200, "{}"));
+
+        ArgumentCaptor<byte[]> hashes = ArgumentCaptor.forClass(byte[].class);
+        verify(idempotencyStore, times(3)).begin(eq("key-1"), hashes.capture());
+        assertArrayEquals(hashes.getAllValues().get(0), hashes.getAllValues().get(1));
+        assertFalse(Arrays.equals(hashes.getAllValues().get(0), hashes.getAllValues().get(2)));
+    }
+
+    @Test
+    public void testInvalidKeyIsRejected() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/api/v1/tasks", "key with spaces"), new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest());
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(),
+                any(InvalidIdempotencyKeyException.class));
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Test
+    public void testOtherRequestsAreNotAffected() throws Exception {
+        MockHttpServletRequest edit = request("/api/v1/tasks/1", "key-1");
+        edit.setMethod("PUT");
+        MockHttpServletRequest withoutKey = request("/api/v1/tasks", null);
+
+        filter.doFilter(edit, new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(withoutKey, new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(request("/api/v1/tasks/import", "key-1"), new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    private MockHttpServletRequest request(String path, String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (key != null) request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockFilterChain respondingChain(int status, String body) {
+        return new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) throws IOException {
+                // the controller can still read the body that was hashed
+                assertEquals(BODY, new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+                HttpServletResponse httpResponse = (HttpServletResponse) response;
+                httpResponse.setStatus(status);
+                httpResponse.setContentType("application/json");
+                httpResponse.getWriter().write(body);
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.privat.timetracker.config.ratelimit;
+
+import com.privat.timetracker.controller.TaskController;
+import com.privat.timetracker.controller.TaskSearchController;
+import com.privat.timetracker.exception.exceptions.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class RateLimitInterceptorTest {
+
+    private final RateLimiter rateLimiter = mock(RateLimiter.class);
+    private final RateLimitInterceptor interceptor =
+            new RateLimitInterceptor(rateLimiter, "X-API-Key", Set.of(TaskController.class));
+
+    @Test
+    public void testReadCountsAgainstReadBudgetOfIp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.setRemoteAddr("10.0.0.1");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler(TaskController.class)));
+
+        verify(rateLimiter).tryAcquire("ip:10.0.0.1", RateLimiter.Budget.READ);
+    }
+
+    @Test
+    public void testWriteCountsAgainstWriteBudgetOfApiKey() {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/v1/tasks/1");
+        request.addHeader("X-API-Key", "integration-1");
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler(TaskController.class)));
+
+        verify(rateLimiter).tryAcquire("key:integration-1", RateLimiter.Budget.WRITE);
+    }
+
+    @Test
+    public void testRejectsWithRetryAfterRoundedUpToSeconds() {
+        when(rateLimiter.tryAcquire(anyString(), any())).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+
+        RateLimitExceededException thrown = assertThrows(RateLimitExceededException.class, () -> interceptor.preHandle(
+                new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse(),
+                handler(TaskController.class)));
+
+        assertEquals(2, thrown.getRetryAfterSeconds());
+    }
+
+    @Test
+    public void testRequestCheckedByFilterIsCountedOnce() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/tasks");
+        request.setRemoteAddr("10.0.0.1");
+
+        interceptor.check(request);
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler(TaskController.class));
+
+        verify(rateLimiter, times(1)).tryAcquire("ip:10.0.0.1", RateLimiter.Budget.WRITE);
+    }
+
+    @Test
+    public void testOtherControllersAreNotLimited() {
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/api/v1/tasks/search"),
+                new MockHttpServletResponse(), handler(TaskSearchController.class)));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("GET", "/actuator/health"),
+                new MockHttpServletResponse(), new Object()));
+
+        verifyNoInteractions(rateLimiter);
+    }
+
+    private static HandlerMethod handler(Class<?> controller) {
+        HandlerMethod handlerMethod = mock(HandlerMethod.class);
+        doReturn(controller).when(handlerMethod).getBeanType();
+        return handlerMethod;
+    }
+}
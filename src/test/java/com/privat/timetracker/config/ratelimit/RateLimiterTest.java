@@ -0,0 +1,90 @@
+package com.privat.timetracker.config.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimiter rateLimiter = new RateLimiter(new RateLimiter.Limit(3, 1), new RateLimiter.Limit(1, 2),
+            1000, Duration.ofMinutes(10), meterRegistry, now::get);
+
+    @Test
+    public void testAllowsBurstThenRejectsUntilRefilled() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.Budget.READ));
+        }
+
+        assertEquals(TimeUnit.SECONDS.toNanos(1), rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.Budget.READ));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(0, rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.Budget.READ));
+        assertEquals(1.0, meterRegistry.get("task.rate_limit.rejected").tag("budget", "read").counter().count());
+    }
+
+    @Test
+    public void testIdleBucketDoesNotGrowBeyondCapacity() {
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        assertEquals(0, rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.Budget.WRITE));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.Budget.WRITE));
+    }
+
+    @Test
+    public void testBudgetsAndClientsAreSeparate() {
+        assertEquals(0, rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.Budget.WRITE));
+        assertTrue(rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.Budget.WRITE) > 0);
+
+        assertEquals(0, rateLimiter.tryAcquire("ip:10.0.0.1", RateLimiter.Budget.READ));
+        assertEquals(0, rateLimiter.tryAcquire("ip:10.0.0.2", RateLimiter.Budget.WRITE));
+        assertEquals(1.0, meterRegistry.get("task.rate_limit.rejected").tag("budget", "write").counter().count());
+    }
+
+    @Test
+    public void testBoundsNumberOfClients() {
+        RateLimiter bounded = new RateLimiter(new RateLimiter.Limit(1, 1), new RateLimiter.Limit(1, 1), 10,
+                Duration.ofMinutes(10), meterRegistry, now::get);
+
+        for (int i = 0; i < 1000; i++) {
+            bounded.tryAcquire("ip:10.0." + i / 256 + "." + i % 256, RateLimiter.Budget.READ);
+        }
+
+        assertTrue(bounded.clientCount() <= 10);
+    }
+
+    @Test
+    public void testConcurrentRequestsTakeExactlyTheCapacity() throws Exception {
+        RateLimiter limiter = new RateLimiter(new RateLimiter.Limit(100, 1), new RateLimiter.Limit(1, 1), 10,
+                Duration.ofMinutes(10), meterRegistry, now::get);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 1000; i++) {
+                executor.execute(() -> {
+                    if (limiter.tryAcquire("key:integration", RateLimiter.Budget.READ) == 0) allowed.incrementAndGet();
+                });
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    public void testRejectsInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter.Limit(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter.Limit(1, 0));
+    }
+}
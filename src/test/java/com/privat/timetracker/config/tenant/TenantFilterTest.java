@@ -0,0 +1,86 @@
+package com.privat.timetracker.config.tenant;
+
+import com.privat.timetracker.exception.exceptions.InvalidTenantException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TenantFilterTest {
+
+    private final HandlerExceptionResolver handlerExceptionResolver = mock(HandlerExceptionResolver.class);
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void testBindsTenantAndUserDuringRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(TenantFilter.TENANT_HEADER, "acme");
+        request.addHeader(TenantFilter.USER_HEADER, "user-1");
+        AtomicReference<Tenant> bound = new AtomicReference<>();
+
+        new TenantFilter(handlerExceptionResolver, "default").doFilter(request, new MockHttpServletResponse(),
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(ServletRequest req, ServletResponse res) {
+                        bound.set(TenantContext.current());
+                    }
+                });
+
+        assertEquals(new Tenant("acme", "user-1"), bound.get());
+        assertNull(TenantContext.current());
+    }
+
+    @Test
+    public void testUsesDefaultTenantWithoutHeader() throws Exception {
+        AtomicReference<Tenant> bound = new AtomicReference<>();
+
+        new TenantFilter(handlerExceptionResolver, "default").doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse(),
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(ServletRequest req, ServletResponse res) {
+                        bound.set(TenantContext.current());
+                    }
+                });
+
+        assertEquals(new Tenant("default", null), bound.get());
+    }
+
+    @Test
+    public void testRejectsMissingTenantWithoutDefault() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        new TenantFilter(handlerExceptionResolver, "").doFilter(
+                new MockHttpServletRequest("GET", "/api/v1/tasks"), new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest());
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(), any(InvalidTenantException.class));
+    }
+
+    @Test
+    public void testRejectsMalformedTenant() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks");
+        request.addHeader(TenantFilter.TENANT_HEADER, "acme/../globex");
+        MockFilterChain chain = new MockFilterChain();
+
+        new TenantFilter(handlerExceptionResolver, "default").doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNull(chain.getRequest());
+        assertNull(TenantContext.current());
+        verify(handlerExceptionResolver).resolveException(any(), any(), isNull(), any(InvalidTenantException.class));
+    }
+}
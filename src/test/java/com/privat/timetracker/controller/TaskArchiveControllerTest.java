@@ -0,0 +1,59 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
+import com.privat.timetracker.exception.exceptions.TaskNotRestorableException;
+import com.privat.timetracker.service.TaskArchive;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskArchiveController.class)
+public class TaskArchiveControllerTest {
+
+    @MockBean
+    private TaskArchive taskArchive;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testRestoreTask() throws Exception {
+        TaskResponse task = new TaskResponse(1L, "Title", null, TaskStatus.INACTIVE, null, null, null, null, 0L);
+        when(taskArchive.restoreTask(1L)).thenReturn(task);
+
+        mockMvc.perform(post("/api/v1/tasks/1/restore"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.status").value("INACTIVE"));
+    }
+
+    @Test
+    public void testRestoreTask_NotArchived() throws Exception {
+        when(taskArchive.restoreTask(1L))
+                .thenThrow(new TaskNotFoundException(ErrorMessages.ARCHIVED_TASK_NOT_FOUND.formatted(1L)));
+
+        mockMvc.perform(post("/api/v1/tasks/1/restore"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.ARCHIVED_TASK_NOT_FOUND.formatted(1L)));
+    }
+
+    @Test
+    public void testRestoreTask_MonthNoLongerKept() throws Exception {
+        when(taskArchive.restoreTask(1L))
+                .thenThrow(new TaskNotRestorableException(ErrorMessages.TASK_NOT_RESTORABLE.formatted(1L)));
+
+        mockMvc.perform(post("/api/v1/tasks/1/restore"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.message").value(ErrorMessages.TASK_NOT_RESTORABLE.formatted(1L)));
+    }
+}
@@ -1,26 +1,41 @@
 package com.privat.timetracker.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.privat.timetracker.controller.dto.TaskFields;
+import com.privat.timetracker.controller.dto.TaskPage;
 import com.privat.timetracker.controller.dto.TaskRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.exception.exceptions.InvalidCursorException;
 import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskStamp;
 import com.privat.timetracker.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.when;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
 public class TaskControllerTest {
@@ -30,6 +45,17 @@ public class TaskControllerTest {
     @MockBean
     private TaskService taskService;
 
+    private static final TaskStamp TASK_STAMP = new TaskStamp(1L, 3L, LocalDateTime.of(2024, 9, 6, 10, 0), null, null, null);
+
+    private static final TaskListStamp TASK_LIST_STAMP = new TaskListStamp("2c2d0bfa3cca9a8a1e1f4e6c1bfb5a9e", 5L,
+            LocalDateTime.of(2024, 9, 6, 10, 0), null, LocalDateTime.of(2024, 9, 6, 11, 0), null);
+
+    @BeforeEach
+    public void setUp() {
+        when(taskService.getTaskStamp(anyLong())).thenReturn(TASK_STAMP);
+        when(taskService.getTasksStamp(any(), anyInt())).thenReturn(TASK_LIST_STAMP);
+    }
+
     @Test
     public void testCreateTask() throws Exception {
         TaskRequest taskRequest = new TaskRequest("New Task", "Task Description");
@@ -65,16 +91,154 @@ public class TaskControllerTest {
     @Test
     public void testGetAllTasks() throws Exception {
         TaskResponse taskResponse = new TaskResponse(1L, "Task 1", "Description 1", null, null, null, null, null,null);
-        List<TaskResponse> taskResponses = Collections.singletonList(taskResponse);
+        TaskPage taskPage = new TaskPage(Collections.singletonList(taskResponse), "next");
 
-        when(taskService.getAllTasks()).thenReturn(taskResponses);
+        when(taskService.getAllTasks(null, 50, TaskFields.ALL)).thenReturn(taskPage);
 
         mockMvc.perform(get("/api/v1/tasks")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Task 1"))
+                .andExpect(jsonPath("$.items[0].description").value("Description 1"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(header().string(HttpHeaders.ETAG, TASK_LIST_STAMP.etag(null, 50, TaskFields.ALL)))
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, TASK_LIST_STAMP.lastModified() / 1000 * 1000));
+    }
+
+    @Test
+    public void testGetAllTasks_NotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks")
+                        .header(HttpHeaders.IF_NONE_MATCH, TASK_LIST_STAMP.etag(null, 50, TaskFields.ALL)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(taskService, never()).getAllTasks(any(), anyInt(), any());
+    }
+
+    @Test
+    public void testGetAllTasks_ModifiedAfterLowerIdSlidesIn() throws Exception {
+        // a task of the page was deleted and a task with a lower ID moved onto the page: same number of rows,
+        // same highest ID and same sum of versions, but other rows
+        TaskListStamp slidIn = new TaskListStamp("5b6f3e9f1d3a4c2b8e7d6c5b4a392817", TASK_LIST_STAMP.versionSum(),
+                TASK_LIST_STAMP.lastCreatedAt(), null, TASK_LIST_STAMP.lastStartTime(), null);
+        when(taskService.getTasksStamp(null, 50)).thenReturn(slidIn);
+        when(taskService.getAllTasks(null, 50, TaskFields.ALL)).thenReturn(new TaskPage(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .header(HttpHeaders.IF_NONE_MATCH, TASK_LIST_STAMP.etag(null, 50, TaskFields.ALL)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, slidIn.etag(null, 50, TaskFields.ALL)));
+    }
+
+    @Test
+    public void testGetAllTasks_ModifiedForOtherPage() throws Exception {
+        when(taskService.getAllTasks("abc", 50, TaskFields.ALL)).thenReturn(new TaskPage(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("cursor", "abc")
+                        .header(HttpHeaders.IF_NONE_MATCH, TASK_LIST_STAMP.etag(null, 50, TaskFields.ALL)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void testGetAllTasksWithCursor() throws Exception {
+        when(taskService.getAllTasks("abc", 10, TaskFields.ALL)).thenReturn(new TaskPage(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("cursor", "abc")
+                        .param("size", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0));
+    }
+
+    @Test
+    public void testGetAllTasksWithoutDescription() throws Exception {
+        TaskResponse task = new TaskResponse(1L, "Task 1", null, null, null, null, null, null, 0L);
+        when(taskService.getAllTasks(null, 50, TaskFields.ALL.withoutDescription())).thenReturn(new TaskPage(List.of(task), null));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("includeDescription", "false")
+                        .header(HttpHeaders.IF_NONE_MATCH, TASK_LIST_STAMP.etag(null, 50, TaskFields.ALL)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, TASK_LIST_STAMP.etag(null, 50, TaskFields.ALL.withoutDescription())))
+                .andExpect(jsonPath("$.items[0].title").value("Task 1"))
+                .andExpect(content().string(not(containsString("description"))));
+
+        verify(taskService, times(1)).getAllTasks(null, 50, TaskFields.ALL.withoutDescription());
+    }
+
+    @Test
+    public void testGetAllTasks_InvalidCursor() throws Exception {
+        when(taskService.getAllTasks(anyString(), anyInt(), any())).thenThrow(new InvalidCursorException("Invalid cursor abc"));
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("cursor", "abc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor abc"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamAllTasks() throws Exception {
+        TaskResponse first = new TaskResponse(1L, "Task 1", "Description 1", null, null, null, null, null, null);
+        TaskResponse second = new TaskResponse(2L, "Task 2", "Description 2", null, null, null, null, null, null);
+
+        doAnswer(invocation -> {
+            Consumer<TaskResponse> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(taskService).streamAllTasks(eq(TaskFields.ALL), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks")
+                        .param("unpaged", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamAllTasksWithoutDescription() throws Exception {
+        TaskResponse task = new TaskResponse(1L, "Task 1", null, null, null, null, null, null, 0L);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TaskResponse>>getArgument(1).accept(task);
+            return null;
+        }).when(taskService).streamAllTasks(eq(TaskFields.ALL.withoutDescription()), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks")
+                        .param("unpaged", "true")
+                        .param("includeDescription", "false"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].title").value("Task 1"))
-                .andExpect(jsonPath("$[0].description").value("Description 1"));
+                .andExpect(content().string(not(containsString("description"))));
+    }
+
+    @Test
+    public void testGetAllTasks_SparseFields() throws Exception {
+        TaskFields fields = TaskFields.parse("id,title");
+        TaskResponse task = new TaskResponse(1L, "Task 1", null, null, null, null, null, null, 0L);
+        when(taskService.getAllTasks(null, 50, fields)).thenReturn(new TaskPage(Collections.singletonList(task), "next"));
+
+        mockMvc.perform(get("/api/v1/tasks").param("fields", "id, title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Task 1"))
+                .andExpect(jsonPath("$.items[0].duration").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(header().string(HttpHeaders.ETAG, TASK_LIST_STAMP.etag(null, 50, fields)));
     }
 
     @Test
@@ -88,7 +252,64 @@ public class TaskControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.title").value("Task 1"))
-                .andExpect(jsonPath("$.description").value("Description 1"));
+                .andExpect(jsonPath("$.description").value("Description 1"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"task-1-3\""));
+    }
+
+    @Test
+    public void testGetTask_SparseFields() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(1L, "Task 1", "Description 1", TaskStatus.INACTIVE, null, null,
+                null, null, 90L);
+        when(taskService.getTask(1L)).thenReturn(taskResponse);
+
+        mockMvc.perform(get("/api/v1/tasks/1").param("fields", "id,status,duration"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.status").value("INACTIVE"))
+                .andExpect(jsonPath("$.duration").value("00:01:30"))
+                .andExpect(jsonPath("$.title").doesNotExist())
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.durationSeconds").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, TASK_STAMP.etag(TaskFields.parse("id,status,duration"))));
+    }
+
+    @Test
+    public void testGetTask_UnknownField() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/1").param("fields", "id,owner"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message[0]").value(containsString("owner")));
+
+        verify(taskService, never()).getTask(anyLong());
+    }
+
+    @Test
+    public void testGetTask_NotModified() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"task-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(taskService, never()).getTask(anyLong());
+    }
+
+    @Test
+    public void testGetTask_NotModifiedSince() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/1")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, TASK_STAMP.lastModified()))
+                .andExpect(status().isNotModified());
+
+        verify(taskService, never()).getTask(anyLong());
+    }
+
+    @Test
+    public void testGetTask_ModifiedVersion() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(1L, "Task 1", "Description 1", null, null, null, null, null, null);
+        when(taskService.getTask(1L)).thenReturn(taskResponse);
+
+        mockMvc.perform(get("/api/v1/tasks/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"task-1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
     }
 
     @Test
@@ -118,11 +339,45 @@ public class TaskControllerTest {
 
     @Test
     public void testGetTask_NotFound() throws Exception {
-        when(taskService.getTask(anyLong())).thenThrow(new TaskNotFoundException("Task not found"));
+        when(taskService.getTaskStamp(anyLong())).thenThrow(new TaskNotFoundException("Task not found"));
 
         mockMvc.perform(get("/api/v1/tasks/999")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Task not found"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetTaskAsCbor() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(1L, "Task 1", "Description 1", TaskStatus.INACTIVE,
+                LocalDateTime.of(2024, 9, 6, 10, 0), LocalDateTime.of(2024, 9, 6, 11, 0), null, null, 3600L);
+        when(taskService.getTask(anyLong())).thenReturn(taskResponse);
+
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/1")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn();
+
+        JsonNode task = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Task 1", task.get("title").asText());
+        assertEquals("2024-09-06T10:00:00", task.get("startTime").asText());
+        assertEquals("01:00:00", task.get("duration").asText());
+    }
+
+    @Test
+    public void testCreateTaskFromSmile() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(1L, "New Task", "Task Description", null, null, null, null, null, null);
+        when(taskService.createTask(any(TaskRequest.class))).thenReturn(taskResponse);
+
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType("application/x-jackson-smile")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(new SmileMapper().writeValueAsBytes(new TaskRequest("New Task", "Task Description", 600))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("New Task"));
+
+        verify(taskService).createTask(new TaskRequest("New Task", "Task Description", 600));
+    }
+}
@@ -0,0 +1,41 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.service.event.TaskEventStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TaskEventController.class)
+public class TaskEventControllerTest {
+
+    @MockBean
+    private TaskEventStream taskEventStream;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testStreamTaskEvents() throws Exception {
+        SseEmitter emitter = new SseEmitter();
+        emitter.send(SseEmitter.event().id("e-1").name("started").data("{\"taskId\":1}"));
+        emitter.complete();
+        when(taskEventStream.subscribe("e-0")).thenReturn(emitter);
+
+        mockMvc.perform(get("/api/v1/tasks/stream")
+                        .header("Last-Event-ID", "e-0")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk());
+
+        verify(taskEventStream).subscribe("e-0");
+    }
+}
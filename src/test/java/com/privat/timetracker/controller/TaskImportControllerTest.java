@@ -0,0 +1,77 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskImportError;
+import com.privat.timetracker.controller.dto.TaskImportProgress;
+import com.privat.timetracker.controller.dto.TaskImportReport;
+import com.privat.timetracker.exception.exceptions.TaskImportException;
+import com.privat.timetracker.service.TaskImport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskImportController.class)
+public class TaskImportControllerTest {
+
+    @MockBean
+    private TaskImport taskImport;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testImportTasks() throws Exception {
+        TaskImportReport report = new TaskImportReport(2, 1, 1, List.of(new TaskImportError(2, List.of("Title cannot be blank"))));
+        when(taskImport.importTasks(any())).thenReturn(report);
+
+        mockMvc.perform(post("/api/v1/tasks/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\":\"Task 1\",\"description\":\"Description 1\"}\n{\"title\":\"\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedTasks").value(1))
+                .andExpect(jsonPath("$.failedLines").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(2))
+                .andExpect(jsonPath("$.errors[0].messages[0]").value("Title cannot be blank"));
+    }
+
+    @Test
+    public void testImportTasksStreamsProgress() throws Exception {
+        when(taskImport.importTasks(any(), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<TaskImportProgress>>getArgument(1).accept(new TaskImportProgress(2, 2, 2, 0));
+            return new TaskImportReport(3, 3, 0, List.of());
+        });
+
+        mockMvc.perform(post("/api/v1/tasks/import").param("progress", "true")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\":\"Task 1\"}\n{\"title\":\"Task 2\"}\n{\"title\":\"Task 3\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"line":2,"processedLines":2,"importedTasks":2,"failedLines":0}
+                        {"processedLines":3,"importedTasks":3,"failedLines":0,"errors":[]}
+                        """));
+    }
+
+    @Test
+    public void testImportTasks_UnreadableUpload() throws Exception {
+        when(taskImport.importTasks(any())).thenThrow(new TaskImportException("Error while importing tasks"));
+
+        mockMvc.perform(post("/api/v1/tasks/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Error while importing tasks"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.privat.timetracker.controller;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskSearchHit;
+import com.privat.timetracker.controller.dto.TaskSearchPage;
+import com.privat.timetracker.exception.exceptions.InvalidSearchQueryException;
+import com.privat.timetracker.service.TaskSearch;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(TaskSearchController.class)
+public class TaskSearchControllerTest {
+
+    @MockBean
+    private TaskSearch taskSearch;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testSearchTasks() throws Exception {
+        TaskResponse task = new TaskResponse(1L, "Fix login bug", null, null, null, null, null, null, 0L);
+        TaskSearchPage page = new TaskSearchPage(
+                List.of(new TaskSearchHit(task, 0.6f, "Fix <mark>login</mark> bug", "")), "next");
+        when(taskSearch.search("login", null, 20, false, true)).thenReturn(page);
+
+        mockMvc.perform(get("/api/v1/tasks/search")
+                        .param("q", "login")
+                        .param("includeDescription", "false")
+                        .param("highlight", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].task.id").value(1))
+                .andExpect(jsonPath("$.items[0].rank").value(0.6))
+                .andExpect(jsonPath("$.items[0].titleHighlight").value("Fix <mark>login</mark> bug"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    public void testSearchTasks_InvalidQuery() throws Exception {
+        when(taskSearch.search(isNull(), any(), anyInt(), anyBoolean(), anyBoolean()))
+                .thenThrow(new InvalidSearchQueryException("Search query must not be blank"));
+
+        mockMvc.perform(get("/api/v1/tasks/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search query must not be blank"));
+    }
+}
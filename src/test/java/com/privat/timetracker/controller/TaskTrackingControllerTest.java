@@ -1,15 +1,22 @@
 package com.privat.timetracker.controller;
 
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskTransitionResult;
 import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
 import com.privat.timetracker.service.TimeTracking;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -51,6 +58,29 @@ public class TaskTrackingControllerTest {
                 .andExpect(jsonPath("$.title").value("Test Task"));
     }
 
+    @Test
+    public void testStartTask_RateLimited() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(1L, "Test Task", null, null, null, null, null, null, null);
+        when(timeTracking.startTask(anyLong())).thenReturn(taskResponse);
+
+        MvcResult result;
+        int requests = 0;
+        do {
+            result = mockMvc.perform(post("/api/v1/tasks/1/start")
+                            .header("X-API-Key", "rate-limited-integration")
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andReturn();
+            requests++;
+        } while (result.getResponse().getStatus() == 200 && requests < 1000);
+
+        assertEquals(429, result.getResponse().getStatus());
+        assertEquals("1", result.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(requests > 20);
+        mockMvc.perform(post("/api/v1/tasks/1/start")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
     @Test
     public void testStartTask_NotFound() throws Exception {
         when(timeTracking.startTask(anyLong())).thenThrow(new TaskNotFoundException("Task not found"));
@@ -70,4 +100,45 @@ public class TaskTrackingControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Task not found"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStartTasks() throws Exception {
+        TaskResponse taskResponse = new TaskResponse(1L, "Test Task", null, null, null, null, null, null, null);
+
+        when(timeTracking.startTasks(List.of(1L, 2L))).thenReturn(List.of(
+                TaskTransitionResult.succeeded(taskResponse),
+                TaskTransitionResult.failed(2L, "Task not found")));
+
+        mockMvc.perform(post("/api/v1/tasks/batch/start")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].taskId").value(1))
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].task.title").value("Test Task"))
+                .andExpect(jsonPath("$[1].taskId").value(2))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].error").value("Task not found"));
+    }
+
+    @Test
+    public void testStopTasks() throws Exception {
+        when(timeTracking.stopTasks(List.of(3L))).thenReturn(List.of(TaskTransitionResult.failed(3L, "Task not started")));
+
+        mockMvc.perform(post("/api/v1/tasks/batch/stop")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].taskId").value(3))
+                .andExpect(jsonPath("$[0].error").value("Task not started"));
+    }
+
+    @Test
+    public void testStartTasks_ValidationError() throws Exception {
+        mockMvc.perform(post("/api/v1/tasks/batch/start")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message[0]").value("Ids cannot be empty"));
+    }
+}
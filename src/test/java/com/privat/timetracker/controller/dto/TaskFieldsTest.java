@@ -0,0 +1,61 @@
+package com.privat.timetracker.controller.dto;
+
+import com.privat.timetracker.exception.exceptions.InvalidFieldsException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskFieldsTest {
+
+    @Test
+    public void testFieldsCoverTaskResponse() {
+        List<String> expected = Stream.concat(
+                Arrays.stream(TaskResponse.class.getRecordComponents()).map(component -> component.getName()),
+                Stream.of("duration")).sorted().toList();
+        List<String> actual = Arrays.stream(TaskFields.Field.values()).map(TaskFields.Field::jsonName).sorted().toList();
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testParse_NullOrBlankIsAll() {
+        assertSame(TaskFields.ALL, TaskFields.parse(null));
+        assertSame(TaskFields.ALL, TaskFields.parse(" "));
+    }
+
+    @Test
+    public void testParse_SelectsColumns() {
+        TaskFields fields = TaskFields.parse("title, duration");
+
+        assertTrue(fields.includes(TaskFields.Field.TITLE));
+        assertFalse(fields.includes(TaskFields.Field.DESCRIPTION));
+        assertEquals(Set.of("id", "created_at", "title", "start_time", "end_time"), fields.columns());
+        assertEquals("-f" + Integer.toHexString(1 << 1 | 1 << 9), fields.etagPart());
+    }
+
+    @Test
+    public void testParse_UnknownField() {
+        InvalidFieldsException thrown = assertThrows(InvalidFieldsException.class, () -> TaskFields.parse("id,owner"));
+
+        assertTrue(thrown.getMessage().contains("'owner'"));
+    }
+
+    @Test
+    public void testParse_NoField() {
+        assertThrows(InvalidFieldsException.class, () -> TaskFields.parse(",,"));
+    }
+
+    @Test
+    public void testWithoutDescription() {
+        TaskFields fields = TaskFields.ALL.withoutDescription();
+
+        assertFalse(fields.includes(TaskFields.Field.DESCRIPTION));
+        assertFalse(fields.columns().contains("description"));
+        assertEquals("", TaskFields.ALL.etagPart());
+    }
+}
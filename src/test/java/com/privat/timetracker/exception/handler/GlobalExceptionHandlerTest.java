@@ -1,7 +1,9 @@
 package com.privat.timetracker.exception.handler;
 
+import com.privat.timetracker.entity.Task;
 import com.privat.timetracker.exception.constants.ErrorMessages;
 import com.privat.timetracker.exception.dto.ErrorResponse;
+import com.privat.timetracker.exception.exceptions.TaskConflictException;
 import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
 import com.privat.timetracker.exception.exceptions.TaskTimeException;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
@@ -75,6 +78,28 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Task time error", response.getBody().message().get(0));
     }
 
+    @Test
+    public void testHandleTaskConflictException() {
+        TaskConflictException ex = new TaskConflictException("Task conflict");
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleTaskConflictException(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("Task conflict", response.getBody().message().get(0));
+    }
+
+    @Test
+    public void testHandleOptimisticLockingFailure() {
+        ObjectOptimisticLockingFailureException ex = new ObjectOptimisticLockingFailureException(Task.class, 1L);
+
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleOptimisticLockingFailure(ex);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(ErrorMessages.CONCURRENT_MODIFICATION, response.getBody().message().get(0));
+    }
+
     @Test
     public void testHandleGenericException() {
         Exception ex = new Exception("Generic error");
@@ -0,0 +1,57 @@
+package com.privat.timetracker.mapping;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskDurationsTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 9, 6, 10, 0);
+
+    @Test
+    public void testSeconds() {
+        assertEquals(3725L, TaskDurations.seconds(START, START.plusSeconds(3725), null));
+        assertEquals(60L, TaskDurations.seconds(START, null, START.plusMinutes(1)));
+        assertEquals(0L, TaskDurations.seconds(null, null, START));
+        assertEquals(0L, TaskDurations.seconds(START, START.minusSeconds(5), null));
+    }
+
+    @Test
+    public void testFormat() {
+        assertEquals("00:00:00", TaskDurations.format(0));
+        assertEquals("00:00:00", TaskDurations.format(-5));
+        assertEquals("00:00:59", TaskDurations.format(59));
+        assertEquals("01:02:05", TaskDurations.format(3725));
+        assertEquals("99:59:59", TaskDurations.format(99 * 3600 + 59 * 60 + 59));
+        assertEquals("100:00:00", TaskDurations.format(100 * 3600));
+        assertEquals(String.format("%02d:%02d:%02d", Long.MAX_VALUE / 3600, Long.MAX_VALUE / 60 % 60, Long.MAX_VALUE % 60),
+                TaskDurations.format(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testTaskResponseSerializesBothDurations() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        TaskResponse task = new TaskResponse(1L, "Title", null, null, START, null, null, null, 3725L);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(task));
+
+        assertEquals(3725L, json.get("durationSeconds").asLong());
+        assertEquals("01:02:05", json.get("duration").asText());
+    }
+
+    @Test
+    public void testTaskResponseIgnoresDurationOnInput() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        TaskResponse task = objectMapper.readValue("{\"id\":1,\"durationSeconds\":5,\"duration\":\"00:00:05\"}",
+                TaskResponse.class);
+
+        assertEquals(5L, task.durationSeconds());
+    }
+}
@@ -4,6 +4,7 @@ import com.privat.timetracker.controller.dto.TaskRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
 import com.privat.timetracker.entity.Task;
 import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.repository.projection.TaskRow;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 
@@ -45,6 +46,39 @@ public class TaskMapperTest {
         assertEquals(TaskStatus.CREATED, response.status());
         assertEquals(LocalDateTime.of(2024, 9, 6, 10, 0), response.startTime());
         assertEquals(LocalDateTime.of(2024, 9, 6, 12, 0), response.endTime());
+        assertEquals(7200L, response.durationSeconds());
+    }
+
+    @Test
+    public void testToDtoOfRunningTaskUsesNow() {
+        Task task = new Task();
+        task.setStartTime(LocalDateTime.of(2024, 9, 6, 10, 0));
+
+        TaskResponse response = taskMapper.toDto(task, LocalDateTime.of(2024, 9, 6, 10, 1, 30));
+
+        assertEquals(90L, response.durationSeconds());
+    }
+
+    @Test
+    public void testRowToDto() {
+        TaskRow row = new TaskRow(1L, "Title", null, TaskStatus.ACTIVE, LocalDateTime.of(2024, 9, 6, 10, 0), null,
+                LocalDateTime.of(2024, 9, 6, 9, 0), LocalDateTime.of(2024, 9, 6, 9, 30));
+
+        TaskResponse response = taskMapper.toDto(row, LocalDateTime.of(2024, 9, 6, 10, 0, 45));
+
+        assertEquals(1L, response.id());
+        assertEquals("Title", response.title());
+        assertNull(response.description());
+        assertEquals(TaskStatus.ACTIVE, response.status());
+        assertEquals(LocalDateTime.of(2024, 9, 6, 9, 30), response.editedAt());
+        assertEquals(45L, response.durationSeconds());
+    }
+
+    @Test
+    public void testFormatDuration() {
+        assertEquals("00:00:00", taskMapper.formatDuration(null, null));
+        assertEquals("26:03:07", taskMapper.formatDuration(LocalDateTime.of(2024, 9, 6, 10, 0),
+                LocalDateTime.of(2024, 9, 7, 12, 3, 7)));
     }
 
     @Test
@@ -60,4 +94,23 @@ public class TaskMapperTest {
         assertEquals("New Title", existingTask.getTitle());
         assertEquals("New Description", existingTask.getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRefreshDurationOfRunningTask() {
+        TaskResponse task = new TaskResponse(1L, "Title", null, TaskStatus.ACTIVE,
+                LocalDateTime.of(2024, 9, 6, 10, 0), null, null, null, 0L);
+
+        TaskResponse refreshed = taskMapper.refreshDuration(task, LocalDateTime.of(2024, 9, 6, 11, 0));
+
+        assertEquals(3600L, refreshed.durationSeconds());
+        assertEquals(task.startTime(), refreshed.startTime());
+    }
+
+    @Test
+    public void testRefreshDurationOfFinishedTask() {
+        TaskResponse task = new TaskResponse(1L, "Title", null, TaskStatus.INACTIVE,
+                LocalDateTime.of(2024, 9, 6, 10, 0), LocalDateTime.of(2024, 9, 6, 12, 0), null, null, 7200L);
+
+        assertSame(task, taskMapper.refreshDuration(task));
+    }
+}
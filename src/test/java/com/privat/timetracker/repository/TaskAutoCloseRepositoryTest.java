@@ -0,0 +1,48 @@
+package com.privat.timetracker.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskAutoCloseRepositoryTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 8, 30, 9, 0);
+    private static final LocalDateTime END_TIME = LocalDateTime.of(2024, 8, 30, 23, 59, 59);
+
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
+
+    private TaskAutoCloseRepository taskAutoCloseRepository;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        taskAutoCloseRepository = new TaskAutoCloseRepository(dataSource);
+    }
+
+    @Test
+    public void testCloseActiveTasksLeavesTasksStartedAfterTheEndTimeOpen() throws Exception {
+        taskAutoCloseRepository.closeActiveTasks(List.of(1L, 2L), CREATED_AT, CREATED_AT.plusDays(1), END_TIME);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(connection).prepareStatement(sql.capture());
+        assertTrue(sql.getValue().contains("task_status = 'ACTIVE'"));
+        assertTrue(sql.getValue().endsWith("and start_time <= ?\nreturning id, tenant_id, created_at"));
+        // ids, createdFrom, createdTo, the end time that is set and the end time the start time is checked against
+        verify(statement).setObject(6, END_TIME);
+    }
+}
@@ -1,29 +1,63 @@
 package com.privat.timetracker.service;
 
-import com.privat.timetracker.entity.Task;
-import com.privat.timetracker.entity.TaskStatus;
 import com.privat.timetracker.exception.constants.ErrorMessages;
 import com.privat.timetracker.exception.exceptions.TaskTimeException;
+import com.privat.timetracker.repository.TaskAutoCloseRepository;
 import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.TaskRef;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import com.privat.timetracker.service.job.ClusterJobs;
+import com.privat.timetracker.service.job.ShardWork;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 public class AutoCloseTaskDailyServiceTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 8, 30, 9, 0);
+
 
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskAutoCloseRepository taskAutoCloseRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskCache taskCache;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ClusterJobs clusterJobs;
+
     @InjectMocks
     private AutoCloseTaskDailyService autoCloseTaskDailyService;
 
@@ -35,42 +69,128 @@ public class AutoCloseTaskDailyServiceTest {
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        ReflectionTestUtils.setField(autoCloseTaskDailyService, "chunkSize", 2);
+        ReflectionTestUtils.setField(autoCloseTaskDailyService, "shards", 1);
+        when(clusterJobs.runScheduled(any(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            invocation.<ShardWork>getArgument(3).run(LocalDateTime.now().withNano(0), 0, 1);
+            return 1;
+        });
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
     public void testAutoCloseTasksSuccess() {
         LocalDateTime now = LocalDateTime.now().withNano(0);
-        Task task = new Task();
-        task.setStatus(TaskStatus.ACTIVE);
 
-        when(taskRepository.findAllByStatus(TaskStatus.ACTIVE)).thenReturn(List.of(task));
+        List<TaskRef> chunk = List.of(new TaskRef(1L, "acme", CREATED_AT), new TaskRef(2L, "globex", CREATED_AT.plusDays(40)));
+        when(taskRepository.findActiveTasks(eq(0L), any(), eq(0), eq(1), any())).thenReturn(chunk);
+        when(taskRepository.findActiveTasks(eq(2L), any(), eq(0), eq(1), any())).thenReturn(refs(5L));
+        when(taskAutoCloseRepository.closeActiveTasks(eq(List.of(1L, 2L)), any(), any(), any())).thenReturn(chunk);
+        when(taskAutoCloseRepository.closeActiveTasks(eq(List.of(5L)), any(), any(), any())).thenReturn(refs(5L));
 
         autoCloseTaskDailyService.autoCloseTasks();
 
-        assertEquals(TaskStatus.INACTIVE, task.getStatus());
-        assertEquals(now, task.getEndTime().withNano(0));
-        verify(taskRepository, times(1)).findAllByStatus(TaskStatus.ACTIVE);
-        verify(taskRepository, times(1)).save(task);
+        verify(taskRepository, times(1)).findActiveTasks(eq(0L), any(), eq(0), eq(1), eq(PageRequest.ofSize(2)));
+        verify(taskAutoCloseRepository, times(1)).closeActiveTasks(eq(List.of(1L, 2L)), eq(CREATED_AT), eq(CREATED_AT.plusDays(40)), argThat(endTime -> !endTime.isBefore(now)));
+        verify(taskAutoCloseRepository, times(1)).closeActiveTasks(eq(List.of(5L)), any(), any(), any());
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(taskCache, times(1)).evict("acme", List.of(1L));
+        verify(taskCache, times(1)).evict("globex", List.of(2L));
+        verify(taskCache, times(1)).evict("acme", List.of(5L));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.of("globex", TaskChangeType.AUTO_CLOSED, 2L));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.of("acme", TaskChangeType.AUTO_CLOSED, 5L));
+        verify(eventPublisher, times(3)).publishEvent(any(TaskChangedEvent.class));
+        assertEquals(3.0, meterRegistry.get("task.auto_close.closed").counter().count());
+        assertEquals(2L, meterRegistry.get("task.auto_close.chunk.duration").timer().count());
+        assertEquals(1L, meterRegistry.get("task.auto_close.duration").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void testAutoCloseTasksReportsOnlyClosedTasks() {
+        when(taskRepository.findActiveTasks(eq(0L), any(), eq(0), eq(1), any())).thenReturn(refs(1L, 2L));
+        when(taskRepository.findActiveTasks(eq(2L), any(), eq(0), eq(1), any())).thenReturn(Collections.emptyList());
+        // task 2 was stopped by its user after the chunk was read
+        when(taskAutoCloseRepository.closeActiveTasks(anyCollection(), any(), any(), any())).thenReturn(refs(1L));
+
+        autoCloseTaskDailyService.autoCloseTasks();
+
+        verify(taskCache, times(1)).evict("acme", List.of(1L));
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.of("acme", TaskChangeType.AUTO_CLOSED, 1L));
+        verify(eventPublisher, never()).publishEvent(TaskChangedEvent.of("acme", TaskChangeType.AUTO_CLOSED, 2L));
+        assertEquals(1.0, meterRegistry.get("task.auto_close.closed").counter().count());
+    }
+
+    @Test
+    public void testAutoCloseTasksUsesSameEndTimeForAllChunks() {
+        when(taskRepository.findActiveTasks(eq(0L), any(), eq(0), eq(1), any())).thenReturn(refs(1L, 2L));
+        when(taskRepository.findActiveTasks(eq(2L), any(), eq(0), eq(1), any())).thenReturn(Collections.emptyList());
+
+        autoCloseTaskDailyService.autoCloseTasks();
+
+        verify(taskRepository, times(1)).findActiveTasks(eq(2L), argThat(startedBefore -> startedBefore.getNano() == 0), eq(0), eq(1), any());
+        verify(taskAutoCloseRepository, times(1)).closeActiveTasks(anyCollection(), any(), any(), any());
     }
 
     @Test
     public void testAutoCloseTasksNoActiveTasks() {
-        when(taskRepository.findAllByStatus(TaskStatus.ACTIVE)).thenReturn(Collections.emptyList());
+        when(taskRepository.findActiveTasks(anyLong(), any(), eq(0), eq(1), any())).thenReturn(Collections.emptyList());
 
         autoCloseTaskDailyService.autoCloseTasks();
 
-        verify(taskRepository, times(1)).findAllByStatus(TaskStatus.ACTIVE);
-        verify(taskRepository, never()).save(any());
+        verify(taskRepository, times(1)).findActiveTasks(anyLong(), any(), eq(0), eq(1), any());
+        verify(taskAutoCloseRepository, never()).closeActiveTasks(any(), any(), any(), any());
+        verify(transactionTemplate, never()).execute(any());
     }
 
     @Test
     public void testAutoCloseTasksExceptionHandling() {
-        when(taskRepository.findAllByStatus(TaskStatus.ACTIVE)).thenThrow(new DataAccessException("Database error") {});
+        when(taskRepository.findActiveTasks(anyLong(), any(), eq(0), eq(1), any())).thenThrow(new DataAccessException("Database error") {});
 
         TaskTimeException thrown = assertThrows(TaskTimeException.class, () -> autoCloseTaskDailyService.autoCloseTasks());
 
         assertEquals(ErrorMessages.TASK_AUTO_CLOSE_EXCEPTION.formatted("Database error"), thrown.getMessage());
-        verify(taskRepository, times(1)).findAllByStatus(TaskStatus.ACTIVE);
-        verify(taskRepository, never()).save(any());
+        verify(taskAutoCloseRepository, never()).closeActiveTasks(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testAutoCloseTasksKeepsCommittedChunksOnFailure() {
+        when(taskRepository.findActiveTasks(eq(0L), any(), eq(0), eq(1), any())).thenReturn(refs(1L, 2L));
+        when(taskRepository.findActiveTasks(eq(2L), any(), eq(0), eq(1), any())).thenReturn(refs(3L, 4L));
+        when(taskAutoCloseRepository.closeActiveTasks(eq(List.of(1L, 2L)), any(), any(), any())).thenReturn(refs(1L, 2L));
+        when(taskAutoCloseRepository.closeActiveTasks(eq(List.of(3L, 4L)), any(), any(), any())).thenThrow(new DataAccessException("Lock timeout") {});
+
+        TaskTimeException thrown = assertThrows(TaskTimeException.class, () -> autoCloseTaskDailyService.autoCloseTasks());
+
+        assertEquals(ErrorMessages.TASK_AUTO_CLOSE_EXCEPTION.formatted("Lock timeout"), thrown.getMessage());
+        verify(transactionTemplate, times(2)).execute(any());
+        assertEquals(2.0, meterRegistry.get("task.auto_close.closed").counter().count());
+        assertEquals(1L, meterRegistry.get("task.auto_close.duration").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    public void testAutoCloseTasksRunsShardsThroughClusterJobs() {
+        ReflectionTestUtils.setField(autoCloseTaskDailyService, "shards", 4);
+
+        autoCloseTaskDailyService.autoCloseTasks();
+        autoCloseTaskDailyService.catchUpMissedRun();
+
+        verify(clusterJobs).runScheduled(eq(AutoCloseTaskDailyService.JOB_NAME), eq(AutoCloseTaskDailyService.CRON), eq(4), any());
+        verify(clusterJobs).catchUp(eq(AutoCloseTaskDailyService.JOB_NAME), eq(AutoCloseTaskDailyService.CRON), eq(4), any());
+    }
+
+    @Test
+    public void testCloseShardClosesAtScheduledTime() {
+        LocalDateTime closeAt = LocalDateTime.of(2024, 9, 1, 23, 59, 59);
+        when(taskRepository.findActiveTasks(eq(0L), eq(closeAt), eq(3), eq(8), any())).thenReturn(refs(3L));
+        when(taskAutoCloseRepository.closeActiveTasks(anyCollection(), any(), any(), any())).thenReturn(refs(3L));
+
+        autoCloseTaskDailyService.closeShard(closeAt, 3, 8);
+
+        verify(taskAutoCloseRepository, times(1)).closeActiveTasks(List.of(3L), CREATED_AT, CREATED_AT, closeAt);
+    }
+
+    private static List<TaskRef> refs(Long... ids) {
+        return Arrays.stream(ids).map(id -> new TaskRef(id, "acme", CREATED_AT)).toList();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,121 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskSearchPage;
+import com.privat.timetracker.exception.exceptions.InvalidCursorException;
+import com.privat.timetracker.exception.exceptions.InvalidSearchQueryException;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskSearchRepository;
+import com.privat.timetracker.repository.projection.TaskRow;
+import com.privat.timetracker.repository.projection.TaskSearchRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class FullTextTaskSearchServiceTest {
+    private static final String TENANT = "acme";
+
+    @Mock
+    private TaskSearchRepository taskSearchRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @InjectMocks
+    private FullTextTaskSearchService fullTextTaskSearchService;
+
+    @BeforeEach
+    public void setUp() {
+        TenantContext.set(new Tenant(TENANT, null));
+        AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this);
+        try {
+            autoCloseable.close();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void testSearchFirstPage() {
+        TaskSearchRow row = getRow(1L, 0.6f);
+        TaskResponse response = new TaskResponse(1L, "Title", null, null, null, null, null, null, 0L);
+
+        when(taskSearchRepository.search(any(), any(), any(), any(), anyInt(), anyBoolean(), anyBoolean())).thenReturn(List.of(row));
+        when(taskMapper.toDto(eq(row.task()), any(LocalDateTime.class))).thenReturn(response);
+
+        TaskSearchPage page = fullTextTaskSearchService.search("login", null, 10, true, true);
+
+        assertEquals(1, page.items().size());
+        assertEquals(response, page.items().get(0).task());
+        assertEquals(0.6f, page.items().get(0).rank());
+        assertEquals("<mark>Title</mark>", page.items().get(0).titleHighlight());
+        assertNull(page.nextCursor());
+        verify(taskSearchRepository, times(1)).search(TENANT, "login", null, null, 11, true, true);
+    }
+
+    @Test
+    public void testSearchReturnsCursorWhenMoreResultsExist() {
+        when(taskSearchRepository.search(any(), any(), any(), any(), anyInt(), anyBoolean(), anyBoolean()))
+                .thenReturn(List.of(getRow(3L, 0.6f), getRow(1L, 0.1f)));
+
+        TaskSearchPage page = fullTextTaskSearchService.search("login", null, 1, false, false);
+
+        assertEquals(1, page.items().size());
+        assertEquals(new TaskSearchCursor(0.6f, 3L), TaskSearchCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    public void testSearchAfterCursor() {
+        TaskSearchCursor cursor = new TaskSearchCursor(0.123456f, 42L);
+
+        when(taskSearchRepository.search(any(), any(), any(), any(), anyInt(), anyBoolean(), anyBoolean()))
+                .thenReturn(Collections.emptyList());
+
+        fullTextTaskSearchService.search("login", cursor.encode(), 500, false, false);
+
+        verify(taskSearchRepository, times(1)).search(TENANT, "login", 0.123456f, 42L,
+                FullTextTaskSearchService.MAX_PAGE_SIZE + 1, false, false);
+    }
+
+    @Test
+    public void testSearchWithBlankQuery() {
+        assertThrows(InvalidSearchQueryException.class, () -> fullTextTaskSearchService.search(" ", null, 10, true, false));
+        assertThrows(InvalidSearchQueryException.class, () -> fullTextTaskSearchService.search(null, null, 10, true, false));
+        verifyNoInteractions(taskSearchRepository);
+    }
+
+    @Test
+    public void testSearchWithTooLongQuery() {
+        String query = "a".repeat(FullTextTaskSearchService.MAX_QUERY_LENGTH + 1);
+
+        assertThrows(InvalidSearchQueryException.class, () -> fullTextTaskSearchService.search(query, null, 10, true, false));
+    }
+
+    @Test
+    public void testSearchWithInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> fullTextTaskSearchService.search("login", "bm9wZQ", 10, true, false));
+        verifyNoInteractions(taskSearchRepository);
+    }
+
+    private static TaskSearchRow getRow(Long id, float rank) {
+        TaskRow task = new TaskRow(id, "Title", null, null, null, null, null, null);
+        return new TaskSearchRow(task, rank, "<mark>Title</mark>", null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.repository.TaskPartitionRepository;
+import com.privat.timetracker.repository.projection.TaskPartition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class MonthlyTaskPartitionServiceTest {
+
+    private static final YearMonth CURRENT_MONTH = YearMonth.of(2024, 9);
+
+    @Mock
+    private TaskPartitionRepository taskPartitionRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private MonthlyTaskPartitionService monthlyTaskPartitionService;
+
+    @BeforeEach
+    public void setUp() {
+        AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this);
+        try {
+            autoCloseable.close();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        ReflectionTestUtils.setField(monthlyTaskPartitionService, "monthsAhead", 2);
+    }
+
+    @Test
+    public void testCreatesPartitionsAhead() {
+        monthlyTaskPartitionService.maintainPartitions(CURRENT_MONTH);
+
+        verify(taskPartitionRepository).createPartition(YearMonth.of(2024, 9));
+        verify(taskPartitionRepository).createPartition(YearMonth.of(2024, 10));
+        verify(taskPartitionRepository).createPartition(YearMonth.of(2024, 11));
+        verify(taskPartitionRepository, never()).findPartitions();
+        verify(taskPartitionRepository, never()).detachPartition(anyString());
+    }
+
+    @Test
+    public void testCreateFailureDoesNotStopLaterMonths() {
+        when(taskPartitionRepository.createPartition(YearMonth.of(2024, 9)))
+                .thenThrow(new DataAccessResourceFailureException("Database down"));
+
+        monthlyTaskPartitionService.maintainPartitions(CURRENT_MONTH);
+
+        verify(taskPartitionRepository).createPartition(YearMonth.of(2024, 11));
+    }
+
+    @Test
+    public void testDetachesPartitionsBeforeRetentionWindow() {
+        ReflectionTestUtils.setField(monthlyTaskPartitionService, "retentionMonths", 6);
+        when(taskPartitionRepository.findPartitions())
+                .thenReturn(partitions("tasks_2024_01", "tasks_2024_02", "tasks_2024_03", "tasks_2024_09", "tasks_archive"));
+
+        monthlyTaskPartitionService.maintainPartitions(CURRENT_MONTH);
+
+        verify(taskPartitionRepository).detachPartition("tasks_2024_01");
+        verify(taskPartitionRepository).detachPartition("tasks_2024_02");
+        verify(taskPartitionRepository, times(2)).detachPartition(anyString());
+        verify(taskPartitionRepository, never()).dropPartition(anyString());
+        assertEquals(2.0, meterRegistry.get(MonthlyTaskPartitionService.METRIC_NAME).tag("action", "detached")
+                .counter().count());
+    }
+
+    @Test
+    public void testDropsDetachedPartitionsWhenConfigured() {
+        ReflectionTestUtils.setField(monthlyTaskPartitionService, "retentionMonths", 6);
+        ReflectionTestUtils.setField(monthlyTaskPartitionService, "dropDetached", true);
+        when(taskPartitionRepository.findPartitions()).thenReturn(partitions("tasks_2024_01", "tasks_2024_02"));
+        doThrow(new DataAccessResourceFailureException("Lock timeout"))
+                .when(taskPartitionRepository).detachPartition("tasks_2024_01");
+
+        monthlyTaskPartitionService.maintainPartitions(CURRENT_MONTH);
+
+        verify(taskPartitionRepository, never()).dropPartition("tasks_2024_01");
+        verify(taskPartitionRepository).dropPartition("tasks_2024_02");
+    }
+
+    @Test
+    public void testFinalizesInterruptedDetach() {
+        ReflectionTestUtils.setField(monthlyTaskPartitionService, "retentionMonths", 6);
+        ReflectionTestUtils.setField(monthlyTaskPartitionService, "dropDetached", true);
+        when(taskPartitionRepository.findPartitions()).thenReturn(List.of(
+                new TaskPartition("tasks_2024_01", true), new TaskPartition("tasks_2024_02", false)));
+
+        monthlyTaskPartitionService.maintainPartitions(CURRENT_MONTH);
+
+        verify(taskPartitionRepository).finalizeDetach("tasks_2024_01");
+        verify(taskPartitionRepository, never()).detachPartition("tasks_2024_01");
+        verify(taskPartitionRepository).dropPartition("tasks_2024_01");
+        verify(taskPartitionRepository).detachPartition("tasks_2024_02");
+        verify(taskPartitionRepository, never()).finalizeDetach("tasks_2024_02");
+        assertEquals(2.0, meterRegistry.get(MonthlyTaskPartitionService.METRIC_NAME).tag("action", "detached")
+                .counter().count());
+    }
+
+    @Test
+    public void testMonthOfPartitionName() {
+        assertEquals(YearMonth.of(2024, 1), TaskPartitionRepository.monthOf("tasks_2024_01"));
+        assertNull(TaskPartitionRepository.monthOf("tasks_2024_13"));
+        assertNull(TaskPartitionRepository.monthOf("tasks_2024_01; drop table x"));
+        assertNull(TaskPartitionRepository.monthOf("tasks_unpartitioned"));
+    }
+
+    private static List<TaskPartition> partitions(String... names) {
+        return Arrays.stream(names).map(name -> new TaskPartition(name, false)).toList();
+    }
+}
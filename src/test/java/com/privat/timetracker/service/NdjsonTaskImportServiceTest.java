@@ -0,0 +1,167 @@
+package com.privat.timetracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.privat.timetracker.controller.dto.TaskImportProgress;
+import com.privat.timetracker.controller.dto.TaskImportReport;
+import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class NdjsonTaskImportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private AutoCloseable mocks;
+    private NdjsonTaskImportService importService;
+    private final List<List<Task>> savedBatches = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        importService = new NdjsonTaskImportService(taskRepository, Mappers.getMapper(TaskMapper.class),
+                transactionTemplate, entityManager, validator, new ObjectMapper());
+        ReflectionTestUtils.setField(importService, "batchSize", 2);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 1);
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(taskRepository.saveAll(any())).thenAnswer(invocation -> {
+            savedBatches.add(new ArrayList<>(invocation.<List<Task>>getArgument(0)));
+            return invocation.getArgument(0);
+        });
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    public void testImportTasksInBatches() {
+        TaskImportReport report = importService.importTasks(ndjson(
+                "{\"title\":\"Task 1\",\"description\":\"Description 1\"}",
+                "",
+                "{\"title\":\"Task 2\",\"description\":\"Description 2\"}",
+                "{\"title\":\"Task 3\",\"description\":\"Description 3\"}"));
+
+        assertEquals(new TaskImportReport(3, 3, 0, List.of()), report);
+        assertEquals(2, savedBatches.size());
+        assertEquals(2, savedBatches.get(0).size());
+        assertEquals(1, savedBatches.get(1).size());
+        Task task = savedBatches.get(1).get(0);
+        assertEquals("Task 3", task.getTitle());
+        assertEquals(TaskStatus.CREATED, task.getStatus());
+        assertNotNull(task.getCreatedAt());
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+    }
+
+    @Test
+    public void testImportTasksDetachesEveryBatchInsideItsTransaction() {
+        importService.importTasks(ndjson(
+                "{\"title\":\"Task 1\",\"description\":\"Description 1\"}",
+                "{\"title\":\"Task 2\",\"description\":\"Description 2\"}",
+                "{\"title\":\"Task 3\",\"description\":\"Description 3\"}"));
+
+        // the request-scoped persistence context is empty again after every batch
+        InOrder inOrder = inOrder(transactionTemplate, taskRepository, entityManager);
+        for (int i = 0; i < 2; i++) {
+            inOrder.verify(transactionTemplate).executeWithoutResult(any());
+            inOrder.verify(taskRepository).saveAll(any());
+            inOrder.verify(entityManager).flush();
+            inOrder.verify(entityManager).clear();
+        }
+    }
+
+    @Test
+    public void testImportTasksReportsProgressAfterEveryBatch() {
+        List<TaskImportProgress> progress = new ArrayList<>();
+
+        importService.importTasks(ndjson(
+                "{\"title\":\"Task 1\",\"description\":\"Description 1\"}",
+                "not json",
+                "{\"title\":\"Task 3\",\"description\":\"Description 3\"}",
+                "{\"title\":\"Task 4\",\"description\":\"Description 4\"}"), progress::add);
+
+        assertEquals(List.of(new TaskImportProgress(3, 3, 2, 1), new TaskImportProgress(4, 4, 3, 1)), progress);
+    }
+
+    @Test
+    public void testImportTasksReportsInvalidLines() {
+        TaskImportReport report = importService.importTasks(ndjson(
+                "{\"title\":\"\",\"description\":\"Description 1\"}",
+                "not json",
+                "{\"title\":\"Task 3\",\"description\":\"Description 3\"}"));
+
+        assertEquals(3, report.processedLines());
+        assertEquals(1, report.importedTasks());
+        assertEquals(2, report.failedLines());
+        assertEquals(1, report.errors().size());
+        assertEquals(1, report.errors().get(0).line());
+        assertTrue(report.errors().get(0).messages().contains("Title cannot be blank"));
+    }
+
+    @Test
+    public void testImportTasksContinuesAfterFailedBatch() {
+        doThrow(new DataIntegrityViolationException("constraint"))
+                .doAnswer(invocation -> invocation.getArgument(0))
+                .when(taskRepository).saveAll(any());
+
+        TaskImportReport report = importService.importTasks(ndjson(
+                "{\"title\":\"Task 1\",\"description\":\"Description 1\"}",
+                "{\"title\":\"Task 2\",\"description\":\"Description 2\"}",
+                "{\"title\":\"Task 3\",\"description\":\"Description 3\"}"));
+
+        assertEquals(1, report.importedTasks());
+        assertEquals(2, report.failedLines());
+        assertEquals(List.of(ErrorMessages.TASK_IMPORT_BATCH_EXCEPTION.formatted(1, 2, "constraint")),
+                report.errors().get(0).messages());
+    }
+
+    @Test
+    public void testImportEmptyUpload() {
+        TaskImportReport report = importService.importTasks(ndjson());
+
+        assertEquals(new TaskImportReport(0, 0, 0, List.of()), report);
+        verify(taskRepository, never()).saveAll(any());
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
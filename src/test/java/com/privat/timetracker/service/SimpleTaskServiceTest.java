@@ -1,28 +1,50 @@
 package com.privat.timetracker.service;
 
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskFields;
+import com.privat.timetracker.controller.dto.TaskPage;
 import com.privat.timetracker.controller.dto.TaskRequest;
 import com.privat.timetracker.controller.dto.TaskResponse;
 import com.privat.timetracker.entity.Task;
 import com.privat.timetracker.entity.TaskStatus;
 import com.privat.timetracker.exception.constants.ErrorMessages;
+import com.privat.timetracker.exception.exceptions.InvalidCursorException;
 import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
 import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskArchiveRepository;
+import com.privat.timetracker.repository.TaskListRepository;
 import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskRow;
+import com.privat.timetracker.repository.projection.TaskStamp;
+import com.privat.timetracker.service.deadline.TaskDeadlines;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import com.privat.timetracker.service.journal.NoPendingTransitions;
+import com.privat.timetracker.service.journal.PendingTransitions;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class SimpleTaskServiceTest {
+    private static final String TENANT = "acme";
 
     @Mock
     private TaskRepository taskRepository;
@@ -30,11 +52,30 @@ public class SimpleTaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskListRepository taskListRepository;
+
+    @Mock
+    private TaskArchiveRepository taskArchiveRepository;
+
+    @Mock
+    private TaskCache taskCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskDeadlines taskDeadlines;
+
+    @Spy
+    private PendingTransitions pendingTransitions = new NoPendingTransitions();
+
     @InjectMocks
     private SimpleTaskService simpleTaskService;
 
     @BeforeEach
     public void setUp() {
+        TenantContext.set(new Tenant(TENANT, null));
         AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this);
         try {
             autoCloseable.close();
@@ -43,6 +84,11 @@ public class SimpleTaskServiceTest {
         }
     }
 
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
     @Test
     public void testCreateTask() {
         TaskRequest request = new TaskRequest("Test Title", "Test Description");
@@ -62,6 +108,7 @@ public class SimpleTaskServiceTest {
         assertEquals("Test Description", response.description());
         assertEquals(TaskStatus.CREATED, response.status());
         verify(taskRepository, times(1)).save(task);
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.of(TaskChangeType.CREATED, response));
     }
 
     @Test
@@ -91,6 +138,7 @@ public class SimpleTaskServiceTest {
         assertEquals(TaskStatus.CREATED, response.status());
         verify(taskRepository, times(1)).findById(taskId);
         verify(taskRepository, times(1)).save(updatedTask);
+        verify(taskCache, times(1)).evict(taskId);
     }
 
     @Test
@@ -118,6 +166,7 @@ public class SimpleTaskServiceTest {
     public void testGetTask() {
         Long taskId = 1L;
         Task task = new Task();
+        task.setVersion(2L);
         TaskResponse expectedResponse = new TaskResponse(
                 taskId, "Title", "Description", TaskStatus.CREATED, LocalDateTime.now(), LocalDateTime.now(), null,null, null
         );
@@ -132,6 +181,26 @@ public class SimpleTaskServiceTest {
         assertEquals("Description", response.description());
         assertEquals(TaskStatus.CREATED, response.status());
         verify(taskRepository, times(1)).findById(taskId);
+        verify(taskCache, times(1)).put(new TaskCache.Entry(expectedResponse, 2L));
+    }
+
+    @Test
+    public void testGetTaskFromCache() {
+        Long taskId = 1L;
+        TaskResponse cachedResponse = new TaskResponse(
+                taskId, "Title", "Description", TaskStatus.ACTIVE, LocalDateTime.now(), null, null, null, 0L
+        );
+        TaskResponse refreshedResponse = new TaskResponse(
+                taskId, "Title", "Description", TaskStatus.ACTIVE, cachedResponse.startTime(), null, null, null, 5L
+        );
+
+        when(taskCache.get(taskId)).thenReturn(cachedResponse);
+        when(taskMapper.refreshDuration(cachedResponse)).thenReturn(refreshedResponse);
+
+        TaskResponse response = simpleTaskService.getTask(taskId);
+
+        assertEquals(refreshedResponse, response);
+        verify(taskRepository, never()).findById(any());
     }
 
     @Test
@@ -144,35 +213,188 @@ public class SimpleTaskServiceTest {
 
         assertEquals(ErrorMessages.TASK_NOT_FOUND.formatted(taskId), thrown.getMessage());
         verify(taskRepository, times(1)).findById(taskId);
+        verify(taskArchiveRepository, times(1)).findById(TENANT, taskId);
     }
 
     @Test
-    public void testGetAllTasks() {
+    public void testGetTaskFallsBackToArchive() {
+        Long taskId = 1L;
+        TaskRow row = getRow(taskId, LocalDateTime.of(2024, 1, 6, 10, 0));
+        TaskResponse archivedResponse = new TaskResponse(
+                taskId, "Title", "Description", TaskStatus.INACTIVE, null, null, null, null, 0L
+        );
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskArchiveRepository.findById(TENANT, taskId)).thenReturn(Optional.of(row));
+        when(taskArchiveRepository.findStampById(TENANT, taskId)).thenReturn(Optional.of(
+                new TaskStamp(taskId, 3L, row.createdAt(), null, null, null)));
+        when(taskMapper.toDto(eq(row), any(LocalDateTime.class))).thenReturn(archivedResponse);
+
+        TaskResponse response = simpleTaskService.getTask(taskId);
+
+        assertEquals(archivedResponse, response);
+        verify(taskCache, times(1)).put(new TaskCache.Entry(archivedResponse, 3L));
+    }
+
+    @Test
+    public void testGetTaskStampFromCache() {
+        Long taskId = 1L;
+        TaskStamp stamp = new TaskStamp(taskId, 3L, LocalDateTime.of(2024, 1, 6, 10, 0), null, null, null);
+
+        when(taskCache.getStamp(taskId)).thenReturn(stamp);
+
+        assertEquals(stamp, simpleTaskService.getTaskStamp(taskId));
+        verifyNoInteractions(taskRepository, taskArchiveRepository);
+    }
+
+    @Test
+    public void testGetTaskStampLoadsAndCachesTask() {
+        Long taskId = 1L;
         Task task = new Task();
+        task.setVersion(3L);
+        TaskResponse taskResponse = new TaskResponse(
+                taskId, "Title", null, TaskStatus.INACTIVE, LocalDateTime.of(2024, 1, 6, 10, 0),
+                LocalDateTime.of(2024, 1, 6, 11, 0), LocalDateTime.of(2024, 1, 6, 9, 0), null, 3600L
+        );
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskMapper.toDto(task)).thenReturn(taskResponse);
+
+        TaskStamp stamp = simpleTaskService.getTaskStamp(taskId);
+
+        assertEquals(new TaskStamp(taskId, 3L, taskResponse.createdAt(), null, taskResponse.startTime(),
+                taskResponse.endTime()), stamp);
+        verify(taskCache).put(new TaskCache.Entry(taskResponse, 3L));
+    }
+
+    @Test
+    public void testGetAllTasks() {
+        TaskRow row = getRow(1L, LocalDateTime.of(2024, 9, 6, 10, 0));
         TaskResponse response = new TaskResponse(
                 1L, "Title", "Description", TaskStatus.CREATED, LocalDateTime.now(), LocalDateTime.now(), null, null, null
         );
 
-        when(taskRepository.findAll()).thenReturn(Collections.singletonList(task));
-        when(taskMapper.toDto(task)).thenReturn(response);
+        when(taskListRepository.findPage(eq(TENANT), any(), any(), anyInt(), anySet())).thenReturn(Collections.singletonList(row));
+        when(taskMapper.toDto(eq(row), any(LocalDateTime.class))).thenReturn(response);
+
+        TaskPage page = simpleTaskService.getAllTasks(null, 10, TaskFields.ALL);
+
+        assertNotNull(page);
+        assertEquals(1, page.items().size());
+        assertEquals("Title", page.items().get(0).title());
+        assertNull(page.nextCursor());
+        verify(taskListRepository, times(1)).findPage(TENANT, null, null, 11, TaskFields.ALL.columns());
+    }
+
+    @Test
+    public void testGetTasksStampCoversThePage() {
+        TaskListStamp stamp = new TaskListStamp("d41d8cd98f00b204e9800998ecf8427e", 60L, LocalDateTime.of(2024, 9, 6, 10, 0), null, null, null);
+        TaskCursor cursor = new TaskCursor(LocalDateTime.of(2024, 9, 6, 10, 0), 1L);
+        when(taskListRepository.findPageStamp(TENANT, null, null, 11)).thenReturn(stamp);
+        when(taskListRepository.findPageStamp(TENANT, cursor.createdAt(), 1L, SimpleTaskService.MAX_PAGE_SIZE + 1))
+                .thenReturn(stamp);
+
+        assertEquals(stamp, simpleTaskService.getTasksStamp(null, 10));
+        assertEquals(stamp, simpleTaskService.getTasksStamp(cursor.encode(), 10_000));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    public void testGetAllTasksWithoutDescription() {
+        when(taskListRepository.findPage(eq(TENANT), any(), any(), anyInt(), anySet())).thenReturn(Collections.emptyList());
+
+        simpleTaskService.getAllTasks(null, 10, TaskFields.ALL.withoutDescription());
 
-        List<TaskResponse> responses = simpleTaskService.getAllTasks();
+        verify(taskListRepository, times(1)).findPage(TENANT, null, null, 11, TaskFields.ALL.withoutDescription().columns());
+    }
+
+    @Test
+    public void testGetAllTasksUsesOneNowForThePage() {
+        TaskRow first = getRow(1L, LocalDateTime.of(2024, 9, 6, 10, 0));
+        TaskRow second = getRow(2L, LocalDateTime.of(2024, 9, 6, 11, 0));
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
 
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-        assertEquals("Title", responses.get(0).title());
-        verify(taskRepository, times(1)).findAll();
+        when(taskListRepository.findPage(eq(TENANT), any(), any(), anyInt(), anySet())).thenReturn(List.of(first, second));
+
+        simpleTaskService.getAllTasks(null, 10, TaskFields.ALL);
+
+        verify(taskMapper, times(2)).toDto(any(TaskRow.class), now.capture());
+        assertSame(now.getAllValues().get(0), now.getAllValues().get(1));
     }
 
     @Test
     public void testGetAllTasksEmpty() {
-        when(taskRepository.findAll()).thenReturn(Collections.emptyList());
+        when(taskListRepository.findPage(eq(TENANT), any(), any(), anyInt(), anySet())).thenReturn(Collections.emptyList());
+
+        TaskPage page = simpleTaskService.getAllTasks(null, 10, TaskFields.ALL);
+
+        assertNotNull(page);
+        assertTrue(page.items().isEmpty());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    public void testGetAllTasksReturnsCursorWhenMoreTasksExist() {
+        TaskRow first = getRow(1L, LocalDateTime.of(2024, 9, 6, 10, 0));
+        TaskRow second = getRow(2L, LocalDateTime.of(2024, 9, 6, 11, 0));
+
+        when(taskListRepository.findPage(eq(TENANT), any(), any(), anyInt(), anySet())).thenReturn(List.of(first, second));
+
+        TaskPage page = simpleTaskService.getAllTasks(null, 1, TaskFields.ALL);
 
-        List<TaskResponse> responses = simpleTaskService.getAllTasks();
+        assertEquals(1, page.items().size());
+        assertEquals(new TaskCursor(first.createdAt(), 1L), TaskCursor.decode(page.nextCursor()));
+        verify(taskMapper, never()).toDto(eq(second), any());
+    }
+
+    @Test
+    public void testGetAllTasksAfterCursor() {
+        TaskCursor cursor = new TaskCursor(LocalDateTime.of(2024, 9, 6, 10, 0), 1L);
+
+        when(taskListRepository.findPage(eq(TENANT), any(), any(), anyInt(), anySet())).thenReturn(Collections.emptyList());
+
+        simpleTaskService.getAllTasks(cursor.encode(), 10, TaskFields.ALL);
+
+        verify(taskListRepository, times(1)).findPage(TENANT, cursor.createdAt(), cursor.id(), 11, TaskFields.ALL.columns());
+    }
+
+    @Test
+    public void testGetAllTasksClampsPageSize() {
+        when(taskListRepository.findPage(eq(TENANT), any(), any(), anyInt(), anySet())).thenReturn(Collections.emptyList());
+
+        simpleTaskService.getAllTasks(null, 100_000, TaskFields.ALL);
+
+        verify(taskListRepository, times(1)).findPage(TENANT, null, null, SimpleTaskService.MAX_PAGE_SIZE + 1, TaskFields.ALL.columns());
+    }
+
+    @Test
+    public void testGetAllTasksWithInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> simpleTaskService.getAllTasks("not a cursor", 10, TaskFields.ALL));
+        verify(taskListRepository, never()).findPage(any(), any(), any(), anyInt(), anySet());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStreamAllTasks() {
+        TaskRow row = getRow(1L, null);
+        TaskResponse response = new TaskResponse(
+                1L, "Title", "Description", TaskStatus.CREATED, null, null, null, null, null
+        );
+        List<TaskResponse> streamed = new ArrayList<>();
+
+        doAnswer(invocation -> {
+            invocation.<Consumer<TaskRow>>getArgument(2).accept(row);
+            return null;
+        }).when(taskListRepository).streamAll(eq(TENANT), eq(TaskFields.ALL.withoutDescription().columns()), any());
+        when(taskMapper.toDto(eq(row), any(LocalDateTime.class))).thenReturn(response);
+
+        simpleTaskService.streamAllTasks(TaskFields.ALL.withoutDescription(), streamed::add);
+
+        assertEquals(List.of(response), streamed);
+    }
 
-        assertNotNull(responses);
-        assertTrue(responses.isEmpty());
-        verify(taskRepository, times(1)).findAll();
+    private static TaskRow getRow(Long id, LocalDateTime createdAt) {
+        return new TaskRow(id, "Title", null, TaskStatus.CREATED, null, null, createdAt, null);
     }
 
     @Test
@@ -184,6 +406,9 @@ public class SimpleTaskServiceTest {
         simpleTaskService.deleteTask(taskId);
 
         verify(taskRepository, times(1)).deleteById(taskId);
+        verify(taskCache, times(1)).evict(taskId);
+        verify(taskDeadlines, times(1)).disarm(taskId);
+        verify(eventPublisher, times(1)).publishEvent(TaskChangedEvent.of(TaskChangeType.DELETED, taskId));
     }
 
     @Test
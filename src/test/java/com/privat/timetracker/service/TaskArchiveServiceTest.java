@@ -0,0 +1,152 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
+import com.privat.timetracker.exception.exceptions.TaskNotRestorableException;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskArchiveRepository;
+import com.privat.timetracker.repository.projection.TaskArchiveBatch;
+import com.privat.timetracker.repository.projection.TaskRow;
+import com.privat.timetracker.service.job.ClusterJobs;
+import com.privat.timetracker.service.job.ShardWork;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskArchiveServiceTest {
+    private static final String TENANT = "acme";
+
+    @Mock
+    private TaskArchiveRepository taskArchiveRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ClusterJobs clusterJobs;
+
+    @InjectMocks
+    private TaskArchiveService taskArchiveService;
+
+    @BeforeEach
+    public void setUp() {
+        TenantContext.set(new Tenant(TENANT, null));
+        AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this);
+        try {
+            autoCloseable.close();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        ReflectionTestUtils.setField(taskArchiveService, "afterDays", 90);
+        ReflectionTestUtils.setField(taskArchiveService, "batchSize", 2);
+        when(clusterJobs.runScheduled(any(), any(), anyInt(), any())).thenAnswer(invocation -> {
+            invocation.<ShardWork>getArgument(3).run(LocalDateTime.now().withNano(0), 0, 1);
+            return 1;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void testArchiveMovesBatchesUntilShortBatch() {
+        when(taskArchiveRepository.archiveBatch(any(), any(), eq(2)))
+                .thenReturn(new TaskArchiveBatch(2, 300L))
+                .thenReturn(new TaskArchiveBatch(1, 200L));
+        ArgumentCaptor<LocalDateTime> finishedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> archivedAt = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        taskArchiveService.archiveFinishedTasks();
+
+        verify(taskArchiveRepository, times(2)).archiveBatch(finishedBefore.capture(), archivedAt.capture(), eq(2));
+        assertEquals(archivedAt.getValue().minusDays(90), finishedBefore.getValue());
+        assertEquals(3.0, meterRegistry.get("task.archive.moved").counter().count());
+        assertEquals(500.0, meterRegistry.get("task.archive.bytes").counter().count());
+        assertEquals(1, meterRegistry.get("task.archive.duration").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void testArchiveDisabled() {
+        ReflectionTestUtils.setField(taskArchiveService, "afterDays", 0);
+
+        taskArchiveService.archiveFinishedTasks();
+        taskArchiveService.catchUpMissedRun();
+
+        verifyNoInteractions(taskArchiveRepository);
+        verifyNoInteractions(clusterJobs);
+    }
+
+    @Test
+    public void testArchiveFailureKeepsMovedBatches() {
+        when(taskArchiveRepository.archiveBatch(any(), any(), anyInt()))
+                .thenReturn(new TaskArchiveBatch(2, 300L))
+                .thenThrow(new DataAccessResourceFailureException("Database down"));
+
+        taskArchiveService.archiveFinishedTasks();
+
+        assertEquals(2.0, meterRegistry.get("task.archive.moved").counter().count());
+        assertEquals(1, meterRegistry.get("task.archive.duration").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    public void testRestoreTask() {
+        TaskRow row = new TaskRow(1L, "Title", null, TaskStatus.INACTIVE, null, null, LocalDateTime.now(), null);
+        TaskResponse response = new TaskResponse(1L, "Title", null, TaskStatus.INACTIVE, null, null, null, null, 0L);
+        when(taskArchiveRepository.restore(eq(TENANT), eq(1L), any(LocalDateTime.class))).thenReturn(Optional.of(row));
+        when(taskMapper.toDto(eq(row), any(LocalDateTime.class))).thenReturn(response);
+
+        assertEquals(response, taskArchiveService.restoreTask(1L));
+        assertEquals(1.0, meterRegistry.get("task.archive.restored").counter().count());
+    }
+
+    @Test
+    public void testRestoreTaskNotArchived() {
+        when(taskArchiveRepository.restore(eq(TENANT), eq(1L), any(LocalDateTime.class))).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> taskArchiveService.restoreTask(1L));
+    }
+
+    @Test
+    public void testRestoreTaskOfDetachedMonth() {
+        SQLException noPartition = new SQLException(
+                "ERROR: no partition of relation \"tasks\" found for row", "23514");
+        when(taskArchiveRepository.restore(eq(TENANT), eq(1L), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("restore failed", noPartition));
+
+        assertThrows(TaskNotRestorableException.class, () -> taskArchiveService.restoreTask(1L));
+    }
+
+    @Test
+    public void testRestoreTaskOtherIntegrityViolation() {
+        when(taskArchiveRepository.restore(eq(TENANT), eq(1L), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("restore failed", new SQLException("duplicate key", "23505")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> taskArchiveService.restoreTask(1L));
+    }
+}
@@ -0,0 +1,124 @@
+package com.privat.timetracker.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskCacheTest {
+
+    private final TaskCache taskCache = new TaskCache(new ConcurrentMapCacheManager(), new TaskCacheQuota(10));
+
+    @BeforeEach
+    public void setUp() {
+        TenantContext.set(new Tenant("acme", null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testPutAndGet() {
+        TaskResponse task = getTaskResponse(1L);
+
+        taskCache.put(new TaskCache.Entry(task, 3L));
+
+        assertEquals(task, taskCache.get(1L));
+        assertEquals(3L, taskCache.getStamp(1L).version());
+        assertNull(taskCache.get(2L));
+        assertNull(taskCache.getStamp(2L));
+    }
+
+    @Test
+    public void testEvict() {
+        taskCache.put(getEntry(1L));
+        taskCache.put(getEntry(2L));
+
+        taskCache.evict(List.of(1L, 2L));
+
+        assertNull(taskCache.get(1L));
+        assertNull(taskCache.get(2L));
+    }
+
+    @Test
+    public void testTenantsAreSeparated() {
+        taskCache.put(getEntry(1L));
+
+        TenantContext.set(new Tenant("globex", null));
+        assertNull(taskCache.get(1L));
+        taskCache.put(getEntry(1L));
+        taskCache.evict("acme", List.of(1L));
+        assertNotNull(taskCache.get(1L));
+
+        TenantContext.set(new Tenant("acme", null));
+        assertNull(taskCache.get(1L));
+    }
+
+    @Test
+    public void testTenantQuota() {
+        TaskCacheQuota quota = new TaskCacheQuota(2);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(TaskCache.CACHE_NAME, quota.install(Caffeine.newBuilder().maximumSize(100)).build());
+        TaskCache sharedCache = new TaskCache(cacheManager, quota);
+
+        sharedCache.put(getEntry(1L));
+        sharedCache.put(getEntry(2L));
+        sharedCache.put(getEntry(2L));
+        sharedCache.put(getEntry(3L));
+        assertNull(sharedCache.get(3L));
+        assertEquals(2, quota.entries("acme"));
+
+        TenantContext.set(new Tenant("globex", null));
+        sharedCache.put(getEntry(3L));
+        assertNotNull(sharedCache.get(3L));
+
+        TenantContext.set(new Tenant("acme", null));
+        sharedCache.evict(1L);
+        sharedCache.put(getEntry(3L));
+        assertNotNull(sharedCache.get(3L));
+        assertEquals(2, quota.entries("acme"));
+    }
+
+    @Test
+    public void testRequiresTenant() {
+        TenantContext.clear();
+
+        assertThrows(IllegalStateException.class, () -> taskCache.get(1L));
+    }
+
+    @Test
+    public void testEvictAgainAfterTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        taskCache.evict(1L);
+        taskCache.put(getEntry(1L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertNull(taskCache.get(1L));
+    }
+
+    private static TaskResponse getTaskResponse(Long id) {
+        return new TaskResponse(id, "Title", "Description", null, null, null, null, null, null);
+    }
+
+    private static TaskCache.Entry getEntry(Long id) {
+        return new TaskCache.Entry(getTaskResponse(id), 0L);
+    }
+}
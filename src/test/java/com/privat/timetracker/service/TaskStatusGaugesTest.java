@@ -0,0 +1,140 @@
+package com.privat.timetracker.service;
+
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.TaskStatusCount;
+import com.privat.timetracker.service.job.ClusterJobs;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskStatusGaugesTest {
+    private static final String TENANT = "acme";
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private ClusterJobs clusterJobs;
+
+    @InjectMocks
+    private TaskStatusGauges taskStatusGauges;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void setUp() {
+        AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this);
+        try {
+            autoCloseable.close();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        taskStatusGauges.bindTo(meterRegistry);
+        when(clusterJobs.runExclusive(eq(TaskStatusGauges.JOB_NAME), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    @Test
+    public void testRefreshPublishesCountPerStatus() {
+        when(taskRepository.countActiveByTenant()).thenReturn(List.of(new TaskStatusCount(TENANT, TaskStatus.ACTIVE, 3L)));
+        when(taskRepository.countByTenantAndStatus()).thenReturn(List.of(
+                new TaskStatusCount(TENANT, TaskStatus.ACTIVE, 3L),
+                new TaskStatusCount(TENANT, TaskStatus.INACTIVE, 7L)));
+
+        taskStatusGauges.refreshActive();
+        taskStatusGauges.refresh();
+
+        assertEquals(3.0, gauge(TaskStatus.ACTIVE));
+        assertEquals(7.0, gauge(TaskStatus.INACTIVE));
+        assertEquals(0.0, gauge(TaskStatus.CREATED));
+    }
+
+    @Test
+    public void testRefreshesDoNotOverwriteEachOther() {
+        when(taskRepository.countByTenantAndStatus())
+                .thenReturn(List.of(new TaskStatusCount(TENANT, TaskStatus.INACTIVE, 7L)));
+        when(taskRepository.countActiveByTenant())
+                .thenReturn(List.of(new TaskStatusCount(TENANT, TaskStatus.ACTIVE, 3L)))
+                .thenReturn(List.of(new TaskStatusCount(TENANT, TaskStatus.ACTIVE, 4L)));
+
+        taskStatusGauges.refresh();
+        taskStatusGauges.refreshActive();
+        taskStatusGauges.refreshActive();
+
+        // the stale active count of the slow refresh is ignored, the active refresh leaves the others alone
+        assertEquals(4.0, gauge(TaskStatus.ACTIVE));
+        assertEquals(7.0, gauge(TaskStatus.INACTIVE));
+        verify(taskRepository, times(1)).countByTenantAndStatus();
+    }
+
+    @Test
+    public void testRefreshIsSkippedWhileAnotherNodeRunsIt() {
+        when(clusterJobs.runExclusive(eq(TaskStatusGauges.JOB_NAME), any())).thenReturn(false);
+
+        taskStatusGauges.refresh();
+
+        verify(taskRepository, never()).countByTenantAndStatus();
+    }
+
+    @Test
+    public void testRefreshPublishesCountPerTenant() {
+        when(taskRepository.countActiveByTenant()).thenReturn(List.of(
+                new TaskStatusCount(TENANT, TaskStatus.ACTIVE, 3L),
+                new TaskStatusCount("globex", TaskStatus.ACTIVE, 5L)));
+
+        taskStatusGauges.refreshActive();
+
+        assertEquals(3.0, gauge(TaskStatus.ACTIVE));
+        assertEquals(5.0, meterRegistry.get(TaskStatusGauges.METRIC_NAME)
+                .tag("tenant", "globex").tag("status", TaskStatus.ACTIVE.name()).gauge().value());
+    }
+
+    @Test
+    public void testRefreshResetsStatusWithoutTasks() {
+        when(taskRepository.countActiveByTenant())
+                .thenReturn(List.of(new TaskStatusCount(TENANT, TaskStatus.ACTIVE, 3L)))
+                .thenReturn(List.of());
+        when(taskRepository.countByTenantAndStatus())
+                .thenReturn(List.of(new TaskStatusCount(TENANT, TaskStatus.INACTIVE, 7L)))
+                .thenReturn(List.of());
+
+        taskStatusGauges.refreshActive();
+        taskStatusGauges.refreshActive();
+        taskStatusGauges.refresh();
+        taskStatusGauges.refresh();
+
+        assertEquals(0.0, gauge(TaskStatus.ACTIVE));
+        assertEquals(0.0, gauge(TaskStatus.INACTIVE));
+    }
+
+    @Test
+    public void testRefreshKeepsValuesOnFailure() {
+        when(taskRepository.countActiveByTenant())
+                .thenReturn(List.of(new TaskStatusCount(TENANT, TaskStatus.ACTIVE, 3L)))
+                .thenThrow(new DataAccessResourceFailureException("Database down"));
+
+        taskStatusGauges.refreshActive();
+        taskStatusGauges.refreshActive();
+
+        assertEquals(3.0, gauge(TaskStatus.ACTIVE));
+    }
+
+    private double gauge(TaskStatus status) {
+        return meterRegistry.get(TaskStatusGauges.METRIC_NAME)
+                .tag("tenant", TENANT).tag("status", status.name()).gauge().value();
+    }
+}
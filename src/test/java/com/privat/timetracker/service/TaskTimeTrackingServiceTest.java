@@ -1,27 +1,38 @@
 package com.privat.timetracker.service;
 
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
 import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.controller.dto.TaskTransitionResult;
 import com.privat.timetracker.entity.Task;
 import com.privat.timetracker.entity.TaskStatus;
 import com.privat.timetracker.exception.constants.ErrorMessages;
-import com.privat.timetracker.exception.exceptions.TaskAlreadyStarted;
-import com.privat.timetracker.exception.exceptions.TaskAlreadyStopped;
-import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
-import com.privat.timetracker.exception.exceptions.TaskTimeException;
+import com.privat.timetracker.exception.exceptions.*;
 import com.privat.timetracker.mapping.TaskMapper;
 import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.service.deadline.TaskDeadlines;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 public class TaskTimeTrackingServiceTest {
+    private static final String TENANT = "acme";
 
     @Mock
     private TaskRepository taskRepository;
@@ -29,6 +40,15 @@ public class TaskTimeTrackingServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskCache taskCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskDeadlines taskDeadlines;
+
     @InjectMocks
     private TaskTimeTrackingService taskTimeTrackingService;
 
@@ -43,16 +63,25 @@ public class TaskTimeTrackingServiceTest {
 
     }
 
+    @BeforeEach
+    public void setUp() {
+        TenantContext.set(new Tenant(TENANT, null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
     @Test
     public void testStartTask_Success() {
         // Arrange
         Long taskId = 1L;
         Task task = new Task();
-        task.setStatus(TaskStatus.CREATED);
+        task.setStatus(TaskStatus.ACTIVE);
         TaskResponse taskResponse = getTaskResponse();
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.startTask(eq(TENANT), eq(taskId), any(LocalDateTime.class))).thenReturn(Optional.of(task));
         when(taskMapper.toDto(task)).thenReturn(taskResponse);
 
         // Act
@@ -60,19 +89,24 @@ public class TaskTimeTrackingServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(taskRepository).save(task);
-        assertEquals(TaskStatus.ACTIVE, task.getStatus());
-        assertNull(task.getEndTime());
+        verify(taskRepository).startTask(eq(TENANT), eq(taskId), argThat(startTime ->
+                startTime.withNano(0).equals(LocalDateTime.now().withNano(0))));
+        verify(taskCache).evict(taskId);
+        verify(taskDeadlines).arm(task);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.of(TaskChangeType.STARTED, taskResponse));
     }
 
     private static TaskResponse getTaskResponse() {
-        return new TaskResponse(1L, "Title", "description", TaskStatus.CREATED, LocalDateTime.MIN, LocalDateTime.MIN, LocalDateTime.now(), LocalDateTime.MIN, "0");
+        return new TaskResponse(1L, "Title", "description", TaskStatus.CREATED, LocalDateTime.MIN, LocalDateTime.MIN, LocalDateTime.now(), LocalDateTime.MIN, 0L);
     }
 
     @Test
     public void testStartTask_TaskNotFound() {
         // Arrange
         Long taskId = 1L;
+        when(taskRepository.startTask(eq(TENANT), eq(taskId), any())).thenReturn(Optional.empty());
         when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -86,6 +120,7 @@ public class TaskTimeTrackingServiceTest {
         Task task = new Task();
         task.setStatus(TaskStatus.ACTIVE);
 
+        when(taskRepository.startTask(eq(TENANT), eq(taskId), any())).thenReturn(Optional.empty());
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
 
 
@@ -98,11 +133,8 @@ public class TaskTimeTrackingServiceTest {
     public void testStartTask_ExceptionHandling() {
         // Arrange
         Long taskId = 1L;
-        Task task = new Task();
-        task.setStatus(TaskStatus.CREATED);
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenThrow(new RuntimeException("Database error"));
+        when(taskRepository.startTask(eq(TENANT), eq(taskId), any())).thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
         TaskTimeException thrown = assertThrows(TaskTimeException.class, () -> taskTimeTrackingService.startTask(taskId));
@@ -115,11 +147,10 @@ public class TaskTimeTrackingServiceTest {
         // Arrange
         Long taskId = 1L;
         Task task = new Task();
-        task.setStatus(TaskStatus.ACTIVE);
+        task.setStatus(TaskStatus.INACTIVE);
         TaskResponse taskResponse = getTaskResponse();
 
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenReturn(task);
+        when(taskRepository.stopTask(eq(TENANT), eq(taskId), any(LocalDateTime.class))).thenReturn(Optional.of(task));
         when(taskMapper.toDto(task)).thenReturn(taskResponse);
 
         // Act
@@ -127,15 +158,18 @@ public class TaskTimeTrackingServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(taskRepository).save(task);
-        assertEquals(TaskStatus.INACTIVE, task.getStatus());
-        assertEquals(LocalDateTime.now().withNano(0), task.getEndTime().withNano(0));
+        verify(taskRepository).stopTask(eq(TENANT), eq(taskId), argThat(endTime ->
+                endTime.withNano(0).equals(LocalDateTime.now().withNano(0))));
+        verify(taskDeadlines).disarm(taskId);
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).save(any());
     }
 
     @Test
     public void testStopTask_TaskNotFound() {
         // Arrange
         Long taskId = 1L;
+        when(taskRepository.stopTask(eq(TENANT), eq(taskId), any())).thenReturn(Optional.empty());
         when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -143,12 +177,26 @@ public class TaskTimeTrackingServiceTest {
         assertEquals(ErrorMessages.TASK_NOT_FOUND.formatted(taskId), thrown.getMessage());
     }
 
+    @Test
+    public void testStopTask_TaskNotStarted() {
+        Long taskId = 1L;
+        Task task = new Task();
+        task.setStatus(TaskStatus.CREATED);
+
+        when(taskRepository.stopTask(eq(TENANT), eq(taskId), any())).thenReturn(Optional.empty());
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+
+        TaskNotStartedException thrown = assertThrows(TaskNotStartedException.class, () -> taskTimeTrackingService.stopTask(taskId));
+        assertTrue(thrown.getMessage().contains("stop"));
+    }
+
     @Test
     public void testStopTask_TaskAlreadyStopped() {
         Long taskId = 1L;
         Task task = new Task();
         task.setStatus(TaskStatus.INACTIVE);
 
+        when(taskRepository.stopTask(eq(TENANT), eq(taskId), any())).thenReturn(Optional.empty());
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
 
 
@@ -158,17 +206,96 @@ public class TaskTimeTrackingServiceTest {
     }
 
     @Test
-    public void testStopTask_ExceptionHandling() {
-        // Arrange
+    public void testStopTask_StartedConcurrently() {
         Long taskId = 1L;
         Task task = new Task();
         task.setStatus(TaskStatus.ACTIVE);
+
+        when(taskRepository.stopTask(eq(TENANT), eq(taskId), any())).thenReturn(Optional.empty());
         when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
-        when(taskRepository.save(any(Task.class))).thenThrow(new RuntimeException("Database error"));
+
+        TaskConflictException thrown = assertThrows(TaskConflictException.class, () -> taskTimeTrackingService.stopTask(taskId));
+        assertEquals(ErrorMessages.TASK_CONFLICT.formatted(taskId), thrown.getMessage());
+    }
+
+    @Test
+    public void testStopTask_ExceptionHandling() {
+        // Arrange
+        Long taskId = 1L;
+        when(taskRepository.stopTask(eq(TENANT), eq(taskId), any())).thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
         TaskTimeException thrown = assertThrows(TaskTimeException.class, () -> taskTimeTrackingService.stopTask(taskId));
         assertTrue(thrown.getMessage().contains("stop"));
         assertTrue(thrown.getMessage().contains(taskId.toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStartTasks_ReportsResultPerTask() {
+        Task started = getTask(1L, TaskStatus.ACTIVE);
+        Task alreadyActive = getTask(2L, TaskStatus.ACTIVE);
+        TaskResponse taskResponse = getTaskResponse();
+
+        when(taskRepository.startTasks(eq(TENANT), anyCollection(), any())).thenReturn(List.of(started));
+        when(taskRepository.findAllByIdIn(List.of(2L, 3L))).thenReturn(List.of(alreadyActive));
+        when(taskMapper.toDto(eq(started), any(LocalDateTime.class))).thenReturn(taskResponse);
+
+        List<TaskTransitionResult> results = taskTimeTrackingService.startTasks(List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(3, results.size());
+        assertEquals(TaskTransitionResult.succeeded(taskResponse), results.get(0));
+        assertEquals(2L, results.get(1).taskId());
+        assertFalse(results.get(1).success());
+        assertEquals(ErrorMessages.TASK_TIME_EXCEPTION.formatted("start", 2L, "Task already started"), results.get(1).error());
+        assertEquals(TaskTransitionResult.failed(3L, ErrorMessages.TASK_NOT_FOUND.formatted(3L)), results.get(2));
+        verify(taskRepository, times(1)).startTasks(eq(TENANT), eq(new LinkedHashSet<>(List.of(1L, 2L, 3L))), any());
+        verify(taskCache, times(1)).evict(Set.of(1L));
+        verify(eventPublisher, times(1)).publishEvent(any(TaskChangedEvent.class));
+    }
+
+    @Test
+    public void testStartTasks_AllStartedSkipsLookup() {
+        Task started = getTask(1L, TaskStatus.ACTIVE);
+
+        when(taskRepository.startTasks(eq(TENANT), anyCollection(), any())).thenReturn(List.of(started));
+        when(taskMapper.toDto(eq(started), any(LocalDateTime.class))).thenReturn(getTaskResponse());
+
+        List<TaskTransitionResult> results = taskTimeTrackingService.startTasks(List.of(1L));
+
+        assertTrue(results.get(0).success());
+        verify(taskRepository, never()).findAllByIdIn(any());
+    }
+
+    @Test
+    public void testStartTasks_ExceptionHandling() {
+        when(taskRepository.startTasks(eq(TENANT), anyCollection(), any())).thenThrow(new RuntimeException("Database error"));
+
+        TaskTimeException thrown = assertThrows(TaskTimeException.class, () -> taskTimeTrackingService.startTasks(List.of(1L)));
+        assertEquals(ErrorMessages.TASK_BATCH_EXCEPTION.formatted("start", "Database error"), thrown.getMessage());
+    }
+
+    @Test
+    public void testStopTasks_ReportsResultPerTask() {
+        Task stopped = getTask(1L, TaskStatus.INACTIVE);
+        Task notStarted = getTask(2L, TaskStatus.CREATED);
+        Task alreadyStopped = getTask(3L, TaskStatus.INACTIVE);
+        TaskResponse taskResponse = getTaskResponse();
+
+        when(taskRepository.stopTasks(eq(TENANT), anyCollection(), any())).thenReturn(List.of(stopped));
+        when(taskRepository.findAllByIdIn(List.of(2L, 3L))).thenReturn(List.of(notStarted, alreadyStopped));
+        when(taskMapper.toDto(eq(stopped), any(LocalDateTime.class))).thenReturn(taskResponse);
+
+        List<TaskTransitionResult> results = taskTimeTrackingService.stopTasks(List.of(1L, 2L, 3L));
+
+        assertTrue(results.get(0).success());
+        assertEquals(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", 2L, "Task not started"), results.get(1).error());
+        assertEquals(ErrorMessages.TASK_TIME_EXCEPTION.formatted("stop", 3L, "Task already stopped"), results.get(2).error());
+    }
+
+    private static Task getTask(Long id, TaskStatus status) {
+        Task task = new Task();
+        task.setId(id);
+        task.setStatus(status);
+        return task;
+    }
+}
@@ -0,0 +1,68 @@
+package com.privat.timetracker.service.deadline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashedTimerWheelTest {
+
+    @Test
+    public void testFiresAtDeadlineTick() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule(1L, 250);
+        wheel.schedule(2L, 300);
+
+        assertEquals(List.of(), wheel.advance(299));
+        assertEquals(List.of(1L, 2L), wheel.advance(300).stream().sorted().toList());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testKeepsTimersOfLaterRounds() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(100, 4, 0);
+        wheel.schedule(1L, 100);
+        wheel.schedule(2L, 500);
+
+        assertEquals(List.of(1L), wheel.advance(100));
+        assertEquals(List.of(), wheel.advance(400));
+        assertEquals(List.of(2L), wheel.advance(500));
+    }
+
+    @Test
+    public void testVisitsEveryBucketAfterLongPause() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(100, 4, 0);
+        Set<Long> keys = new HashSet<>();
+        for (long key = 0; key < 10; key++) {
+            wheel.schedule(key, key * 100);
+            keys.add(key);
+        }
+
+        assertEquals(keys, new HashSet<>(wheel.advance(100_000)));
+    }
+
+    @Test
+    public void testRescheduleAndCancel() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule(1L, 200);
+        wheel.schedule(1L, 600);
+        wheel.schedule(2L, 200);
+
+        assertTrue(wheel.cancel(2L));
+        assertFalse(wheel.cancel(3L));
+        assertEquals(List.of(), wheel.advance(500));
+        assertEquals(List.of(1L), wheel.advance(600));
+    }
+
+    @Test
+    public void testPastDeadlineFiresOnNextAdvance() {
+        HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.advance(1_000);
+        wheel.schedule(1L, 50);
+
+        assertEquals(List.of(1L), wheel.advance(1_100));
+    }
+}
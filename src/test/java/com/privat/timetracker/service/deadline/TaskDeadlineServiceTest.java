@@ -0,0 +1,165 @@
+package com.privat.timetracker.service.deadline;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.ActiveTaskSession;
+import com.privat.timetracker.service.TaskCache;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskDeadlineServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskCache taskCache;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaskDeadlineService taskDeadlineService;
+
+    @BeforeEach
+    public void setUp() {
+        AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this);
+        try {
+            autoCloseable.close();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        taskDeadlineService = deadlineService(0);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    public void testStopsTaskAtExpiredDeadline() {
+        Task task = task(1L, LocalDateTime.now().minusMinutes(5), 60);
+        task.setTenantId("acme");
+        TaskResponse taskResponse = taskResponse();
+        when(taskRepository.stopExpiredTask(eq(1L), eq(0), any())).thenReturn(Optional.of(task));
+        when(taskMapper.toDto(task)).thenReturn(taskResponse);
+
+        taskDeadlineService.arm(task);
+        assertEquals(1, taskDeadlineService.armedCount());
+        taskDeadlineService.tick();
+
+        verify(taskCache).evict("acme", List.of(1L));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.of("acme", TaskChangeType.AUTO_CLOSED, taskResponse));
+        assertEquals(0, taskDeadlineService.armedCount());
+        assertEquals(1.0, meterRegistry.get("task.deadlines.expired").counter().count());
+        assertEquals(0.0, meterRegistry.get("task.deadlines.armed").gauge().value());
+    }
+
+    @Test
+    public void testPendingDeadlineDoesNotFire() {
+        taskDeadlineService.arm(task(1L, LocalDateTime.now(), 3600));
+
+        taskDeadlineService.tick();
+
+        verifyNoInteractions(taskRepository);
+        assertEquals(1, taskDeadlineService.armedCount());
+    }
+
+    @Test
+    public void testTaskWithoutLimitIsNotArmed() {
+        taskDeadlineService.arm(task(1L, LocalDateTime.now().minusDays(1), null));
+        assertEquals(0, taskDeadlineService.armedCount());
+
+        TaskDeadlineService withGlobalLimit = deadlineService(60);
+        withGlobalLimit.arm(task(1L, LocalDateTime.now(), null));
+        assertEquals(1, withGlobalLimit.armedCount());
+    }
+
+    @Test
+    public void testArmsAndDisarmsAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            taskDeadlineService.arm(task(1L, LocalDateTime.now(), 60));
+            assertEquals(0, taskDeadlineService.armedCount());
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+            assertEquals(1, taskDeadlineService.armedCount());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        taskDeadlineService.disarm(List.of(1L));
+        assertEquals(0, taskDeadlineService.armedCount());
+    }
+
+    @Test
+    public void testRetriesFailedStop() {
+        when(taskRepository.stopExpiredTask(eq(1L), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Database unavailable"));
+
+        taskDeadlineService.arm(task(1L, LocalDateTime.now().minusMinutes(5), 60));
+        taskDeadlineService.tick();
+
+        assertEquals(1, taskDeadlineService.armedCount());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testRebuildsFromActiveTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        when(taskRepository.findActiveSessions()).thenReturn(List.of(
+                new ActiveTaskSession(1L, now, 60),
+                new ActiveTaskSession(2L, now, null),
+                new ActiveTaskSession(3L, now.minusHours(1), 600)));
+
+        taskDeadlineService.rebuild();
+
+        assertEquals(2, taskDeadlineService.armedCount());
+    }
+
+    private TaskDeadlineService deadlineService(int maxSessionSeconds) {
+        return new TaskDeadlineService(taskRepository, transactionTemplate, taskCache, taskMapper, eventPublisher,
+                meterRegistry, maxSessionSeconds, 1000, 64, 30000);
+    }
+
+    private static Task task(Long id, LocalDateTime startTime, Integer maxSessionSeconds) {
+        Task task = new Task();
+        task.setId(id);
+        task.setStatus(TaskStatus.ACTIVE);
+        task.setStartTime(startTime);
+        task.setMaxSessionSeconds(maxSessionSeconds);
+        return task;
+    }
+
+    private static TaskResponse taskResponse() {
+        LocalDateTime now = LocalDateTime.now();
+        return new TaskResponse(1L, "Title", "description", TaskStatus.INACTIVE, now, now, now, now, 1L);
+    }
+}
@@ -0,0 +1,215 @@
+package com.privat.timetracker.service.event;
+
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.TaskStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskEventBroadcasterTest {
+
+    private static final String TENANT = "acme";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void testDeliversEventsToSubscribers() {
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, 8);
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        broadcaster.register(TENANT, first, null);
+        broadcaster.register(TENANT, second, null);
+
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.STARTED, task(1L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.AUTO_CLOSED, 2L));
+
+        String sent = first.sent();
+        assertTrue(sent.startsWith("retry:3000\n:connected\n"));
+        assertTrue(sent.contains("event:started\ndata:{\"type\":\"STARTED\",\"taskId\":1,"));
+        assertTrue(sent.contains("event:auto-closed\ndata:{\"type\":\"AUTO_CLOSED\",\"taskId\":2,\"task\":null}"));
+        assertEquals(sent, second.sent());
+        assertEquals(2.0, meterRegistry.get("task.events.published").counter().count());
+    }
+
+    @Test
+    public void testDeliversEventsToSubscribersOfTheirTenantOnly() {
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, 8);
+        RecordingEmitter own = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        broadcaster.register(TENANT, own, null);
+        broadcaster.register("globex", other, null);
+
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.STARTED, task(1L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.of("initech", TaskChangeType.STARTED, task(2L)));
+
+        assertEquals(1, own.ids().size());
+        assertTrue(other.ids().isEmpty());
+        assertFalse(own.sent().contains("acme"));
+        assertEquals(2, broadcaster.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("task.events.published").counter().count());
+    }
+
+    @Test
+    public void testResumesAfterLastEventId() {
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, 8);
+        RecordingEmitter before = new RecordingEmitter();
+        broadcaster.register(TENANT, before, null);
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.CREATED, task(1L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.STARTED, task(1L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.STOPPED, task(1L)));
+        List<String> ids = before.ids();
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.register(TENANT, resumed, ids.get(0));
+
+        assertEquals(ids.subList(1, 3), resumed.ids());
+        assertFalse(resumed.sent().contains("event:created"));
+    }
+
+    @Test
+    public void testResetsUnknownLastEventId() {
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, 8);
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.CREATED, task(1L)));
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.register(TENANT, resumed, "otherprocess-1");
+
+        assertTrue(resumed.sent().contains("event:" + TaskEventBroadcaster.RESET_EVENT));
+        assertTrue(resumed.ids().isEmpty());
+    }
+
+    @Test
+    public void testResetsWhenMissedEventsExceedBuffer() {
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, 3);
+        RecordingEmitter before = new RecordingEmitter();
+        broadcaster.register(TENANT, before, null);
+        for (int i = 0; i < 4; i++) {
+            broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.UPDATED, task(1L)));
+        }
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.register(TENANT, resumed, before.ids().get(0));
+
+        assertTrue(resumed.sent().contains("event:" + TaskEventBroadcaster.RESET_EVENT));
+    }
+
+    @Test
+    public void testEvictsSlowSubscriber() {
+        List<Runnable> pendingWrites = new ArrayList<>();
+        TaskEventBroadcaster broadcaster = broadcaster(pendingWrites::add, 2);
+        broadcaster.register(TENANT, new RecordingEmitter(), null);
+
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.UPDATED, task(1L)));
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.UPDATED, task(1L)));
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("task.events.evicted").counter().count());
+    }
+
+    @Test
+    public void testEvictsFailingSubscriber() {
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, 8);
+        RecordingEmitter failing = new RecordingEmitter();
+        broadcaster.register(TENANT, failing, null);
+        failing.failing = true;
+
+        broadcaster.heartbeat();
+
+        assertEquals(0, broadcaster.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("task.events.evicted").counter().count());
+    }
+
+    @Test
+    public void testClosesIdleSubscriberWithoutWriter() {
+        List<Runnable> pendingWrites = new ArrayList<>();
+        TaskEventBroadcaster broadcaster = broadcaster(pendingWrites::add, 8);
+        RecordingEmitter emitter = new RecordingEmitter();
+        TaskEventSubscriber subscriber = broadcaster.register(TENANT, emitter, null);
+        pendingWrites.remove(0).run();
+
+        subscriber.close();
+
+        assertTrue(emitter.completed);
+        assertTrue(pendingWrites.isEmpty());
+    }
+
+    @Test
+    public void testClosedSubscriberIsCompletedByItsWriter() {
+        List<Runnable> pendingWrites = new ArrayList<>();
+        TaskEventBroadcaster broadcaster = broadcaster(pendingWrites::add, 8);
+        RecordingEmitter emitter = new RecordingEmitter();
+        TaskEventSubscriber subscriber = broadcaster.register(TENANT, emitter, null);
+
+        // the writer is busy with this subscriber, so closing neither waits for it nor queues another task
+        subscriber.close();
+        assertFalse(emitter.completed);
+        assertEquals(1, pendingWrites.size());
+
+        pendingWrites.remove(0).run();
+        assertTrue(emitter.completed);
+        assertEquals("", emitter.sent());
+    }
+
+    @Test
+    public void testDropsChannelWithoutSubscribers() {
+        TaskEventBroadcaster broadcaster = broadcaster(Runnable::run, 8);
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.register(TENANT, emitter, null);
+        broadcaster.onTaskChanged(TaskChangedEvent.of(TENANT, TaskChangeType.UPDATED, task(1L)));
+        emitter.failing = true;
+
+        broadcaster.heartbeat();
+        assertEquals(1, broadcaster.channelCount());
+        broadcaster.heartbeat();
+        assertEquals(0, broadcaster.channelCount());
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        broadcaster.register(TENANT, resumed, emitter.ids().get(0));
+        assertTrue(resumed.sent().contains("event:" + TaskEventBroadcaster.RESET_EVENT));
+        assertEquals(1, broadcaster.channelCount());
+    }
+
+    private TaskEventBroadcaster broadcaster(Executor writer, int bufferSize) {
+        return new TaskEventBroadcaster(Jackson2ObjectMapperBuilder.json().build(), meterRegistry, writer,
+                bufferSize, 16, 60_000L, 3000L);
+    }
+
+    private static TaskResponse task(Long id) {
+        return new TaskResponse(id, "Title", null, TaskStatus.ACTIVE, null, null, null, null, 0L);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final StringBuilder sent = new StringBuilder();
+        private boolean failing;
+        private boolean completed;
+
+        @Override
+        public synchronized void send(Set<DataWithMediaType> items) throws IOException {
+            if (failing) throw new IOException("Broken pipe");
+            items.forEach(item -> sent.append(item.getData()));
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        String sent() {
+            return sent.toString();
+        }
+
+        List<String> ids() {
+            return sent.toString().lines().filter(line -> line.startsWith("id:")).map(line -> line.substring(3)).toList();
+        }
+    }
+}
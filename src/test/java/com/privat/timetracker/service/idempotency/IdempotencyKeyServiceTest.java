@@ -0,0 +1,135 @@
+package com.privat.timetracker.service.idempotency;
+
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.exception.exceptions.IdempotencyKeyInUseException;
+import com.privat.timetracker.exception.exceptions.IdempotencyKeyReusedException;
+import com.privat.timetracker.repository.IdempotencyKeyRepository;
+import com.privat.timetracker.repository.projection.IdempotencyRecord;
+import com.privat.timetracker.service.job.ClusterJobs;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class IdempotencyKeyServiceTest {
+    private static final String TENANT = "acme";
+    private static final byte[] HASH = {1, 2, 3};
+    private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-09-01T10:00:00Z"), ZoneOffset.UTC);
+    private final LocalDateTime now = LocalDateTime.now(clock);
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+    private final ClusterJobs clusterJobs = mock(ClusterJobs.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IdempotencyKeyService idempotencyKeyService;
+
+    @BeforeEach
+    public void setUp() {
+        TenantContext.set(new Tenant(TENANT, null));
+        idempotencyKeyService = new IdempotencyKeyService(idempotencyKeyRepository, clusterJobs, meterRegistry, clock,
+                Duration.ofHours(24), Duration.ofMinutes(1), 1024 * 1024, 2);
+        when(clusterJobs.runExclusive(anyString(), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void testFirstRequestClaimsKey() {
+        when(idempotencyKeyRepository.claim(TENANT, "key-1", HASH, now, now.plusHours(24), now.minusMinutes(1)))
+                .thenReturn(true);
+
+        assertTrue(idempotencyKeyService.begin("key-1", HASH).isEmpty());
+        verify(idempotencyKeyRepository, never()).find(any(), any(), any());
+    }
+
+    @Test
+    public void testCompletedResponseIsReplayedFromMemory() {
+        when(idempotencyKeyRepository.complete(TENANT, "key-1", HASH, 200, "application/json", BODY)).thenReturn(true);
+
+        idempotencyKeyService.complete("key-1", HASH, 200, "application/json", BODY);
+        StoredResponse replayed = idempotencyKeyService.begin("key-1", HASH).orElseThrow();
+
+        assertEquals(200, replayed.status());
+        assertArrayEquals(BODY, replayed.body());
+        verify(idempotencyKeyRepository, never()).claim(any(), any(), any(), any(), any(), any());
+        assertEquals(1.0, meterRegistry.get("task.idempotency.replayed").tag("source", "memory").counter().count());
+    }
+
+    @Test
+    public void testCompletedResponseIsReplayedFromDatabase() {
+        when(idempotencyKeyRepository.find(TENANT, "key-1", now)).thenReturn(Optional.of(
+                new IdempotencyRecord(HASH, 201, "application/json", BODY, now.plusHours(1))));
+
+        StoredResponse replayed = idempotencyKeyService.begin("key-1", HASH).orElseThrow();
+        idempotencyKeyService.begin("key-1", HASH);
+
+        assertEquals(201, replayed.status());
+        verify(idempotencyKeyRepository, times(1)).find(TENANT, "key-1", now);
+        assertEquals(1.0, meterRegistry.get("task.idempotency.replayed").tag("source", "database").counter().count());
+    }
+
+    @Test
+    public void testRunningRequestIsInUse() {
+        when(idempotencyKeyRepository.find(TENANT, "key-1", now)).thenReturn(Optional.of(
+                new IdempotencyRecord(HASH, null, null, null, now.plusHours(24))));
+
+        assertThrows(IdempotencyKeyInUseException.class, () -> idempotencyKeyService.begin("key-1", HASH));
+    }
+
+    @Test
+    public void testKeyOfDifferentRequestIsRejected() {
+        when(idempotencyKeyRepository.find(TENANT, "key-1", now)).thenReturn(Optional.of(
+                new IdempotencyRecord(new byte[]{9}, 200, "application/json", BODY, now.plusHours(24))));
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotencyKeyService.begin("key-1", HASH));
+    }
+
+    @Test
+    public void testKeysAreSeparatedByTenant() {
+        when(idempotencyKeyRepository.complete(any(), any(), any(), anyInt(), any(), any())).thenReturn(true);
+        idempotencyKeyService.complete("key-1", HASH, 200, "application/json", BODY);
+
+        TenantContext.set(new Tenant("globex", null));
+        when(idempotencyKeyRepository.claim(eq("globex"), eq("key-1"), any(), any(), any(), any())).thenReturn(true);
+
+        assertTrue(idempotencyKeyService.begin("key-1", HASH).isEmpty());
+    }
+
+    @Test
+    public void testReleaseRemovesClaim() {
+        idempotencyKeyService.release("key-1", HASH);
+
+        verify(idempotencyKeyRepository).release(TENANT, "key-1", HASH);
+    }
+
+    @Test
+    public void testPurgeDeletesExpiredKeysInBatches() {
+        when(idempotencyKeyRepository.deleteExpired(now, 2)).thenReturn(2, 2, 1);
+
+        idempotencyKeyService.purgeExpired();
+
+        verify(idempotencyKeyRepository, times(3)).deleteExpired(now, 2);
+        verify(clusterJobs).runExclusive(eq(IdempotencyKeyService.JOB_NAME), any());
+    }
+}
@@ -0,0 +1,153 @@
+package com.privat.timetracker.service.job;
+
+import com.privat.timetracker.repository.JobLockRepository;
+import com.privat.timetracker.repository.JobLockRepository.JobLock;
+import com.privat.timetracker.repository.JobRunRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class AdvisoryLockClusterJobsTest {
+
+    private static final String CRON = "59 59 23 * * *";
+
+    @Mock
+    private JobLockRepository jobLockRepository;
+
+    @Mock
+    private JobRunRepository jobRunRepository;
+
+    @Mock
+    private JobLock jobLock;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private AdvisoryLockClusterJobs clusterJobs;
+
+    @BeforeEach
+    public void setUp() {
+        AutoCloseable autoCloseable = MockitoAnnotations.openMocks(this);
+        try {
+            autoCloseable.close();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        ReflectionTestUtils.setField(clusterJobs, "node", "node-1");
+        ReflectionTestUtils.setField(clusterJobs, "historyDays", 30);
+        when(jobLockRepository.tryLock(anyString(), anyInt())).thenReturn(Optional.of(jobLock));
+        when(jobRunRepository.findCompletedShards(anyString(), any())).thenReturn(Set.of());
+    }
+
+    @Test
+    public void testRunsEveryShardOnce() {
+        List<Integer> ran = new ArrayList<>();
+
+        int shards = clusterJobs.runScheduled("job", CRON, 4, (scheduledAt, shard, count) -> ran.add(shard));
+
+        assertEquals(4, shards);
+        assertEquals(List.of(0, 1, 2, 3), ran.stream().sorted().toList());
+        verify(jobRunRepository, times(4)).markCompleted(eq("job"), any(), anyInt(), eq(4), eq("node-1"), any(), any());
+        verify(jobLock, times(4)).close();
+        verify(jobRunRepository).deleteBefore(eq("job"), any());
+        assertEquals(4.0, meterRegistry.get("task.jobs.shards").tag("outcome", "completed").counter().count());
+    }
+
+    @Test
+    public void testSkipsShardsLockedOrCompletedElsewhere() {
+        when(jobLockRepository.tryLock("job", 1)).thenReturn(Optional.empty());
+        when(jobRunRepository.findCompletedShards(eq("job"), any())).thenReturn(Set.of(0)).thenReturn(Set.of(0, 3));
+        List<Integer> ran = new ArrayList<>();
+
+        int shards = clusterJobs.runScheduled("job", CRON, 4, (scheduledAt, shard, count) -> ran.add(shard));
+
+        assertTrue(ran.contains(2));
+        assertFalse(ran.contains(0));
+        assertFalse(ran.contains(1));
+        assertFalse(ran.contains(3));
+        assertEquals(1, shards);
+        verify(jobLockRepository, never()).tryLock("job", 0);
+        assertEquals(1.0, meterRegistry.get("task.jobs.shards").tag("outcome", "locked").counter().count());
+        assertEquals(1.0, meterRegistry.get("task.jobs.shards").tag("outcome", "skipped").counter().count());
+    }
+
+    @Test
+    public void testFailedShardIsNotRecordedAndRethrown() {
+        RuntimeException failure = new IllegalStateException("Shard failed");
+
+        RuntimeException thrown = assertThrows(RuntimeException.class, () ->
+                clusterJobs.runScheduled("job", CRON, 2, (scheduledAt, shard, count) -> {
+                    if (shard == 1) throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        verify(jobRunRepository).markCompleted(eq("job"), any(), eq(0), eq(2), any(), any(), any());
+        verify(jobRunRepository, never()).markCompleted(eq("job"), any(), eq(1), anyInt(), any(), any(), any());
+        verify(jobLock, times(2)).close();
+    }
+
+    @Test
+    public void testRunExclusiveSkipsWhenLocked() {
+        when(jobLockRepository.tryLock("job", AdvisoryLockClusterJobs.EXCLUSIVE_KEY)).thenReturn(Optional.empty());
+        Runnable job = mock(Runnable.class);
+
+        assertFalse(clusterJobs.runExclusive("job", job));
+
+        verifyNoInteractions(job);
+    }
+
+    @Test
+    public void testCatchUpRunsIncompleteOccurrence() {
+        when(jobRunRepository.findLastScheduledAt("job")).thenReturn(Optional.of(LocalDateTime.now().minusDays(3)));
+        List<LocalDateTime> scheduled = new ArrayList<>();
+
+        assertEquals(1, clusterJobs.catchUp("job", CRON, 1, (scheduledAt, shard, count) -> scheduled.add(scheduledAt)));
+
+        assertEquals(List.of(AdvisoryLockClusterJobs.lastFireTime(CronExpression.parse(CRON), LocalDateTime.now())),
+                scheduled);
+    }
+
+    @Test
+    public void testCatchUpWithoutHistoryOrFailureDoesNothing() {
+        when(jobRunRepository.findLastScheduledAt("job"))
+                .thenReturn(Optional.empty())
+                .thenThrow(new DataAccessResourceFailureException("Database down"));
+        ShardWork work = mock(ShardWork.class);
+
+        assertEquals(0, clusterJobs.catchUp("job", CRON, 1, work));
+        assertEquals(0, clusterJobs.catchUp("job", CRON, 1, work));
+
+        verifyNoInteractions(work);
+    }
+
+    @Test
+    public void testLastFireTime() {
+        CronExpression daily = CronExpression.parse(CRON);
+
+        assertEquals(LocalDateTime.of(2024, 9, 1, 23, 59, 59),
+                AdvisoryLockClusterJobs.lastFireTime(daily, LocalDateTime.of(2024, 9, 2, 12, 0)));
+        assertEquals(LocalDateTime.of(2024, 9, 2, 23, 59, 59),
+                AdvisoryLockClusterJobs.lastFireTime(daily, LocalDateTime.of(2024, 9, 2, 23, 59, 59, 500)));
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0),
+                AdvisoryLockClusterJobs.lastFireTime(CronExpression.parse("0 0 0 1 1 *"), LocalDateTime.of(2024, 9, 2, 12, 0)));
+    }
+}
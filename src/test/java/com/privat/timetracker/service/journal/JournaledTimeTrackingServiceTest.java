@@ -0,0 +1,137 @@
+package com.privat.timetracker.service.journal;
+
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.exception.exceptions.TaskAlreadyStopped;
+import com.privat.timetracker.exception.exceptions.TaskNotFoundException;
+import com.privat.timetracker.exception.exceptions.TaskNotStartedException;
+import com.privat.timetracker.exception.exceptions.TaskTimeException;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.service.TaskCache;
+import com.privat.timetracker.service.TaskTimeTrackingService;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class JournaledTimeTrackingServiceTest {
+    private final TaskJournal taskJournal = mock(TaskJournal.class);
+    private final TaskTimeTrackingService taskTimeTrackingService = mock(TaskTimeTrackingService.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskMapper taskMapper = mock(TaskMapper.class);
+    private final TaskCache taskCache = mock(TaskCache.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final JournaledTimeTrackingService service = new JournaledTimeTrackingService(taskJournal,
+            taskTimeTrackingService, taskRepository, taskMapper, taskCache, transactionTemplate, eventPublisher);
+
+    private final TaskResponse created = task(TaskStatus.CREATED);
+
+    @BeforeEach
+    public void setUp() {
+        TenantContext.set(new Tenant("acme", null));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        // the journal checks the status of the task and returns it as if it was started
+        when(taskJournal.append(any(), any(), any())).thenAnswer(invocation -> {
+            TaskResponse task = invocation.getArgument(0);
+            invocation.<Consumer<TaskStatus>>getArgument(2).accept(task.status());
+            return task(TaskStatus.ACTIVE);
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    public void testStartTaskIsCheckedAgainstPrimaryInsteadOfCache() {
+        // another node stopped the task after it was cached here
+        when(taskCache.get(1L)).thenReturn(task(TaskStatus.ACTIVE));
+        stored(created);
+
+        TaskResponse started = service.startTask(1L);
+
+        assertEquals(TaskStatus.ACTIVE, started.status());
+        verify(taskJournal).append(eq(created), eq(JournalEntry.Type.START), any());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.of(TaskChangeType.STARTED, started));
+    }
+
+    @Test
+    public void testStartTaskRefreshesCachedTask() {
+        stored(created);
+
+        service.startTask(1L);
+
+        verify(taskCache).put(new TaskCache.Entry(created, 0L));
+        verify(taskJournal).append(eq(created), eq(JournalEntry.Type.START), any());
+    }
+
+    @Test
+    public void testStartTaskNotFound() {
+        when(taskRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> service.startTask(1L));
+        verifyNoInteractions(taskJournal, eventPublisher);
+    }
+
+    @Test
+    public void testStopTaskChecksStatus() {
+        stored(created);
+        assertThrows(TaskNotStartedException.class, () -> service.stopTask(1L));
+
+        stored(task(TaskStatus.INACTIVE));
+        assertThrows(TaskAlreadyStopped.class, () -> service.stopTask(1L));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    public void testJournalFailureIsReported() {
+        stored(created);
+        doThrow(new UncheckedIOException(new IOException("disk full"))).when(taskJournal).append(any(), any(), any());
+
+        assertThrows(TaskTimeException.class, () -> service.startTask(1L));
+    }
+
+    @Test
+    public void testBatchStartFlushesJournalFirst() {
+        service.startTasks(List.of(1L, 2L));
+
+        InOrder inOrder = inOrder(taskJournal, taskTimeTrackingService);
+        inOrder.verify(taskJournal).flush();
+        inOrder.verify(taskTimeTrackingService).startTasks(List.of(1L, 2L));
+    }
+
+    private void stored(TaskResponse response) {
+        Task task = new Task();
+        task.setVersion(0L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(task));
+        when(taskMapper.toDto(task)).thenReturn(response);
+    }
+
+    private static TaskResponse task(TaskStatus status) {
+        return new TaskResponse(1L, "Task", null, status, null, null, LocalDateTime.of(2024, 9, 1, 10, 0), null, 0L);
+    }
+}
@@ -0,0 +1,127 @@
+package com.privat.timetracker.service.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedJournalTest {
+    private static final int SEGMENT_SIZE = 4096;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 8, 30, 9, 0, 0, 456_000_000);
+    private static final LocalDateTime TIME = LocalDateTime.of(2024, 9, 1, 10, 0, 0, 123_000_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testEntriesAreReadAfterReopening() throws IOException {
+        String id;
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            id = journal.id();
+            journal.append(JournalEntry.Type.START, "acme", 1L, CREATED, TIME);
+            JournalEntry stop = journal.append(JournalEntry.Type.STOP, "acme", 1L, CREATED, TIME.plusHours(1));
+            journal.awaitDurable(stop.sequence());
+            assertEquals(2, journal.durableSequence());
+        }
+
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(id, journal.id());
+            assertEquals(List.of(
+                    new JournalEntry(1, JournalEntry.Type.START, "acme", 1L, CREATED, TIME),
+                    new JournalEntry(2, JournalEntry.Type.STOP, "acme", 1L, CREATED, TIME.plusHours(1))), journal.entries());
+            assertEquals(3, journal.append(JournalEntry.Type.START, "acme", 2L, CREATED, TIME).sequence());
+        }
+    }
+
+    @Test
+    public void testTornEntryEndsJournalAndIsOverwritten() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            journal.append(JournalEntry.Type.START, "acme", 1L, CREATED, TIME);
+            journal.append(JournalEntry.Type.START, "acme", 2L, CREATED, TIME);
+        }
+        corruptLastByteOfEntry(2);
+
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(1, journal.entries().size());
+            assertEquals(2, journal.append(JournalEntry.Type.STOP, "acme", 1L, CREATED, TIME).sequence());
+        }
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(JournalEntry.Type.START, JournalEntry.Type.STOP),
+                    journal.entries().stream().map(JournalEntry::type).toList());
+        }
+    }
+
+    @Test
+    public void testJournalRollsOverAndDeletesWrittenSegments() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            long last = 0;
+            for (long taskId = 1; taskId <= 200; taskId++) {
+                last = journal.append(JournalEntry.Type.START, "acme", taskId, CREATED, TIME).sequence();
+            }
+            journal.awaitDurable(last);
+            assertTrue(segments().size() > 1);
+
+            journal.deleteThrough(last);
+
+            assertEquals(1, segments().size());
+        }
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(200, journal.entries().get(journal.entries().size() - 1).sequence());
+            assertEquals(201, journal.append(JournalEntry.Type.STOP, "acme", 1L, CREATED, TIME).sequence());
+        }
+    }
+
+    @Test
+    public void testFencedJournalDropsEntriesThatWereNotForced() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            journal.awaitDurable(journal.append(JournalEntry.Type.START, "acme", 1L, CREATED, TIME).sequence());
+            JournalEntry stop = journal.append(JournalEntry.Type.STOP, "acme", 1L, CREATED, TIME.plusHours(1));
+
+            journal.fence();
+
+            assertTrue(journal.fenced());
+            assertThrows(UncheckedIOException.class, () -> journal.awaitDurable(stop.sequence()));
+            assertThrows(UncheckedIOException.class, () -> journal.append(JournalEntry.Type.START, "acme", 2L, CREATED, TIME));
+            assertEquals(1, journal.durableSequence());
+        }
+
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE)) {
+            assertEquals(List.of(new JournalEntry(1, JournalEntry.Type.START, "acme", 1L, CREATED, TIME)), journal.entries());
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(MappedJournal.SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+
+    /**
+     * Flips the last byte of the n-th entry of the first segment, as if the process died while writing it.
+     */
+    private void corruptLastByteOfEntry(int n) throws IOException {
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            long position = 0;
+            for (int i = 1; i <= n; i++) {
+                header.clear();
+                channel.read(header, position);
+                position += 2 * Integer.BYTES + header.flip().getInt();
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, position - 1);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~last.get(0)}), position - 1);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.privat.timetracker.service.journal;
+
+import com.privat.timetracker.config.tenant.Tenant;
+import com.privat.timetracker.config.tenant.TenantContext;
+import com.privat.timetracker.controller.dto.TaskResponse;
+import com.privat.timetracker.entity.Task;
+import com.privat.timetracker.entity.TaskStatus;
+import com.privat.timetracker.exception.exceptions.TaskAlreadyStarted;
+import com.privat.timetracker.mapping.TaskMapper;
+import com.privat.timetracker.repository.TaskJournalRepository;
+import com.privat.timetracker.repository.TaskRepository;
+import com.privat.timetracker.repository.projection.TaskListStamp;
+import com.privat.timetracker.repository.projection.TaskStamp;
+import com.privat.timetracker.repository.projection.TaskTransition;
+import com.privat.timetracker.service.TaskCache;
+import com.privat.timetracker.service.deadline.TaskDeadlines;
+import com.privat.timetracker.service.event.TaskChangeType;
+import com.privat.timetracker.service.event.TaskChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class TaskJournalTest {
+    private static final String TENANT = "acme";
+    private static final Consumer<TaskStatus> NOT_ACTIVE = status -> {
+        if (status == TaskStatus.ACTIVE) throw new TaskAlreadyStarted("Task already started");
+    };
+
+    @TempDir
+    Path directory;
+
+    private final TaskJournalRepository taskJournalRepository = mock(TaskJournalRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final TaskCache taskCache = mock(TaskCache.class);
+    private final TaskDeadlines taskDeadlines = mock(TaskDeadlines.class);
+    private final TaskMapper taskMapper = mock(TaskMapper.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TaskResponse created = new TaskResponse(1L, "Task", null, TaskStatus.CREATED, null, null,
+            LocalDateTime.now().minusDays(1), null, 0L);
+
+    private MappedJournal mappedJournal;
+    private TaskJournal taskJournal;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        TenantContext.set(new Tenant(TENANT, null));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(taskJournalRepository.apply(anyList())).thenAnswer(invocation -> {
+            int[] counts = new int[invocation.<List<?>>getArgument(0).size()];
+            Arrays.fill(counts, 1);
+            return counts;
+        });
+        taskJournal = open();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        TenantContext.clear();
+        mappedJournal.close();
+    }
+
+    @Test
+    public void testAppendedStartIsVisibleBeforeItIsWritten() {
+        TaskResponse started = taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE);
+
+        assertEquals(TaskStatus.ACTIVE, started.status());
+        assertEquals(started, taskJournal.apply(created, started.startTime()));
+        TaskStamp stamp = taskJournal.apply(new TaskStamp(1L, 3L, created.createdAt(), null, null, null));
+        assertEquals(4L, stamp.version());
+        assertEquals(started.startTime(), stamp.startTime());
+        TaskListStamp listStamp = taskJournal.apply(new TaskListStamp("0f5a8e3c2b1d4e6f7a8b9c0d1e2f3a4b", 3L, created.createdAt(), null, null, null));
+        assertEquals(4L, listStamp.versionSum());
+        verifyNoInteractions(taskJournalRepository);
+    }
+
+    @Test
+    public void testTransitionIsCheckedAgainstPendingState() {
+        taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE);
+
+        assertThrows(TaskAlreadyStarted.class, () -> taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE));
+        assertEquals(1, mappedJournal.durableSequence());
+    }
+
+    @Test
+    public void testPendingStateIsSeparatedByTenant() {
+        taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE);
+
+        TenantContext.set(new Tenant("globex", null));
+
+        assertEquals(created, taskJournal.apply(created, LocalDateTime.now()));
+    }
+
+    @Test
+    public void testDrainWritesEntriesWithCheckpointAndClearsPendingState() {
+        taskJournal.recover();
+        taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE);
+        taskJournal.append(created, JournalEntry.Type.STOP, status -> {
+        });
+
+        taskJournal.drain();
+
+        ArgumentCaptor<List<TaskTransition>> written = ArgumentCaptor.captor();
+        verify(taskJournalRepository).apply(written.capture());
+        assertEquals(List.of(true, false), written.getValue().stream().map(TaskTransition::start).toList());
+        assertEquals(created.createdAt(), written.getValue().get(0).createdAt());
+        verify(taskJournalRepository).saveCheckpoint(eq(mappedJournal.id()), eq(2L), any());
+        verify(taskCache, atLeastOnce()).evict(TENANT, Set.of(1L));
+        verify(taskDeadlines).disarm(List.of(1L));
+        assertEquals(created, taskJournal.apply(created, LocalDateTime.now()));
+        assertEquals(2.0, meterRegistry.get("task.journal.drained").counter().count());
+    }
+
+    @Test
+    public void testRejectedEntryIsCountedAndActualStateIsPublished() {
+        taskJournal.recover();
+        when(taskJournalRepository.apply(anyList())).thenReturn(new int[]{0});
+        // another node stopped the task in between
+        Task stored = new Task();
+        stored.setId(1L);
+        stored.setTenantId(TENANT);
+        TaskResponse stopped = new TaskResponse(1L, "Task", null, TaskStatus.INACTIVE, null, null,
+                created.createdAt(), null, 0L);
+        when(taskRepository.findAllByIdIn(Set.of(1L))).thenReturn(List.of(stored));
+        when(taskMapper.toDto(stored)).thenReturn(stopped);
+
+        taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE);
+        taskJournal.drain();
+
+        assertEquals(1.0, meterRegistry.get("task.journal.conflicts").counter().count());
+        verifyNoInteractions(taskDeadlines);
+        verify(eventPublisher).publishEvent(TaskChangedEvent.of(TENANT, TaskChangeType.UPDATED, stopped));
+        assertEquals(created, taskJournal.apply(created, LocalDateTime.now()));
+    }
+
+    @Test
+    public void testFailedDrainKeepsEntriesForNextRun() {
+        taskJournal.recover();
+        when(taskJournalRepository.apply(anyList())).thenThrow(new IllegalStateException("database down"))
+                .thenReturn(new int[]{1});
+
+        taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE);
+        taskJournal.drain();
+        assertEquals(TaskStatus.ACTIVE, taskJournal.apply(created, LocalDateTime.now()).status());
+        taskJournal.drain();
+
+        verify(taskJournalRepository, times(2)).apply(anyList());
+        verify(taskJournalRepository).saveCheckpoint(any(), eq(1L), any());
+        assertEquals(created, taskJournal.apply(created, LocalDateTime.now()));
+    }
+
+    @Test
+    public void testEntryThatWasNotForcedIsDiscarded() {
+        MappedJournal failing = spy(mappedJournal);
+        taskJournal = new TaskJournal(taskJournalRepository, taskRepository, taskCache, taskDeadlines, taskMapper,
+                eventPublisher, transactionTemplate, meterRegistry, failing, 100);
+        taskJournal.recover();
+        taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE);
+        // the stop is appended, but forcing it to the disk fails
+        doAnswer(invocation -> {
+            failing.fence();
+            return invocation.callRealMethod();
+        }).when(failing).awaitDurable(anyLong());
+
+        assertThrows(UncheckedIOException.class, () -> taskJournal.append(created, JournalEntry.Type.STOP, status -> {
+        }));
+        assertEquals(TaskStatus.ACTIVE, taskJournal.apply(created, LocalDateTime.now()).status());
+        taskJournal.drain();
+
+        ArgumentCaptor<List<TaskTransition>> written = ArgumentCaptor.captor();
+        verify(taskJournalRepository).apply(written.capture());
+        assertEquals(List.of(true), written.getValue().stream().map(TaskTransition::start).toList());
+        assertEquals(created, taskJournal.apply(created, LocalDateTime.now()));
+    }
+
+    @Test
+    public void testRecoveryReplaysOnlyEntriesAfterCheckpoint() throws IOException {
+        taskJournal.append(created, JournalEntry.Type.START, NOT_ACTIVE);
+        taskJournal.append(created, JournalEntry.Type.STOP, status -> {
+        });
+        mappedJournal.close();
+
+        // the start was written before the crash, the stop was not
+        taskJournal = open();
+        when(taskJournalRepository.findCheckpoint(mappedJournal.id())).thenReturn(1L);
+        taskJournal.recover();
+
+        ArgumentCaptor<List<TaskTransition>> written = ArgumentCaptor.captor();
+        verify(taskJournalRepository).apply(written.capture());
+        assertEquals(1, written.getValue().size());
+        assertFalse(written.getValue().get(0).start());
+        verify(taskJournalRepository).saveCheckpoint(any(), eq(2L), any());
+    }
+
+    private TaskJournal open() throws IOException {
+        mappedJournal = new MappedJournal(directory, 4096);
+        return new TaskJournal(taskJournalRepository, taskRepository, taskCache, taskDeadlines, taskMapper,
+                eventPublisher, transactionTemplate, meterRegistry, mappedJournal, 100);
+    }
+}